@@ -3,6 +3,7 @@ package com.linkedin.datahub.graphql.resolvers.load;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.types.mappers.SearchDocumentEntityMapper;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.dataloader.DataLoader;
@@ -54,7 +55,9 @@ public class EntityTypeResolver implements DataFetcher<CompletableFuture<Entity>
         final String urn = resolvedEntity.getUrn();
         final Object javaObject = _entityProvider.apply(environment);
 
-        if (isOnlySelectingIdentityFields(environment)) {
+        // Search results hydrated from the index need no load when only their indexed fields are selected
+        if (isOnlySelectingIdentityFields(environment)
+            || SearchDocumentEntityMapper.canServe(resolvedEntity, environment.getSelectionSet())) {
             return CompletableFuture.completedFuture(javaObject);
         }
 
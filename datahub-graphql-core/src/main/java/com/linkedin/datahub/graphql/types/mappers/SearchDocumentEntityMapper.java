@@ -0,0 +1,112 @@
+package com.linkedin.datahub.graphql.types.mappers;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.urn.DatasetUrn;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.datahub.graphql.generated.DataPlatform;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.datahub.graphql.generated.DatasetEditableProperties;
+import com.linkedin.datahub.graphql.generated.DatasetProperties;
+import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.generated.FabricType;
+import com.linkedin.datahub.graphql.types.common.mappers.UrnToEntityMapper;
+import com.linkedin.metadata.search.SearchEntity;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Maps search results to entities hydrated from their urn and search document, so that lists of results can be
+ * rendered without loading the entities from the entity store.
+ *
+ * Only the fields listed per entity type are served this way. A query selecting any other field falls back to loading
+ * the entity, see {@link #canServe}.
+ */
+@Slf4j
+public class SearchDocumentEntityMapper {
+
+  // Fields served from the search document, by qualified selection name. Sub selections of a field with its own
+  // resolver, e.g. the platform of a dataset, are served by that resolver.
+  private static final Map<Class<? extends Entity>, Set<String>> SERVED_FIELDS = ImmutableMap.of(
+      Dataset.class, ImmutableSet.of("__typename", "urn", "type", "name", "origin", "description", "properties",
+          "properties/name", "properties/origin", "properties/description", "editableProperties",
+          "editableProperties/description"));
+  private static final Map<Class<? extends Entity>, Set<String>> RESOLVED_FIELDS = ImmutableMap.of(
+      Dataset.class, ImmutableSet.of("platform"));
+
+  private SearchDocumentEntityMapper() { }
+
+  @Nonnull
+  public static Entity map(@Nonnull final SearchEntity searchEntity) {
+    final Entity entity = UrnToEntityMapper.map(searchEntity.getEntity());
+    if (!searchEntity.hasDocumentFields()) {
+      return entity;
+    }
+    if (entity instanceof Dataset) {
+      hydrateDataset((Dataset) entity, searchEntity.getDocumentFields());
+    }
+    return entity;
+  }
+
+  /**
+   * Returns whether the entity was hydrated from its search document and has all the selected fields.
+   */
+  public static boolean canServe(@Nonnull final Entity entity,
+      @Nonnull final DataFetchingFieldSelectionSet selectionSet) {
+    final Set<String> servedFields = SERVED_FIELDS.get(entity.getClass());
+    if (servedFields == null || !isHydrated(entity)) {
+      return false;
+    }
+    final Set<String> resolvedFields = RESOLVED_FIELDS.get(entity.getClass());
+    for (SelectedField field : selectionSet.getFields()) {
+      final String qualifiedName = field.getQualifiedName();
+      final String topLevelName = qualifiedName.split("/", 2)[0];
+      if (!servedFields.contains(qualifiedName) && !resolvedFields.contains(topLevelName)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isHydrated(@Nonnull final Entity entity) {
+    // Datasets mapped from just their urn have no name
+    return entity instanceof Dataset && ((Dataset) entity).getName() != null;
+  }
+
+  private static void hydrateDataset(@Nonnull final Dataset dataset, @Nonnull final StringMap documentFields) {
+    final DatasetUrn urn;
+    try {
+      urn = DatasetUrn.createFromString(dataset.getUrn());
+    } catch (URISyntaxException e) {
+      log.warn("Failed to parse dataset urn {}", dataset.getUrn());
+      return;
+    }
+    final FabricType origin = FabricType.valueOf(urn.getOriginEntity().toString());
+    dataset.setName(urn.getDatasetNameEntity());
+    dataset.setOrigin(origin);
+
+    final DataPlatform partialPlatform = new DataPlatform();
+    partialPlatform.setUrn(urn.getPlatformEntity().toString());
+    dataset.setPlatform(partialPlatform);
+
+    // The name and origin of the properties come from the urn, so the properties are served with or without a
+    // description
+    final DatasetProperties properties = new DatasetProperties();
+    properties.setName(urn.getDatasetNameEntity());
+    properties.setOrigin(origin);
+    properties.setDescription(documentFields.get("description"));
+    dataset.setProperties(properties);
+    dataset.setDescription(properties.getDescription());
+    if (documentFields.containsKey("editedDescription")) {
+      final DatasetEditableProperties editableProperties = new DatasetEditableProperties();
+      editableProperties.setDescription(documentFields.get("editedDescription"));
+      dataset.setEditableProperties(editableProperties);
+    }
+  }
+}
@@ -45,7 +45,7 @@ public class UrnSearchResultsMapper<T extends RecordTemplate, E extends Entity>
   }
 
   private SearchResult mapResult(SearchEntity searchEntity) {
-    return new SearchResult(UrnToEntityMapper.map(searchEntity.getEntity()),
+    return new SearchResult(SearchDocumentEntityMapper.map(searchEntity),
         getInsightsFromFeatures(searchEntity.getFeatures()),
         getMatchedFieldEntry(searchEntity.getMatchedFields()));
   }
@@ -0,0 +1,113 @@
+package com.linkedin.datahub.graphql.types.mappers;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.datahub.graphql.generated.Dataset;
+import com.linkedin.datahub.graphql.generated.Entity;
+import com.linkedin.datahub.graphql.generated.FabricType;
+import com.linkedin.metadata.search.SearchEntity;
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class SearchDocumentEntityMapperTest {
+  private static final String DATASET_URN = "urn:li:dataset:(urn:li:dataPlatform:hive,db.table,PROD)";
+
+  private static Dataset mapDataset(StringMap documentFields) throws Exception {
+    SearchEntity searchEntity = new SearchEntity().setEntity(Urn.createFromString(DATASET_URN));
+    if (documentFields != null) {
+      searchEntity.setDocumentFields(documentFields);
+    }
+    return (Dataset) SearchDocumentEntityMapper.map(searchEntity);
+  }
+
+  private static DataFetchingFieldSelectionSet selectionSet(String... qualifiedNames) {
+    List<SelectedField> fields = ImmutableList.copyOf(qualifiedNames).stream().map(qualifiedName -> {
+      SelectedField field = mock(SelectedField.class);
+      when(field.getQualifiedName()).thenReturn(qualifiedName);
+      return field;
+    }).collect(Collectors.toList());
+    DataFetchingFieldSelectionSet selectionSet = mock(DataFetchingFieldSelectionSet.class);
+    when(selectionSet.getFields()).thenReturn(fields);
+    return selectionSet;
+  }
+
+  @Test
+  public void testMapDatasetWithDescriptions() throws Exception {
+    Dataset dataset = mapDataset(
+        new StringMap(ImmutableMap.of("description", "a table", "editedDescription", "an edited table")));
+
+    assertEquals(dataset.getUrn(), DATASET_URN);
+    assertEquals(dataset.getName(), "db.table");
+    assertEquals(dataset.getOrigin(), FabricType.PROD);
+    assertEquals(dataset.getPlatform().getUrn(), "urn:li:dataPlatform:hive");
+    assertEquals(dataset.getDescription(), "a table");
+    assertEquals(dataset.getProperties().getName(), "db.table");
+    assertEquals(dataset.getProperties().getOrigin(), FabricType.PROD);
+    assertEquals(dataset.getProperties().getDescription(), "a table");
+    assertEquals(dataset.getEditableProperties().getDescription(), "an edited table");
+  }
+
+  @Test
+  public void testMapDatasetWithoutDescriptions() throws Exception {
+    Dataset dataset = mapDataset(new StringMap());
+
+    // The properties served from the urn are set without a description
+    assertEquals(dataset.getName(), "db.table");
+    assertEquals(dataset.getProperties().getName(), "db.table");
+    assertEquals(dataset.getProperties().getOrigin(), FabricType.PROD);
+    assertNull(dataset.getProperties().getDescription());
+    assertNull(dataset.getDescription());
+    assertNull(dataset.getEditableProperties());
+  }
+
+  @Test
+  public void testMapDatasetWithoutDocument() throws Exception {
+    Dataset dataset = mapDataset(null);
+
+    assertEquals(dataset.getUrn(), DATASET_URN);
+    assertNull(dataset.getName());
+    assertNull(dataset.getProperties());
+  }
+
+  @Test
+  public void testCanServe() throws Exception {
+    Dataset dataset = mapDataset(new StringMap());
+
+    assertTrue(SearchDocumentEntityMapper.canServe(dataset,
+        selectionSet("__typename", "urn", "type", "name", "properties", "properties/name", "properties/description")));
+    assertTrue(SearchDocumentEntityMapper.canServe(dataset, selectionSet("editableProperties",
+        "editableProperties/description")));
+    // The platform is served by its own resolver, whatever is selected of it
+    assertTrue(SearchDocumentEntityMapper.canServe(dataset, selectionSet("platform", "platform/properties",
+        "platform/properties/logoUrl")));
+
+    // Fields that are not in the search document are loaded
+    assertFalse(SearchDocumentEntityMapper.canServe(dataset, selectionSet("urn", "ownership")));
+    assertFalse(
+        SearchDocumentEntityMapper.canServe(dataset, selectionSet("properties", "properties/customProperties")));
+  }
+
+  @Test
+  public void testCannotServeEntitiesWithoutDocument() throws Exception {
+    assertFalse(SearchDocumentEntityMapper.canServe(mapDataset(null), selectionSet("urn")));
+
+    // Only datasets are hydrated from their search document
+    Entity chart = SearchDocumentEntityMapper.map(new SearchEntity()
+        .setEntity(Urn.createFromString("urn:li:chart:(looker,chart1)"))
+        .setDocumentFields(new StringMap()));
+    assertFalse(SearchDocumentEntityMapper.canServe(chart, selectionSet("urn")));
+  }
+}
@@ -0,0 +1,267 @@
+package com.linkedin.metadata.extractor;
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.EnumDataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.TyperefDataSchema;
+import com.linkedin.data.template.Custom;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Accessors for a set of paths of a record schema, compiled into a tree of path components so that the values of all
+ * paths are read from the record's {@link DataMap} in a single walk.
+ *
+ * Values are converted to the types {@link RecordUtils#getFieldValue} returns, e.g. urns and records instead of their
+ * raw data. Paths that cannot be compiled, such as paths through unions or to arrays of items, are not part of the
+ * tree and their values are read with {@link RecordUtils#getFieldValue}.
+ */
+final class FieldAccessorTree {
+
+  private static final String ARRAY_WILDCARD = "*";
+  private static final Map<CacheKey, FieldAccessorTree> CACHE = new ConcurrentHashMap<>();
+
+  private final Node _root = new Node();
+  // Whether the path at each index is in the tree
+  private final boolean[] _compiled;
+
+  private static final class Node {
+    private final Map<String, Node> _children = new HashMap<>();
+    // Child for the items of an array
+    private Node _items;
+    // Paths ending at this node
+    private final List<Leaf> _leaves = new ArrayList<>();
+  }
+
+  private static final class Leaf {
+    private final int _index;
+    private final Function<Object, Object> _converter;
+
+    private Leaf(int index, Function<Object, Object> converter) {
+      _index = index;
+      _converter = converter;
+    }
+  }
+
+  /**
+   * Cache key comparing record schemas by identity, which is cheap and right for the static schemas of data templates.
+   */
+  private static final class CacheKey {
+    private final RecordDataSchema _schema;
+    private final List<PathSpec> _paths;
+
+    private CacheKey(RecordDataSchema schema, List<PathSpec> paths) {
+      _schema = schema;
+      _paths = paths;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return _schema == other._schema && _paths.equals(other._paths);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(_schema) + _paths.hashCode();
+    }
+  }
+
+  private FieldAccessorTree(@Nonnull RecordTemplate record, @Nonnull List<PathSpec> paths) {
+    _compiled = new boolean[paths.size()];
+    for (int i = 0; i < paths.size(); i++) {
+      _compiled[i] = compile(record, paths.get(i), i);
+    }
+  }
+
+  /**
+   * Returns the accessor tree for the given paths of the record's schema, compiling it on first use.
+   */
+  @Nonnull
+  static FieldAccessorTree get(@Nonnull RecordTemplate record, @Nonnull List<PathSpec> paths) {
+    return CACHE.computeIfAbsent(new CacheKey(record.schema(), paths), key -> new FieldAccessorTree(record, paths));
+  }
+
+  boolean isCompiled(int index) {
+    return _compiled[index];
+  }
+
+  /**
+   * Reads the values of all compiled paths from the record. The values of a path are returned in document order, with
+   * the values under nested arrays flattened into one list. Paths not present in the record get an empty list.
+   */
+  @Nonnull
+  List<List<Object>> getValues(@Nonnull RecordTemplate record) {
+    final List<List<Object>> values = new ArrayList<>(_compiled.length);
+    for (int i = 0; i < _compiled.length; i++) {
+      values.add(new ArrayList<>());
+    }
+    walk(_root, record.data(), values);
+    return values;
+  }
+
+  private static void walk(@Nonnull Node node, @Nonnull Object data, @Nonnull List<List<Object>> values) {
+    for (Leaf leaf : node._leaves) {
+      values.get(leaf._index).add(leaf._converter.apply(data));
+    }
+    if (node._items != null && data instanceof DataList) {
+      for (Object item : (DataList) data) {
+        walk(node._items, item, values);
+      }
+    }
+    if (!node._children.isEmpty() && data instanceof DataMap) {
+      final DataMap dataMap = (DataMap) data;
+      for (Map.Entry<String, Node> child : node._children.entrySet()) {
+        final Object childData = dataMap.get(child.getKey());
+        if (childData != null) {
+          walk(child.getValue(), childData, values);
+        }
+      }
+    }
+  }
+
+  /**
+   * Adds the path to the tree, unless the value at the path cannot be converted from its raw data.
+   */
+  private boolean compile(@Nonnull RecordTemplate record, @Nonnull PathSpec path, int index) {
+    final ClassLoader classLoader = record.getClass().getClassLoader();
+    Node node = _root;
+    DataSchema schema = record.schema();
+    for (String component : path.getPathComponents()) {
+      final DataSchema dereferenced = schema.getDereferencedDataSchema();
+      if (component.equals(ARRAY_WILDCARD)) {
+        if (dereferenced.getType() != DataSchema.Type.ARRAY) {
+          return false;
+        }
+        schema = ((ArrayDataSchema) dereferenced).getItems();
+        if (node._items == null) {
+          node._items = new Node();
+        }
+        node = node._items;
+      } else {
+        if (dereferenced.getType() != DataSchema.Type.RECORD) {
+          return false;
+        }
+        final RecordDataSchema.Field field = ((RecordDataSchema) dereferenced).getField(component);
+        if (field == null || loadClass(((RecordDataSchema) dereferenced).getFullName(), classLoader) == null) {
+          return false;
+        }
+        schema = field.getType();
+        node = node._children.computeIfAbsent(component, key -> new Node());
+      }
+    }
+    final Function<Object, Object> converter = getConverter(schema, classLoader);
+    if (converter == null) {
+      return false;
+    }
+    node._leaves.add(new Leaf(index, converter));
+    return true;
+  }
+
+  /**
+   * Returns a function that converts raw data of the given schema to the type its data template getter returns, or
+   * null if there is none.
+   */
+  @Nullable
+  private static Function<Object, Object> getConverter(@Nonnull DataSchema schema, @Nonnull ClassLoader classLoader) {
+    final Class<?> customClass = getCustomClass(schema, classLoader);
+    if (customClass != null) {
+      return data -> DataTemplateUtil.coerceOutput(data, customClass);
+    }
+    final DataSchema dereferenced = schema.getDereferencedDataSchema();
+    switch (dereferenced.getType()) {
+      case BOOLEAN:
+      case STRING:
+      case BYTES:
+        return Function.identity();
+      case INT:
+        return data -> DataTemplateUtil.coerceOutput(data, Integer.class);
+      case LONG:
+        return data -> DataTemplateUtil.coerceOutput(data, Long.class);
+      case FLOAT:
+        return data -> DataTemplateUtil.coerceOutput(data, Float.class);
+      case DOUBLE:
+        return data -> DataTemplateUtil.coerceOutput(data, Double.class);
+      case ENUM:
+        final Class<?> enumClass = loadClass(((EnumDataSchema) dereferenced).getFullName(), classLoader);
+        return enumClass == null || !enumClass.isEnum() ? null : data -> toEnum((Class<Enum>) enumClass, data);
+      case RECORD:
+        final Class<?> recordClass = loadClass(((RecordDataSchema) dereferenced).getFullName(), classLoader);
+        return recordClass == null || !RecordTemplate.class.isAssignableFrom(recordClass) ? null
+            : data -> RecordUtils.toRecordTemplate((Class<RecordTemplate>) recordClass, (DataMap) data);
+      case MAP:
+        // Map values are only used as strings, so maps of primitives can be returned as is
+        final DataSchema values = ((MapDataSchema) dereferenced).getValues();
+        return values.getDereferencedDataSchema().isPrimitive() && getCustomClass(values, classLoader) == null
+            ? Function.identity() : null;
+      default:
+        return null;
+    }
+  }
+
+  private static Object toEnum(@Nonnull Class<Enum> enumClass, @Nonnull Object data) {
+    try {
+      return Enum.valueOf(enumClass, data.toString());
+    } catch (IllegalArgumentException e) {
+      return Enum.valueOf(enumClass, "$UNKNOWN");
+    }
+  }
+
+  /**
+   * Returns the custom java class bound to the typeref, if any, after making sure its coercer is registered.
+   */
+  @Nullable
+  private static Class<?> getCustomClass(@Nonnull DataSchema schema, @Nonnull ClassLoader classLoader) {
+    if (schema.getType() != DataSchema.Type.TYPEREF) {
+      return null;
+    }
+    final Object java = ((TyperefDataSchema) schema).getProperties().get("java");
+    if (!(java instanceof DataMap)) {
+      return getCustomClass(((TyperefDataSchema) schema).getRef(), classLoader);
+    }
+    final Class<?> customClass = loadClass(((DataMap) java).getString("class"), classLoader);
+    final String coercerClassName = ((DataMap) java).getString("coercerClass");
+    final Class<?> coercerClass = loadClass(coercerClassName, classLoader);
+    if (customClass == null || (coercerClassName != null && coercerClass == null)) {
+      return null;
+    }
+    Custom.initializeCustomClass(customClass);
+    if (coercerClass != null) {
+      Custom.initializeCoercerClass(coercerClass);
+    }
+    return customClass;
+  }
+
+  /**
+   * Loads and initializes the class, so that the coercers of the custom types it uses are registered.
+   */
+  @Nullable
+  private static Class<?> loadClass(@Nullable String className, @Nonnull ClassLoader classLoader) {
+    if (className == null) {
+      return null;
+    }
+    try {
+      return Class.forName(className, true, classLoader);
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+  }
+}
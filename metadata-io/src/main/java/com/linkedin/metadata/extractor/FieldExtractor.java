@@ -7,6 +7,7 @@ import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.FieldSpec;
 import com.linkedin.util.Pair;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +19,9 @@ import java.util.stream.Collectors;
 
 /**
  * Extracts fields from a RecordTemplate based on the appropriate {@link FieldSpec}.
+ *
+ * The paths of the field specs are compiled once per record schema into a {@link FieldAccessorTree}, which reads the
+ * values of all fields in a single walk of the record's data.
  */
 public class FieldExtractor {
 
@@ -33,39 +37,62 @@ public class FieldExtractor {
 
   // Extract the value of each field in the field specs from the input record
   public static <T extends FieldSpec> Map<T, List<Object>> extractFields(RecordTemplate record, List<T> fieldSpecs) {
-    final Map<T, List<Object>> extractedFields = new HashMap<>();
+    final List<PathSpec> paths = new ArrayList<>(fieldSpecs.size());
     for (T fieldSpec : fieldSpecs) {
-      Optional<Object> value = RecordUtils.getFieldValue(record, fieldSpec.getPath());
-      if (!value.isPresent()) {
-        extractedFields.put(fieldSpec, Collections.emptyList());
-      } else {
-        long numArrayWildcards = getNumArrayWildcards(fieldSpec.getPath());
-        // Not an array field
-        if (numArrayWildcards == 0) {
-          // For maps, convert it into a list of the form key=value (Filter out long values)
-          if (value.get() instanceof Map) {
-            extractedFields.put(fieldSpec, ((Map<?, ?>) value.get()).entrySet()
-                .stream()
-                .map(entry -> new Pair<>(entry.getKey().toString(), entry.getValue().toString()))
-                .filter(entry -> entry.getValue().length() < MAX_VALUE_LENGTH)
-                .map(entry -> entry.getKey() + "=" + entry.getValue())
-                .collect(Collectors.toList()));
-          } else {
-            extractedFields.put(fieldSpec, Collections.singletonList(value.get()));
-          }
+      paths.add(fieldSpec.getPath());
+    }
+    final FieldAccessorTree accessorTree = FieldAccessorTree.get(record, paths);
+    final List<List<Object>> values = accessorTree.getValues(record);
+
+    final Map<T, List<Object>> extractedFields = new HashMap<>();
+    for (int i = 0; i < fieldSpecs.size(); i++) {
+      final T fieldSpec = fieldSpecs.get(i);
+      if (accessorTree.isCompiled(i)) {
+        final List<Object> fieldValues = values.get(i);
+        if (!fieldSpec.getPath().getPathComponents().contains(ARRAY_WILDCARD) && fieldValues.size() == 1) {
+          extractedFields.put(fieldSpec, toValueList(fieldValues.get(0)));
         } else {
-          List<Object> valueList = (List<Object>) value.get();
-          // If the field is a nested list of values, flatten it
-          for (int i = 0; i < numArrayWildcards - 1; i++) {
-            valueList = valueList.stream().flatMap(v -> ((List<Object>) v).stream()).collect(Collectors.toList());
-          }
-          extractedFields.put(fieldSpec, valueList);
+          extractedFields.put(fieldSpec, fieldValues);
         }
+      } else {
+        extractedFields.put(fieldSpec, extractField(record, fieldSpec));
       }
     }
     return extractedFields;
   }
 
+  // Extract the value of a field the accessor tree could not compile
+  private static List<Object> extractField(RecordTemplate record, FieldSpec fieldSpec) {
+    Optional<Object> value = RecordUtils.getFieldValue(record, fieldSpec.getPath());
+    if (!value.isPresent()) {
+      return Collections.emptyList();
+    }
+    long numArrayWildcards = getNumArrayWildcards(fieldSpec.getPath());
+    // Not an array field
+    if (numArrayWildcards == 0) {
+      return toValueList(value.get());
+    }
+    List<Object> valueList = (List<Object>) value.get();
+    // If the field is a nested list of values, flatten it
+    for (int i = 0; i < numArrayWildcards - 1; i++) {
+      valueList = valueList.stream().flatMap(v -> ((List<Object>) v).stream()).collect(Collectors.toList());
+    }
+    return valueList;
+  }
+
+  private static List<Object> toValueList(Object value) {
+    // For maps, convert it into a list of the form key=value (Filter out long values)
+    if (value instanceof Map) {
+      return ((Map<?, ?>) value).entrySet()
+          .stream()
+          .map(entry -> new Pair<>(entry.getKey().toString(), entry.getValue().toString()))
+          .filter(entry -> entry.getValue().length() < MAX_VALUE_LENGTH)
+          .map(entry -> entry.getKey() + "=" + entry.getValue())
+          .collect(Collectors.toList());
+    }
+    return Collections.singletonList(value);
+  }
+
   public static <T extends FieldSpec> Map<T, List<Object>> extractFieldsFromSnapshot(RecordTemplate snapshot,
       EntitySpec entitySpec, Function<AspectSpec, List<T>> getFieldSpecsFunc) {
     final Map<String, RecordTemplate> aspects = AspectExtractor.extractAspectRecords(snapshot);
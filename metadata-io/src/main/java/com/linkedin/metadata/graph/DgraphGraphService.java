@@ -9,6 +9,7 @@ import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.search.utils.QueryUtils;
 import io.dgraph.DgraphClient;
 import io.dgraph.DgraphProto.Mutation;
 import io.dgraph.DgraphProto.NQuad;
@@ -68,9 +69,9 @@ public class DgraphGraphService implements GraphService {
         if (schema.isEmpty()) {
             Operation setSchema = Operation.newBuilder()
                     .setSchema(""
-                            + "<urn>: string @index(hash) @upsert .\n"
+                            + "<urn>: string @index(hash, trigram) @upsert .\n"
                             + "<type>: string @index(hash) .\n"
-                            + "<key>: string @index(hash) .\n"
+                            + "<key>: string @index(hash, trigram) .\n"
                     )
                     .build();
             _dgraph.executeConsumer(dgraphClient -> dgraphClient.alter(setSchema));
@@ -159,37 +160,38 @@ public class DgraphGraphService implements GraphService {
         get_schema().ensureField(sourceEntityType, relationshipType, URN_RELATIONSHIP_TYPE, TYPE_RELATIONSHIP_TYPE, KEY_RELATIONSHIP_TYPE);
 
         // lookup the source and destination nodes
-        // TODO: add escape for string values
         String query = String.format("query {\n"
-                + " src as var(func: eq(urn, \"%s\"))\n"
-                + " dst as var(func: eq(urn, \"%s\"))\n"
-                + "}", edge.getSource(), edge.getDestination());
+                + " src as var(func: eq(urn, %s))\n"
+                + " dst as var(func: eq(urn, %s))\n"
+                + "}", toStringLiteral(edge.getSource()), toStringLiteral(edge.getDestination()));
         String srcVar = "uid(src)";
         String dstVar = "uid(dst)";
 
         // edge case: source and destination are same node
         if (edge.getSource().equals(edge.getDestination())) {
             query = String.format("query {\n"
-                    + " node as var(func: eq(urn, \"%s\"))\n"
-                    + "}", edge.getSource());
+                    + " node as var(func: eq(urn, %s))\n"
+                    + "}", toStringLiteral(edge.getSource()));
             srcVar = "uid(node)";
             dstVar = "uid(node)";
         }
 
         // create source and destination nodes if they do not exist
         // and create the new edge between them
-        // TODO: add escape for string values
         // TODO: translate edge name to allowed dgraph uris
         StringJoiner mutations = new StringJoiner("\n");
-        mutations.add(String.format("%s <dgraph.type> \"%s\" .", srcVar, getDgraphType(edge.getSource())));
-        mutations.add(String.format("%s <urn> \"%s\" .", srcVar, edge.getSource()));
-        mutations.add(String.format("%s <type> \"%s\" .", srcVar, edge.getSource().getEntityType()));
-        mutations.add(String.format("%s <key> \"%s\" .", srcVar, edge.getSource().getEntityKey()));
+        mutations.add(String.format("%s <dgraph.type> %s .", srcVar, toStringLiteral(getDgraphType(edge.getSource()))));
+        mutations.add(String.format("%s <urn> %s .", srcVar, toStringLiteral(edge.getSource())));
+        mutations.add(String.format("%s <type> %s .", srcVar, toStringLiteral(edge.getSource().getEntityType())));
+        mutations.add(String.format("%s <key> %s .", srcVar, toStringLiteral(edge.getSource().getEntityKey())));
         if (!edge.getSource().equals(edge.getDestination())) {
-            mutations.add(String.format("%s <dgraph.type> \"%s\" .", dstVar, getDgraphType(edge.getDestination())));
-            mutations.add(String.format("%s <urn> \"%s\" .", dstVar, edge.getDestination()));
-            mutations.add(String.format("%s <type> \"%s\" .", dstVar, edge.getDestination().getEntityType()));
-            mutations.add(String.format("%s <key> \"%s\" .", dstVar, edge.getDestination().getEntityKey()));
+            mutations.add(String.format("%s <dgraph.type> %s .", dstVar,
+                    toStringLiteral(getDgraphType(edge.getDestination()))));
+            mutations.add(String.format("%s <urn> %s .", dstVar, toStringLiteral(edge.getDestination())));
+            mutations.add(String.format("%s <type> %s .", dstVar,
+                    toStringLiteral(edge.getDestination().getEntityType())));
+            mutations.add(String.format("%s <key> %s .", dstVar,
+                    toStringLiteral(edge.getDestination().getEntityKey())));
         }
         mutations.add(String.format("%s <%s> %s .", srcVar, edge.getRelationshipType(), dstVar));
 
@@ -210,6 +212,47 @@ public class DgraphGraphService implements GraphService {
         _dgraph.executeFunction(client -> client.newTransaction().doRequest(request));
     }
 
+    @Override
+    public void removeEdge(Edge edge) {
+        log.debug(String.format("Removing Edge source: %s, destination: %s, type: %s",
+                edge.getSource(),
+                edge.getDestination(),
+                edge.getRelationshipType()));
+
+        if (!get_schema().hasField(edge.getRelationshipType())) {
+            // the relationship type has never been added, so there is no such edge
+            return;
+        }
+
+        String query = String.format("query {\n"
+                + " src as var(func: eq(urn, %s))\n"
+                + " dst as var(func: eq(urn, %s))\n"
+                + "}", toStringLiteral(edge.getSource()), toStringLiteral(edge.getDestination()));
+        String deletion = String.format("uid(src) <%s> uid(dst) .", toPredicate(edge.getRelationshipType()));
+
+        // edge case: source and destination are same node
+        if (edge.getSource().equals(edge.getDestination())) {
+            query = String.format("query {\n"
+                    + " node as var(func: eq(urn, %s))\n"
+                    + "}", toStringLiteral(edge.getSource()));
+            deletion = String.format("uid(node) <%s> uid(node) .", toPredicate(edge.getRelationshipType()));
+        }
+
+        log.debug("Query: " + query);
+        log.debug("Delete: " + deletion);
+
+        Mutation mutation = Mutation.newBuilder()
+                .setDelNquads(ByteString.copyFromUtf8(deletion))
+                .build();
+        Request request = Request.newBuilder()
+                .setQuery(query)
+                .addMutations(mutation)
+                .setCommitNow(true)
+                .build();
+
+        _dgraph.executeConsumer(client -> client.newTransaction().doRequest(request));
+    }
+
     private static @Nonnull String getDgraphType(@Nonnull Urn urn) {
         return urn.getNamespace() + ":" + urn.getEntityType();
     }
@@ -242,6 +285,38 @@ public class DgraphGraphService implements GraphService {
                                                        @Nonnull RelationshipFilter relationshipFilter,
                                                        int offset,
                                                        int count) {
+        return getQueryForRelatedEntities(
+                sourceType, sourceEntityFilter,
+                destinationType, destinationEntityFilter,
+                relationshipTypes, relationshipFilter,
+                offset, count, false
+        );
+    }
+
+    // Same filters as the related entities query, but the result block sums the matching edges of the destination nodes
+    protected static String getQueryForRelatedEntitiesCount(@Nullable String sourceType,
+                                                            @Nonnull Filter sourceEntityFilter,
+                                                            @Nullable String destinationType,
+                                                            @Nonnull Filter destinationEntityFilter,
+                                                            @Nonnull List<String> relationshipTypes,
+                                                            @Nonnull RelationshipFilter relationshipFilter) {
+        return getQueryForRelatedEntities(
+                sourceType, sourceEntityFilter,
+                destinationType, destinationEntityFilter,
+                relationshipTypes, relationshipFilter,
+                0, 0, true
+        );
+    }
+
+    private static String getQueryForRelatedEntities(@Nullable String sourceType,
+                                                     @Nonnull Filter sourceEntityFilter,
+                                                     @Nullable String destinationType,
+                                                     @Nonnull Filter destinationEntityFilter,
+                                                     @Nonnull List<String> relationshipTypes,
+                                                     @Nonnull RelationshipFilter relationshipFilter,
+                                                     int offset,
+                                                     int count,
+                                                     boolean countOnly) {
         if (relationshipTypes.isEmpty()) {
             // we would have to construct a query that never returns any results
             // just do not call this method in the first place
@@ -282,14 +357,14 @@ public class DgraphGraphService implements GraphService {
 
         if (sourceType != null) {
             sourceTypeFilterName = "sourceType";
-            // TODO: escape string value
-            filters.add(String.format("%s as var(func: eq(<type>, \"%s\"))", sourceTypeFilterName, sourceType));
+            filters.add(String.format("%s as var(func: eq(<type>, %s))", sourceTypeFilterName,
+                    toStringLiteral(sourceType)));
         }
 
         if (destinationType != null) {
             destinationTypeFilterName = "destinationType";
-            // TODO: escape string value
-            filters.add(String.format("%s as var(func: eq(<type>, \"%s\"))", destinationTypeFilterName, destinationType));
+            filters.add(String.format("%s as var(func: eq(<type>, %s))", destinationTypeFilterName,
+                    toStringLiteral(destinationType)));
         }
 
         //noinspection ConstantConditions
@@ -300,8 +375,7 @@ public class DgraphGraphService implements GraphService {
                         String sourceFilterName = "sourceFilter" + (idx + 1);
                         sourceFilterNames.add(sourceFilterName);
                         Criterion criterion = sourceCriteria.get(idx);
-                        // TODO: escape field name and string value
-                        filters.add(String.format("%s as var(func: eq(<%s>, \"%s\"))", sourceFilterName, criterion.getField(), criterion.getValue()));
+                        filters.add(String.format("%s as %s", sourceFilterName, getFilterFunction(criterion)));
                     });
         }
 
@@ -313,8 +387,7 @@ public class DgraphGraphService implements GraphService {
                         String sourceFilterName = "destinationFilter" + (idx + 1);
                         destinationFilterNames.add(sourceFilterName);
                         Criterion criterion = destinationCriteria.get(idx);
-                        // TODO: escape field name and string value
-                        filters.add(String.format("%s as var(func: eq(<%s>, \"%s\"))", sourceFilterName, criterion.getField(), criterion.getValue()));
+                        filters.add(String.format("%s as %s", sourceFilterName, getFilterFunction(criterion)));
                     });
         }
 
@@ -322,8 +395,8 @@ public class DgraphGraphService implements GraphService {
                 .forEach(idx -> {
                     String relationshipTypeFilterName = "relationshipType" + (idx + 1);
                     relationshipTypeFilterNames.add(relationshipTypeFilterName);
-                    // TODO: escape string value
-                    filters.add(String.format("%s as var(func: has(<%s>))", relationshipTypeFilterName, directedRelationshipTypes.get(idx)));
+                    filters.add(String.format("%s as var(func: has(<%s>))", relationshipTypeFilterName,
+                            toPredicate(directedRelationshipTypes.get(idx))));
                 });
 
         // the destination node filter is the first filter that is being applied on the destination node
@@ -344,15 +417,44 @@ public class DgraphGraphService implements GraphService {
                 relationshipTypeFilterNames, directedRelationshipTypes
         );
 
+        StringJoiner filterJoiner = new StringJoiner("\n  ");
+        filters.forEach(filterJoiner::add);
+        String filterExpressions = filterJoiner.toString();
+
+        if (countOnly) {
+            // a destination node can be related to several source nodes, so we count its edges rather than the node
+            StringJoiner edgeCountsJoiner = new StringJoiner("\n    ");
+            List<String> edgeCounts = getRelationshipCounts(
+                    sourceTypeFilterName, sourceFilterNames, directedRelationshipTypes
+            );
+            edgeCounts.forEach(edgeCountsJoiner::add);
+            StringJoiner edgeCountNames = new StringJoiner(" + ");
+            IntStream.range(0, edgeCounts.size()).forEach(idx -> edgeCountNames.add("edgeCount" + (idx + 1)));
+
+            return String.format("query {\n"
+                            + "  %s\n"
+                            + "\n"
+                            + "  var (func: uid(%s)) %s {\n"
+                            + "    %s\n"
+                            + "    edges as math(%s)\n"
+                            + "  }\n"
+                            + "\n"
+                            + "  result () {\n"
+                            + "    count: sum(val(edges))\n"
+                            + "  }\n"
+                            + "}",
+                    filterExpressions,
+                    destinationNodeFilter,
+                    filterConditions,
+                    edgeCountsJoiner,
+                    edgeCountNames);
+        }
+
         StringJoiner relationshipsJoiner = new StringJoiner("\n    ");
         getRelationships(sourceTypeFilterName, sourceFilterNames, directedRelationshipTypes)
                 .forEach(relationshipsJoiner::add);
         String relationships = relationshipsJoiner.toString();
 
-        StringJoiner filterJoiner = new StringJoiner("\n  ");
-        filters.forEach(filterJoiner::add);
-        String filterExpressions = filterJoiner.toString();
-
         return String.format("query {\n"
                         + "  %s\n"
                         + "\n"
@@ -408,6 +510,122 @@ public class DgraphGraphService implements GraphService {
         return new RelatedEntitiesResult(offset, entities.size(), total, entities);
     }
 
+    @Override
+    public int countRelatedEntities(@Nullable String sourceType,
+                                    @Nonnull Filter sourceEntityFilter,
+                                    @Nullable String destinationType,
+                                    @Nonnull Filter destinationEntityFilter,
+                                    @Nonnull List<String> relationshipTypes,
+                                    @Nonnull RelationshipFilter relationshipFilter) {
+        if (relationshipTypes.isEmpty() || relationshipTypes.stream().noneMatch(relationship -> get_schema().hasField(relationship))) {
+            return 0;
+        }
+
+        String query = getQueryForRelatedEntitiesCount(
+                sourceType, sourceEntityFilter,
+                destinationType, destinationEntityFilter,
+                relationshipTypes.stream().filter(get_schema()::hasField).collect(Collectors.toList()),
+                relationshipFilter
+        );
+
+        Request request = Request.newBuilder()
+                .setQuery(query)
+                .build();
+
+        log.debug("Query: " + query);
+        Response response = _dgraph.executeFunction(client -> client.newReadOnlyTransaction().doRequest(request));
+        String json = response.getJson().toStringUtf8();
+        Map<String, Object> data = getDataFromResponseJson(json);
+
+        return getCountFromResponseData(data);
+    }
+
+    protected static int getCountFromResponseData(Map<String, Object> data) {
+        Object obj = data.get("result");
+        if (!(obj instanceof List<?>)) {
+            throw new IllegalArgumentException(
+                    "The result from Dgraph did not contain a 'result' field, or that field is not a List"
+            );
+        }
+
+        // the count is returned as the single element [{"count": n}]
+        return ((List<?>) obj).stream()
+                .filter(result -> result instanceof Map && ((Map<?, ?>) result).get("count") instanceof Number)
+                .mapToInt(result -> ((Number) ((Map<?, ?>) result).get("count")).intValue())
+                .findFirst()
+                .orElse(0);
+    }
+
+    // Creates the var block selecting all nodes that match the given criterion
+    protected static @Nonnull String getFilterFunction(@Nonnull Criterion criterion) {
+        String field = toPredicate(criterion.getField());
+        switch (criterion.getCondition()) {
+            case EQUAL:
+                return String.format("var(func: eq(<%s>, %s))", field, toStringLiteral(criterion.getValue()));
+            case NOT_EQUAL:
+                return String.format("var(func: has(<%s>)) @filter(NOT eq(<%s>, %s))", field, field,
+                        toStringLiteral(criterion.getValue()));
+            case IN:
+                StringJoiner values = new StringJoiner(", ", "[", "]");
+                QueryUtils.getCriterionValues(criterion).forEach(value -> values.add(toStringLiteral(value)));
+                return String.format("var(func: eq(<%s>, %s))", field, values);
+            case START_WITH:
+                // requires a trigram index on the field, see getSchema
+                return String.format("var(func: regexp(<%s>, /^%s.*$/))", field, escapeRegexp(criterion.getValue()));
+            case EXISTS:
+                return String.format("var(func: has(<%s>))", field);
+            default:
+                throw new IllegalArgumentException("The DgraphGraphService does not support condition " + criterion.getCondition()
+                        + " in source or destination entity filter");
+        }
+    }
+
+    // Quotes a string value, escaping the characters that would end it or the query
+    protected static @Nonnull String toStringLiteral(@Nonnull Object value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toString().toCharArray()) {
+            switch (c) {
+                case '"':
+                case '\\':
+                    literal.append('\\').append(c);
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    // Predicates cannot be escaped within <>, so names with characters that would end them are rejected
+    protected static @Nonnull String toPredicate(@Nonnull String name) {
+        for (char c : name.toCharArray()) {
+            if (Character.isWhitespace(c) || "<>\"{}|^`\\".indexOf(c) >= 0) {
+                throw new IllegalArgumentException("The DgraphGraphService does not support the field name " + name);
+            }
+        }
+        return name;
+    }
+
+    private static @Nonnull String escapeRegexp(@Nonnull String value) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            if ("\\^$.|?*+()[]{}/".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
     // Creates filter conditions from destination to source nodes
     protected static @Nonnull String getFilterConditions(@Nullable String sourceTypeFilterName,
                                                          @Nullable String destinationTypeFilterName,
@@ -467,19 +685,31 @@ public class DgraphGraphService implements GraphService {
     protected static @Nonnull List<String> getRelationships(@Nullable String sourceTypeFilterName,
                                                             @Nonnull List<String> sourceFilterNames,
                                                             @Nonnull List<String> relationshipTypes) {
-        return relationshipTypes.stream().map(relationshipType -> {
-            StringJoiner andJoiner = new StringJoiner(" AND ");
-            if (sourceTypeFilterName != null) {
-                andJoiner.add(String.format("uid(%s)", sourceTypeFilterName));
-            }
-            sourceFilterNames.forEach(filterName -> andJoiner.add(String.format("uid(%s)", filterName)));
+        String sourceFilter = getSourceFilter(sourceTypeFilterName, sourceFilterNames);
+        return relationshipTypes.stream()
+                .map(relationshipType -> String.format("<%s>%s { <uid> }", relationshipType, sourceFilter))
+                .collect(Collectors.toList());
+    }
 
-            if (andJoiner.length() > 0) {
-                return String.format("<%s> @filter( %s ) { <uid> }", relationshipType, andJoiner);
-            } else {
-                return String.format("<%s> { <uid> }", relationshipType);
-            }
-        }).collect(Collectors.toList());
+    // Counts the edges from destination to source nodes, one value variable per relationship
+    protected static @Nonnull List<String> getRelationshipCounts(@Nullable String sourceTypeFilterName,
+                                                                 @Nonnull List<String> sourceFilterNames,
+                                                                 @Nonnull List<String> relationshipTypes) {
+        String sourceFilter = getSourceFilter(sourceTypeFilterName, sourceFilterNames);
+        return IntStream.range(0, relationshipTypes.size())
+                .mapToObj(idx -> String.format("edgeCount%d as count(<%s>%s)",
+                        idx + 1, relationshipTypes.get(idx), sourceFilter))
+                .collect(Collectors.toList());
+    }
+
+    private static @Nonnull String getSourceFilter(@Nullable String sourceTypeFilterName,
+                                                   @Nonnull List<String> sourceFilterNames) {
+        StringJoiner andJoiner = new StringJoiner(" AND ");
+        if (sourceTypeFilterName != null) {
+            andJoiner.add(String.format("uid(%s)", sourceTypeFilterName));
+        }
+        sourceFilterNames.forEach(filterName -> andJoiner.add(String.format("uid(%s)", filterName)));
+        return andJoiner.length() > 0 ? String.format(" @filter( %s )", andJoiner) : "";
     }
 
     protected static Map<String, Object> getDataFromResponseJson(String json) {
@@ -544,8 +774,8 @@ public class DgraphGraphService implements GraphService {
     @Override
     public void removeNode(@Nonnull Urn urn) {
         String query = String.format("query {\n"
-                + " node as var(func: eq(urn, \"%s\"))\n"
-                + "}", urn);
+                + " node as var(func: eq(urn, %s))\n"
+                + "}", toStringLiteral(urn));
         String deletion = "uid(node) * * .";
 
         log.debug("Query: " + query);
@@ -584,10 +814,9 @@ public class DgraphGraphService implements GraphService {
 
     private void removeOutgoingEdgesFromNode(@Nonnull Urn urn,
                                              @Nonnull List<String> relationshipTypes) {
-        // TODO: add escape for string values
         String query = String.format("query {\n"
-                + "  node as var(func: eq(<urn>, \"%s\"))\n"
-                + "}", urn);
+                + "  node as var(func: eq(<urn>, %s))\n"
+                + "}", toStringLiteral(urn));
 
         Value star = Value.newBuilder().setDefaultVal("_STAR_ALL").build();
         List<NQuad> deletions = relationshipTypes.stream().map(relationshipType ->
@@ -615,18 +844,17 @@ public class DgraphGraphService implements GraphService {
 
     private void removeIncomingEdgesFromNode(@Nonnull Urn urn,
                                              @Nonnull List<String> relationshipTypes) {
-        // TODO: add escape for string values
         StringJoiner reverseEdges = new StringJoiner("\n    ");
         IntStream.range(0, relationshipTypes.size()).forEach(idx ->
                 reverseEdges.add("<~" + relationshipTypes.get(idx) + "> { uids" + (idx + 1) + " as uid }")
         );
         String query = String.format("query {\n"
-                + "  node as var(func: eq(<urn>, \"%s\"))\n"
+                + "  node as var(func: eq(<urn>, %s))\n"
                 + "\n"
                 + "  var(func: uid(node)) @normalize {\n"
                 + "    %s\n"
                 + "  }\n"
-                + "}", urn, reverseEdges);
+                + "}", toStringLiteral(urn), reverseEdges);
 
         StringJoiner deletions = new StringJoiner("\n");
         IntStream.range(0, relationshipTypes.size()).forEach(idx ->
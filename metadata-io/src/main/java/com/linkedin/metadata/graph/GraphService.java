@@ -3,7 +3,10 @@ package com.linkedin.metadata.graph;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.search.utils.QueryUtils;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -14,6 +17,11 @@ public interface GraphService {
    */
   void addEdge(final Edge edge);
 
+  /**
+   * Removes a single edge from the graph, if it exists. The source and destination nodes are kept.
+   */
+  void removeEdge(final Edge edge);
+
   /**
    * Find related entities (nodes) connected to a source entity via edges of given relationship types. Related entities
    * can be filtered by source and destination type (use `null` for any type), by source and destination entity filter
@@ -27,6 +35,10 @@ public interface GraphService {
    * This does not return duplicate related entities, even if entities are connected to source entities via multiple edges.
    * An empty list of relationship types returns an empty result.
    *
+   * Criteria of the source and destination entity filters may use the conditions `EQUAL`, `NOT_EQUAL`, `IN`
+   * (matching any of the criterion `values`), `START_WITH` and `EXISTS`. These are evaluated by the backend, so callers
+   * should not fetch a broader set of related entities and filter them afterwards.
+   *
    * In other words, the source and destination entity is not to be understood as the source and destination of the edge,
    * but as the source and destination of "finding related entities", where always the destination entities are returned.
    * This understanding is important when it comes to `RelationshipDirection.INCOMING`. The origin of the edge becomes
@@ -72,6 +84,42 @@ public interface GraphService {
       final int offset,
       final int count);
 
+  /**
+   * Counts the relationships {@link #findRelatedEntities} matches for the same arguments, without fetching them.
+   *
+   * Every matching edge is counted once, also when both its ends match the source filter of an undirected query.
+   * An entity related through several edges, e.g. to several source entities, is counted once per edge, so the count
+   * can be larger than the number of distinct entities {@link #findRelatedEntities} returns.
+   *
+   * An empty list of relationship types counts 0.
+   */
+  int countRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter);
+
+  /**
+   * Counts the relationships of each of the given source urns, as {@link #countRelatedEntities} would for a source
+   * entity filter on that urn. Every source urn is contained in the result, those without related entities map to 0.
+   *
+   * The default implementation issues one count per source urn, backends should answer this with a single aggregation.
+   */
+  @Nonnull
+  default Map<String, Integer> batchCountRelatedEntities(
+      @Nonnull final List<String> sourceUrns,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Map<String, Integer> counts = new HashMap<>();
+    sourceUrns.forEach(urn -> counts.put(urn, countRelatedEntities(
+        null, QueryUtils.newFilter("urn", urn),
+        null, QueryUtils.EMPTY_FILTER,
+        relationshipTypes, relationshipFilter)));
+    return counts;
+  }
+
   /**
    * Removes the given node (if it exists) as well as all edges (incoming and outgoing) of the node.
    */
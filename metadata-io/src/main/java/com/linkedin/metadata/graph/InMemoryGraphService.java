@@ -0,0 +1,650 @@
+package com.linkedin.metadata.graph;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.query.filter.RelationshipDirection;
+import com.linkedin.metadata.query.filter.RelationshipFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
+import static com.linkedin.metadata.search.utils.QueryUtils.getCriterionValues;
+import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+
+
+/**
+ * A {@link GraphService} that keeps the whole graph in process, without an external graph server.
+ *
+ * Urns, entity types and relationship types are interned to int ids, and every node holds its outgoing and incoming
+ * edges in a packed adjacency list of longs (relationship type id in the upper, neighbour node id in the lower 32 bits).
+ * Queries are answered by walking these lists under a read lock, so a one-hop lookup does not leave the JVM and
+ * multi-hop traversals are cheap repeated lookups.
+ *
+ * The graph is not persisted. It has to be rebuilt from the entity store at startup and kept up to date by consuming
+ * metadata change logs in the same process, which makes this suitable for small deployments and for local testing.
+ */
+@Slf4j
+public class InMemoryGraphService implements GraphService {
+
+  private static final String URN_FIELD = "urn";
+  private static final String ENTITY_TYPE_FIELD = "entityType";
+
+  private final ReentrantReadWriteLock _lock = new ReentrantReadWriteLock();
+
+  private final Map<String, Integer> _nodeIds = new HashMap<>();
+  private final List<String> _nodeUrns = new ArrayList<>();
+  private final List<String> _nodeTypes = new ArrayList<>();
+  private final List<AdjacencyList> _outgoing = new ArrayList<>();
+  private final List<AdjacencyList> _incoming = new ArrayList<>();
+  private final Map<String, String> _entityTypes = new HashMap<>();
+
+  private final Map<String, Integer> _relationshipTypeIds = new HashMap<>();
+  private final List<String> _relationshipTypes = new ArrayList<>();
+
+  // Changes made while the graph is restored from the entity store, applied once the restore ends
+  private final List<Runnable> _pendingDeltas = new ArrayList<>();
+  private boolean _restoring = false;
+
+  @Override
+  public void addEdge(final Edge edge) {
+    _lock.writeLock().lock();
+    try {
+      if (_restoring) {
+        _pendingDeltas.add(() -> applyAddEdge(edge));
+        return;
+      }
+      applyAddEdge(edge);
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeEdge(final Edge edge) {
+    _lock.writeLock().lock();
+    try {
+      if (_restoring) {
+        _pendingDeltas.add(() -> applyRemoveEdge(edge));
+        return;
+      }
+      applyRemoveEdge(edge);
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Starts restoring the graph from the entity store. Until {@link #endRestore()}, the edges of the restore are added
+   * with {@link #restoreEdge(Edge)}, while the changes made through the {@link GraphService} methods are buffered.
+   */
+  public void beginRestore() {
+    _lock.writeLock().lock();
+    try {
+      _restoring = true;
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds an edge read from the entity store by the restore, see {@link #beginRestore()}.
+   */
+  public void restoreEdge(@Nonnull final Edge edge) {
+    _lock.writeLock().lock();
+    try {
+      applyAddEdge(edge);
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Ends the restore, applying the changes buffered during it in order. Every change to an edge is applied after the
+   * restore read it, so the last change wins whether the restore read the aspect before or after it.
+   */
+  public void endRestore() {
+    _lock.writeLock().lock();
+    try {
+      log.info("Applying {} graph changes buffered during the restore", _pendingDeltas.size());
+      _restoring = false;
+      _pendingDeltas.forEach(Runnable::run);
+      _pendingDeltas.clear();
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  private void applyAddEdge(@Nonnull final Edge edge) {
+    final int source = getOrInsertNode(edge.getSource());
+    final int destination = getOrInsertNode(edge.getDestination());
+    final int relationshipType = getOrInsertRelationshipType(edge.getRelationshipType());
+
+    _outgoing.get(source).add(pack(relationshipType, destination));
+    _incoming.get(destination).add(pack(relationshipType, source));
+  }
+
+  private void applyRemoveEdge(@Nonnull final Edge edge) {
+    final Integer source = _nodeIds.get(edge.getSource().toString());
+    final Integer destination = _nodeIds.get(edge.getDestination().toString());
+    final Integer relationshipType = _relationshipTypeIds.get(edge.getRelationshipType());
+    if (source == null || destination == null || relationshipType == null) {
+      return;
+    }
+
+    _outgoing.get(source).remove(pack(relationshipType, destination));
+    _incoming.get(destination).remove(pack(relationshipType, source));
+  }
+
+  @Nonnull
+  @Override
+  public RelatedEntitiesResult findRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter,
+      final int offset,
+      final int count) {
+    _lock.readLock().lock();
+    try {
+      final Set<RelatedEntity> relatedEntities = collectRelatedEntities(sourceType, sourceEntityFilter, destinationType,
+          destinationEntityFilter, relationshipTypes, relationshipFilter);
+      final List<RelatedEntity> page = relatedEntities.stream()
+          .skip(Math.max(offset, 0))
+          .limit(Math.max(count, 0))
+          .collect(Collectors.toList());
+      return new RelatedEntitiesResult(offset, page.size(), relatedEntities.size(), page);
+    } finally {
+      _lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public int countRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    _lock.readLock().lock();
+    try {
+      return countRelatedEdges(sourceType, sourceEntityFilter, destinationType, destinationEntityFilter,
+          relationshipTypes, relationshipFilter);
+    } finally {
+      _lock.readLock().unlock();
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Map<String, Integer> batchCountRelatedEntities(
+      @Nonnull final List<String> sourceUrns,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Map<String, Integer> counts = new HashMap<>();
+    _lock.readLock().lock();
+    try {
+      // urn filters are answered by a direct node lookup, so this only walks the edges of the given nodes
+      sourceUrns.forEach(urn -> counts.put(urn, countRelatedEdges(null, newFilter(URN_FIELD, urn), null,
+          EMPTY_FILTER, relationshipTypes, relationshipFilter)));
+    } finally {
+      _lock.readLock().unlock();
+    }
+    return counts;
+  }
+
+  @Override
+  public void removeNode(@Nonnull final Urn urn) {
+    _lock.writeLock().lock();
+    try {
+      if (_restoring) {
+        _pendingDeltas.add(() -> removeNode(urn));
+        return;
+      }
+      final Integer node = _nodeIds.get(urn.toString());
+      if (node == null) {
+        return;
+      }
+
+      // the interned id is kept, a node without edges is never returned as a related entity
+      removeEdges(node, null, _outgoing, _incoming);
+      removeEdges(node, null, _incoming, _outgoing);
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void removeEdgesFromNode(
+      @Nonnull final Urn urn,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    if (relationshipTypes.isEmpty()) {
+      return;
+    }
+
+    _lock.writeLock().lock();
+    try {
+      if (_restoring) {
+        _pendingDeltas.add(() -> removeEdgesFromNode(urn, relationshipTypes, relationshipFilter));
+        return;
+      }
+      final Integer node = _nodeIds.get(urn.toString());
+      if (node == null) {
+        return;
+      }
+
+      final Set<Integer> relationshipTypeIds = relationshipTypes.stream()
+          .map(_relationshipTypeIds::get)
+          .filter(id -> id != null)
+          .collect(Collectors.toSet());
+      final RelationshipDirection direction = relationshipFilter.getDirection();
+      if (direction != RelationshipDirection.INCOMING) {
+        removeEdges(node, relationshipTypeIds, _outgoing, _incoming);
+      }
+      if (direction != RelationshipDirection.OUTGOING) {
+        removeEdges(node, relationshipTypeIds, _incoming, _outgoing);
+      }
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void configure() {
+    // nothing to configure, the graph lives in this process
+  }
+
+  @Override
+  public void clear() {
+    _lock.writeLock().lock();
+    try {
+      _nodeIds.clear();
+      _nodeUrns.clear();
+      _nodeTypes.clear();
+      _outgoing.clear();
+      _incoming.clear();
+      _entityTypes.clear();
+      _relationshipTypeIds.clear();
+      _relationshipTypes.clear();
+      _pendingDeltas.clear();
+    } finally {
+      _lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Collects the distinct related entities, in a stable order for pagination. Must be called holding the read lock.
+   */
+  @Nonnull
+  private Set<RelatedEntity> collectRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Set<Integer> relationshipTypeIds = relationshipTypes.stream()
+        .map(_relationshipTypeIds::get)
+        .filter(id -> id != null)
+        .collect(Collectors.toSet());
+    if (relationshipTypeIds.isEmpty()) {
+      return Collections.emptySet();
+    }
+
+    final RelationshipDirection direction = relationshipFilter.getDirection();
+    final List<List<AdjacencyList>> adjacencies = new ArrayList<>();
+    if (direction != RelationshipDirection.INCOMING) {
+      adjacencies.add(_outgoing);
+    }
+    if (direction != RelationshipDirection.OUTGOING) {
+      adjacencies.add(_incoming);
+    }
+
+    final Set<RelatedEntity> relatedEntities = new LinkedHashSet<>();
+    for (int source : getCandidateNodes(sourceEntityFilter)) {
+      if (!matchesNode(source, sourceType, sourceEntityFilter)) {
+        continue;
+      }
+      for (List<AdjacencyList> adjacency : adjacencies) {
+        final AdjacencyList edges = adjacency.get(source);
+        for (int i = 0; i < edges.size(); i++) {
+          final long edge = edges.get(i);
+          final int destination = nodeId(edge);
+          if (relationshipTypeIds.contains(relationshipTypeId(edge))
+              && matchesNode(destination, destinationType, destinationEntityFilter)) {
+            relatedEntities.add(
+                new RelatedEntity(_relationshipTypes.get(relationshipTypeId(edge)), _nodeUrns.get(destination)));
+          }
+        }
+      }
+    }
+    return relatedEntities;
+  }
+
+  /**
+   * Counts the distinct edges matching the query, see {@link GraphService#countRelatedEntities}. Must be called holding
+   * the read lock.
+   */
+  private int countRelatedEdges(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Set<Integer> relationshipTypeIds = relationshipTypes.stream()
+        .map(_relationshipTypeIds::get)
+        .filter(id -> id != null)
+        .collect(Collectors.toSet());
+    if (relationshipTypeIds.isEmpty()) {
+      return 0;
+    }
+
+    final Set<Integer> sources = getCandidateNodes(sourceEntityFilter).stream()
+        .filter(node -> matchesNode(node, sourceType, sourceEntityFilter))
+        .collect(Collectors.toSet());
+    final RelationshipDirection direction = relationshipFilter.getDirection();
+    int count = 0;
+    for (int source : sources) {
+      if (direction != RelationshipDirection.INCOMING) {
+        final AdjacencyList edges = _outgoing.get(source);
+        for (int i = 0; i < edges.size(); i++) {
+          final long edge = edges.get(i);
+          if (relationshipTypeIds.contains(relationshipTypeId(edge))
+              && matchesNode(nodeId(edge), destinationType, destinationEntityFilter)) {
+            count++;
+          }
+        }
+      }
+      if (direction != RelationshipDirection.OUTGOING) {
+        final AdjacencyList edges = _incoming.get(source);
+        for (int i = 0; i < edges.size(); i++) {
+          final long edge = edges.get(i);
+          final int neighbour = nodeId(edge);
+          if (!relationshipTypeIds.contains(relationshipTypeId(edge))
+              || !matchesNode(neighbour, destinationType, destinationEntityFilter)) {
+            continue;
+          }
+          // an undirected query already counted the edge from its other end if that is a source too
+          if (direction != RelationshipDirection.INCOMING && sources.contains(neighbour)
+              && matchesNode(source, destinationType, destinationEntityFilter)) {
+            continue;
+          }
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  private int getOrInsertNode(@Nonnull Urn urn) {
+    final String urnStr = urn.toString();
+    final Integer existing = _nodeIds.get(urnStr);
+    if (existing != null) {
+      return existing;
+    }
+
+    final int id = _nodeUrns.size();
+    _nodeIds.put(urnStr, id);
+    _nodeUrns.add(urnStr);
+    _nodeTypes.add(_entityTypes.computeIfAbsent(urn.getEntityType(), type -> type));
+    _outgoing.add(new AdjacencyList());
+    _incoming.add(new AdjacencyList());
+    return id;
+  }
+
+  private int getOrInsertRelationshipType(@Nonnull String relationshipType) {
+    return _relationshipTypeIds.computeIfAbsent(relationshipType, type -> {
+      _relationshipTypes.add(type);
+      return _relationshipTypes.size() - 1;
+    });
+  }
+
+  /**
+   * Removes the edges of the given relationship types (all if null) from the node's adjacency list, along with their
+   * mirrored entries in the adjacency lists of the neighbours.
+   */
+  private void removeEdges(int node, @Nullable Set<Integer> relationshipTypeIds, @Nonnull List<AdjacencyList> adjacency,
+      @Nonnull List<AdjacencyList> mirroredAdjacency) {
+    final AdjacencyList edges = adjacency.get(node);
+    for (int i = edges.size() - 1; i >= 0; i--) {
+      final long edge = edges.get(i);
+      final int relationshipType = relationshipTypeId(edge);
+      if (relationshipTypeIds == null || relationshipTypeIds.contains(relationshipType)) {
+        edges.removeAt(i);
+        mirroredAdjacency.get(nodeId(edge)).remove(pack(relationshipType, node));
+      }
+    }
+  }
+
+  /**
+   * Returns the nodes that may match the source filter. A filter on urns only is answered by a direct lookup,
+   * any other filter is evaluated against all nodes.
+   */
+  @Nonnull
+  private Collection<Integer> getCandidateNodes(@Nonnull Filter filter) {
+    final List<CriterionArray> disjunction = getDisjunction(filter);
+    if (disjunction.size() == 1) {
+      for (Criterion criterion : disjunction.get(0)) {
+        if (!URN_FIELD.equals(criterion.getField())) {
+          continue;
+        }
+        final List<String> urns;
+        switch (criterion.getCondition()) {
+          case EQUAL:
+            urns = Collections.singletonList(criterion.getValue());
+            break;
+          case IN:
+            urns = getCriterionValues(criterion);
+            break;
+          default:
+            continue;
+        }
+        return urns.stream().map(_nodeIds::get).filter(id -> id != null).collect(Collectors.toCollection(HashSet::new));
+      }
+    }
+
+    final List<Integer> nodes = new ArrayList<>(_nodeUrns.size());
+    for (int i = 0; i < _nodeUrns.size(); i++) {
+      nodes.add(i);
+    }
+    return nodes;
+  }
+
+  private boolean matchesNode(int node, @Nullable String entityType, @Nonnull Filter filter) {
+    if (entityType != null && !entityType.equals(_nodeTypes.get(node))) {
+      return false;
+    }
+
+    final List<CriterionArray> disjunction = getDisjunction(filter);
+    if (disjunction.isEmpty()) {
+      return true;
+    }
+    return disjunction.stream()
+        .anyMatch(conjunction -> conjunction.stream().allMatch(criterion -> matchesCriterion(node, criterion)));
+  }
+
+  private boolean matchesCriterion(int node, @Nonnull Criterion criterion) {
+    final String value;
+    if (URN_FIELD.equals(criterion.getField())) {
+      value = _nodeUrns.get(node);
+    } else if (ENTITY_TYPE_FIELD.equals(criterion.getField())) {
+      value = _nodeTypes.get(node);
+    } else {
+      value = null;
+    }
+
+    switch (criterion.getCondition()) {
+      case EQUAL:
+        return criterion.getValue().equals(value);
+      case NOT_EQUAL:
+        return !criterion.getValue().equals(value);
+      case IN:
+        return value != null && getCriterionValues(criterion).contains(value);
+      case START_WITH:
+        return value != null && value.startsWith(criterion.getValue());
+      case EXISTS:
+        return value != null;
+      default:
+        throw new UnsupportedOperationException(
+            "Unsupported condition " + criterion.getCondition() + " in in-memory graph filter");
+    }
+  }
+
+  @Nonnull
+  private static List<CriterionArray> getDisjunction(@Nonnull Filter filter) {
+    if (filter.hasOr()) {
+      return filter.getOr().stream().map(ConjunctiveCriterion::getAnd).collect(Collectors.toList());
+    }
+    if (filter.hasCriteria()) {
+      return Collections.singletonList(filter.getCriteria());
+    }
+    return Collections.emptyList();
+  }
+
+  private static long pack(int relationshipType, int node) {
+    return ((long) relationshipType << 32) | (node & 0xFFFFFFFFL);
+  }
+
+  private static int relationshipTypeId(long edge) {
+    return (int) (edge >>> 32);
+  }
+
+  private static int nodeId(long edge) {
+    return (int) edge;
+  }
+
+  /**
+   * Growable array of packed edges of a single node. Edges are unique, adding an existing edge is a no-op.
+   *
+   * Once the list outgrows a linear scan it is indexed by an open addressing hash table of the positions of its edges,
+   * so that adding and removing the edges of high degree nodes, e.g. while restoring the graph, stays constant time.
+   */
+  private static final class AdjacencyList {
+    private static final long[] EMPTY = new long[0];
+    private static final int INDEX_THRESHOLD = 16;
+
+    private long[] _edges = EMPTY;
+    private int _size = 0;
+    // Position + 1 of the edge in each slot, 0 for an empty slot. Null while the list is small enough to scan
+    @Nullable
+    private int[] _index = null;
+
+    int size() {
+      return _size;
+    }
+
+    long get(int index) {
+      return _edges[index];
+    }
+
+    void add(long edge) {
+      if (indexOf(edge) >= 0) {
+        return;
+      }
+      if (_size == _edges.length) {
+        _edges = Arrays.copyOf(_edges, Math.max(4, _size * 2));
+      }
+      _edges[_size++] = edge;
+      if (_index != null && _size * 2 <= _index.length) {
+        _index[findSlot(edge)] = _size;
+      } else if (_size > INDEX_THRESHOLD) {
+        rebuildIndex();
+      }
+    }
+
+    void remove(long edge) {
+      final int index = indexOf(edge);
+      if (index >= 0) {
+        removeAt(index);
+      }
+    }
+
+    void removeAt(int index) {
+      // order is irrelevant, move the last edge into the gap
+      final long last = _edges[_size - 1];
+      if (_index != null) {
+        clearSlot(findSlot(_edges[index]));
+        if (index != _size - 1) {
+          _index[findSlot(last)] = index + 1;
+        }
+      }
+      _edges[index] = last;
+      _size--;
+    }
+
+    private int indexOf(long edge) {
+      if (_index != null) {
+        return _index[findSlot(edge)] - 1;
+      }
+      for (int i = 0; i < _size; i++) {
+        if (_edges[i] == edge) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private void rebuildIndex() {
+      _index = new int[Integer.highestOneBit(_size) * 4];
+      for (int i = 0; i < _size; i++) {
+        _index[findSlot(_edges[i])] = i + 1;
+      }
+    }
+
+    /**
+     * Slot of the edge in the index, or the empty slot it would go to if it is not in the list.
+     */
+    private int findSlot(long edge) {
+      final int mask = _index.length - 1;
+      int slot = hash(edge) & mask;
+      while (_index[slot] != 0 && _edges[_index[slot] - 1] != edge) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    /**
+     * Empties the slot, shifting back the edges of the probe sequence after it so that they can still be found.
+     */
+    private void clearSlot(int slot) {
+      final int mask = _index.length - 1;
+      int gap = slot;
+      int next = (gap + 1) & mask;
+      while (_index[next] != 0) {
+        final int home = hash(_edges[_index[next] - 1]) & mask;
+        // the edge may move into the gap unless its home slot lies cyclically after the gap
+        if (((next - home) & mask) >= ((next - gap) & mask)) {
+          _index[gap] = _index[next];
+          gap = next;
+        }
+        next = (next + 1) & mask;
+      }
+      _index[gap] = 0;
+    }
+
+    private static int hash(long edge) {
+      final long mixed = edge * 0x9E3779B97F4A7C15L;
+      return (int) (mixed ^ (mixed >>> 32));
+    }
+  }
+}
@@ -42,6 +42,23 @@ public class JavaGraphClient implements GraphClient {
     start = start == null ? 0 : start;
     count = count == null ? DEFAULT_PAGE_SIZE : count;
 
+    if (count == 0) {
+      // only the total is requested, e.g. for a relationship count badge, do not fetch any edges
+      final int total = _graphService.countRelatedEntities(
+          "",
+          QueryUtils.newFilter("urn", rawUrn),
+          "",
+          EMPTY_FILTER,
+          relationshipTypes,
+          QueryUtils.newRelationshipFilter(EMPTY_FILTER, direction)
+      );
+      return new EntityRelationships()
+          .setStart(start)
+          .setCount(0)
+          .setTotal(total)
+          .setRelationships(new EntityRelationshipArray());
+    }
+
     RelatedEntitiesResult relatedEntitiesResult =
         _graphService.findRelatedEntities(
             "",
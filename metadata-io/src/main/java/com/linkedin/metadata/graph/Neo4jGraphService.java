@@ -7,10 +7,12 @@ import com.linkedin.metadata.dao.exception.RetryLimitReached;
 import com.linkedin.metadata.dao.utils.Statement;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.search.utils.QueryUtils;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -18,13 +20,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.time.StopWatch;
-import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Result;
@@ -80,6 +82,25 @@ public class Neo4jGraphService implements GraphService {
     executeStatements(statements);
   }
 
+  public void removeEdge(@Nonnull final Edge edge) {
+
+    log.debug(String.format("Removing Edge source: %s, destination: %s, type: %s",
+        edge.getSource(),
+        edge.getDestination(),
+        edge.getRelationshipType()));
+
+    final String deleteRelationshipTemplate =
+        "MATCH (source:%s {urn: $sourceUrn})-[r:%s]->(destination:%s {urn: $destinationUrn}) DELETE r";
+    final String statement = String.format(deleteRelationshipTemplate, edge.getSource().getEntityType(),
+        edge.getRelationshipType(), edge.getDestination().getEntityType());
+
+    final Map<String, Object> params = new HashMap<>();
+    params.put("sourceUrn", edge.getSource().toString());
+    params.put("destinationUrn", edge.getDestination().toString());
+
+    executeStatements(Collections.singletonList(buildStatement(statement, params)));
+  }
+
   @Nonnull
   public RelatedEntitiesResult findRelatedEntities(
       @Nullable final String sourceType,
@@ -102,38 +123,23 @@ public class Neo4jGraphService implements GraphService {
             offset, count)
     );
 
-    final String srcCriteria = filterToCriteria(sourceEntityFilter);
-    final String destCriteria = filterToCriteria(destinationEntityFilter);
-    final String edgeCriteria = relationshipFilterToCriteria(relationshipFilter);
-
-    final RelationshipDirection relationshipDirection = relationshipFilter.getDirection();
-
-    String matchTemplate = "MATCH (src%s %s)-[r%s %s]-(dest%s %s)";
-    if (relationshipDirection == RelationshipDirection.INCOMING) {
-      matchTemplate = "MATCH (src%s %s)<-[r%s %s]-(dest%s %s)";
-    } else if (relationshipDirection == RelationshipDirection.OUTGOING) {
-      matchTemplate = "MATCH (src%s %s)-[r%s %s]->(dest%s %s)";
-    }
-
     final String returnNodes = String.format("RETURN dest%s, type(r)", destinationType); // Return both related entity and the relationship type.
     final String returnCount = "RETURN count(*)"; // For getting the total results.
 
-    String relationshipTypeFilter = "";
-    if (relationshipTypes.size() > 0) {
-      relationshipTypeFilter = ":" + StringUtils.join(relationshipTypes, "|");
-    }
-
     // Build Statement strings
-    String baseStatementString =
-        String.format(matchTemplate, sourceType, srcCriteria, relationshipTypeFilter, edgeCriteria,
-            destinationType, destCriteria);
+    final Map<String, Object> filterParams = new HashMap<>();
+    String baseStatementString = getRelatedEntitiesMatchStatement(sourceType, sourceEntityFilter, destinationType,
+        destinationEntityFilter, relationshipTypes, relationshipFilter, filterParams);
 
     final String resultStatementString = String.format("%s %s SKIP $offset LIMIT $count", baseStatementString, returnNodes);
     final String countStatementString = String.format("%s %s", baseStatementString, returnCount);
 
     // Build Statements
-    final Statement resultStatement = new Statement(resultStatementString, ImmutableMap.of("offset", offset, "count", count));
-    final Statement countStatement =  new Statement(countStatementString, Collections.emptyMap());
+    final Map<String, Object> resultParams = new HashMap<>(filterParams);
+    resultParams.put("offset", offset);
+    resultParams.put("count", count);
+    final Statement resultStatement = new Statement(resultStatementString, resultParams);
+    final Statement countStatement =  new Statement(countStatementString, filterParams);
 
     // Execute Queries
     final List<RelatedEntity> relatedEntities = runQuery(resultStatement).list(record ->
@@ -144,6 +150,90 @@ public class Neo4jGraphService implements GraphService {
     return new RelatedEntitiesResult(offset, relatedEntities.size(), totalCount, relatedEntities);
   }
 
+  public int countRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    if (relationshipTypes.isEmpty()) {
+      return 0;
+    }
+
+    // an undirected match finds an edge between two source entities from both ends
+    final Map<String, Object> params = new HashMap<>();
+    final String countStatementString = String.format("%s RETURN count(DISTINCT r)",
+        getRelatedEntitiesMatchStatement(sourceType, sourceEntityFilter, destinationType, destinationEntityFilter,
+            relationshipTypes, relationshipFilter, params));
+    return runQuery(new Statement(countStatementString, params)).single().get(0).asInt();
+  }
+
+  @Nonnull
+  public Map<String, Integer> batchCountRelatedEntities(
+      @Nonnull final List<String> sourceUrns,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Map<String, Integer> counts = new HashMap<>();
+    sourceUrns.forEach(urn -> counts.put(urn, 0));
+    if (sourceUrns.isEmpty() || relationshipTypes.isEmpty()) {
+      return counts;
+    }
+
+    // a single grouped count for all source urns
+    final String matchStatementString = String.format(getMatchTemplate(relationshipFilter.getDirection()),
+        "", "", ":" + StringUtils.join(relationshipTypes, "|"), "", "", "");
+    final String statementString =
+        String.format("%s WHERE src.urn IN $urns RETURN src.urn, count(*)", matchStatementString);
+    runQuery(new Statement(statementString, ImmutableMap.of("urns", sourceUrns)))
+        .forEachRemaining(record -> counts.put(record.get(0).asString(), record.get(1).asInt()));
+    return counts;
+  }
+
+  /**
+   * Builds the MATCH clause, including the WHERE predicates, shared by the related entities query and its count.
+   *
+   * @param params the parameters the filter values are bound to, added to
+   */
+  @Nonnull
+  private static String getRelatedEntitiesMatchStatement(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter,
+      @Nonnull final Map<String, Object> params) {
+    final String srcCriteria = filterToCriteria(sourceEntityFilter, params);
+    final String destCriteria = filterToCriteria(destinationEntityFilter, params);
+    final String edgeCriteria = relationshipFilterToCriteria(relationshipFilter, params);
+
+    // node variables are named after the entity types, see the match template below
+    final List<String> predicates = new ArrayList<>();
+    predicates.addAll(disjunctionToPredicates(sourceEntityFilter.getOr(), "src" + sourceType, params));
+    predicates.addAll(disjunctionToPredicates(destinationEntityFilter.getOr(), "dest" + destinationType, params));
+    predicates.addAll(disjunctionToPredicates(relationshipFilter.getOr(), "r", params));
+    final String whereClause = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+
+    String relationshipTypeFilter = "";
+    if (relationshipTypes.size() > 0) {
+      relationshipTypeFilter = ":" + StringUtils.join(relationshipTypes, "|");
+    }
+
+    return String.format(getMatchTemplate(relationshipFilter.getDirection()), sourceType, srcCriteria,
+        relationshipTypeFilter, edgeCriteria, destinationType, destCriteria) + whereClause;
+  }
+
+  @Nonnull
+  private static String getMatchTemplate(@Nonnull RelationshipDirection relationshipDirection) {
+    if (relationshipDirection == RelationshipDirection.INCOMING) {
+      return "MATCH (src%s %s)<-[r%s %s]-(dest%s %s)";
+    } else if (relationshipDirection == RelationshipDirection.OUTGOING) {
+      return "MATCH (src%s %s)-[r%s %s]->(dest%s %s)";
+    }
+    return "MATCH (src%s %s)-[r%s %s]-(dest%s %s)";
+  }
+
   public void removeNode(@Nonnull final Urn urn) {
 
     log.debug(String.format("Removing Neo4j node with urn: %s", urn));
@@ -287,66 +377,121 @@ public class Neo4jGraphService implements GraphService {
     }
   }
 
-  // Returns "key:value" String, if value is not primitive, then use toString() and double quote it
+  // Returns "key:$param" String, with the value bound to a new parameter
   @Nonnull
-  private static String toCriterionString(@Nonnull String key, @Nonnull Object value) {
-    if (ClassUtils.isPrimitiveOrWrapper(value.getClass())) {
-      return key + ":" + value;
-    }
+  private static String toCriterionString(@Nonnull String key, @Nonnull Object value,
+      @Nonnull Map<String, Object> params) {
+    return toPropertyKey(key) + ":" + addParam(params, value);
+  }
 
-    return key + ":\"" + value.toString() + "\"";
+  /**
+   * Binds the value to a new parameter of the statement, rather than writing it into the query.
+   *
+   * @return the reference to the parameter in the query
+   */
+  @Nonnull
+  private static String addParam(@Nonnull Map<String, Object> params, @Nonnull Object value) {
+    final String name = "p" + params.size();
+    params.put(name, value);
+    return "$" + name;
   }
 
   /**
-   * Converts {@link RelationshipFilter} to neo4j query criteria, filter criterion condition requires to be EQUAL.
+   * Quotes a property key, which cannot be a parameter, so that it is never read as Cypher.
+   */
+  @Nonnull
+  private static String toPropertyKey(@Nonnull String key) {
+    return "`" + key.replace("`", "``") + "`";
+  }
+
+  /**
+   * Converts the EQUAL criteria of a {@link RelationshipFilter} to neo4j query criteria.
    *
    * @param filter Query relationship filter
    * @return Neo4j criteria string
    */
   @Nonnull
-  private static String relationshipFilterToCriteria(@Nonnull RelationshipFilter filter) {
-    return disjunctionToCriteria(filter.getOr());
+  private static String relationshipFilterToCriteria(@Nonnull RelationshipFilter filter,
+      @Nonnull Map<String, Object> params) {
+    return criterionToString(disjunctionToConjunction(filter.getOr()), params);
   }
 
   /**
-   * Converts {@link Filter} to neo4j query criteria, filter criterion condition requires to be EQUAL.
+   * Converts the EQUAL criteria of a {@link Filter} to neo4j query criteria.
    *
    * @param filter Query Filter
    * @return Neo4j criteria string
    */
   @Nonnull
-  private static String filterToCriteria(@Nonnull Filter filter) {
-    return disjunctionToCriteria(filter.getOr());
+  private static String filterToCriteria(@Nonnull Filter filter, @Nonnull Map<String, Object> params) {
+    return criterionToString(disjunctionToConjunction(filter.getOr()), params);
+  }
+
+  /**
+   * Converts the non-EQUAL criteria of a filter disjunction to neo4j WHERE predicates on the given variable.
+   *
+   * @param disjunction the "or" criteria of a Filter or RelationshipFilter
+   * @param variable the node or relationship variable the filter applies to
+   * @return Neo4j predicate strings, to be joined with AND
+   */
+  @Nonnull
+  private static List<String> disjunctionToPredicates(final ConjunctiveCriterionArray disjunction,
+      @Nonnull String variable, @Nonnull Map<String, Object> params) {
+    return disjunctionToConjunction(disjunction).stream()
+        .filter(criterion -> !Condition.EQUAL.equals(criterion.getCondition()))
+        .map(criterion -> criterionToPredicate(variable + "." + toPropertyKey(criterion.getField()), criterion, params))
+        .collect(Collectors.toList());
   }
 
-  private static String disjunctionToCriteria(final ConjunctiveCriterionArray disjunction) {
+  @Nonnull
+  private static CriterionArray disjunctionToConjunction(final ConjunctiveCriterionArray disjunction) {
     if (disjunction.size() > 1) {
       // TODO: Support disjunctions (ORs).
       throw new UnsupportedOperationException("Neo4j query filter only supports 1 set of conjunction criteria");
     }
-    final CriterionArray criterionArray = disjunction.size() > 0 ? disjunction.get(0).getAnd() : new CriterionArray();
-    return criterionToString(criterionArray);
+    return disjunction.size() > 0 ? disjunction.get(0).getAnd() : new CriterionArray();
   }
 
   /**
-   * Converts {@link CriterionArray} to neo4j query string.
+   * Converts the EQUAL criteria of a {@link CriterionArray} to neo4j query string.
    *
    * @param criterionArray CriterionArray in a Filter
    * @return Neo4j criteria string
    */
   @Nonnull
-  private static String criterionToString(@Nonnull CriterionArray criterionArray) {
-    if (!criterionArray.stream().allMatch(criterion -> Condition.EQUAL.equals(criterion.getCondition()))) {
-      throw new RuntimeException("Neo4j query filter only support EQUAL condition " + criterionArray);
-    }
-
+  private static String criterionToString(@Nonnull CriterionArray criterionArray,
+      @Nonnull Map<String, Object> params) {
     final StringJoiner joiner = new StringJoiner(",", "{", "}");
 
-    criterionArray.forEach(criterion -> joiner.add(toCriterionString(criterion.getField(), criterion.getValue())));
+    criterionArray.stream()
+        .filter(criterion -> Condition.EQUAL.equals(criterion.getCondition()))
+        .forEach(criterion -> joiner.add(toCriterionString(criterion.getField(), criterion.getValue(), params)));
 
     return joiner.length() <= 2 ? "" : joiner.toString();
   }
 
+  /**
+   * Converts a non-EQUAL {@link Criterion} to a neo4j WHERE predicate on the given property, with its values bound to
+   * parameters.
+   */
+  @Nonnull
+  private static String criterionToPredicate(@Nonnull String property, @Nonnull Criterion criterion,
+      @Nonnull Map<String, Object> params) {
+    switch (criterion.getCondition()) {
+      case NOT_EQUAL:
+        return property + " <> " + addParam(params, criterion.getValue());
+      case IN:
+        return property + " IN " + addParam(params, new ArrayList<>(QueryUtils.getCriterionValues(criterion)));
+      case START_WITH:
+        return property + " STARTS WITH " + addParam(params, criterion.getValue());
+      case EXISTS:
+        return property + " IS NOT NULL";
+      default:
+        throw new UnsupportedOperationException(
+            "Neo4j query filter only supports EQUAL, NOT_EQUAL, IN, START_WITH and EXISTS conditions " + criterion);
+    }
+  }
+
   /**
    * Gets Node based on Urn, if not exist, creates placeholder node.
    */
@@ -1,16 +1,21 @@
 package com.linkedin.metadata.graph.elastic;
 
 import com.codahale.metrics.Timer;
+import com.linkedin.metadata.dao.exception.ESQueryException;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
+import com.linkedin.metadata.search.utils.QueryUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -19,8 +24,12 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.client.core.CountResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 
 import static com.linkedin.metadata.graph.elastic.ElasticSearchGraphService.INDEX_NAME;
@@ -36,25 +45,51 @@ public class ESGraphQueryDAO {
   private final RestHighLevelClient client;
   private final IndexConvention indexConvention;
 
+  private static final String COUNT_BY_URN_AGGREGATION = "countByUrn";
+
   @Nonnull
   public static void addFilterToQueryBuilder(@Nonnull Filter filter, String node, BoolQueryBuilder rootQuery) {
     BoolQueryBuilder orQuery = new BoolQueryBuilder();
     for (ConjunctiveCriterion conjunction : filter.getOr()) {
       final BoolQueryBuilder andQuery = new BoolQueryBuilder();
       final List<Criterion> criterionArray = conjunction.getAnd();
-      if (!criterionArray.stream().allMatch(criterion -> Condition.EQUAL.equals(criterion.getCondition()))) {
-        throw new RuntimeException("Currently Elastic query filter only supports EQUAL condition " + criterionArray);
-      }
-      criterionArray.forEach(
-          criterion -> andQuery.must(
-              QueryBuilders.termQuery(node + "." + criterion.getField(), criterion.getValue())
-          )
-      );
+      criterionArray.forEach(criterion -> addCriterionToQueryBuilder(criterion, node, andQuery));
       orQuery.should(andQuery);
     }
     rootQuery.must(orQuery);
   }
 
+  /**
+   * Adds a single criterion on the given node ("source" or "destination") to the conjunctive query, so that the
+   * matching is done by Elasticsearch rather than by filtering fetched edges.
+   */
+  private static void addCriterionToQueryBuilder(@Nonnull Criterion criterion, @Nonnull String node,
+      @Nonnull BoolQueryBuilder andQuery) {
+    final String field = node + "." + criterion.getField();
+    final Condition condition = criterion.getCondition();
+    switch (condition) {
+      case EQUAL:
+        andQuery.must(QueryBuilders.termQuery(field, criterion.getValue()));
+        break;
+      case NOT_EQUAL:
+        andQuery.mustNot(QueryBuilders.termQuery(field, criterion.getValue()));
+        break;
+      case IN:
+        andQuery.must(QueryBuilders.termsQuery(field, QueryUtils.getCriterionValues(criterion)));
+        break;
+      case START_WITH:
+        andQuery.must(QueryBuilders.prefixQuery(field, criterion.getValue()));
+        break;
+      case EXISTS:
+        andQuery.must(QueryBuilders.existsQuery(field));
+        break;
+      default:
+        throw new UnsupportedOperationException(
+            "Elastic graph query filter only supports EQUAL, NOT_EQUAL, IN, START_WITH and EXISTS conditions "
+                + criterion);
+    }
+  }
+
   public SearchResponse getSearchResponse(
       @Nullable final String sourceType,
       @Nonnull  final Filter sourceEntityFilter,
@@ -95,6 +130,76 @@ public class ESGraphQueryDAO {
     return null;
   }
 
+  /**
+   * Counts the edge documents matching the query, without fetching any of them.
+   */
+  public long getCount(
+      @Nullable final String sourceType,
+      @Nonnull  final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    CountRequest countRequest = new CountRequest(indexConvention.getIndexName(INDEX_NAME));
+    countRequest.query(buildQuery(
+        sourceType,
+        sourceEntityFilter,
+        destinationType,
+        destinationEntityFilter,
+        relationshipTypes,
+        relationshipFilter
+    ));
+
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esCount").time()) {
+      final CountResponse countResponse = client.count(countRequest, RequestOptions.DEFAULT);
+      return countResponse.getCount();
+    } catch (IOException e) {
+      log.error("Count query failed", e);
+      throw new ESQueryException("Count query failed:", e);
+    }
+  }
+
+  /**
+   * Counts the edge documents per source urn with a single terms aggregation, without fetching any of them.
+   * Source urns without matching edges are missing from the result.
+   */
+  @Nonnull
+  public Map<String, Long> getCountsBySourceUrn(
+      @Nonnull final List<String> sourceUrns,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final String sourceNode =
+        relationshipFilter.getDirection() == RelationshipDirection.OUTGOING ? "source" : "destination";
+
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+    searchSourceBuilder.size(0);
+    searchSourceBuilder.query(buildQuery(
+        null,
+        QueryUtils.getFilterFromCriteria(Collections.singletonList(QueryUtils.newInCriterion("urn", sourceUrns))),
+        null,
+        QueryUtils.EMPTY_FILTER,
+        relationshipTypes,
+        relationshipFilter
+    ));
+    searchSourceBuilder.aggregation(AggregationBuilders.terms(COUNT_BY_URN_AGGREGATION)
+        .field(sourceNode + ".urn")
+        .size(sourceUrns.size()));
+
+    SearchRequest searchRequest = new SearchRequest(indexConvention.getIndexName(INDEX_NAME));
+    searchRequest.source(searchSourceBuilder);
+
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esCountByUrn").time()) {
+      final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+      final Map<String, Long> counts = new HashMap<>();
+      final Terms terms = searchResponse.getAggregations().get(COUNT_BY_URN_AGGREGATION);
+      terms.getBuckets().forEach(bucket -> counts.put(bucket.getKeyAsString(), bucket.getDocCount()));
+      return counts;
+    } catch (IOException e) {
+      log.error("Count by urn query failed", e);
+      throw new ESQueryException("Count by urn query failed:", e);
+    }
+  }
+
   public static BoolQueryBuilder buildQuery(
       @Nullable final String sourceType,
       @Nonnull  final Filter sourceEntityFilter,
@@ -10,6 +10,7 @@ import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
@@ -46,6 +47,15 @@ public class ESGraphWriteDAO {
     bulkProcessor.add(updateRequest);
   }
 
+  /**
+   * Deletes the given search document.
+   *
+   * @param docId the ID of the document
+   */
+  public void deleteDocument(@Nonnull String docId) {
+    bulkProcessor.add(new DeleteRequest(indexConvention.getIndexName(INDEX_NAME), docId));
+  }
+
   public BulkByScrollResponse deleteByQuery(@Nullable final String sourceType, @Nonnull final Filter sourceEntityFilter,
       @Nullable final String destinationType, @Nonnull final Filter destinationEntityFilter,
       @Nonnull final List<String> relationshipTypes, @Nonnull final RelationshipFilter relationshipFilter) {
@@ -96,6 +96,10 @@ public class ElasticSearchGraphService implements GraphService {
     _graphWriteDAO.upsertDocument(docId, edgeDocument);
   }
 
+  public void removeEdge(@Nonnull final Edge edge) {
+    _graphWriteDAO.deleteDocument(toDocId(edge));
+  }
+
   @Nonnull
   public RelatedEntitiesResult findRelatedEntities(
       @Nullable final String sourceType,
@@ -143,6 +147,41 @@ public class ElasticSearchGraphService implements GraphService {
     return new RelatedEntitiesResult(offset, relationships.size(), totalCount, relationships);
   }
 
+  public int countRelatedEntities(
+      @Nullable final String sourceType,
+      @Nonnull final Filter sourceEntityFilter,
+      @Nullable final String destinationType,
+      @Nonnull final Filter destinationEntityFilter,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    if (relationshipTypes.isEmpty()) {
+      return 0;
+    }
+
+    return (int) _graphReadDAO.getCount(
+        sourceType,
+        sourceEntityFilter,
+        destinationType,
+        destinationEntityFilter,
+        relationshipTypes,
+        relationshipFilter
+    );
+  }
+
+  @Nonnull
+  public Map<String, Integer> batchCountRelatedEntities(
+      @Nonnull final List<String> sourceUrns,
+      @Nonnull final List<String> relationshipTypes,
+      @Nonnull final RelationshipFilter relationshipFilter) {
+    final Map<String, Long> counts = sourceUrns.isEmpty() || relationshipTypes.isEmpty()
+        ? Collections.emptyMap()
+        : _graphReadDAO.getCountsBySourceUrn(sourceUrns, relationshipTypes, relationshipFilter);
+
+    final Map<String, Integer> result = new HashMap<>();
+    sourceUrns.forEach(urn -> result.put(urn, counts.getOrDefault(urn, 0L).intValue()));
+    return result;
+  }
+
   private Filter createUrnFilter(@Nonnull final Urn urn) {
     Filter filter = new Filter();
     CriterionArray criterionArray = new CriterionArray();
@@ -27,6 +27,15 @@ public interface EntitySearchService {
    */
   long docCount(@Nonnull String entityName);
 
+  /**
+   * Get the number of documents of each of the given entities in one round trip
+   *
+   * @param entityNames names of the entities
+   * @return a map from entity name to its number of documents
+   */
+  @Nonnull
+  Map<String, Long> docCounts(@Nonnull List<String> entityNames);
+
   /**
    * Updates or inserts the given search document.
    *
@@ -36,6 +45,15 @@ public interface EntitySearchService {
    */
   void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId);
 
+  /**
+   * Updates or inserts the given search document, serialized as UTF-8 JSON.
+   *
+   * @param entityName name of the entity
+   * @param document the document to update / insert
+   * @param docId the ID of the document
+   */
+  void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId);
+
   /**
    * Deletes the document with the given document ID from the index.
    *
@@ -60,6 +78,39 @@ public interface EntitySearchService {
   SearchResult search(@Nonnull String entityName, @Nonnull String input, @Nullable Filter postFilters,
       @Nullable SortCriterion sortCriterion, int from, int size);
 
+  /**
+   * Gets a list of documents that match given search request for each of the given entities, sending all entity
+   * queries to the search backend at once instead of one request per entity. Entities are searched the same way as
+   * with {@link #search}.
+   *
+   * @param entityNames names of the entities
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param from index to start the search from, per entity
+   * @param size the number of search hits to return, per entity
+   * @return a map from entity name to its {@link com.linkedin.metadata.dao.SearchResult}
+   */
+  @Nonnull
+  Map<String, SearchResult> multiSearch(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size);
+
+  /**
+   * Gets a page of documents that match given search request, paging by cursor instead of offset so that arbitrarily
+   * large result sets can be walked through at the same cost per page.
+   *
+   * @param entityName name of the entity
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param scrollId scroll id returned with the previous page, null to get the first page
+   * @param size the number of search hits to return
+   * @return a {@link ScrollResult} that contains a page of matched documents and the scroll id of the next page
+   */
+  @Nonnull
+  ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter postFilters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size);
+
   /**
    * Gets a list of documents after applying the input filters.
    *
@@ -126,4 +177,24 @@ public interface EntitySearchService {
    */
   @Nonnull
   List<String> getBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn);
+
+  /**
+   * Updates the browse paths of an entity in the materialized browse tree, if the implementation keeps one.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param browsePaths browse paths of the entity, empty if the entity has none anymore
+   */
+  default void updateBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn, @Nonnull List<String> browsePaths) {
+  }
+
+  /**
+   * Updates whether an entity is removed in the materialized browse tree, if the implementation keeps one.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param removed whether the entity is removed
+   */
+  default void updateRemoved(@Nonnull String entityName, @Nonnull Urn urn, boolean removed) {
+  }
 }
@@ -6,8 +6,10 @@ import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.aggregator.AllEntitiesSearchAggregator;
 import com.linkedin.metadata.search.ranker.SearchRanker;
 import com.linkedin.metadata.search.cache.AllEntitiesSearchAggregatorCache;
+import com.linkedin.metadata.search.cache.EntityDocCountCache;
 import com.linkedin.metadata.search.cache.EntitySearchServiceCache;
 import java.util.List;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -15,30 +17,43 @@ import org.springframework.cache.CacheManager;
 
 @Slf4j
 public class SearchService {
-  private final EntitySearchService _entitySearchService;
   private final AllEntitiesSearchAggregator _aggregator;
   private final SearchRanker _searchRanker;
+  private final EntityDocCountCache _entityDocCountCache;
 
   private final EntitySearchServiceCache _entitySearchServiceCache;
   private final AllEntitiesSearchAggregatorCache _allEntitiesSearchAggregatorCache;
 
   public SearchService(EntityRegistry entityRegistry, EntitySearchService entitySearchService,
-      SearchRanker searchRanker, CacheManager cacheManager, int batchSize) {
-    _entitySearchService = entitySearchService;
+      SearchRanker searchRanker, CacheManager cacheManager, EntityDocCountCache entityDocCountCache, int batchSize) {
+    this(entityRegistry, entitySearchService, searchRanker, cacheManager, entityDocCountCache, batchSize, null);
+  }
+
+  /**
+   * @param prefetchExecutor executor the batch of results following a served page is prefetched on, null to not
+   *                         prefetch
+   */
+  public SearchService(EntityRegistry entityRegistry, EntitySearchService entitySearchService,
+      SearchRanker searchRanker, CacheManager cacheManager, EntityDocCountCache entityDocCountCache, int batchSize,
+      @Nullable Executor prefetchExecutor) {
     _searchRanker = searchRanker;
+    _entityDocCountCache = entityDocCountCache;
     _aggregator =
-        new AllEntitiesSearchAggregator(entityRegistry, entitySearchService, searchRanker, cacheManager, batchSize);
-    _entitySearchServiceCache = new EntitySearchServiceCache(cacheManager, entitySearchService, batchSize);
-    _allEntitiesSearchAggregatorCache = new AllEntitiesSearchAggregatorCache(cacheManager, _aggregator, batchSize);
+        new AllEntitiesSearchAggregator(entityRegistry, entitySearchService, searchRanker, entityDocCountCache);
+    _entitySearchServiceCache =
+        new EntitySearchServiceCache(cacheManager, entitySearchService, batchSize, prefetchExecutor);
+    _allEntitiesSearchAggregatorCache =
+        new AllEntitiesSearchAggregatorCache(cacheManager, _aggregator, batchSize, prefetchExecutor);
   }
 
   /**
-   * Get the number of documents corresponding to the entity
+   * Get the number of documents corresponding to the entity. The count is read from the cached entity counts, which
+   * are refreshed from the search index periodically.
    *
    * @param entityName name of the entity
    */
   public long docCount(@Nonnull String entityName) {
-    return _entitySearchService.docCount(entityName);
+    return _entityDocCountCache.getCount(entityName);
   }
 
   /**
@@ -15,13 +15,10 @@ import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchResultMetadata;
-import com.linkedin.metadata.search.cache.EntitySearchServiceCache;
-import com.linkedin.metadata.search.cache.NonEmptyEntitiesCache;
+import com.linkedin.metadata.search.cache.EntityDocCountCache;
 import com.linkedin.metadata.search.ranker.SearchRanker;
-import com.linkedin.metadata.utils.ConcurrencyUtils;
 import com.linkedin.metadata.utils.SearchUtil;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
-import com.linkedin.util.Pair;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -35,7 +32,6 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.CacheManager;
 
 
 @Slf4j
@@ -43,22 +39,17 @@ public class AllEntitiesSearchAggregator {
   private final EntityRegistry _entityRegistry;
   private final EntitySearchService _entitySearchService;
   private final SearchRanker _searchRanker;
-  private final CacheManager _cacheManager;
-  private final NonEmptyEntitiesCache _nonEmptyEntitiesCache;
-
-  private final EntitySearchServiceCache _entitySearchServiceCache;
+  private final EntityDocCountCache _entityDocCountCache;
 
   private static final List<String> FILTER_RANKING =
       ImmutableList.of("entity", "typeNames", "platform", "origin", "tags", "glossaryTerms");
 
   public AllEntitiesSearchAggregator(EntityRegistry entityRegistry, EntitySearchService entitySearchService,
-      SearchRanker searchRanker, CacheManager cacheManager, int batchSize) {
+      SearchRanker searchRanker, EntityDocCountCache entityDocCountCache) {
     _entityRegistry = entityRegistry;
     _entitySearchService = entitySearchService;
     _searchRanker = searchRanker;
-    _cacheManager = cacheManager;
-    _nonEmptyEntitiesCache = new NonEmptyEntitiesCache(entityRegistry, entitySearchService, cacheManager);
-    _entitySearchServiceCache = new EntitySearchServiceCache(cacheManager, entitySearchService, batchSize);
+    _entityDocCountCache = entityDocCountCache;
   }
 
   @Nonnull
@@ -73,7 +64,7 @@ public class AllEntitiesSearchAggregator {
     List<String> nonEmptyEntities;
     List<String> lowercaseEntities = entities.stream().map(String::toLowerCase).collect(Collectors.toList());
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "getNonEmptyEntities").time()) {
-      nonEmptyEntities = _nonEmptyEntitiesCache.getNonEmptyEntities();
+      nonEmptyEntities = _entityDocCountCache.getNonEmptyEntities();
     }
     if (!entities.isEmpty()) {
       nonEmptyEntities = nonEmptyEntities.stream().filter(lowercaseEntities::contains).collect(Collectors.toList());
@@ -141,14 +132,13 @@ public class AllEntitiesSearchAggregator {
   private Map<String, SearchResult> getSearchResultsForEachEntity(@Nonnull List<String> entities, @Nonnull String input,
       @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int queryFrom, int querySize) {
     Map<String, SearchResult> searchResults;
-    // Query the entity search service for all entities asynchronously
+    // Query the entity search service for all entities with a single multi search request
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "searchEntities").time()) {
-      searchResults = ConcurrencyUtils.transformAndCollectAsync(entities, entity -> new Pair<>(entity,
-          _entitySearchServiceCache.getSearcher(entity, input, postFilters, sortCriterion)
-              .getSearchResults(queryFrom, querySize)))
+      searchResults = _entitySearchService.multiSearch(entities, input, postFilters, sortCriterion, queryFrom, querySize)
+          .entrySet()
           .stream()
-          .filter(pair -> pair.getValue().getNumEntities() > 0)
-          .collect(Collectors.toMap(Pair::getKey, Pair::getValue));
+          .filter(entry -> entry.getValue().getNumEntities() > 0)
+          .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
     return searchResults;
   }
@@ -4,6 +4,7 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.aggregator.AllEntitiesSearchAggregator;
 import java.util.List;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -17,11 +18,14 @@ public class AllEntitiesSearchAggregatorCache {
   private final CacheManager cacheManager;
   private final AllEntitiesSearchAggregator aggregator;
   private final int batchSize;
+  @Nullable
+  private final Executor prefetchExecutor;
 
   public CacheableSearcher<?> getSearcher(List<String> entities, @Nonnull String input,
       @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion) {
     return new CacheableSearcher<>(cacheManager.getCache(ALL_ENTITIES_SEARCH_AGGREGATOR_CACHE_NAME), batchSize,
         querySize -> aggregator.search(entities, input, postFilters, sortCriterion, querySize.getFrom(),
-            querySize.getSize()), querySize -> Quintet.with(entities, input, postFilters, sortCriterion, querySize));
+            querySize.getSize()), querySize -> Quintet.with(entities, input, postFilters, sortCriterion, querySize), false,
+        prefetchExecutor);
   }
 }
@@ -1,21 +1,37 @@
 package com.linkedin.metadata.search.cache;
 
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.DoubleMap;
+import com.linkedin.data.template.StringMap;
+import com.linkedin.metadata.search.MatchedField;
+import com.linkedin.metadata.search.MatchedFieldArray;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.SearchResultMetadata;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
-import lombok.RequiredArgsConstructor;
+import javax.annotation.Nullable;
 import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 
 
 /**
  * Wrapper class to allow searching in batches and caching the results.
+ *
+ * Batches are cached in a compact form, see {@link CachedBatch}. Given an executor, once a page is served the batch
+ * following it is fetched in the background, so that paging through the results mostly hits the cache.
  */
-@RequiredArgsConstructor
+@Slf4j
 public class CacheableSearcher<K> {
   @Nonnull
   private final Cache cache;
@@ -24,6 +40,26 @@ public class CacheableSearcher<K> {
   private final Function<QueryPagination, SearchResult> searcher;
   // Function that generates the cache key given the query batch (from, size)
   private final Function<QueryPagination, K> cacheKeyGenerator;
+  // Whether every batch but the last returns exactly batchSize results, so that the batch of a page can be computed
+  private final boolean fixedBatchSize;
+  // Executor the next batch is prefetched on, null to not prefetch
+  @Nullable
+  private final Executor prefetchExecutor;
+
+  public CacheableSearcher(@Nonnull Cache cache, int batchSize, Function<QueryPagination, SearchResult> searcher,
+      Function<QueryPagination, K> cacheKeyGenerator) {
+    this(cache, batchSize, searcher, cacheKeyGenerator, false, null);
+  }
+
+  public CacheableSearcher(@Nonnull Cache cache, int batchSize, Function<QueryPagination, SearchResult> searcher,
+      Function<QueryPagination, K> cacheKeyGenerator, boolean fixedBatchSize, @Nullable Executor prefetchExecutor) {
+    this.cache = cache;
+    this.batchSize = batchSize;
+    this.searcher = searcher;
+    this.cacheKeyGenerator = cacheKeyGenerator;
+    this.fixedBatchSize = fixedBatchSize;
+    this.prefetchExecutor = prefetchExecutor;
+  }
 
   @Value
   public static class QueryPagination {
@@ -31,21 +67,187 @@ public class CacheableSearcher<K> {
     int size;
   }
 
+  /**
+   * Cached form of a batch of search results. Instead of a {@link SearchResult} record, which wraps a data map per
+   * search entity and per matched field, the batch is kept in flat arrays:
+   * <ul>
+   *   <li>the features of all entities in a row major matrix of doubles, with a column per feature name of the batch
+   *   and NaN where an entity does not have the feature</li>
+   *   <li>the matched fields of all entities in consecutive names and values, entity i owning the range from
+   *   matchedFieldOffsets[i] to matchedFieldOffsets[i + 1]</li>
+   *   <li>the document fields of all entities the same way, entity i owning the range from documentFieldOffsets[i] to
+   *   documentFieldOffsets[i + 1], and hasDocumentFields[i] telling whether it has a map of them at all, as an empty
+   *   map still tells the entity was read from its search document</li>
+   * </ul>
+   * Each is null when no entity of the batch has any. The records are only rebuilt for the entities of a served page.
+   */
+  @Value
+  static class CachedBatch {
+    Urn[] entities;
+    @Nullable
+    String[] featureNames;
+    @Nullable
+    double[] features;
+    @Nullable
+    int[] matchedFieldOffsets;
+    @Nullable
+    String[] matchedFieldNames;
+    @Nullable
+    String[] matchedFieldValues;
+    @Nullable
+    boolean[] hasDocumentFields;
+    @Nullable
+    int[] documentFieldOffsets;
+    @Nullable
+    String[] documentFieldNames;
+    @Nullable
+    String[] documentFieldValues;
+    SearchResultMetadata metadata;
+    int numEntities;
+
+    static CachedBatch fromSearchResult(@Nonnull SearchResult searchResult) {
+      final SearchEntityArray searchEntities = searchResult.getEntities();
+      final int size = searchEntities.size();
+      final Urn[] entities = new Urn[size];
+      final Map<String, Integer> featureColumns = new LinkedHashMap<>();
+      int numMatchedFields = 0;
+      boolean anyDocumentFields = false;
+      int numDocumentFields = 0;
+      for (int i = 0; i < size; i++) {
+        final SearchEntity searchEntity = searchEntities.get(i);
+        entities[i] = searchEntity.getEntity();
+        numMatchedFields += searchEntity.getMatchedFields().size();
+        if (searchEntity.hasDocumentFields()) {
+          anyDocumentFields = true;
+          numDocumentFields += searchEntity.getDocumentFields().size();
+        }
+        if (searchEntity.hasFeatures()) {
+          searchEntity.getFeatures().keySet().forEach(name -> featureColumns.putIfAbsent(name, featureColumns.size()));
+        }
+      }
+
+      String[] featureNames = null;
+      double[] features = null;
+      if (!featureColumns.isEmpty()) {
+        featureNames = featureColumns.keySet().toArray(new String[0]);
+        features = new double[size * featureNames.length];
+        Arrays.fill(features, Double.NaN);
+        for (int i = 0; i < size; i++) {
+          final SearchEntity searchEntity = searchEntities.get(i);
+          if (searchEntity.hasFeatures()) {
+            for (Map.Entry<String, Double> feature : searchEntity.getFeatures().entrySet()) {
+              features[i * featureNames.length + featureColumns.get(feature.getKey())] = feature.getValue();
+            }
+          }
+        }
+      }
+
+      int[] matchedFieldOffsets = null;
+      String[] matchedFieldNames = null;
+      String[] matchedFieldValues = null;
+      if (numMatchedFields > 0) {
+        matchedFieldOffsets = new int[size + 1];
+        matchedFieldNames = new String[numMatchedFields];
+        matchedFieldValues = new String[numMatchedFields];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+          matchedFieldOffsets[i] = offset;
+          for (MatchedField matchedField : searchEntities.get(i).getMatchedFields()) {
+            matchedFieldNames[offset] = matchedField.getName();
+            matchedFieldValues[offset] = matchedField.getValue();
+            offset++;
+          }
+        }
+        matchedFieldOffsets[size] = offset;
+      }
+
+      boolean[] hasDocumentFields = null;
+      int[] documentFieldOffsets = null;
+      String[] documentFieldNames = null;
+      String[] documentFieldValues = null;
+      if (anyDocumentFields) {
+        hasDocumentFields = new boolean[size];
+        documentFieldOffsets = new int[size + 1];
+        documentFieldNames = new String[numDocumentFields];
+        documentFieldValues = new String[numDocumentFields];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+          documentFieldOffsets[i] = offset;
+          hasDocumentFields[i] = searchEntities.get(i).hasDocumentFields();
+          if (hasDocumentFields[i]) {
+            for (Map.Entry<String, String> documentField : searchEntities.get(i).getDocumentFields().entrySet()) {
+              documentFieldNames[offset] = documentField.getKey();
+              documentFieldValues[offset] = documentField.getValue();
+              offset++;
+            }
+          }
+        }
+        documentFieldOffsets[size] = offset;
+      }
+
+      return new CachedBatch(entities, featureNames, features, matchedFieldOffsets, matchedFieldNames,
+          matchedFieldValues, hasDocumentFields, documentFieldOffsets, documentFieldNames, documentFieldValues,
+          searchResult.getMetadata(), searchResult.getNumEntities());
+    }
+
+    int size() {
+      return entities.length;
+    }
+
+    @Nonnull
+    List<SearchEntity> getEntities(int start, int end) {
+      final List<SearchEntity> searchEntities = new ArrayList<>(end - start);
+      for (int i = start; i < end; i++) {
+        final SearchEntity searchEntity = new SearchEntity().setEntity(entities[i]);
+        if (matchedFieldOffsets != null && matchedFieldOffsets[i] < matchedFieldOffsets[i + 1]) {
+          final MatchedFieldArray matchedFields =
+              new MatchedFieldArray(matchedFieldOffsets[i + 1] - matchedFieldOffsets[i]);
+          for (int j = matchedFieldOffsets[i]; j < matchedFieldOffsets[i + 1]; j++) {
+            matchedFields.add(new MatchedField().setName(matchedFieldNames[j]).setValue(matchedFieldValues[j]));
+          }
+          searchEntity.setMatchedFields(matchedFields);
+        }
+        if (featureNames != null) {
+          final Map<String, Double> entityFeatures = new HashMap<>();
+          for (int j = 0; j < featureNames.length; j++) {
+            final double value = features[i * featureNames.length + j];
+            if (!Double.isNaN(value)) {
+              entityFeatures.put(featureNames[j], value);
+            }
+          }
+          if (!entityFeatures.isEmpty()) {
+            searchEntity.setFeatures(new DoubleMap(entityFeatures));
+          }
+        }
+        if (hasDocumentFields != null && hasDocumentFields[i]) {
+          final Map<String, String> entityDocumentFields = new HashMap<>();
+          for (int j = documentFieldOffsets[i]; j < documentFieldOffsets[i + 1]; j++) {
+            entityDocumentFields.put(documentFieldNames[j], documentFieldValues[j]);
+          }
+          searchEntity.setDocumentFields(new StringMap(entityDocumentFields));
+        }
+        searchEntities.add(searchEntity);
+      }
+      return searchEntities;
+    }
+  }
+
   /**
    * Get search results corresponding to the input "from" and "size"
    * It goes through batches, starting from the beginning, until we get enough results to return
    * This let's us have batches that return a variable number of results (we have no idea which batch the "from" "size" page corresponds to)
+   * If batches have a fixed size, it starts right at the batch containing "from" instead.
    */
   public SearchResult getSearchResults(int from, int size) {
-    int resultsSoFar = 0;
-    int batchId = 0;
+    int batchId = fixedBatchSize ? from / batchSize : 0;
+    int resultsSoFar = batchId * batchSize;
     boolean foundStart = false;
     List<SearchEntity> resultEntities = new ArrayList<>();
-    SearchResult batchedResult;
+    CachedBatch batchedResult;
     // Use do-while to make sure we run at least one batch to fetch metadata
     do {
       batchedResult = getBatch(batchId);
-      int currentBatchSize = batchedResult.getEntities().size();
+      int currentBatchSize = batchedResult.size();
       // If the number of results in this batch is 0, no need to continue
       if (currentBatchSize == 0) {
         break;
@@ -53,7 +255,7 @@ public class CacheableSearcher<K> {
       if (resultsSoFar + currentBatchSize > from) {
         int startInBatch = foundStart ? 0 : from - resultsSoFar;
         int endInBatch = Math.min(currentBatchSize, startInBatch + size - resultEntities.size());
-        resultEntities.addAll(batchedResult.getEntities().subList(startInBatch, endInBatch));
+        resultEntities.addAll(batchedResult.getEntities(startInBatch, endInBatch));
         foundStart = true;
       }
       // If current batch is smaller than the requested batch size, the next batch will return empty.
@@ -63,6 +265,12 @@ public class CacheableSearcher<K> {
       resultsSoFar += currentBatchSize;
       batchId++;
     } while (resultsSoFar < from + size);
+
+    // The loop only ends on its condition if the last batch was full, so there may be a next page to prefetch
+    if (resultsSoFar >= from + size) {
+      prefetchBatch(batchId);
+    }
+
     return new SearchResult().setEntities(new SearchEntityArray(resultEntities))
         .setMetadata(batchedResult.getMetadata())
         .setFrom(from)
@@ -74,14 +282,36 @@ public class CacheableSearcher<K> {
     return new QueryPagination(batchId * batchSize, batchSize);
   }
 
-  private SearchResult getBatch(int batchId) {
+  private CachedBatch getBatch(int batchId) {
     QueryPagination batch = getBatchQuerySize(batchId);
     K cacheKey = cacheKeyGenerator.apply(batch);
-    SearchResult result = cache.get(cacheKey, SearchResult.class);
+    CachedBatch result = cache.get(cacheKey, CachedBatch.class);
     if (result == null) {
-      result = searcher.apply(batch);
+      result = CachedBatch.fromSearchResult(searcher.apply(batch));
       cache.put(cacheKey, result);
     }
     return result;
   }
+
+  private void prefetchBatch(int batchId) {
+    if (prefetchExecutor == null) {
+      return;
+    }
+    @Nullable Cache.ValueWrapper cached = cache.get(cacheKeyGenerator.apply(getBatchQuerySize(batchId)));
+    if (cached != null) {
+      return;
+    }
+    try {
+      prefetchExecutor.execute(() -> {
+        try {
+          getBatch(batchId);
+        } catch (RuntimeException e) {
+          log.warn(String.format("Failed to prefetch search batch %s", batchId), e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // Prefetching is best effort, the batch is fetched when its page is requested
+      log.debug("Skipped prefetching search batch {}, the prefetch executor is saturated", batchId);
+    }
+  }
 }
@@ -0,0 +1,129 @@
+package com.linkedin.metadata.search.cache;
+
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import io.opentelemetry.extension.annotations.WithSpan;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Cached number of search documents of each entity type, so that entity counts are memory reads instead of count
+ * queries against every entity index.
+ *
+ * The counts are loaded with a single multi search on first read, and then refreshed from the search indices at a
+ * fixed interval, so they may lag the indices by up to that interval. They are not updated from the change log, whose
+ * events neither reach every instance serving reads nor tell whether an entity was already counted.
+ */
+@Slf4j
+public class EntityDocCountCache implements AutoCloseable {
+  private final EntityRegistry _entityRegistry;
+  private final EntitySearchService _entitySearchService;
+  private final long _refreshIntervalSeconds;
+
+  // Keyed by lower case entity name, as entity names are matched case insensitively
+  private final Map<String, AtomicLong> _counts = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService _refreshExecutorService = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("entity-count-refresh-%d").build());
+  private volatile boolean _loaded = false;
+
+  public EntityDocCountCache(@Nonnull EntityRegistry entityRegistry, @Nonnull EntitySearchService entitySearchService,
+      long refreshIntervalSeconds) {
+    _entityRegistry = entityRegistry;
+    _entitySearchService = entitySearchService;
+    _refreshIntervalSeconds = refreshIntervalSeconds;
+  }
+
+  /**
+   * Get the number of documents corresponding to the entity
+   *
+   * @param entityName name of the entity
+   */
+  public long getCount(@Nonnull String entityName) {
+    load();
+    final AtomicLong count = _counts.get(entityName.toLowerCase());
+    if (count == null) {
+      // Not an entity of the registry, let the search service deal with it
+      return _entitySearchService.docCount(entityName);
+    }
+    return toCount(count);
+  }
+
+  /**
+   * Get the names of the entities that have at least one document, in the order of the entity registry
+   */
+  @Nonnull
+  @WithSpan
+  public List<String> getNonEmptyEntities() {
+    load();
+    return _entityRegistry.getEntitySpecs()
+        .keySet()
+        .stream()
+        .filter(entityName -> toCount(_counts.get(entityName.toLowerCase())) > 0)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Replaces the cached counts with the number of documents in the indices.
+   */
+  public void refresh() {
+    final List<String> entityNames = new ArrayList<>(_entityRegistry.getEntitySpecs().keySet());
+    final Map<String, Long> counts;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "refresh").time()) {
+      counts = _entitySearchService.docCounts(entityNames);
+    }
+    counts.forEach((entityName, count) ->
+        _counts.computeIfAbsent(entityName.toLowerCase(), key -> new AtomicLong()).set(count));
+  }
+
+  /**
+   * Stops refreshing the counts.
+   */
+  @Override
+  public void close() {
+    _refreshExecutorService.shutdownNow();
+  }
+
+  private static long toCount(@Nullable AtomicLong count) {
+    return count == null ? 0 : count.get();
+  }
+
+  private void load() {
+    if (_loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (_loaded) {
+        return;
+      }
+      refresh();
+      _loaded = true;
+      if (_refreshIntervalSeconds > 0) {
+        _refreshExecutorService.scheduleAtFixedRate(this::refreshQuietly, _refreshIntervalSeconds,
+            _refreshIntervalSeconds, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  private void refreshQuietly() {
+    // An exception would cancel the scheduled refresh, so keep the current counts until the next one
+    try {
+      refresh();
+    } catch (Exception e) {
+      log.warn("Failed to refresh entity counts", e);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.linkedin.metadata.search.cache;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.EntitySearchService;
+import java.util.concurrent.Executor;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
@@ -17,11 +18,14 @@ public class EntitySearchServiceCache {
   private final CacheManager cacheManager;
   private final EntitySearchService entitySearchService;
   private final int batchSize;
+  @Nullable
+  private final Executor prefetchExecutor;
 
   public CacheableSearcher<?> getSearcher(@Nonnull String entityName, @Nonnull String input,
       @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion) {
     return new CacheableSearcher<>(cacheManager.getCache(ENTITY_SEARCH_SERVICE_CACHE_NAME), batchSize,
         querySize -> entitySearchService.search(entityName, input, postFilters, sortCriterion, querySize.getFrom(),
-            querySize.getSize()), querySize -> Quintet.with(entityName, input, postFilters, sortCriterion, querySize));
+            querySize.getSize()), querySize -> Quintet.with(entityName, input, postFilters, sortCriterion, querySize), true,
+        prefetchExecutor);
   }
 }
@@ -6,6 +6,7 @@ import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
@@ -31,6 +32,7 @@ public class ElasticSearchService implements EntitySearchService {
   @Override
   public void configure() {
     indexBuilders.buildAll();
+    esBrowseDAO.configure();
   }
 
   @Override
@@ -43,6 +45,12 @@ public class ElasticSearchService implements EntitySearchService {
     return esSearchDAO.docCount(entityName);
   }
 
+  @Nonnull
+  @Override
+  public Map<String, Long> docCounts(@Nonnull List<String> entityNames) {
+    return esSearchDAO.docCounts(entityNames);
+  }
+
   @Override
   public void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId) {
     log.debug(String.format("Upserting Search document entityName: %s, document: %s, docId: %s", entityName, document,
@@ -50,6 +58,12 @@ public class ElasticSearchService implements EntitySearchService {
     esWriteDAO.upsertDocument(entityName, document, docId);
   }
 
+  @Override
+  public void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId) {
+    log.debug("Upserting Search document entityName: {}, docId: {}", entityName, docId);
+    esWriteDAO.upsertDocument(entityName, document, docId);
+  }
+
   @Override
   public void deleteDocument(@Nonnull String entityName, @Nonnull String docId) {
     log.debug(String.format("Deleting Search document entityName: %s, docId: %s", entityName, docId));
@@ -66,6 +80,26 @@ public class ElasticSearchService implements EntitySearchService {
     return esSearchDAO.search(entityName, input, postFilters, sortCriterion, from, size);
   }
 
+  @Nonnull
+  @Override
+  public Map<String, SearchResult> multiSearch(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size) {
+    log.debug(String.format(
+        "Multi searching Search documents entityNames: %s, input: %s, postFilters: %s, sortCriterion: %s, from: %s, size: %s",
+        entityNames, input, postFilters, sortCriterion, from, size));
+    return esSearchDAO.multiSearch(entityNames, input, postFilters, sortCriterion, from, size);
+  }
+
+  @Nonnull
+  @Override
+  public ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter postFilters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size) {
+    log.debug(String.format(
+        "Scrolling Search documents entityName: %s, input: %s, postFilters: %s, sortCriterion: %s, scrollId: %s, size: %s",
+        entityName, input, postFilters, sortCriterion, scrollId, size));
+    return esSearchDAO.scroll(entityName, input, postFilters, sortCriterion, scrollId, size);
+  }
+
   @Nonnull
   @Override
   public SearchResult filter(@Nonnull String entityName, @Nullable Filter filters,
@@ -110,4 +144,17 @@ public class ElasticSearchService implements EntitySearchService {
     log.debug(String.format("Getting browse paths for entity entityName: %s, urn: %s", entityName, urn));
     return esBrowseDAO.getBrowsePaths(entityName, urn);
   }
+
+  @Override
+  public void updateBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn, @Nonnull List<String> browsePaths) {
+    log.debug(String.format("Updating browse paths entityName: %s, urn: %s, browsePaths: %s", entityName, urn,
+        browsePaths));
+    esBrowseDAO.updateBrowsePaths(entityName, urn, browsePaths);
+  }
+
+  @Override
+  public void updateRemoved(@Nonnull String entityName, @Nonnull Urn urn, boolean removed) {
+    log.debug(String.format("Updating removed entityName: %s, urn: %s, removed: %s", entityName, urn, removed));
+    esBrowseDAO.updateRemoved(entityName, urn, removed);
+  }
 }
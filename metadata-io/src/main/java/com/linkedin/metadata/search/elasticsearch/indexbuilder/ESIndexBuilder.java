@@ -1,23 +1,27 @@
 package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.admin.indices.alias.Alias;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
 import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
 import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
 import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.action.support.IndicesOptions;
 import org.elasticsearch.client.GetAliasesResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
@@ -25,21 +29,55 @@ import org.elasticsearch.client.core.CountRequest;
 import org.elasticsearch.client.indices.CreateIndexRequest;
 import org.elasticsearch.client.indices.GetIndexRequest;
 import org.elasticsearch.client.indices.GetMappingsRequest;
+import org.elasticsearch.client.indices.PutIndexTemplateRequest;
+import org.elasticsearch.client.indices.PutMappingRequest;
+import org.elasticsearch.client.tasks.GetTaskRequest;
+import org.elasticsearch.client.tasks.GetTaskResponse;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.AbstractBulkByScrollRequest;
 import org.elasticsearch.index.reindex.ReindexRequest;
+import org.elasticsearch.tasks.TaskId;
 
 
+/**
+ * Creates or updates an index so that it has the given mappings and settings.
+ *
+ * Changes that elasticsearch can apply in place (new fields, number of replicas) are applied to the existing index.
+ * Otherwise the index is rebuilt: documents are copied into a new index with a sliced, optionally throttled reindex,
+ * followed by catch-up passes that copy the documents written in the meantime. Writes to the source are then blocked
+ * for a final pass, after which the source is deleted and the alias is added to the new index in one request.
+ * Reindexing keeps the source versions, so a catch-up pass only copies documents that changed since the previous one.
+ * Documents deleted while reindexing are not caught up.
+ */
 @Slf4j
-@RequiredArgsConstructor
 public class ESIndexBuilder {
 
   private final RestHighLevelClient searchClient;
   private final int numShards;
   private final int numReplicas;
+  // Number of slices to reindex with, 0 lets elasticsearch pick one per shard
+  private final int numSlices;
+  // Documents per second to reindex at, non-positive to not throttle
+  private final float requestsPerSecond;
 
   private static final int NUM_RETRIES = 3;
-  private static final List<String> SETTINGS_TO_COMPARE = ImmutableList.of("number_of_shards", "number_of_replicas");
+  private static final int MAX_CATCH_UP_PASSES = 3;
+  private static final long TASK_POLL_INTERVAL_MS = 1000;
+
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas) {
+    this(searchClient, numShards, numReplicas, AbstractBulkByScrollRequest.AUTO_SLICES, -1);
+  }
+
+  public ESIndexBuilder(RestHighLevelClient searchClient, int numShards, int numReplicas, int numSlices,
+      float requestsPerSecond) {
+    this.searchClient = searchClient;
+    this.numShards = numShards;
+    this.numReplicas = numReplicas;
+    this.numSlices = numSlices;
+    this.requestsPerSecond = requestsPerSecond;
+  }
 
   public void buildIndex(String indexName, Map<String, Object> mappings, Map<String, Object> settings)
       throws IOException {
@@ -74,8 +112,11 @@ public class ESIndexBuilder {
         .valuesIt()
         .next();
 
+    boolean settingsRequireReindex = settingsRequireReindex(baseSettings, oldSettings);
+    boolean replicasChanged = !equalsSetting(baseSettings, oldSettings, "number_of_replicas");
+
     // If there are no updates to mappings, return
-    if (mappingsDiff.areEqual() && equals(finalSettings, oldSettings)) {
+    if (mappingsDiff.areEqual() && !settingsRequireReindex && !replicasChanged) {
       log.info("No updates to index {}", indexName);
       return;
     }
@@ -86,27 +127,187 @@ public class ESIndexBuilder {
       log.info("There's an update to settings");
     }
 
+    if (!settingsRequireReindex && isCompatibleAddition(mappings, oldMappings, false)) {
+      updateInPlace(indexName, mappings, !mappingsDiff.areEqual(), replicasChanged);
+      return;
+    }
+
     String tempIndexName = indexName + "_" + System.currentTimeMillis();
     createIndex(tempIndexName, mappings, finalSettings);
+    String[] sourceIndices;
     try {
-      searchClient.reindex(
-          new ReindexRequest().setSourceIndices(indexName).setDestIndex(tempIndexName),
-          RequestOptions.DEFAULT);
+      reindex(indexName, tempIndexName);
+      // Copy over the documents written while reindexing, until a pass finds no more changes
+      for (int i = 0; i < MAX_CATCH_UP_PASSES && reindex(indexName, tempIndexName) > 0; i++) {
+        log.info("Caught up on documents written to {} while reindexing", indexName);
+      }
+      // The index itself if it is not aliased, or the indices behind the alias otherwise
+      GetAliasesResponse aliasesResponse = searchClient.indices()
+          .getAlias(new GetAliasesRequest(indexName).indices(indexName + "_*"), RequestOptions.DEFAULT);
+      sourceIndices = aliasesResponse.getAliases().isEmpty() ? new String[]{indexName}
+          : aliasesResponse.getAliases().keySet().toArray(new String[0]);
     } catch (Exception e) {
       log.info("Failed to reindex {} to {}: Exception {}", indexName, tempIndexName, e.toString());
       searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
       throw e;
     }
 
-    // Check whether reindex succeeded by comparing document count
+    // Block writes to the source, so that the final pass copies every document written before the swap.
+    // Writes fail from then on until the alias points to the new index, rather than being lost.
+    setWriteBlock(sourceIndices, true);
+    try {
+      reindex(sourceIndices, tempIndexName);
+      checkCount(sourceIndices, tempIndexName);
+      // Delete the source and add the alias in one go, so that no write can recreate an index of the alias name
+      AliasActions removeAction = AliasActions.removeIndex().indices(sourceIndices);
+      AliasActions addAction = AliasActions.add().alias(indexName).index(tempIndexName);
+      searchClient.indices()
+          .updateAliases(new IndicesAliasesRequest().addAliasAction(removeAction).addAliasAction(addAction),
+              RequestOptions.DEFAULT);
+    } catch (Exception e) {
+      log.info("Failed to reindex {} to {}: Exception {}", indexName, tempIndexName, e.toString());
+      setWriteBlock(sourceIndices, false);
+      searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
+      throw e;
+    }
+    log.info("Reindex from {} to {} succeeded", indexName, tempIndexName);
+    log.info("Finished setting up {}", indexName);
+  }
+
+  /**
+   * Creates or updates an index template, so that the indices matching the pattern are created with the given mappings
+   * and settings, and with the given alias. The mappings of the existing indices matching the pattern are updated in
+   * place where elasticsearch can apply them, and otherwise only apply to the indices created from then on.
+   */
+  public void buildTemplate(String templateName, String indexPattern, String alias, Map<String, Object> mappings,
+      Map<String, Object> settings) throws IOException {
+    Map<String, Object> baseSettings = new HashMap<>(settings);
+    baseSettings.put("number_of_shards", numShards);
+    baseSettings.put("number_of_replicas", numReplicas);
+
+    PutIndexTemplateRequest templateRequest = new PutIndexTemplateRequest(templateName)
+        .patterns(Collections.singletonList(indexPattern))
+        .mapping(mappings)
+        .settings(ImmutableMap.of("index", baseSettings))
+        .alias(new Alias(alias));
+    searchClient.indices().putTemplate(templateRequest, RequestOptions.DEFAULT);
+    log.info("Updated index template {} of {}", templateName, indexPattern);
+
+    try {
+      PutMappingRequest mappingRequest =
+          new PutMappingRequest(indexPattern).source(mappings).indicesOptions(IndicesOptions.lenientExpandOpen());
+      searchClient.indices().putMapping(mappingRequest, RequestOptions.DEFAULT);
+    } catch (ElasticsearchException e) {
+      log.warn("Mappings of the indices matching {} cannot be updated in place, only new indices get them: {}",
+          indexPattern, e.toString());
+    }
+  }
+
+  private void updateInPlace(String indexName, Map<String, Object> mappings, boolean mappingsChanged,
+      boolean replicasChanged) throws IOException {
+    if (mappingsChanged) {
+      log.info("Only new fields were added to the mappings of {}, updating mappings in place", indexName);
+      searchClient.indices().putMapping(new PutMappingRequest(indexName).source(mappings), RequestOptions.DEFAULT);
+    }
+    if (replicasChanged) {
+      log.info("Updating the number of replicas of {} to {}", indexName, numReplicas);
+      searchClient.indices()
+          .putSettings(new UpdateSettingsRequest(indexName).settings(
+              Settings.builder().put("index.number_of_replicas", numReplicas)), RequestOptions.DEFAULT);
+    }
+    log.info("Finished setting up {}", indexName);
+  }
+
+  /**
+   * Whether the new mappings only add fields to the old mappings, which elasticsearch can apply to an existing index.
+   * Adding subfields to an existing field is not a compatible addition, as existing documents would need to be
+   * reindexed to populate them.
+   */
+  static boolean isCompatibleAddition(Map<String, Object> newMappings, Map<String, Object> oldMappings,
+      boolean allowNewKeys) {
+    if (!newMappings.keySet().containsAll(oldMappings.keySet())) {
+      return false;
+    }
+    for (Map.Entry<String, Object> entry : newMappings.entrySet()) {
+      final Object oldValue = oldMappings.get(entry.getKey());
+      if (oldValue == null) {
+        if (!allowNewKeys) {
+          return false;
+        }
+      } else if (entry.getValue() instanceof Map && oldValue instanceof Map) {
+        // New keys are only allowed among the properties of a field, i.e. new fields
+        if (!isCompatibleAddition((Map<String, Object>) entry.getValue(), (Map<String, Object>) oldValue,
+            !allowNewKeys && entry.getKey().equals("properties"))) {
+          return false;
+        }
+      } else if (!String.valueOf(entry.getValue()).equals(String.valueOf(oldValue))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Runs a reindex from the source indices to the destination index as a task and waits for it to complete.
+   * Documents are copied with their versions, so documents that did not change since the last reindex are skipped.
+   *
+   * @return the number of documents created or updated in the destination index
+   */
+  private long reindex(String sourceIndex, String destIndex) throws IOException {
+    return reindex(new String[]{sourceIndex}, destIndex);
+  }
+
+  private long reindex(String[] sourceIndices, String destIndex) throws IOException {
+    ReindexRequest reindexRequest = new ReindexRequest().setSourceIndices(sourceIndices)
+        .setDestIndex(destIndex)
+        .setDestVersionType(VersionType.EXTERNAL)
+        .setConflicts("proceed")
+        .setSlices(numSlices)
+        .setRequestsPerSecond(requestsPerSecond > 0 ? requestsPerSecond : Float.POSITIVE_INFINITY);
+    String task = searchClient.submitReindexTask(reindexRequest, RequestOptions.DEFAULT).getTask();
+    log.info("Reindexing {} to {} in task {}", String.join(",", sourceIndices), destIndex, task);
+    Map<String, Object> status = waitForTask(task);
+    log.info("Reindexed {} to {}: {}", String.join(",", sourceIndices), destIndex, status);
+    return getStatusCount(status, "created") + getStatusCount(status, "updated");
+  }
+
+  private Map<String, Object> waitForTask(String task) throws IOException {
+    TaskId taskId = new TaskId(task);
+    while (true) {
+      Optional<GetTaskResponse> response = searchClient.tasks()
+          .get(new GetTaskRequest(taskId.getNodeId(), taskId.getId()), RequestOptions.DEFAULT);
+      if (!response.isPresent()) {
+        throw new IllegalStateException(String.format("Task %s not found", task));
+      }
+      if (response.get().isCompleted()) {
+        return response.get().getTaskInfo().getStatus();
+      }
+      try {
+        TimeUnit.MILLISECONDS.sleep(TASK_POLL_INTERVAL_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(String.format("Interrupted while waiting for task %s", task), e);
+      }
+    }
+  }
+
+  private static long getStatusCount(Map<String, Object> status, String key) {
+    Object count = status == null ? null : status.get(key);
+    return count instanceof Number ? ((Number) count).longValue() : 0;
+  }
+
+  /**
+   * Checks that the destination index holds every document of the source indices, once writes to them are blocked.
+   * The destination can hold more documents, as documents deleted while reindexing are not caught up.
+   */
+  private void checkCount(String[] sourceIndices, String destIndex) throws IOException {
     // There can be some delay between the reindex finishing and count being fully up to date, so try multiple times
     long originalCount = 0;
     long reindexedCount = 0;
     for (int i = 0; i < NUM_RETRIES; i++) {
-      // Check if reindex succeeded by comparing document counts
-      originalCount = getCount(indexName);
-      reindexedCount = getCount(tempIndexName);
-      if (originalCount == reindexedCount) {
+      originalCount = getCount(sourceIndices);
+      reindexedCount = getCount(destIndex);
+      if (reindexedCount >= originalCount) {
         break;
       }
       try {
@@ -116,38 +317,26 @@ public class ESIndexBuilder {
       }
     }
 
-    if (originalCount != reindexedCount) {
-      log.info("Post-reindex document count is different, source_doc_count: {} reindex_doc_count: {}", originalCount,
+    if (reindexedCount < originalCount) {
+      log.info("Post-reindex document count is lower, source_doc_count: {} reindex_doc_count: {}", originalCount,
           reindexedCount);
-      searchClient.indices().delete(new DeleteIndexRequest().indices(tempIndexName), RequestOptions.DEFAULT);
-      throw new RuntimeException(String.format("Reindex from %s to %s failed", indexName, tempIndexName));
+      throw new RuntimeException(
+          String.format("Reindex from %s to %s failed", String.join(",", sourceIndices), destIndex));
     }
-
-    log.info("Reindex from {} to {} succeeded", indexName, tempIndexName);
-    String indexNamePattern = indexName + "_*";
-    // Check if the original index is aliased or not
-    GetAliasesResponse aliasesResponse = searchClient.indices()
-        .getAlias(new GetAliasesRequest(indexName).indices(indexNamePattern), RequestOptions.DEFAULT);
-    // If not aliased, delete the original index
-    if (aliasesResponse.getAliases().isEmpty()) {
-      searchClient.indices().delete(new DeleteIndexRequest().indices(indexName), RequestOptions.DEFAULT);
-    } else {
-      searchClient.indices()
-          .delete(new DeleteIndexRequest().indices(aliasesResponse.getAliases().keySet().toArray(new String[0])),
-              RequestOptions.DEFAULT);
+    if (reindexedCount > originalCount) {
+      log.warn("{} documents deleted from {} while reindexing are kept in {}", reindexedCount - originalCount,
+          String.join(",", sourceIndices), destIndex);
     }
+  }
 
-    // Add alias for the new index
-    AliasActions removeAction = AliasActions.remove().alias(indexName).index(indexNamePattern);
-    AliasActions addAction = AliasActions.add().alias(indexName).index(tempIndexName);
+  private void setWriteBlock(String[] indices, boolean blocked) throws IOException {
     searchClient.indices()
-        .updateAliases(new IndicesAliasesRequest().addAliasAction(removeAction).addAliasAction(addAction),
+        .putSettings(new UpdateSettingsRequest(indices).settings(Settings.builder().put("index.blocks.write", blocked)),
             RequestOptions.DEFAULT);
-    log.info("Finished setting up {}", indexName);
   }
 
-  private long getCount(@Nonnull String indexName) throws IOException {
-    return searchClient.count(new CountRequest(indexName).query(QueryBuilders.matchAllQuery()), RequestOptions.DEFAULT)
+  private long getCount(@Nonnull String... indexNames) throws IOException {
+    return searchClient.count(new CountRequest(indexNames).query(QueryBuilders.matchAllQuery()), RequestOptions.DEFAULT)
         .getCount();
   }
 
@@ -161,23 +350,23 @@ public class ESIndexBuilder {
     log.info("Created index {}", indexName);
   }
 
-  private boolean equals(Map<String, Object> newSettings, Settings oldSettings) {
-    if (!newSettings.containsKey("index")) {
-      return true;
-    }
-    Map<String, Object> indexSettings = (Map<String, Object>) newSettings.get("index");
-    if (!indexSettings.containsKey("analysis")) {
-      return true;
-    }
-    // Compare analysis section
-    Map<String, Object> newAnalysis = (Map<String, Object>) indexSettings.get("analysis");
-    Settings oldAnalysis = oldSettings.getByPrefix("index.analysis.");
-    if (!equalsGroup(newAnalysis, oldAnalysis)) {
-      return false;
+  /**
+   * Whether the analysis settings or the number of shards changed, which requires the index to be rebuilt.
+   */
+  private boolean settingsRequireReindex(Map<String, Object> indexSettings, Settings oldSettings) {
+    if (indexSettings.containsKey("analysis")) {
+      // Compare analysis section
+      Map<String, Object> newAnalysis = (Map<String, Object>) indexSettings.get("analysis");
+      Settings oldAnalysis = oldSettings.getByPrefix("index.analysis.");
+      if (!equalsGroup(newAnalysis, oldAnalysis)) {
+        return true;
+      }
     }
-    // Compare remaining settings
-    return SETTINGS_TO_COMPARE.stream()
-        .noneMatch(settingKey -> Objects.equals(indexSettings.get(settingKey), oldSettings.get("index." + settingKey)));
+    return !equalsSetting(indexSettings, oldSettings, "number_of_shards");
+  }
+
+  private static boolean equalsSetting(Map<String, Object> indexSettings, Settings oldSettings, String settingKey) {
+    return Objects.equals(String.valueOf(indexSettings.get(settingKey)), oldSettings.get("index." + settingKey));
   }
 
   private boolean equalsGroup(Map<String, Object> newSettings, Settings oldSettings) {
@@ -3,6 +3,7 @@ package com.linkedin.metadata.search.elasticsearch.indexbuilder;
 import com.google.common.collect.ImmutableMap;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
+import com.linkedin.metadata.models.annotation.SearchableAnnotation;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation.FieldType;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,6 +14,12 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class MappingsBuilder {
 
+  // Subfield holding the prefixes of each token of fields with autocomplete enabled
+  public static final String AUTOCOMPLETE_SUBFIELD = "autocomplete";
+
+  private static final Map<String, Object> AUTOCOMPLETE_MAPPING =
+      ImmutableMap.of("type", "text", "analyzer", "autocomplete", "search_analyzer", "autocomplete_search");
+
   private MappingsBuilder() {
   }
 
@@ -24,6 +31,16 @@ public class MappingsBuilder {
     return ImmutableMap.of("properties", mappings);
   }
 
+  /**
+   * Whether the field gets an autocomplete subfield. Only string fields indexed as keywords get one, urn fields are
+   * autocompleted through their components.
+   */
+  public static boolean hasAutocompleteSubfield(@Nonnull final SearchableAnnotation searchableAnnotation) {
+    final FieldType fieldType = searchableAnnotation.getFieldType();
+    return searchableAnnotation.isEnableAutocomplete() && (fieldType == FieldType.KEYWORD
+        || fieldType == FieldType.TEXT || fieldType == FieldType.TEXT_PARTIAL);
+  }
+
   private static Map<String, Object> getMappingsForUrn() {
     return ImmutableMap.<String, Object>builder().put("type", "keyword").build();
   }
@@ -31,15 +48,23 @@ public class MappingsBuilder {
   private static Map<String, Object> getMappingsForField(@Nonnull final SearchableFieldSpec searchableFieldSpec) {
     FieldType fieldType = searchableFieldSpec.getSearchableAnnotation().getFieldType();
     boolean addToFilters = searchableFieldSpec.getSearchableAnnotation().isAddToFilters();
+    boolean addAutocomplete = hasAutocompleteSubfield(searchableFieldSpec.getSearchableAnnotation());
 
     Map<String, Object> mappings = new HashMap<>();
     Map<String, Object> mappingForField = new HashMap<>();
     if (fieldType == FieldType.KEYWORD) {
       mappingForField.put("type", "keyword");
       mappingForField.put("normalizer", "keyword_normalizer");
+      Map<String, Object> subFields = new HashMap<>();
       if (addToFilters) {
         // Add keyword subfield without lowercase filter
-        mappingForField.put("fields", ImmutableMap.of("keyword", ImmutableMap.of("type", "keyword")));
+        subFields.put("keyword", ImmutableMap.of("type", "keyword"));
+      }
+      if (addAutocomplete) {
+        subFields.put(AUTOCOMPLETE_SUBFIELD, AUTOCOMPLETE_MAPPING);
+      }
+      if (!subFields.isEmpty()) {
+        mappingForField.put("fields", subFields);
       }
     } else if (fieldType == FieldType.TEXT || fieldType == FieldType.TEXT_PARTIAL) {
       mappingForField.put("type", "keyword");
@@ -53,6 +78,9 @@ public class MappingsBuilder {
         // Add keyword subfield without lowercase filter
         subFields.put("keyword", ImmutableMap.of("type", "keyword"));
       }
+      if (addAutocomplete) {
+        subFields.put(AUTOCOMPLETE_SUBFIELD, AUTOCOMPLETE_MAPPING);
+      }
       mappingForField.put("fields", subFields);
     } else if (fieldType == FieldType.BROWSE_PATH) {
       mappingForField.put("type", "text");
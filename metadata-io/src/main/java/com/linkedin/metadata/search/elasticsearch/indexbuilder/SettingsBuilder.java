@@ -39,6 +39,12 @@ public class SettingsBuilder {
         .put("max_gram", 20)
         .build());
 
+    // Filter to allow prefix matches on each token from the first character, used for autocomplete
+    filters.put("autocomplete_filter", ImmutableMap.<String, Object>builder().put("type", "edge_ngram")
+        .put("min_gram", 1)
+        .put("max_gram", 20)
+        .build());
+
     // Filter to split string into words
     filters.put("custom_delimiter", ImmutableMap.<String, Object>builder().put("type", "word_delimiter")
         .put("split_on_numerics", false)
@@ -86,6 +92,16 @@ public class SettingsBuilder {
         .put("filter", ImmutableList.of("custom_delimiter", "lowercase", "partial_filter"))
         .build());
 
+    // Analyzer for indexing every prefix of each token of autocomplete fields
+    analyzers.put("autocomplete", ImmutableMap.<String, Object>builder().put("tokenizer", "main_tokenizer")
+        .put("filter", ImmutableList.of("custom_delimiter", "lowercase", "autocomplete_filter"))
+        .build());
+
+    // Analyzer for autocomplete input, which must not be split into prefixes itself
+    analyzers.put("autocomplete_search", ImmutableMap.<String, Object>builder().put("tokenizer", "main_tokenizer")
+        .put("filter", ImmutableList.of("custom_delimiter", "lowercase"))
+        .build());
+
     // Analyzer for text tokenized into words (split by spaces, periods, and slashes)
     analyzers.put("word_delimited", ImmutableMap.<String, Object>builder().put("tokenizer", "main_tokenizer")
         .put("filter", ImmutableList.of("custom_delimiter", "lowercase", "stop"))
@@ -25,7 +25,6 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
@@ -47,12 +46,27 @@ import org.elasticsearch.search.sort.SortOrder;
 
 
 @Slf4j
-@RequiredArgsConstructor
 public class ESBrowseDAO {
 
   private final EntityRegistry entityRegistry;
   private final RestHighLevelClient client;
   private final IndexConvention indexConvention;
+  // Materialized browse tree, null when disabled
+  @Nullable
+  private final ESBrowseTreeDAO browseTreeDAO;
+
+  public ESBrowseDAO(@Nonnull EntityRegistry entityRegistry, @Nonnull RestHighLevelClient client,
+      @Nonnull IndexConvention indexConvention) {
+    this(entityRegistry, client, indexConvention, null);
+  }
+
+  public ESBrowseDAO(@Nonnull EntityRegistry entityRegistry, @Nonnull RestHighLevelClient client,
+      @Nonnull IndexConvention indexConvention, @Nullable ESBrowseTreeDAO browseTreeDAO) {
+    this.entityRegistry = entityRegistry;
+    this.client = client;
+    this.indexConvention = indexConvention;
+    this.browseTreeDAO = browseTreeDAO;
+  }
 
   private static final String BROWSE_PATH = "browsePaths";
   private static final String BROWSE_PATH_DEPTH = "browsePaths.length";
@@ -72,9 +86,17 @@ public class ESBrowseDAO {
     int totalNumEntities;
   }
 
+  public void configure() {
+    if (browseTreeDAO != null) {
+      browseTreeDAO.configure();
+    }
+  }
+
   /**
    * Gets a list of groups/entities that match given browse request.
    *
+   * <p>Unfiltered requests are served from the materialized browse tree when it is enabled.
+   *
    * @param entityName type of entity to query
    * @param path the path to be browsed
    * @param requestParams the request map with fields and values as filters
@@ -86,6 +108,9 @@ public class ESBrowseDAO {
   public BrowseResult browse(@Nonnull String entityName, @Nonnull String path, @Nullable Filter requestParams, int from,
       int size) {
     final Map<String, String> requestMap = SearchUtils.getRequestMap(requestParams);
+    if (browseTreeDAO != null && requestMap.isEmpty()) {
+      return browseTreeDAO.browse(entityName, path, from, size);
+    }
 
     try {
       final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
@@ -313,6 +338,32 @@ public class ESBrowseDAO {
     return StringUtils.countMatches(path, "/");
   }
 
+  /**
+   * Updates the materialized browse tree, if enabled, with new browse paths of an entity.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param browsePaths browse paths of the entity, empty if the entity has none anymore
+   */
+  public void updateBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn, @Nonnull List<String> browsePaths) {
+    if (browseTreeDAO != null) {
+      browseTreeDAO.setBrowsePaths(entityName, urn, browsePaths);
+    }
+  }
+
+  /**
+   * Updates the materialized browse tree, if enabled, with whether an entity is removed.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param removed whether the entity is removed
+   */
+  public void updateRemoved(@Nonnull String entityName, @Nonnull Urn urn, boolean removed) {
+    if (browseTreeDAO != null) {
+      browseTreeDAO.setRemoved(entityName, urn, removed);
+    }
+  }
+
   /**
    * Gets a list of paths for a given urn.
    *
@@ -322,6 +373,14 @@ public class ESBrowseDAO {
    */
   @Nonnull
   public List<String> getBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn) {
+    if (browseTreeDAO != null) {
+      final List<String> browsePaths = browseTreeDAO.getBrowsePaths(urn);
+      // Entities not changed since the tree was enabled are not in it yet
+      if (browsePaths != null) {
+        return browsePaths;
+      }
+    }
+
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
     final SearchRequest searchRequest = new SearchRequest(indexName);
     searchRequest.source(new SearchSourceBuilder().query(QueryBuilders.termQuery(URN, urn.toString())));
@@ -0,0 +1,365 @@
+package com.linkedin.metadata.search.elasticsearch.query;
+
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.browse.BrowseResult;
+import com.linkedin.metadata.browse.BrowseResultEntity;
+import com.linkedin.metadata.browse.BrowseResultEntityArray;
+import com.linkedin.metadata.browse.BrowseResultGroup;
+import com.linkedin.metadata.browse.BrowseResultGroupArray;
+import com.linkedin.metadata.browse.BrowseResultMetadata;
+import com.linkedin.metadata.dao.exception.ESQueryException;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+
+
+/**
+ * Materialized browse tree, kept in its own index and maintained incrementally as browse paths and removed status of
+ * entities change.
+ *
+ * <p>The index holds two kinds of documents:
+ * <ul>
+ *   <li>a node document per browse path group, e.g. /prod/hive, holding the number of (non removed) entities under it</li>
+ *   <li>an entity document per entity, holding its browse paths, their parent groups and whether it is removed</li>
+ * </ul>
+ *
+ * <p>Browsing a path then reads the child nodes and the entities whose parent is the path, both with plain term
+ * filters, instead of aggregating over the browse paths of all the entities under the path.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ESBrowseTreeDAO {
+
+  public static final String INDEX_NAME = "browse_tree_v1";
+
+  private static final String DOC_TYPE = "docType";
+  private static final String NODE_DOC_TYPE = "node";
+  private static final String ENTITY_DOC_TYPE = "entity";
+  private static final String ENTITY_TYPE = "entityType";
+  private static final String PATH = "path";
+  private static final String PARENT = "parent";
+  private static final String NAME = "name";
+  private static final String COUNT = "count";
+  private static final String URN = "urn";
+  private static final String PATHS = "paths";
+  private static final String PARENTS = "parents";
+  private static final String REMOVED = "removed";
+
+  private static final String INCREMENT_COUNT_SCRIPT = "ctx._source.count += params.delta";
+
+  private final RestHighLevelClient client;
+  private final IndexConvention indexConvention;
+  private final ESIndexBuilder indexBuilder;
+  private final BulkProcessor bulkProcessor;
+
+  public void configure() {
+    log.info("Setting up browse tree index");
+    try {
+      indexBuilder.buildIndex(getIndexName(), getMappings(), Collections.emptyMap());
+    } catch (IOException e) {
+      log.error("Failed to set up browse tree index: {}", e.toString());
+    }
+  }
+
+  /**
+   * Sets the browse paths of an entity, moving the entity across the nodes of the tree accordingly. Passing no browse
+   * paths takes the entity out of the tree.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param browsePaths new browse paths of the entity
+   */
+  public void setBrowsePaths(@Nonnull String entityName, @Nonnull Urn urn, @Nonnull List<String> browsePaths) {
+    final Map<String, Object> entityDocument = getEntityDocument(urn);
+    final boolean removed = entityDocument != null && Boolean.TRUE.equals(entityDocument.get(REMOVED));
+    updateEntity(entityName, urn, entityDocument, browsePaths, removed);
+  }
+
+  /**
+   * Sets whether an entity is removed. Removed entities are not counted nor listed in the tree. Entities that are not in
+   * the tree are left out of it, so that their browse paths are still read from the entity index.
+   *
+   * @param entityName type of the entity
+   * @param urn urn of the entity
+   * @param removed whether the entity is removed
+   */
+  public void setRemoved(@Nonnull String entityName, @Nonnull Urn urn, boolean removed) {
+    final Map<String, Object> entityDocument = getEntityDocument(urn);
+    if (entityDocument == null) {
+      return;
+    }
+    updateEntity(entityName, urn, entityDocument, getPaths(entityDocument), removed);
+  }
+
+  private void updateEntity(@Nonnull String entityName, @Nonnull Urn urn,
+      @Nullable Map<String, Object> previousDocument, @Nonnull List<String> browsePaths, boolean removed) {
+    final boolean previouslyRemoved = previousDocument != null && Boolean.TRUE.equals(previousDocument.get(REMOVED));
+    final Set<String> previousGroups =
+        previouslyRemoved ? Collections.emptySet() : getBrowseGroups(getPaths(previousDocument));
+    final Set<String> groups = removed ? Collections.emptySet() : getBrowseGroups(browsePaths);
+
+    final Set<String> parents = new LinkedHashSet<>();
+    browsePaths.forEach(path -> parents.add(getParent(path)));
+    final Map<String, Object> document = new HashMap<>();
+    document.put(DOC_TYPE, ENTITY_DOC_TYPE);
+    document.put(ENTITY_TYPE, entityName);
+    document.put(URN, urn.toString());
+    document.put(PATHS, browsePaths);
+    document.put(PARENTS, new ArrayList<>(parents));
+    document.put(REMOVED, removed);
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esIndexEntity").time()) {
+      // Written synchronously, so that the next change of the entity reads it back through a realtime get
+      client.index(new IndexRequest(getIndexName()).id(toDocId(ENTITY_DOC_TYPE, urn.toString())).source(document),
+          RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Failed to update browse tree entity {}: {}", urn, e.toString());
+      return;
+    }
+
+    groups.stream().filter(group -> !previousGroups.contains(group)).forEach(group -> updateCount(entityName, group, 1));
+    previousGroups.stream().filter(group -> !groups.contains(group)).forEach(group -> updateCount(entityName, group, -1));
+  }
+
+  private void updateCount(@Nonnull String entityName, @Nonnull String group, int delta) {
+    final Map<String, Object> node = new HashMap<>();
+    node.put(DOC_TYPE, NODE_DOC_TYPE);
+    node.put(ENTITY_TYPE, entityName);
+    node.put(PATH, group);
+    node.put(PARENT, getParent(group));
+    node.put(NAME, getSimpleName(group));
+    node.put(COUNT, delta);
+    final Script script =
+        new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, INCREMENT_COUNT_SCRIPT, ImmutableMap.of("delta", delta));
+    bulkProcessor.add(
+        new UpdateRequest(getIndexName(), toDocId(NODE_DOC_TYPE, entityName + group)).script(script).upsert(node));
+  }
+
+  /**
+   * Gets the groups and entities directly under the given path, groups first.
+   *
+   * @param entityName type of entity to query
+   * @param path the path to be browsed
+   * @param from index of the first element located in path
+   * @param size the max number of elements contained in the response
+   * @return a {@link BrowseResult} that contains a list of groups/entities
+   */
+  @Nonnull
+  public BrowseResult browse(@Nonnull String entityName, @Nonnull String path, int from, int size) {
+    final MultiSearchRequest groupsRequest = new MultiSearchRequest();
+    groupsRequest.add(new SearchRequest(getIndexName()).source(new SearchSourceBuilder().query(
+        getNodesQuery(entityName).filter(QueryBuilders.termQuery(PARENT, path))
+            .filter(QueryBuilders.rangeQuery(COUNT).gt(0))).from(from).size(size).sort(NAME, SortOrder.ASC)));
+    // The number of entities under the path is held by its node. The root has no node, so count the entities instead
+    groupsRequest.add(new SearchRequest(getIndexName()).source(path.isEmpty()
+        ? new SearchSourceBuilder().query(getEntitiesQuery(entityName).filter(QueryBuilders.existsQuery(PATHS)))
+            .size(0)
+            .trackTotalHits(true)
+        : new SearchSourceBuilder().query(getNodesQuery(entityName).filter(QueryBuilders.termQuery(PATH, path)))
+            .size(1)));
+
+    try {
+      final MultiSearchResponse.Item[] groupsResponses;
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esGroupSearch").time()) {
+        groupsResponses = client.msearch(groupsRequest, RequestOptions.DEFAULT).getResponses();
+      }
+      for (MultiSearchResponse.Item item : groupsResponses) {
+        if (item.isFailure()) {
+          throw item.getFailure();
+        }
+      }
+      final SearchResponse groupsResponse = groupsResponses[0].getResponse();
+      final int numGroups = (int) groupsResponse.getHits().getTotalHits().value;
+      final List<BrowseResultGroup> groups = new ArrayList<>();
+      for (SearchHit hit : groupsResponse.getHits().getHits()) {
+        final Map<String, Object> source = hit.getSourceAsMap();
+        groups.add(new BrowseResultGroup().setName((String) source.get(NAME))
+            .setCount(((Number) source.get(COUNT)).longValue()));
+      }
+      final SearchResponse totalResponse = groupsResponses[1].getResponse();
+      final long totalNumEntities = path.isEmpty() ? totalResponse.getHits().getTotalHits().value
+          : totalResponse.getHits().getHits().length == 0 ? 0
+              : ((Number) totalResponse.getHits().getHits()[0].getSourceAsMap().get(COUNT)).longValue();
+
+      // Groups come before entities, see ESBrowseDAO
+      final int entityFrom = Math.max(from - numGroups, 0);
+      final int entitySize = Math.min(Math.max(from + size - numGroups, 0), size);
+      final SearchRequest entitiesRequest = new SearchRequest(getIndexName()).source(
+          new SearchSourceBuilder().query(getEntitiesQuery(entityName).filter(QueryBuilders.termQuery(PARENTS, path)))
+              .from(entityFrom)
+              .size(entitySize)
+              .sort(URN, SortOrder.ASC));
+      final SearchResponse entitiesResponse;
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esEntitiesSearch").time()) {
+        entitiesResponse = client.search(entitiesRequest, RequestOptions.DEFAULT);
+      }
+      final int numEntities = (int) entitiesResponse.getHits().getTotalHits().value;
+      final List<BrowseResultEntity> entities = new ArrayList<>();
+      for (SearchHit hit : entitiesResponse.getHits().getHits()) {
+        final Map<String, Object> source = hit.getSourceAsMap();
+        final String nextLevelPath = ESBrowseDAO.getNextLevelPath(getPaths(source), path);
+        if (nextLevelPath != null) {
+          entities.add(new BrowseResultEntity().setName(getSimpleName(nextLevelPath))
+              .setUrn(Urn.createFromString((String) source.get(URN))));
+        }
+      }
+
+      return new BrowseResult().setMetadata(
+          new BrowseResultMetadata().setTotalNumEntities(totalNumEntities).setPath(path))
+          .setEntities(new BrowseResultEntityArray(entities))
+          .setGroups(new BrowseResultGroupArray(groups))
+          .setNumEntities(numEntities)
+          .setNumGroups(numGroups)
+          .setNumElements(numGroups + numEntities)
+          .setFrom(from)
+          .setPageSize(size);
+    } catch (Exception e) {
+      log.error("Browse tree query failed: " + e.getMessage());
+      throw new ESQueryException("Browse tree query failed: ", e);
+    }
+  }
+
+  /**
+   * Gets the browse paths of an entity.
+   *
+   * @param urn urn of the entity
+   * @return the browse paths of the entity, or null if the entity is not in the tree
+   */
+  @Nullable
+  public List<String> getBrowsePaths(@Nonnull Urn urn) {
+    final Map<String, Object> entityDocument = getEntityDocument(urn);
+    return entityDocument == null ? null : getPaths(entityDocument);
+  }
+
+  @Nullable
+  private Map<String, Object> getEntityDocument(@Nonnull Urn urn) {
+    final GetResponse response;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esGetEntity").time()) {
+      response = client.get(new GetRequest(getIndexName(), toDocId(ENTITY_DOC_TYPE, urn.toString())),
+          RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Get browse tree entity query failed: " + e.getMessage());
+      throw new ESQueryException("Get browse tree entity query failed: ", e);
+    }
+    return response.isExists() ? response.getSourceAsMap() : null;
+  }
+
+  @Nonnull
+  private BoolQueryBuilder getNodesQuery(@Nonnull String entityName) {
+    return QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(DOC_TYPE, NODE_DOC_TYPE))
+        .filter(QueryBuilders.termQuery(ENTITY_TYPE, entityName));
+  }
+
+  @Nonnull
+  private BoolQueryBuilder getEntitiesQuery(@Nonnull String entityName) {
+    return QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(DOC_TYPE, ENTITY_DOC_TYPE))
+        .filter(QueryBuilders.termQuery(ENTITY_TYPE, entityName))
+        .mustNot(QueryBuilders.termQuery(REMOVED, true));
+  }
+
+  private String getIndexName() {
+    return indexConvention.getIndexName(INDEX_NAME);
+  }
+
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  private static List<String> getPaths(@Nullable Map<String, Object> document) {
+    if (document == null || !document.containsKey(PATHS)) {
+      return Collections.emptyList();
+    }
+    return (List<String>) document.get(PATHS);
+  }
+
+  /**
+   * Gets the groups an entity with the given browse paths falls under. The last component of a browse path is the
+   * entity itself, so e.g. /prod/hive/table falls under /prod and /prod/hive.
+   */
+  @VisibleForTesting
+  @Nonnull
+  static Set<String> getBrowseGroups(@Nonnull List<String> browsePaths) {
+    final Set<String> groups = new LinkedHashSet<>();
+    for (String browsePath : browsePaths) {
+      String group = getParent(browsePath);
+      while (!group.isEmpty()) {
+        groups.add(group);
+        group = getParent(group);
+      }
+    }
+    return groups;
+  }
+
+  @Nonnull
+  private static String getParent(@Nonnull String path) {
+    final int lastSeparator = path.lastIndexOf('/');
+    return lastSeparator <= 0 ? "" : path.substring(0, lastSeparator);
+  }
+
+  @Nonnull
+  private static String getSimpleName(@Nonnull String path) {
+    return path.substring(path.lastIndexOf('/') + 1);
+  }
+
+  private static String toDocId(@Nonnull String docType, @Nonnull String key) {
+    final String rawDocId = docType + ":" + key;
+    try {
+      final byte[] digest = MessageDigest.getInstance("MD5").digest(rawDocId.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      return rawDocId;
+    }
+  }
+
+  private static Map<String, Object> getMappings() {
+    final Map<String, Object> keyword = ImmutableMap.of("type", "keyword");
+    final Map<String, Object> properties = new HashMap<>();
+    properties.put(DOC_TYPE, keyword);
+    properties.put(ENTITY_TYPE, keyword);
+    properties.put(PATH, keyword);
+    properties.put(PARENT, keyword);
+    properties.put(NAME, keyword);
+    properties.put(COUNT, ImmutableMap.of("type", "long"));
+    properties.put(URN, keyword);
+    properties.put(PATHS, keyword);
+    properties.put(PARENTS, keyword);
+    properties.put(REMOVED, ImmutableMap.of("type", "boolean"));
+    return ImmutableMap.of("properties", properties);
+  }
+}
@@ -1,41 +1,95 @@
 package com.linkedin.metadata.search.elasticsearch.query;
 
 import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.metadata.dao.exception.ESQueryException;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.search.SearchResultMetadata;
 import com.linkedin.metadata.search.elasticsearch.query.request.AutocompleteRequestHandler;
 import com.linkedin.metadata.search.elasticsearch.query.request.SearchRequestHandler;
+import com.linkedin.metadata.search.utils.SingleFlight;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.javatuples.Quintet;
+import org.javatuples.Triplet;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 
 
 /**
  * A search DAO for Elasticsearch backend.
  */
 @Slf4j
-@RequiredArgsConstructor
 public class ESSearchDAO {
 
   private final EntityRegistry entityRegistry;
   private final RestHighLevelClient client;
   private final IndexConvention indexConvention;
+  // Short lived cache of autocomplete results, so that prefixes typed by many users at once hit the index once
+  @Nullable
+  private final Cache<Quintet<String, String, String, Filter, Integer>, AutoCompleteResult> autoCompleteCache;
+  // Short lived cache of the facets of searches by entity type, query and filters, so that paging, sorting and repeated
+  // searches only query the hits
+  @Nullable
+  private final Cache<Triplet<String, String, Filter>, SearchResultMetadata> facetCache;
+  // Concurrent identical requests share one call to elasticsearch
+  private final SingleFlight<SearchRequest, SearchResult> searchFlight = new SingleFlight<>(this.getClass(), "search");
+  private final SingleFlight<Quintet<String, String, String, Filter, Integer>, AutoCompleteResult> autoCompleteFlight =
+      new SingleFlight<>(this.getClass(), "autoComplete");
+  private final SingleFlight<SearchRequest, Map<String, Long>> aggregationFlight =
+      new SingleFlight<>(this.getClass(), "aggregation");
+
+  public ESSearchDAO(@Nonnull EntityRegistry entityRegistry, @Nonnull RestHighLevelClient client,
+      @Nonnull IndexConvention indexConvention) {
+    this(entityRegistry, client, indexConvention, 0, 0, 0, 0);
+  }
+
+  /**
+   * @param autoCompleteCacheTtlSeconds how long autocomplete results are cached for, 0 to disable the cache
+   * @param autoCompleteCacheMaxSize maximum number of autocomplete results cached
+   * @param facetCacheTtlSeconds how long the facets of searches are cached for, 0 to disable the cache
+   * @param facetCacheMaxSize maximum number of searches whose facets are cached
+   */
+  public ESSearchDAO(@Nonnull EntityRegistry entityRegistry, @Nonnull RestHighLevelClient client,
+      @Nonnull IndexConvention indexConvention, int autoCompleteCacheTtlSeconds, int autoCompleteCacheMaxSize,
+      int facetCacheTtlSeconds, int facetCacheMaxSize) {
+    this.entityRegistry = entityRegistry;
+    this.client = client;
+    this.indexConvention = indexConvention;
+    this.autoCompleteCache = autoCompleteCacheTtlSeconds <= 0 ? null : CacheBuilder.newBuilder()
+        .expireAfterWrite(autoCompleteCacheTtlSeconds, TimeUnit.SECONDS)
+        .maximumSize(autoCompleteCacheMaxSize)
+        .build();
+    this.facetCache = facetCacheTtlSeconds <= 0 ? null : CacheBuilder.newBuilder()
+        .expireAfterWrite(facetCacheTtlSeconds, TimeUnit.SECONDS)
+        .maximumSize(facetCacheMaxSize)
+        .build();
+  }
 
   public long docCount(@Nonnull String entityName) {
     EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
@@ -49,10 +103,71 @@ public class ESSearchDAO {
     }
   }
 
+  /**
+   * Gets the number of documents of each of the given entities with a single multi search, instead of a count request
+   * per entity.
+   *
+   * @param entityNames names of the entities to count
+   * @return a map from entity name to its number of documents
+   */
+  @Nonnull
+  public Map<String, Long> docCounts(@Nonnull List<String> entityNames) {
+    final Map<String, Long> counts = new HashMap<>();
+    if (entityNames.isEmpty()) {
+      return counts;
+    }
+
+    final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+    for (String entityName : entityNames) {
+      final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+          .query(SearchRequestHandler.getFilterQuery(null))
+          .size(0)
+          .trackTotalHits(true);
+      multiSearchRequest.add(
+          new SearchRequest(indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName))).source(
+              searchSourceBuilder));
+    }
+
+    final MultiSearchResponse multiSearchResponse;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "docCounts").time()) {
+      multiSearchResponse = client.msearch(multiSearchRequest, RequestOptions.DEFAULT);
+    } catch (IOException e) {
+      log.error("Count query failed:" + e.getMessage());
+      throw new ESQueryException("Count query failed:", e);
+    }
+
+    // responses are in the order of the requests
+    final MultiSearchResponse.Item[] items = multiSearchResponse.getResponses();
+    for (int i = 0; i < items.length; i++) {
+      if (items[i].isFailure()) {
+        log.error(String.format("Count query failed for entity %s", entityNames.get(i)), items[i].getFailure());
+        throw new ESQueryException("Count query failed:", items[i].getFailure());
+      }
+      counts.put(entityNames.get(i), items[i].getResponse().getHits().getTotalHits().value);
+    }
+    return counts;
+  }
+
+  @Nonnull
+  private static <T extends RecordTemplate> T copy(@Nonnull T record) {
+    try {
+      return (T) record.copy();
+    } catch (CloneNotSupportedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   @Nonnull
   @WithSpan
   private SearchResult executeAndExtract(@Nonnull EntitySpec entitySpec, @Nonnull SearchRequest searchRequest, int from,
       int size) {
+    return searchFlight.execute(searchRequest, () -> executeAndExtractUncoalesced(entitySpec, searchRequest, from, size),
+        ESSearchDAO::copy);
+  }
+
+  @Nonnull
+  private SearchResult executeAndExtractUncoalesced(@Nonnull EntitySpec entitySpec,
+      @Nonnull SearchRequest searchRequest, int from, int size) {
     try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esSearch").time()) {
       final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
       // extract results, validated against document model as well
@@ -80,13 +195,141 @@ public class ESSearchDAO {
     final String finalInput = input.isEmpty() ? "*" : input;
     Timer.Context searchRequestTimer = MetricUtils.timer(this.getClass(), "searchRequest").time();
     EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
-    // Step 1: construct the query
+    // Step 1: construct the query, leaving out the facet aggregations if they are cached
+    final Triplet<String, String, Filter> facetCacheKey = getFacetCacheKey(entitySpec, finalInput, postFilters);
+    final SearchResultMetadata cachedFacets = getCachedFacets(facetCacheKey);
     final SearchRequest searchRequest = SearchRequestHandler.getBuilder(entitySpec)
-        .getSearchRequest(finalInput, postFilters, sortCriterion, from, size);
+        .getSearchRequest(finalInput, postFilters, sortCriterion, from, size, cachedFacets == null);
     searchRequest.indices(indexConvention.getIndexName(entitySpec));
     searchRequestTimer.stop();
     // Step 2: execute the query and extract results, validated against document model as well
-    return executeAndExtract(entitySpec, searchRequest, from, size);
+    return withFacets(executeAndExtract(entitySpec, searchRequest, from, size), facetCacheKey, cachedFacets);
+  }
+
+  @Nonnull
+  private Triplet<String, String, Filter> getFacetCacheKey(@Nonnull EntitySpec entitySpec, @Nonnull String input,
+      @Nullable Filter postFilters) {
+    // Queries differing only in spacing have the same facets. Case is kept: operators such as OR and NOT, field names
+    // and some fields of the query string are case sensitive
+    return Triplet.with(entitySpec.getName(), input.trim().replaceAll("\\s+", " "), postFilters);
+  }
+
+  @Nullable
+  private SearchResultMetadata getCachedFacets(@Nonnull Triplet<String, String, Filter> facetCacheKey) {
+    if (facetCache == null) {
+      return null;
+    }
+    final SearchResultMetadata cachedFacets = facetCache.getIfPresent(facetCacheKey);
+    MetricUtils.counter(this.getClass(), cachedFacets == null ? "facetCacheMiss" : "facetCacheHit").inc();
+    return cachedFacets;
+  }
+
+  /**
+   * Sets the cached facets on a result of a hits only search, or caches the facets of a full search.
+   */
+  @Nonnull
+  private SearchResult withFacets(@Nonnull SearchResult result, @Nonnull Triplet<String, String, Filter> facetCacheKey,
+      @Nullable SearchResultMetadata cachedFacets) {
+    if (facetCache == null) {
+      return result;
+    }
+    if (cachedFacets == null) {
+      facetCache.put(facetCacheKey, copy(result.getMetadata()));
+      return result;
+    }
+    return result.setMetadata(copy(cachedFacets));
+  }
+
+  /**
+   * Searches the given entities with a single multi search request. Each entity is queried against its own index with
+   * the same query {@link #search} would build, so the cluster fans the queries out in one round trip.
+   *
+   * @param entityNames names of the entities to search
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param from index to start the search from, per entity
+   * @param size the number of search hits to return, per entity
+   * @return a map from entity name to its {@link com.linkedin.metadata.dao.SearchResult}
+   */
+  @Nonnull
+  @WithSpan
+  public Map<String, SearchResult> multiSearch(@Nonnull List<String> entityNames, @Nonnull String input,
+      @Nullable Filter postFilters, @Nullable SortCriterion sortCriterion, int from, int size) {
+    final Map<String, SearchResult> results = new HashMap<>();
+    if (entityNames.isEmpty()) {
+      return results;
+    }
+
+    final String finalInput = input.isEmpty() ? "*" : input;
+    Timer.Context searchRequestTimer = MetricUtils.timer(this.getClass(), "multiSearchRequest").time();
+    final MultiSearchRequest multiSearchRequest = new MultiSearchRequest();
+    final List<Triplet<String, String, Filter>> facetCacheKeys = new ArrayList<>(entityNames.size());
+    final List<SearchResultMetadata> cachedFacets = new ArrayList<>(entityNames.size());
+    for (String entityName : entityNames) {
+      EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
+      final Triplet<String, String, Filter> facetCacheKey = getFacetCacheKey(entitySpec, finalInput, postFilters);
+      final SearchResultMetadata entityCachedFacets = getCachedFacets(facetCacheKey);
+      facetCacheKeys.add(facetCacheKey);
+      cachedFacets.add(entityCachedFacets);
+      final SearchRequest searchRequest = SearchRequestHandler.getBuilder(entitySpec)
+          .getSearchRequest(finalInput, postFilters, sortCriterion, from, size, entityCachedFacets == null);
+      searchRequest.indices(indexConvention.getIndexName(entitySpec));
+      multiSearchRequest.add(searchRequest);
+    }
+    searchRequestTimer.stop();
+
+    final MultiSearchResponse multiSearchResponse;
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esMultiSearch").time()) {
+      multiSearchResponse = client.msearch(multiSearchRequest, RequestOptions.DEFAULT);
+    } catch (Exception e) {
+      log.error("Multi search query failed", e);
+      throw new ESQueryException("Multi search query failed:", e);
+    }
+
+    // responses are in the order of the requests
+    final MultiSearchResponse.Item[] items = multiSearchResponse.getResponses();
+    for (int i = 0; i < items.length; i++) {
+      final String entityName = entityNames.get(i);
+      if (items[i].isFailure()) {
+        log.error(String.format("Search query failed for entity %s", entityName), items[i].getFailure());
+        throw new ESQueryException("Search query failed:", items[i].getFailure());
+      }
+      results.put(entityName, withFacets(SearchRequestHandler.getBuilder(entityRegistry.getEntitySpec(entityName))
+          .extractResult(items[i].getResponse(), from, size), facetCacheKeys.get(i), cachedFacets.get(i)));
+    }
+    return results;
+  }
+
+  /**
+   * Gets a page of documents that match given search request, paging by cursor instead of offset. Unlike {@link #search},
+   * deep pages cost the same as the first one and are not bounded by the index result window, which makes this suitable
+   * for exporting large result sets.
+   *
+   * @param input the search input text
+   * @param postFilters the request map with fields and values as filters to be applied to search hits
+   * @param sortCriterion {@link SortCriterion} to be applied to search results
+   * @param scrollId scroll id returned with the previous page, null to get the first page
+   * @param size the number of search hits to return
+   * @return a {@link ScrollResult} that contains a page of matched documents and the scroll id of the next page
+   */
+  @Nonnull
+  @WithSpan
+  public ScrollResult scroll(@Nonnull String entityName, @Nonnull String input, @Nullable Filter postFilters,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size) {
+    final String finalInput = input.isEmpty() ? "*" : input;
+    EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
+    final SearchRequestHandler builder = SearchRequestHandler.getBuilder(entitySpec);
+    final SearchRequest searchRequest = builder.getScrollRequest(finalInput, postFilters, sortCriterion, scrollId, size);
+    searchRequest.indices(indexConvention.getIndexName(entitySpec));
+
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esScroll").time()) {
+      final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+      return builder.extractScrollResult(searchResponse, size);
+    } catch (Exception e) {
+      log.error("Scroll query failed", e);
+      throw new ESQueryException("Scroll query failed:", e);
+    }
   }
 
   /**
@@ -122,7 +365,29 @@ public class ESSearchDAO {
   @Nonnull
   public AutoCompleteResult autoComplete(@Nonnull String entityName, @Nonnull String query, @Nullable String field,
       @Nullable Filter requestParams, int limit) {
-    try {
+    final Quintet<String, String, String, Filter, Integer> cacheKey =
+        Quintet.with(entityName, query, field, requestParams, limit);
+    if (autoCompleteCache == null) {
+      return autoCompleteFlight.execute(cacheKey,
+          () -> executeAutoComplete(entityName, query, field, requestParams, limit), ESSearchDAO::copy);
+    }
+    AutoCompleteResult result = autoCompleteCache.getIfPresent(cacheKey);
+    if (result == null) {
+      // Shared results are not modified, as only copies of them are handed out below
+      result = autoCompleteFlight.execute(cacheKey,
+          () -> executeAutoComplete(entityName, query, field, requestParams, limit), UnaryOperator.identity());
+      autoCompleteCache.put(cacheKey, result);
+    } else {
+      MetricUtils.counter(this.getClass(), "autoCompleteCacheHit").inc();
+    }
+    // Results are mutable records, so hand out a copy of the cached one
+    return copy(result);
+  }
+
+  @Nonnull
+  private AutoCompleteResult executeAutoComplete(@Nonnull String entityName, @Nonnull String query,
+      @Nullable String field, @Nullable Filter requestParams, int limit) {
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esAutoComplete").time()) {
       EntitySpec entitySpec = entityRegistry.getEntitySpec(entityName);
       AutocompleteRequestHandler builder = AutocompleteRequestHandler.getBuilder(entitySpec);
       SearchRequest req = builder.getSearchRequest(query, field, requestParams, limit);
@@ -157,13 +422,15 @@ public class ESSearchDAO {
     }
     searchRequest.indices(indexName);
 
-    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esSearch").time()) {
-      final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
-      // extract results, validated against document model as well
-      return SearchRequestHandler.extractTermAggregations(searchResponse, field);
-    } catch (Exception e) {
-      log.error("Aggregation query failed", e);
-      throw new ESQueryException("Aggregation query failed:", e);
-    }
+    return aggregationFlight.execute(searchRequest, () -> {
+      try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "esSearch").time()) {
+        final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
+        // extract results, validated against document model as well
+        return SearchRequestHandler.extractTermAggregations(searchResponse, field);
+      } catch (Exception e) {
+        log.error("Aggregation query failed", e);
+        throw new ESQueryException("Aggregation query failed:", e);
+      }
+    }, HashMap::new);
   }
 }
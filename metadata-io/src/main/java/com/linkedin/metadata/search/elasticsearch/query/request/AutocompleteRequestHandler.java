@@ -2,12 +2,14 @@ package com.linkedin.metadata.search.elasticsearch.query.request;
 
 import com.google.common.collect.ImmutableList;
 import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.MappingsBuilder;
 import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation;
 import com.linkedin.metadata.query.AutoCompleteResult;
 import com.linkedin.metadata.query.filter.Filter;
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -15,7 +17,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -23,6 +24,7 @@ import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.Operator;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
@@ -34,7 +36,11 @@ import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 public class AutocompleteRequestHandler {
 
   private static final String ANALYZER = "word_delimited";
+  // Boost of values equal to the input, so that they come before values merely starting with it
+  private static final float EXACT_MATCH_BOOST = 10.0f;
   private final List<String> _defaultAutocompleteFields;
+  // Fields indexed with an autocomplete subfield, see MappingsBuilder
+  private final Set<String> _prefixIndexedFields;
 
   private static final Map<EntitySpec, AutocompleteRequestHandler> AUTOCOMPLETE_QUERY_BUILDER_BY_ENTITY_NAME =
       new ConcurrentHashMap<>();
@@ -46,6 +52,12 @@ public class AutocompleteRequestHandler {
         .filter(SearchableAnnotation::isEnableAutocomplete)
         .map(SearchableAnnotation::getFieldName)
         .collect(Collectors.toList());
+    _prefixIndexedFields = entitySpec.getSearchableFieldSpecs()
+        .stream()
+        .map(SearchableFieldSpec::getSearchableAnnotation)
+        .filter(MappingsBuilder::hasAutocompleteSubfield)
+        .map(SearchableAnnotation::getFieldName)
+        .collect(Collectors.toSet());
   }
 
   public static AutocompleteRequestHandler getBuilder(@Nonnull EntitySpec entitySpec) {
@@ -58,6 +70,9 @@ public class AutocompleteRequestHandler {
     SearchRequest searchRequest = new SearchRequest();
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
     searchSourceBuilder.size(limit);
+    // Suggestions come from the highlights, neither the total count nor the documents are needed
+    searchSourceBuilder.trackTotalHits(false);
+    searchSourceBuilder.fetchSource(false);
     searchSourceBuilder.query(getQuery(input, field));
     searchSourceBuilder.postFilter(ESUtils.buildFilterQuery(filter));
     searchSourceBuilder.highlighter(getHighlights(field));
@@ -67,14 +82,26 @@ public class AutocompleteRequestHandler {
 
   private QueryBuilder getQuery(@Nonnull String query, @Nullable String field) {
     BoolQueryBuilder finalQuery = QueryBuilders.boolQuery();
-    // Search for exact matches with higher boost and ngram matches
-    List<String> fieldNames = getAutocompleteFields(field).stream()
-        .flatMap(fieldName -> Stream.of(fieldName, fieldName + ".ngram"))
-        .collect(Collectors.toList());
-    MultiMatchQueryBuilder autocompleteQueryBuilder =
-        QueryBuilders.multiMatchQuery(query, fieldNames.toArray(new String[0]));
-    autocompleteQueryBuilder.analyzer(ANALYZER);
-    finalQuery.should(autocompleteQueryBuilder);
+    List<String> ngramFieldNames = new ArrayList<>();
+    for (String fieldName : getAutocompleteFields(field)) {
+      if (_prefixIndexedFields.contains(fieldName)) {
+        // Every token of the input must be a prefix of a token of the field
+        finalQuery.should(QueryBuilders.matchQuery(fieldName + "." + MappingsBuilder.AUTOCOMPLETE_SUBFIELD, query)
+            .operator(Operator.AND));
+        finalQuery.should(QueryBuilders.matchQuery(fieldName, query).boost(EXACT_MATCH_BOOST));
+      } else {
+        ngramFieldNames.add(fieldName);
+        ngramFieldNames.add(fieldName + ".ngram");
+      }
+    }
+    if (!ngramFieldNames.isEmpty()) {
+      // Search for exact matches with higher boost and ngram matches
+      MultiMatchQueryBuilder autocompleteQueryBuilder =
+          QueryBuilders.multiMatchQuery(query, ngramFieldNames.toArray(new String[0]));
+      autocompleteQueryBuilder.analyzer(ANALYZER);
+      finalQuery.should(autocompleteQueryBuilder);
+    }
+    finalQuery.minimumShouldMatch(1);
     finalQuery.mustNot(QueryBuilders.matchQuery("removed", true));
     return finalQuery;
   }
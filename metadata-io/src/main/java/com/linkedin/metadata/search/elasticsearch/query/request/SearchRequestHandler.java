@@ -1,9 +1,11 @@
 package com.linkedin.metadata.search.elasticsearch.query.request;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.DoubleMap;
 import com.linkedin.data.template.LongMap;
+import com.linkedin.data.template.StringMap;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation;
@@ -14,6 +16,7 @@ import com.linkedin.metadata.search.AggregationMetadataArray;
 import com.linkedin.metadata.search.FilterValueArray;
 import com.linkedin.metadata.search.MatchedField;
 import com.linkedin.metadata.search.MatchedFieldArray;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
@@ -34,6 +37,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -58,11 +62,14 @@ import org.elasticsearch.search.fetch.subphase.highlight.HighlightField;
 public class SearchRequestHandler {
 
   private static final Map<EntitySpec, SearchRequestHandler> REQUEST_HANDLER_BY_ENTITY_NAME = new ConcurrentHashMap<>();
+  // Search document fields returned with every hit, so that lists of results can be rendered from the index alone
+  private static final List<String> DISPLAY_FIELDS = ImmutableList.of("name", "title", "description", "editedDescription");
 
   private final EntitySpec _entitySpec;
   private final Set<String> _facetFields;
   private final Set<String> _defaultQueryFieldNames;
   private final Map<String, String> _filtersToDisplayName;
+  private final String[] _sourceFields;
   private final int _maxTermBucketSize = 100;
 
   private SearchRequestHandler(@Nonnull EntitySpec entitySpec) {
@@ -74,6 +81,7 @@ public class SearchRequestHandler {
         .filter(spec -> spec.getSearchableAnnotation().isAddToFilters())
         .collect(Collectors.toMap(spec -> spec.getSearchableAnnotation().getFieldName(),
             spec -> spec.getSearchableAnnotation().getFilterName()));
+    _sourceFields = getSourceFields();
   }
 
   public static SearchRequestHandler getBuilder(@Nonnull EntitySpec entitySpec) {
@@ -89,6 +97,14 @@ public class SearchRequestHandler {
         .collect(Collectors.toSet());
   }
 
+  private String[] getSourceFields() {
+    final Set<String> fieldNames = _entitySpec.getSearchableFieldSpecs()
+        .stream()
+        .map(spec -> spec.getSearchableAnnotation().getFieldName())
+        .collect(Collectors.toSet());
+    return Stream.concat(Stream.of("urn"), DISPLAY_FIELDS.stream().filter(fieldNames::contains)).toArray(String[]::new);
+  }
+
   private Set<String> getDefaultQueryFieldNames() {
     return _entitySpec.getSearchableFieldSpecs()
         .stream()
@@ -120,16 +136,36 @@ public class SearchRequestHandler {
   @WithSpan
   public SearchRequest getSearchRequest(@Nonnull String input, @Nullable Filter filter,
       @Nullable SortCriterion sortCriterion, int from, int size) {
+    return getSearchRequest(input, filter, sortCriterion, from, size, true);
+  }
+
+  /**
+   * Constructs the search query based on the query request, optionally without the facet aggregations, e.g. when the
+   * facets of the query are already known.
+   *
+   * @param input the search input text
+   * @param filter the search filter
+   * @param from index to start the search from
+   * @param size the number of search hits to return
+   * @param includeAggregations whether to aggregate the facet fields
+   * @return a valid search request
+   */
+  @Nonnull
+  @WithSpan
+  public SearchRequest getSearchRequest(@Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, int from, int size, boolean includeAggregations) {
     SearchRequest searchRequest = new SearchRequest();
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 
     searchSourceBuilder.from(from);
     searchSourceBuilder.size(size);
-    searchSourceBuilder.fetchSource("urn", null);
+    searchSourceBuilder.fetchSource(_sourceFields, null);
 
     BoolQueryBuilder filterQuery = getFilterQuery(filter);
     searchSourceBuilder.query(QueryBuilders.boolQuery().must(getQuery(input)).must(filterQuery));
-    getAggregations().forEach(searchSourceBuilder::aggregation);
+    if (includeAggregations) {
+      getAggregations().forEach(searchSourceBuilder::aggregation);
+    }
     searchSourceBuilder.highlighter(getHighlights());
     ESUtils.buildSortOrder(searchSourceBuilder, sortCriterion);
     searchRequest.source(searchSourceBuilder);
@@ -138,6 +174,42 @@ public class SearchRequestHandler {
     return searchRequest;
   }
 
+  /**
+   * Constructs the search query for a page of a scroll, i.e. a search paged with search_after instead of from/size.
+   * Results are sorted the same way as for {@link #getSearchRequest}, which always ends with the urn as tie breaker,
+   * so the sort values of the last hit of a page identify where the next page starts. Aggregations and highlights are
+   * left out, so every page costs the same.
+   *
+   * @param input the search input text
+   * @param filter the search filter
+   * @param sortCriterion {@link SortCriterion} to be applied to the search results
+   * @param scrollId scroll id returned with the previous page, null to get the first page
+   * @param size the number of search hits to return
+   * @return a valid search request
+   */
+  @Nonnull
+  @WithSpan
+  public SearchRequest getScrollRequest(@Nonnull String input, @Nullable Filter filter,
+      @Nullable SortCriterion sortCriterion, @Nullable String scrollId, int size) {
+    SearchRequest searchRequest = new SearchRequest();
+    SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
+
+    searchSourceBuilder.size(size);
+    searchSourceBuilder.fetchSource(_sourceFields, null);
+    searchSourceBuilder.trackTotalHits(true);
+
+    BoolQueryBuilder filterQuery = getFilterQuery(filter);
+    searchSourceBuilder.query(QueryBuilders.boolQuery().must(getQuery(input)).must(filterQuery));
+    ESUtils.buildSortOrder(searchSourceBuilder, sortCriterion);
+    if (scrollId != null) {
+      searchSourceBuilder.searchAfter(ESUtils.decodeScrollId(scrollId));
+    }
+    searchRequest.source(searchSourceBuilder);
+    log.debug("Scroll request is: " + searchRequest.toString());
+
+    return searchRequest;
+  }
+
   /**
    * Returns a {@link SearchRequest} given filters to be applied to search query and sort criterion to be applied to
    * search results.
@@ -223,6 +295,22 @@ public class SearchRequestHandler {
         .setNumEntities(totalCount);
   }
 
+  @WithSpan
+  public ScrollResult extractScrollResult(@Nonnull SearchResponse searchResponse, int size) {
+    int totalCount = (int) searchResponse.getHits().getTotalHits().value;
+    List<SearchEntity> resultList = getResults(searchResponse);
+    SearchHit[] hits = searchResponse.getHits().getHits();
+
+    ScrollResult scrollResult = new ScrollResult().setEntities(new SearchEntityArray(resultList))
+        .setPageSize(size)
+        .setNumEntities(totalCount);
+    // A full page may be followed by more results, a partial one is the last
+    if (size > 0 && hits.length == size) {
+      scrollResult.setScrollId(ESUtils.encodeScrollId(hits[hits.length - 1].getSortValues()));
+    }
+    return scrollResult;
+  }
+
   @Nonnull
   private List<MatchedField> extractMatchedFields(@Nonnull Map<String, HighlightField> highlightedFields) {
     // Keep track of unique field values that matched for a given field name
@@ -259,7 +347,22 @@ public class SearchRequestHandler {
   private SearchEntity getResult(@Nonnull SearchHit hit) {
     return new SearchEntity().setEntity(getUrnFromSearchHit(hit))
         .setMatchedFields(new MatchedFieldArray(extractMatchedFields(hit.getHighlightFields())))
-        .setFeatures(new DoubleMap(extractFeatures(hit)));
+        .setFeatures(new DoubleMap(extractFeatures(hit)))
+        .setDocumentFields(new StringMap(extractDocumentFields(hit)));
+  }
+
+  @Nonnull
+  private Map<String, String> extractDocumentFields(@Nonnull SearchHit hit) {
+    final Map<String, Object> source = hit.getSourceAsMap();
+    final Map<String, String> documentFields = new HashMap<>();
+    for (String fieldName : DISPLAY_FIELDS) {
+      final Object value = source.get(fieldName);
+      // Display fields are single valued, arrays are left to the entity store
+      if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+        documentFields.put(fieldName, value.toString());
+      }
+    }
+    return documentFields;
   }
 
   /**
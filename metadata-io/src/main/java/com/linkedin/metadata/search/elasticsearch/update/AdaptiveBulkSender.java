@@ -0,0 +1,166 @@
+package com.linkedin.metadata.search.elasticsearch.update;
+
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.rest.RestStatus;
+
+
+/**
+ * Sends the bulk requests flushed by a {@link org.elasticsearch.action.bulk.BulkProcessor}, splitting them into
+ * chunks of at most the current byte budget.
+ *
+ * The budget adapts to the observed bulk latency: it is halved when a bulk takes longer than the target latency or
+ * elasticsearch rejects items with 429, and grows back gradually while bulks complete well within the target. The
+ * upper bound is the byte size the bulk processor flushes at.
+ */
+@Slf4j
+public class AdaptiveBulkSender implements BiConsumer<BulkRequest, ActionListener<BulkResponse>> {
+  // Same estimate elasticsearch uses for the per request overhead of a bulk
+  private static final long REQUEST_OVERHEAD = 50;
+  private static final long MIN_BATCH_BYTES = 64 * 1024;
+
+  private final RestHighLevelClient searchClient;
+  private final long maxBatchBytes;
+  private final long targetLatencyMs;
+  private volatile long batchBytes;
+
+  public AdaptiveBulkSender(@Nonnull RestHighLevelClient searchClient, long maxBatchBytes, long targetLatencyMs) {
+    this.searchClient = searchClient;
+    this.maxBatchBytes = Math.max(maxBatchBytes, MIN_BATCH_BYTES);
+    this.targetLatencyMs = targetLatencyMs;
+    this.batchBytes = this.maxBatchBytes;
+  }
+
+  public long getBatchBytes() {
+    return batchBytes;
+  }
+
+  @Override
+  public void accept(BulkRequest request, ActionListener<BulkResponse> listener) {
+    final List<BulkRequest> chunks = split(request, batchBytes);
+    if (chunks.size() == 1) {
+      send(request, listener);
+      return;
+    }
+    sendChunks(chunks, 0, new ArrayList<>(request.numberOfActions()), 0L, listener);
+  }
+
+  @Nonnull
+  static List<BulkRequest> split(@Nonnull BulkRequest request, long batchBytes) {
+    if (request.estimatedSizeInBytes() <= batchBytes) {
+      return Arrays.asList(request);
+    }
+    final List<BulkRequest> chunks = new ArrayList<>();
+    BulkRequest chunk = newChunk(request);
+    long chunkBytes = 0;
+    for (DocWriteRequest<?> docWriteRequest : request.requests()) {
+      final long size = estimateSize(docWriteRequest);
+      // Every chunk holds at least one request, even if it is larger than the budget
+      if (chunk.numberOfActions() > 0 && chunkBytes + size > batchBytes) {
+        chunks.add(chunk);
+        chunk = newChunk(request);
+        chunkBytes = 0;
+      }
+      chunk.add(docWriteRequest);
+      chunkBytes += size;
+    }
+    chunks.add(chunk);
+    return chunks;
+  }
+
+  private static BulkRequest newChunk(@Nonnull BulkRequest request) {
+    final BulkRequest chunk = new BulkRequest();
+    chunk.timeout(request.timeout());
+    chunk.setRefreshPolicy(request.getRefreshPolicy());
+    return chunk;
+  }
+
+  private static long estimateSize(@Nonnull DocWriteRequest<?> request) {
+    long size = REQUEST_OVERHEAD;
+    if (request instanceof IndexRequest) {
+      size += sourceSize((IndexRequest) request);
+    } else if (request instanceof UpdateRequest) {
+      final UpdateRequest updateRequest = (UpdateRequest) request;
+      size += sourceSize(updateRequest.doc()) + sourceSize(updateRequest.upsertRequest());
+    }
+    return size;
+  }
+
+  private static long sourceSize(IndexRequest request) {
+    return request == null || request.source() == null ? 0 : request.source().length();
+  }
+
+  /**
+   * Sends the chunks one after the other, collecting the item responses so that the listener gets a single response
+   * whose items line up with the original request.
+   */
+  private void sendChunks(@Nonnull List<BulkRequest> chunks, int chunkIndex, @Nonnull List<BulkItemResponse> items,
+      long tookInMillis, @Nonnull ActionListener<BulkResponse> listener) {
+    if (chunkIndex == chunks.size()) {
+      listener.onResponse(new BulkResponse(items.toArray(new BulkItemResponse[0]), tookInMillis));
+      return;
+    }
+    final int offset = items.size();
+    send(chunks.get(chunkIndex), ActionListener.wrap(response -> {
+      for (BulkItemResponse item : response.getItems()) {
+        items.add(item.isFailed() ? new BulkItemResponse(offset + item.getItemId(), item.getOpType(), item.getFailure())
+            : new BulkItemResponse(offset + item.getItemId(), item.getOpType(), item.getResponse()));
+      }
+      sendChunks(chunks, chunkIndex + 1, items, tookInMillis + response.getTook().millis(), listener);
+    }, listener::onFailure));
+  }
+
+  private void send(@Nonnull BulkRequest request, @Nonnull ActionListener<BulkResponse> listener) {
+    final long startTime = System.currentTimeMillis();
+    searchClient.bulkAsync(request, RequestOptions.DEFAULT, ActionListener.wrap(response -> {
+      final boolean rejected = Arrays.stream(response.getItems())
+          .anyMatch(item -> item.isFailed() && item.getStatus() == RestStatus.TOO_MANY_REQUESTS);
+      adapt(System.currentTimeMillis() - startTime, rejected);
+      listener.onResponse(response);
+    }, e -> {
+      adapt(System.currentTimeMillis() - startTime, isRejection(e));
+      listener.onFailure(e);
+    }));
+  }
+
+  private static boolean isRejection(@Nonnull Exception e) {
+    final Throwable cause = ExceptionsHelper.unwrapCause(e);
+    return cause instanceof ElasticsearchException
+        && ((ElasticsearchException) cause).status() == RestStatus.TOO_MANY_REQUESTS;
+  }
+
+  /**
+   * Multiplicative decrease on rejections or slow bulks, additive increase on fast ones.
+   */
+  synchronized void adapt(long latencyMs, boolean rejected) {
+    final long previous = batchBytes;
+    if (rejected || latencyMs > targetLatencyMs) {
+      batchBytes = Math.max(MIN_BATCH_BYTES, batchBytes / 2);
+    } else if (latencyMs < targetLatencyMs / 2) {
+      batchBytes = Math.min(maxBatchBytes, batchBytes + maxBatchBytes / 10);
+    }
+    if (rejected) {
+      MetricUtils.counter(this.getClass(), "rejectedBulks").inc();
+    }
+    if (batchBytes != previous) {
+      log.debug("Bulk took {} ms (rejected: {}), batch size changed from {} to {} bytes", latencyMs, rejected, previous,
+          batchBytes);
+    }
+  }
+}
@@ -1,11 +1,24 @@
 package com.linkedin.metadata.search.elasticsearch.update;
 
+import com.codahale.metrics.MetricRegistry;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
 
 
+/**
+ * Bulk processor listener that publishes per index metrics: the number of requests in flight, and the number of
+ * requests that were indexed, left unchanged (noop updates), rejected with 429 or otherwise failed.
+ */
 @Slf4j
 public class BulkListener implements BulkProcessor.Listener {
   private static final BulkListener INSTANCE = new BulkListener();
@@ -16,22 +29,54 @@ public class BulkListener implements BulkProcessor.Listener {
 
   @Override
   public void beforeBulk(long executionId, BulkRequest request) {
-
+    countByIndex(request).forEach((index, count) -> MetricUtils.counter(this.getClass(), metricName(index, "inFlight")).inc(count));
   }
 
   @Override
   public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+    countByIndex(request).forEach((index, count) -> MetricUtils.counter(this.getClass(), metricName(index, "inFlight")).dec(count));
+    MetricUtils.timer(this.getClass(), "bulkLatency").update(response.getTook().millis(), TimeUnit.MILLISECONDS);
+
+    long noops = 0;
+    for (BulkItemResponse item : response.getItems()) {
+      if (item.isFailed()) {
+        final String outcome = item.getStatus() == RestStatus.TOO_MANY_REQUESTS ? "rejected" : "failed";
+        MetricUtils.counter(this.getClass(), metricName(item.getIndex(), outcome)).inc();
+        continue;
+      }
+      final DocWriteResponse itemResponse = item.getResponse();
+      // Updates that did not change the document are not reindexed by elasticsearch
+      if (itemResponse.getResult() == DocWriteResponse.Result.NOOP) {
+        MetricUtils.counter(this.getClass(), metricName(item.getIndex(), "noop")).inc();
+        noops++;
+      } else {
+        MetricUtils.counter(this.getClass(), metricName(item.getIndex(), "indexed")).inc();
+      }
+    }
+
     if (response.hasFailures()) {
-      log.info("Failed to feed bulk request. Number of events: " + response.getItems().length + " Took time ms: "
-              + response.getIngestTookInMillis() + " Message: " + response.buildFailureMessage());
+      log.warn("Failed to feed bulk request. Number of events: " + response.getItems().length + " Took time ms: "
+          + response.getTook().millis() + " Message: " + response.buildFailureMessage());
     } else {
-      log.info("Successfully fed bulk request. Number of events: " + response.getItems().length + " Took time ms: "
-              + response.getIngestTookInMillis());
+      log.debug("Successfully fed bulk request. Number of events: " + response.getItems().length + " Took time ms: "
+          + response.getTook().millis() + " Noop updates: " + noops);
     }
   }
 
   @Override
   public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
-    log.info("Error feeding bulk request. No retries left", failure);
+    countByIndex(request).forEach((index, count) -> {
+      MetricUtils.counter(this.getClass(), metricName(index, "inFlight")).dec(count);
+      MetricUtils.counter(this.getClass(), metricName(index, "failed")).inc(count);
+    });
+    log.error("Error feeding bulk request. No retries left", failure);
+  }
+
+  private static Map<String, Long> countByIndex(BulkRequest request) {
+    return request.requests().stream().collect(Collectors.groupingBy(DocWriteRequest::index, Collectors.counting()));
+  }
+
+  private static String metricName(String index, String metric) {
+    return MetricRegistry.name(index, metric);
   }
 }
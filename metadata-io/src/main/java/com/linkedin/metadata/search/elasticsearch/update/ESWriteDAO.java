@@ -3,6 +3,7 @@ package com.linkedin.metadata.search.elasticsearch.update;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -36,10 +37,24 @@ public class ESWriteDAO {
    * @param docId the ID of the document
    */
   public void upsertDocument(@Nonnull String entityName, @Nonnull String document, @Nonnull String docId) {
+    upsertDocument(entityName, document.getBytes(StandardCharsets.UTF_8), docId);
+  }
+
+  /**
+   * Updates or inserts the given search document, serialized as UTF-8 JSON. The update and the upsert share the bytes.
+   *
+   * Noop detection is enabled, so that re-ingesting unchanged metadata does not reindex the document. Search documents
+   * are produced with a stable field order by {@link com.linkedin.metadata.search.transformer.SearchDocumentTransformer}.
+   *
+   * @param entityName name of the entity
+   * @param document the document to update / insert
+   * @param docId the ID of the document
+   */
+  public void upsertDocument(@Nonnull String entityName, @Nonnull byte[] document, @Nonnull String docId) {
     final String indexName = indexConvention.getIndexName(entityRegistry.getEntitySpec(entityName));
     final IndexRequest indexRequest = new IndexRequest(indexName).id(docId).source(document, XContentType.JSON);
     final UpdateRequest updateRequest =
-        new UpdateRequest(indexName, docId).doc(document, XContentType.JSON).detectNoop(false).upsert(indexRequest);
+        new UpdateRequest(indexName, docId).doc(document, XContentType.JSON).detectNoop(true).upsert(indexRequest);
     bulkProcessor.add(updateRequest);
   }
 
@@ -1,9 +1,7 @@
 package com.linkedin.metadata.search.transformer;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.template.RecordTemplate;
@@ -12,25 +10,35 @@ import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.SearchableFieldSpec;
 import com.linkedin.metadata.models.annotation.SearchableAnnotation.FieldType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 
 /**
  * Class that provides a utility function that transforms the snapshot object into a search document
+ *
+ * Documents are written as UTF-8 JSON bytes with a streaming generator, which the bulk requests take as is. Fields are
+ * written sorted by name, so that the same metadata always produces the same document.
  */
 @Slf4j
 @RequiredArgsConstructor
 public class SearchDocumentTransformer {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   // Number of elements to index for a given array.
   // The cap improves search speed when having fields with a large number of elements
   private final int maxArrayLength;
 
-  public Optional<String> transformSnapshot(
+  public Optional<byte[]> transformSnapshot(
       final RecordTemplate snapshot,
       final EntitySpec entitySpec,
       final Boolean forDelete
@@ -40,13 +48,13 @@ public class SearchDocumentTransformer {
     if (extractedFields.isEmpty()) {
       return Optional.empty();
     }
-    final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
+    final Map<String, Object> searchDocument = new TreeMap<>();
     searchDocument.put("urn", snapshot.data().get("urn").toString());
     extractedFields.forEach((key, value) -> setValue(key, value, searchDocument, forDelete));
-    return Optional.of(searchDocument.toString());
+    return Optional.of(toBytes(searchDocument));
   }
 
-  public Optional<String> transformAspect(
+  public Optional<byte[]> transformAspect(
       final Urn urn,
       final RecordTemplate aspect,
       final AspectSpec aspectSpec,
@@ -57,14 +65,18 @@ public class SearchDocumentTransformer {
     if (extractedFields.isEmpty()) {
       return Optional.empty();
     }
-    final ObjectNode searchDocument = JsonNodeFactory.instance.objectNode();
+    final Map<String, Object> searchDocument = new TreeMap<>();
     searchDocument.put("urn", urn.toString());
     extractedFields.forEach((key, value) -> setValue(key, value, searchDocument, forDelete));
-    return Optional.of(searchDocument.toString());
+    return Optional.of(toBytes(searchDocument));
   }
 
-  public void setValue(final SearchableFieldSpec fieldSpec, final List<Object> fieldValues,
-      final ObjectNode searchDocument, final Boolean forDelete) {
+  /**
+   * Sets the values of the field in the search document. Values are booleans, numbers, strings or lists of them, and
+   * null for fields to clear.
+   */
+  private void setValue(final SearchableFieldSpec fieldSpec, final List<Object> fieldValues,
+      final Map<String, Object> searchDocument, final Boolean forDelete) {
     DataSchema.Type valueType = fieldSpec.getPegasusSchema().getType();
     Optional<Object> firstValue = fieldValues.stream().findFirst();
     boolean isArray = fieldSpec.isArray();
@@ -72,31 +84,31 @@ public class SearchDocumentTransformer {
     // Set hasValues field if exists
     fieldSpec.getSearchableAnnotation().getHasValuesFieldName().ifPresent(fieldName -> {
       if (forDelete) {
-        searchDocument.set(fieldName, JsonNodeFactory.instance.booleanNode(false));
+        searchDocument.put(fieldName, false);
         return;
       }
       if (valueType == DataSchema.Type.BOOLEAN) {
-        searchDocument.set(fieldName, JsonNodeFactory.instance.booleanNode((Boolean) firstValue.orElse(false)));
+        searchDocument.put(fieldName, (Boolean) firstValue.orElse(false));
       } else {
-        searchDocument.set(fieldName, JsonNodeFactory.instance.booleanNode(!fieldValues.isEmpty()));
+        searchDocument.put(fieldName, !fieldValues.isEmpty());
       }
     });
 
     // Set numValues field if exists
     fieldSpec.getSearchableAnnotation().getNumValuesFieldName().ifPresent(fieldName -> {
       if (forDelete) {
-        searchDocument.set(fieldName, JsonNodeFactory.instance.numberNode((Integer) 0));
+        searchDocument.put(fieldName, 0);
         return;
       }
       switch (valueType) {
         case INT:
-          searchDocument.set(fieldName, JsonNodeFactory.instance.numberNode((Integer) firstValue.orElse(0)));
+          searchDocument.put(fieldName, (Integer) firstValue.orElse(0));
           break;
         case LONG:
-          searchDocument.set(fieldName, JsonNodeFactory.instance.numberNode((Long) firstValue.orElse(0L)));
+          searchDocument.put(fieldName, (Long) firstValue.orElse(0L));
           break;
         default:
-          searchDocument.set(fieldName, JsonNodeFactory.instance.numberNode(fieldValues.size()));
+          searchDocument.put(fieldName, fieldValues.size());
           break;
       }
     });
@@ -105,29 +117,27 @@ public class SearchDocumentTransformer {
     final FieldType fieldType = fieldSpec.getSearchableAnnotation().getFieldType();
 
     if (forDelete) {
-      searchDocument.set(fieldName, JsonNodeFactory.instance.nullNode());
+      searchDocument.put(fieldName, null);
       return;
     }
 
     if (isArray || valueType == DataSchema.Type.MAP) {
-      ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode();
+      final List<Object> values = new ArrayList<>();
       fieldValues.subList(0, Math.min(fieldValues.size(), maxArrayLength))
-          .forEach(value -> getNodeForValue(valueType, value, fieldType).ifPresent(arrayNode::add));
-      searchDocument.set(fieldName, arrayNode);
+          .forEach(value -> getValue(valueType, value, fieldType).ifPresent(values::add));
+      searchDocument.put(fieldName, values);
     } else if (!fieldValues.isEmpty()) {
-      getNodeForValue(valueType, fieldValues.get(0), fieldType).ifPresent(node -> searchDocument.set(fieldName, node));
+      getValue(valueType, fieldValues.get(0), fieldType).ifPresent(value -> searchDocument.put(fieldName, value));
     }
   }
 
-  private Optional<JsonNode> getNodeForValue(final DataSchema.Type schemaFieldType, final Object fieldValue,
+  private Optional<Object> getValue(final DataSchema.Type schemaFieldType, final Object fieldValue,
       final FieldType fieldType) {
     switch (schemaFieldType) {
       case BOOLEAN:
-        return Optional.of(JsonNodeFactory.instance.booleanNode((Boolean) fieldValue));
       case INT:
-        return Optional.of(JsonNodeFactory.instance.numberNode((Integer) fieldValue));
       case LONG:
-        return Optional.of(JsonNodeFactory.instance.numberNode((Long) fieldValue));
+        return Optional.of(fieldValue);
       // By default run toString
       default:
         String value = fieldValue.toString();
@@ -135,8 +145,42 @@ public class SearchDocumentTransformer {
         if (fieldType == FieldType.BROWSE_PATH && !value.startsWith("/")) {
           value = "/" + value;
         }
-        return value.isEmpty() ? Optional.empty()
-            : Optional.of(JsonNodeFactory.instance.textNode(fieldValue.toString()));
+        return value.isEmpty() ? Optional.empty() : Optional.of(fieldValue.toString());
+    }
+  }
+
+  private static byte[] toBytes(final Map<String, Object> searchDocument) {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+      generator.writeStartObject();
+      for (Map.Entry<String, Object> field : searchDocument.entrySet()) {
+        generator.writeFieldName(field.getKey());
+        writeValue(generator, field.getValue());
+      }
+      generator.writeEndObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write search document", e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  private static void writeValue(final JsonGenerator generator, final Object value) throws IOException {
+    if (value == null) {
+      generator.writeNull();
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else if (value instanceof Integer) {
+      generator.writeNumber((Integer) value);
+    } else if (value instanceof Long) {
+      generator.writeNumber((Long) value);
+    } else if (value instanceof List) {
+      generator.writeStartArray();
+      for (Object item : (List<?>) value) {
+        writeValue(generator, item);
+      }
+      generator.writeEndArray();
+    } else {
+      generator.writeString(value.toString());
     }
   }
 }
@@ -1,10 +1,14 @@
 package com.linkedin.metadata.search.utils;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.SortCriterion;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Base64;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +28,8 @@ public class ESUtils {
 
   private static final String DEFAULT_SEARCH_RESULTS_SORT_BY_FIELD = "urn";
 
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
   public static final String KEYWORD_SUFFIX = ".keyword";
 
   /*
@@ -198,4 +204,35 @@ public class ESUtils {
     }
     return input;
   }
-}
\ No newline at end of file
+
+  /**
+   * Encodes the sort values of the last hit of a page into an opaque scroll id, to be passed as search_after to get
+   * the next page.
+   *
+   * @param sortValues sort values of the last search hit of the page
+   * @return url safe scroll id
+   */
+  @Nonnull
+  public static String encodeScrollId(@Nonnull Object[] sortValues) {
+    try {
+      return Base64.getUrlEncoder().encodeToString(OBJECT_MAPPER.writeValueAsBytes(sortValues));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Failed to encode sort values " + Arrays.toString(sortValues), e);
+    }
+  }
+
+  /**
+   * Decodes a scroll id created by {@link #encodeScrollId(Object[])} back into search_after sort values.
+   *
+   * @param scrollId scroll id returned with the previous page
+   * @return sort values to search after
+   */
+  @Nonnull
+  public static Object[] decodeScrollId(@Nonnull String scrollId) {
+    try {
+      return OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(scrollId), Object[].class);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid scroll id " + scrollId, e);
+    }
+  }
+}
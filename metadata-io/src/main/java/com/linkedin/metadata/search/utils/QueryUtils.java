@@ -2,6 +2,7 @@ package com.linkedin.metadata.search.utils;
 
 import com.google.common.collect.ImmutableList;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.template.StringArray;
 import com.linkedin.metadata.dao.BaseReadDAO;
 import com.linkedin.metadata.aspect.AspectVersion;
 import com.linkedin.metadata.dao.utils.ModelUtils;
@@ -42,6 +43,21 @@ public class QueryUtils {
     return new Criterion().setField(field).setValue(value).setCondition(condition);
   }
 
+  // Creates new Criterion with field and values, using IN condition.
+  @Nonnull
+  public static Criterion newInCriterion(@Nonnull String field, @Nonnull List<String> values) {
+    return new Criterion().setField(field).setValue("").setValues(new StringArray(values)).setCondition(Condition.IN);
+  }
+
+  // Returns the values an IN criterion matches against, falling back to the single value if no values are set.
+  @Nonnull
+  public static List<String> getCriterionValues(@Nonnull Criterion criterion) {
+    if (criterion.getValues().isEmpty()) {
+      return Collections.singletonList(criterion.getValue());
+    }
+    return criterion.getValues();
+  }
+
   // Creates new Filter from a map of Criteria by removing null-valued Criteria and using EQUAL condition (default).
   @Nonnull
   public static Filter newFilter(@Nullable Map<String, String> params) {
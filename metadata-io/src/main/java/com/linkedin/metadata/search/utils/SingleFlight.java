@@ -0,0 +1,89 @@
+package com.linkedin.metadata.search.utils;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, callers with the same key wait for it and
+ * share its result instead of making the call themselves.
+ *
+ * Results are usually mutable records, so when a result is shared every caller gets its own copy. Calls that no other
+ * caller joined return the result as is.
+ */
+public class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, Flight<V>> _inFlight = new ConcurrentHashMap<>();
+  private final Class<?> _metricsClass;
+  private final String _name;
+
+  private static final class Flight<V> {
+    private final CompletableFuture<V> _result = new CompletableFuture<>();
+    private final AtomicInteger _followers = new AtomicInteger();
+
+    private Flight<V> join() {
+      _followers.incrementAndGet();
+      return this;
+    }
+  }
+
+  /**
+   * @param metricsClass class to publish the number of coalesced calls under
+   * @param name name of the calls, used as the prefix of the metric
+   */
+  public SingleFlight(@Nonnull Class<?> metricsClass, @Nonnull String name) {
+    _metricsClass = metricsClass;
+    _name = name;
+  }
+
+  /**
+   * Makes the call, or waits for the identical call in flight.
+   *
+   * @param key key identifying identical calls
+   * @param call the call to make
+   * @param copier returns a copy of a result, handed out when the result is shared
+   * @return the result of the call
+   */
+  @Nonnull
+  public V execute(@Nonnull K key, @Nonnull Supplier<V> call, @Nonnull UnaryOperator<V> copier) {
+    final Flight<V> candidate = new Flight<>();
+    // Joining happens under the map's lock for the key, so no caller can join once the flight is removed
+    final Flight<V> flight = _inFlight.compute(key, (k, existing) -> existing == null ? candidate : existing.join());
+
+    if (flight != candidate) {
+      MetricUtils.counter(_metricsClass, _name + "Coalesced").inc();
+      onJoin(key);
+      try {
+        return copier.apply(flight._result.join());
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
+    }
+
+    final V result;
+    try {
+      result = call.get();
+    } catch (RuntimeException | Error e) {
+      _inFlight.remove(key, flight);
+      flight._result.completeExceptionally(e);
+      throw e;
+    }
+    _inFlight.remove(key, flight);
+    flight._result.complete(result);
+    return flight._followers.get() == 0 ? result : copier.apply(result);
+  }
+
+  /**
+   * Called when a caller joined the call in flight for the key, before it waits for the result.
+   */
+  @VisibleForTesting
+  protected void onJoin(@Nonnull K key) {
+  }
+}
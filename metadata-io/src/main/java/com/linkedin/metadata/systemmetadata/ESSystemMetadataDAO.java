@@ -1,12 +1,12 @@
 package com.linkedin.metadata.systemmetadata;
 
 import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.dao.exception.ESQueryException;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.bulk.BulkProcessor;
@@ -29,6 +29,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilde
 import org.elasticsearch.search.aggregations.pipeline.BucketSortPipelineAggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 
 import static com.linkedin.metadata.systemmetadata.ElasticSearchSystemMetadataService.INDEX_NAME;
@@ -114,41 +115,42 @@ public class ESSystemMetadataDAO {
     return null;
   }
 
-  public SearchResponse findByParams(Map<String, String> searchParams) {
+  /**
+   * Finds a page of the documents matching all the params. Documents are sorted by urn and aspect, which identify
+   * them, so paging with search_after neither skips nor repeats a document, even while documents are deleted.
+   *
+   * @param searchAfter sort values of the last document of the previous page, null for the first page
+   * @param size the max number of documents in the page, at most the 10000 elasticsearch returns at once
+   */
+  @Nonnull
+  public SearchResponse findByParams(@Nonnull Map<String, String> searchParams, @Nullable Object[] searchAfter,
+      int size) {
     SearchRequest searchRequest = new SearchRequest();
 
     SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
 
     BoolQueryBuilder finalQuery = QueryBuilders.boolQuery();
     searchParams.entrySet()
-        .forEach(entry -> finalQuery.must(QueryBuilders.termQuery(entry.getKey(), entry.getValue())));
+        .forEach(entry -> finalQuery.filter(QueryBuilders.termQuery(entry.getKey(), entry.getValue())));
     searchSourceBuilder.query(finalQuery);
 
-    // this is the max page size elastic will return
-    searchSourceBuilder.size(10000);
+    searchSourceBuilder.size(size);
+    searchSourceBuilder.trackTotalHits(false);
+    searchSourceBuilder.sort(SortBuilders.fieldSort("urn").order(SortOrder.ASC));
+    searchSourceBuilder.sort(SortBuilders.fieldSort("aspect").order(SortOrder.ASC));
+    if (searchAfter != null) {
+      searchSourceBuilder.searchAfter(searchAfter);
+    }
 
     searchRequest.source(searchSourceBuilder);
 
     searchRequest.indices(indexConvention.getIndexName(INDEX_NAME));
 
     try {
-      final SearchResponse searchResponse = client.search(searchRequest, RequestOptions.DEFAULT);
-      return searchResponse;
+      return client.search(searchRequest, RequestOptions.DEFAULT);
     } catch (IOException e) {
-      e.printStackTrace();
+      throw new ESQueryException("Failed to find system metadata by " + searchParams, e);
     }
-    return null;
-  }
-
-  public SearchResponse findByRegistry(String registryName, String registryVersion) {
-    Map<String, String> params = new HashMap<>();
-    params.put("registryName", registryName);
-    params.put("registryVersion", registryVersion);
-    return findByParams(params);
-  }
-
-  public SearchResponse findByRunId(String runId) {
-    return findByParams(Collections.singletonMap("runId", runId));
   }
 
   public SearchResponse findRuns(Integer pageOffset, Integer pageSize) {
@@ -5,12 +5,14 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.linkedin.metadata.run.AspectRowSummary;
 import com.linkedin.metadata.run.IngestionRunSummary;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.search.utils.ESUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.mxe.SystemMetadata;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
@@ -29,7 +31,7 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.reindex.DeleteByQueryRequest;
-import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.bucket.terms.ParsedStringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.ParsedMax;
@@ -45,6 +47,7 @@ public class ElasticSearchSystemMetadataService implements SystemMetadataService
   private final ESIndexBuilder _indexBuilder;
 
   private static final String DOC_DELIMETER = "--";
+  private static final int FIND_PAGE_SIZE = 5000;
   public static final String INDEX_NAME = "system_metadata_service_v1";
   private static final String FIELD_URN = "urn";
   private static final String FIELD_ASPECT = "aspect";
@@ -109,37 +112,63 @@ public class ElasticSearchSystemMetadataService implements SystemMetadataService
     return findByParams(Collections.singletonMap(FIELD_RUNID, runId));
   }
 
+  @Override
+  public SystemMetadataScrollResult scrollByRunId(String runId, @Nullable String scrollId, int count) {
+    return scrollByParams(Collections.singletonMap(FIELD_RUNID, runId), scrollId, count);
+  }
+
   private List<AspectRowSummary> findByParams(Map<String, String> systemMetaParams) {
-    SearchResponse searchResponse = _esDAO.findByParams(systemMetaParams);
-    if (searchResponse != null) {
-      SearchHits hits = searchResponse.getHits();
-      List<AspectRowSummary> summaries = Arrays.stream(hits.getHits()).map(hit -> {
-        Map<String, Object> values = hit.getSourceAsMap();
-        AspectRowSummary summary = new AspectRowSummary();
-        summary.setRunId((String) values.get(FIELD_RUNID));
-        summary.setAspectName((String) values.get(FIELD_ASPECT));
-        summary.setUrn((String) values.get(FIELD_URN));
-        Object timestamp = values.get(FIELD_LAST_UPDATED);
-        if (timestamp instanceof Long) {
-          summary.setTimestamp((Long) timestamp);
-        } else if (timestamp instanceof Integer) {
-          summary.setTimestamp(Long.valueOf((Integer) timestamp));
-        }
-        summary.setKeyAspect(((String) values.get(FIELD_ASPECT)).endsWith("Key"));
-        return summary;
-      }).collect(Collectors.toList());
-      return summaries;
-    } else {
-      return Collections.emptyList();
-    }
+    List<AspectRowSummary> summaries = new ArrayList<>();
+    String scrollId = null;
+    do {
+      SystemMetadataScrollResult page = scrollByParams(systemMetaParams, scrollId, FIND_PAGE_SIZE);
+      summaries.addAll(page.getRows());
+      scrollId = page.getScrollId();
+    } while (scrollId != null);
+    return summaries;
+  }
+
+  private SystemMetadataScrollResult scrollByParams(Map<String, String> systemMetaParams, @Nullable String scrollId,
+      int count) {
+    SearchHit[] hits = _esDAO.findByParams(systemMetaParams,
+        scrollId != null ? ESUtils.decodeScrollId(scrollId) : null, count).getHits().getHits();
+    List<AspectRowSummary> summaries = Arrays.stream(hits).map(hit -> {
+      Map<String, Object> values = hit.getSourceAsMap();
+      AspectRowSummary summary = new AspectRowSummary();
+      summary.setRunId((String) values.get(FIELD_RUNID));
+      summary.setAspectName((String) values.get(FIELD_ASPECT));
+      summary.setUrn((String) values.get(FIELD_URN));
+      Object timestamp = values.get(FIELD_LAST_UPDATED);
+      if (timestamp instanceof Long) {
+        summary.setTimestamp((Long) timestamp);
+      } else if (timestamp instanceof Integer) {
+        summary.setTimestamp(Long.valueOf((Integer) timestamp));
+      }
+      summary.setKeyAspect(((String) values.get(FIELD_ASPECT)).endsWith("Key"));
+      return summary;
+    }).collect(Collectors.toList());
+    // A full page may be followed by more rows, a partial one is the last
+    String nextScrollId =
+        hits.length > 0 && hits.length == count ? ESUtils.encodeScrollId(hits[hits.length - 1].getSortValues()) : null;
+    return new SystemMetadataScrollResult(summaries, nextScrollId);
   }
 
   @Override
   public List<AspectRowSummary> findByRegistry(String registryName, String registryVersion) {
+    return findByParams(getRegistryParams(registryName, registryVersion));
+  }
+
+  @Override
+  public SystemMetadataScrollResult scrollByRegistry(String registryName, String registryVersion,
+      @Nullable String scrollId, int count) {
+    return scrollByParams(getRegistryParams(registryName, registryVersion), scrollId, count);
+  }
+
+  private static Map<String, String> getRegistryParams(String registryName, String registryVersion) {
     Map<String, String> registryParams = new HashMap<>();
     registryParams.put(FIELD_REGISTRY_NAME, registryName);
     registryParams.put(FIELD_REGISTRY_VERSION, registryVersion);
-    return findByParams(registryParams);
+    return registryParams;
   }
 
   @Override
@@ -0,0 +1,17 @@
+package com.linkedin.metadata.systemmetadata;
+
+import com.linkedin.metadata.run.AspectRowSummary;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * A page of aspect rows, with the scroll id of the next page if there may be one.
+ */
+@Value
+public class SystemMetadataScrollResult {
+  List<AspectRowSummary> rows;
+  @Nullable
+  String scrollId;
+}
@@ -20,10 +20,34 @@ public interface SystemMetadataService {
 
   void insert(@Nullable SystemMetadata systemMetadata, String urn, String aspect);
 
+  /**
+   * Lists all the aspect rows of the run.
+   */
   List<AspectRowSummary> findByRunId(String runId);
 
+  /**
+   * Lists a page of the aspect rows of the run. Pages keep their place while rows are deleted, so a run can be rolled
+   * back page by page in a single pass over its rows.
+   *
+   * @param runId the run to list the rows of
+   * @param scrollId scroll id returned with the previous page, null for the first page
+   * @param count the max number of rows in the page
+   */
+  SystemMetadataScrollResult scrollByRunId(String runId, @Nullable String scrollId, int count);
+
   List<AspectRowSummary> findByRegistry(String registryName, String registryVersion);
 
+  /**
+   * Lists a page of the aspect rows ingested with the registry, paged like {@link #scrollByRunId}.
+   *
+   * @param registryName the name of the registry
+   * @param registryVersion the version of the registry
+   * @param scrollId scroll id returned with the previous page, null for the first page
+   * @param count the max number of rows in the page
+   */
+  SystemMetadataScrollResult scrollByRegistry(String registryName, String registryVersion, @Nullable String scrollId,
+      int count);
+
   List<IngestionRunSummary> listRuns(
       final Integer pageOffset,
       final Integer pageSize);
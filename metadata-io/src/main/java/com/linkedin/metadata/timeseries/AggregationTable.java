@@ -0,0 +1,200 @@
+package com.linkedin.metadata.timeseries;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+
+/**
+ * Result of a timeseries aggregation, held column by column. Numeric columns keep their values as primitives, so that
+ * consumers read numbers without parsing them out of strings. Cells without a value are null.
+ */
+public class AggregationTable {
+
+  public enum ColumnType {
+    LONG, DOUBLE, STRING
+  }
+
+  private final List<Column> _columns;
+  private final int _numRows;
+
+  private AggregationTable(@Nonnull List<Column> columns, int numRows) {
+    _columns = columns;
+    _numRows = numRows;
+  }
+
+  public int getNumRows() {
+    return _numRows;
+  }
+
+  public int getNumColumns() {
+    return _columns.size();
+  }
+
+  @Nonnull
+  public String getColumnName(int column) {
+    return _columns.get(column)._name;
+  }
+
+  @Nonnull
+  public ColumnType getColumnType(int column) {
+    return _columns.get(column)._type;
+  }
+
+  public boolean isNull(int row, int column) {
+    checkRow(row);
+    return _columns.get(column)._nulls.get(row);
+  }
+
+  /**
+   * Gets the value of a cell of a {@link ColumnType#LONG} column. Null cells read as 0.
+   */
+  public long getLong(int row, int column) {
+    checkRow(row);
+    return getColumn(column, ColumnType.LONG)._longs[row];
+  }
+
+  /**
+   * Gets the value of a cell of a {@link ColumnType#DOUBLE} or {@link ColumnType#LONG} column. Null cells read as 0.
+   */
+  public double getDouble(int row, int column) {
+    checkRow(row);
+    final Column col = _columns.get(column);
+    return col._type == ColumnType.LONG ? col._longs[row] : getColumn(column, ColumnType.DOUBLE)._doubles[row];
+  }
+
+  /**
+   * Gets the value of a cell of a {@link ColumnType#STRING} column.
+   */
+  @Nullable
+  public String getString(int row, int column) {
+    checkRow(row);
+    return getColumn(column, ColumnType.STRING)._strings[row];
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= _numRows) {
+      throw new IndexOutOfBoundsException("Row " + row + " out of " + _numRows);
+    }
+  }
+
+  private Column getColumn(int column, @Nonnull ColumnType type) {
+    final Column col = _columns.get(column);
+    if (col._type != type) {
+      throw new IllegalStateException(
+          String.format("Column %s holds %s values, not %s values", col._name, col._type, type));
+    }
+    return col;
+  }
+
+  private static class Column {
+    private final String _name;
+    private final ColumnType _type;
+    private final BitSet _nulls = new BitSet();
+    // Only the array of the column type is used
+    private long[] _longs = new long[0];
+    private double[] _doubles = new double[0];
+    private String[] _strings = new String[0];
+    private int _capacity = 0;
+
+    private Column(@Nonnull String name, @Nonnull ColumnType type) {
+      _name = name;
+      _type = type;
+    }
+
+    private void ensureCapacity(int size) {
+      if (size <= _capacity) {
+        return;
+      }
+      _capacity = Math.max(size, Math.max(16, 2 * _capacity));
+      switch (_type) {
+        case LONG:
+          _longs = Arrays.copyOf(_longs, _capacity);
+          break;
+        case DOUBLE:
+          _doubles = Arrays.copyOf(_doubles, _capacity);
+          break;
+        default:
+          _strings = Arrays.copyOf(_strings, _capacity);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Builds a table row by row, appending the cells of each row in column order.
+   */
+  public static class Builder {
+    private final List<Column> _columns = new ArrayList<>();
+    private int _numRows = 0;
+    private int _nextColumn = 0;
+
+    @Nonnull
+    public Builder addColumn(@Nonnull String name, @Nonnull ColumnType type) {
+      if (_numRows > 0 || _nextColumn > 0) {
+        throw new IllegalStateException("Columns must be added before any cell");
+      }
+      _columns.add(new Column(name, type));
+      return this;
+    }
+
+    @Nonnull
+    public Builder appendLong(long value) {
+      nextCell(ColumnType.LONG)._longs[_numRows] = value;
+      return endCell();
+    }
+
+    @Nonnull
+    public Builder appendDouble(double value) {
+      nextCell(ColumnType.DOUBLE)._doubles[_numRows] = value;
+      return endCell();
+    }
+
+    @Nonnull
+    public Builder appendString(@Nullable String value) {
+      if (value == null) {
+        return appendNull();
+      }
+      nextCell(ColumnType.STRING)._strings[_numRows] = value;
+      return endCell();
+    }
+
+    @Nonnull
+    public Builder appendNull() {
+      nextCell(null)._nulls.set(_numRows);
+      return endCell();
+    }
+
+    private Column nextCell(@Nullable ColumnType type) {
+      if (_columns.isEmpty()) {
+        throw new IllegalStateException("The table has no columns");
+      }
+      final Column column = _columns.get(_nextColumn);
+      if (type != null && column._type != type) {
+        throw new IllegalArgumentException(
+            String.format("Column %s holds %s values, not %s values", column._name, column._type, type));
+      }
+      column.ensureCapacity(_numRows + 1);
+      return column;
+    }
+
+    private Builder endCell() {
+      if (++_nextColumn == _columns.size()) {
+        _nextColumn = 0;
+        _numRows++;
+      }
+      return this;
+    }
+
+    @Nonnull
+    public AggregationTable build() {
+      if (_nextColumn != 0) {
+        throw new IllegalStateException("The last row is missing " + (_columns.size() - _nextColumn) + " cells");
+      }
+      return new AggregationTable(_columns, _numRows);
+    }
+  }
+}
@@ -23,10 +23,31 @@ public interface TimeseriesAspectService {
       @Nullable Long startTimeMillis, @Nullable Long endTimeMillis, @Nullable Integer limit,
       @Nullable Boolean getLatestValue, @Nullable Filter filter);
 
+  /**
+   * Gets a page of the values of a timeseries aspect of an entity, latest first, paging by cursor instead of offset so
+   * that whole histories can be read at the same cost per page.
+   *
+   * @param scrollId scroll id returned with the previous page, null to get the first page
+   * @param count the number of values to return
+   * @return a {@link TimeseriesScrollResult} with a page of values and the scroll id of the next page
+   */
+  @Nonnull
+  TimeseriesScrollResult scrollAspectValues(@Nonnull final Urn urn, @Nonnull String entityName,
+      @Nonnull String aspectName, @Nullable Long startTimeMillis, @Nullable Long endTimeMillis,
+      @Nullable Filter filter, @Nullable String scrollId, int count);
+
   /**
    * Get the aggregated metrics for the given dataset or column from a time series aspect.
    */
   @Nonnull
   GenericTable getAggregatedStats(@Nonnull String entityName, @Nonnull String aspectName,
       @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter, @Nullable GroupingBucket[] groupingBuckets);
+
+  /**
+   * Get the aggregated metrics for the given dataset or column from a time series aspect, as a table of typed columns
+   * rather than strings.
+   */
+  @Nonnull
+  AggregationTable getAggregatedStatsTable(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter, @Nullable GroupingBucket[] groupingBuckets);
 }
@@ -1,7 +1,9 @@
 package com.linkedin.metadata.timeseries.elastic;
 
 import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.linkedin.common.urn.Urn;
@@ -14,10 +16,15 @@ import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.utils.ESUtils;
+import com.linkedin.metadata.timeseries.AggregationTable;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.TimeseriesScrollResult;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.partition.ESPartitionDAO;
+import com.linkedin.metadata.timeseries.elastic.partition.TimePartitions;
 import com.linkedin.metadata.timeseries.elastic.query.ESAggregatedStatsDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.ESRollupDAO;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.metrics.MetricUtils;
 import com.linkedin.mxe.GenericAspect;
@@ -25,10 +32,10 @@ import com.linkedin.mxe.SystemMetadata;
 import com.linkedin.timeseries.AggregationSpec;
 import com.linkedin.timeseries.GenericTable;
 import com.linkedin.timeseries.GroupingBucket;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -40,6 +47,7 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
@@ -51,7 +59,7 @@ import org.elasticsearch.search.sort.SortOrder;
 
 
 @Slf4j
-public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectService {
+public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectService, AutoCloseable {
   private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
   private static final String TIMESTAMP_FIELD = "timestampMillis";
   private static final String EVENT_FIELD = "event";
@@ -62,97 +70,187 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
   private final TimeseriesAspectIndexBuilders _indexBuilders;
   private final RestHighLevelClient _searchClient;
   private final ESAggregatedStatsDAO _esAggregatedStatsDAO;
+  private final ESRollupDAO _esRollupDAO;
+  private final ESPartitionDAO _esPartitionDAO;
 
   public ElasticSearchTimeseriesAspectService(@Nonnull RestHighLevelClient searchClient,
       @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesAspectIndexBuilders indexBuilders,
       @Nonnull EntityRegistry entityRegistry, @Nonnull BulkProcessor bulkProcessor) {
+    this(searchClient, indexConvention, indexBuilders, entityRegistry, bulkProcessor, 0);
+  }
+
+  /**
+   * @param rollupFlushIntervalSeconds interval between flushes of the hourly and daily rollups, non-positive to not
+   *                                   maintain nor read rollups
+   */
+  public ElasticSearchTimeseriesAspectService(@Nonnull RestHighLevelClient searchClient,
+      @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesAspectIndexBuilders indexBuilders,
+      @Nonnull EntityRegistry entityRegistry, @Nonnull BulkProcessor bulkProcessor, long rollupFlushIntervalSeconds) {
+    this(searchClient, indexConvention, indexBuilders, entityRegistry, bulkProcessor, rollupFlushIntervalSeconds, 0, 0);
+  }
+
+  /**
+   * @param rollupFlushIntervalSeconds interval between flushes of the hourly and daily rollups, non-positive to not
+   *                                   maintain nor read rollups
+   * @param partitionIntervalDays days spanned by a time partition of an aspect, non-positive to not partition aspects
+   * @param retentionDays days time partitions are kept for after they end, non-positive to keep them
+   */
+  public ElasticSearchTimeseriesAspectService(@Nonnull RestHighLevelClient searchClient,
+      @Nonnull IndexConvention indexConvention, @Nonnull TimeseriesAspectIndexBuilders indexBuilders,
+      @Nonnull EntityRegistry entityRegistry, @Nonnull BulkProcessor bulkProcessor, long rollupFlushIntervalSeconds,
+      int partitionIntervalDays, int retentionDays) {
     _indexConvention = indexConvention;
     _indexBuilders = indexBuilders;
     _searchClient = searchClient;
     _bulkProcessor = bulkProcessor;
 
-    _esAggregatedStatsDAO = new ESAggregatedStatsDAO(indexConvention, searchClient, entityRegistry);
+    _esRollupDAO =
+        new ESRollupDAO(indexConvention, searchClient, bulkProcessor, entityRegistry, rollupFlushIntervalSeconds);
+    _esPartitionDAO =
+        new ESPartitionDAO(indexConvention, searchClient, entityRegistry, partitionIntervalDays, retentionDays);
+    _esAggregatedStatsDAO =
+        new ESAggregatedStatsDAO(indexConvention, searchClient, entityRegistry, _esRollupDAO, _esPartitionDAO);
   }
 
+  /**
+   * Builds the aspect value of a document out of its source bytes. The event and system metadata are sliced out of the
+   * source as they are, rather than parsed into maps and serialized back.
+   */
   private static EnvelopedAspect parseDocument(@Nonnull SearchHit doc) {
-    Map<String, Object> docFields = doc.getSourceAsMap();
+    final byte[] source = BytesReference.toBytes(doc.getSourceRef());
     EnvelopedAspect envelopedAspect = new EnvelopedAspect();
-    Object event = docFields.get(EVENT_FIELD);
-    GenericAspect genericAspect;
-    try {
-      genericAspect = new GenericAspect().setValue(
-          ByteString.unsafeWrap(OBJECT_MAPPER.writeValueAsString(event).getBytes(StandardCharsets.UTF_8)));
-    } catch (JsonProcessingException e) {
-      throw new RuntimeException("Failed to deserialize event from the timeseries aspect index: " + e);
-    }
-    genericAspect.setContentType("application/json");
-    envelopedAspect.setAspect(genericAspect);
-    Object systemMetadata = docFields.get("systemMetadata");
-    if (systemMetadata != null) {
-      try {
-        envelopedAspect.setSystemMetadata(
-            RecordUtils.toRecordTemplate(SystemMetadata.class, OBJECT_MAPPER.writeValueAsString(systemMetadata)));
-      } catch (JsonProcessingException e) {
-        throw new RuntimeException("Failed to deserialize system metadata from the timeseries aspect index: " + e);
+    try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(source)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IllegalStateException("Timeseries document " + doc.getId() + " is not an object");
       }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String fieldName = parser.getCurrentName();
+        final boolean isObject = parser.nextToken() == JsonToken.START_OBJECT;
+        final int valueStart = (int) parser.getTokenLocation().getByteOffset();
+        parser.skipChildren();
+        // Offset of the closing brace of the object
+        final int valueEnd = (int) parser.getTokenLocation().getByteOffset() + 1;
+        if (!isObject) {
+          continue;
+        }
+        if (EVENT_FIELD.equals(fieldName)) {
+          GenericAspect genericAspect =
+              new GenericAspect().setValue(ByteString.unsafeWrap(Arrays.copyOfRange(source, valueStart, valueEnd)));
+          genericAspect.setContentType("application/json");
+          envelopedAspect.setAspect(genericAspect);
+        } else if (MappingsBuilder.SYSTEM_METADATA_FIELD.equals(fieldName)) {
+          envelopedAspect.setSystemMetadata(RecordUtils.toRecordTemplate(SystemMetadata.class,
+              new String(source, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8)));
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to read the timeseries aspect index document " + doc.getId(), e);
     }
-
     return envelopedAspect;
   }
 
   @Override
   public void configure() {
-    _indexBuilders.buildAll();
+    if (_esPartitionDAO.isEnabled()) {
+      _indexBuilders.buildAllPartitioned(_esPartitionDAO);
+      _esPartitionDAO.scheduleRetention();
+    } else {
+      _indexBuilders.buildAll();
+    }
+    if (_esRollupDAO.isEnabled()) {
+      _indexBuilders.buildRollups(_esRollupDAO);
+    }
+  }
+
+  /**
+   * Stops the background work of the rollups and partitions.
+   */
+  @Override
+  public void close() {
+    _esRollupDAO.close();
+    _esPartitionDAO.close();
   }
 
   @Override
   public void upsertDocument(@Nonnull String entityName, @Nonnull String aspectName, @Nonnull String docId,
       @Nonnull JsonNode document) {
-    String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    final IndexRequest indexRequest =
-        new IndexRequest(indexName).id(docId).source(document.toString(), XContentType.JSON);
-    final UpdateRequest updateRequest = new UpdateRequest(indexName, docId).doc(document.toString(), XContentType.JSON)
+    String indexName = _esPartitionDAO.getWriteIndexName(entityName, aspectName,
+        document.get(MappingsBuilder.TIMESTAMP_MILLIS_FIELD).asLong());
+    // Serialize the document once, the update and the upsert share the bytes
+    final byte[] source;
+    try {
+      source = OBJECT_MAPPER.writeValueAsBytes(document);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Failed to serialize timeseries document " + docId, e);
+    }
+    final IndexRequest indexRequest = new IndexRequest(indexName).id(docId).source(source, XContentType.JSON);
+    final UpdateRequest updateRequest = new UpdateRequest(indexName, docId).doc(source, XContentType.JSON)
         .detectNoop(false)
         .upsert(indexRequest);
     _bulkProcessor.add(updateRequest);
+    _esRollupDAO.markChanged(entityName, aspectName, document);
   }
 
   @Override
   public List<EnvelopedAspect> getAspectValues(@Nonnull final Urn urn, @Nonnull String entityName,
       @Nonnull String aspectName, @Nullable Long startTimeMillis, @Nullable Long endTimeMillis, @Nullable Integer limit,
       @Nullable Boolean getLatestValue, @Nullable Filter filter) {
-    final BoolQueryBuilder filterQueryBuilder = QueryBuilders.boolQuery().must(ESUtils.buildFilterQuery(filter));
-    filterQueryBuilder.must(QueryBuilders.matchQuery("urn", urn.toString()));
+    if (getLatestValue != null && getLatestValue) {
+      if (limit != null && limit > 1) {
+        log.warn(String.format("Changing limit from %s to 1, since getLatestValue is true", limit));
+      }
+      limit = 1;
+    }
+    return scrollAspectValues(urn, entityName, aspectName, startTimeMillis, endTimeMillis, filter, null,
+        limit != null ? limit : DEFAULT_LIMIT).getValues();
+  }
+
+  @Override
+  @Nonnull
+  public TimeseriesScrollResult scrollAspectValues(@Nonnull final Urn urn, @Nonnull String entityName,
+      @Nonnull String aspectName, @Nullable Long startTimeMillis, @Nullable Long endTimeMillis,
+      @Nullable Filter filter, @Nullable String scrollId, int count) {
+    // Nothing is scored, all the clauses only filter.
+    final BoolQueryBuilder filterQueryBuilder = QueryBuilders.boolQuery().filter(ESUtils.buildFilterQuery(filter));
+    filterQueryBuilder.filter(QueryBuilders.termQuery(MappingsBuilder.URN_FIELD, urn.toString()));
     // NOTE: We are interested only in the un-exploded rows as only they carry the `event` payload.
     filterQueryBuilder.mustNot(QueryBuilders.termQuery(MappingsBuilder.IS_EXPLODED_FIELD, true));
     if (startTimeMillis != null) {
       Criterion startTimeCriterion = new Criterion().setField(TIMESTAMP_FIELD)
           .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
           .setValue(startTimeMillis.toString());
-      filterQueryBuilder.must(ESUtils.getQueryBuilderFromCriterionForSearch(startTimeCriterion));
+      filterQueryBuilder.filter(ESUtils.getQueryBuilderFromCriterionForSearch(startTimeCriterion));
     }
     if (endTimeMillis != null) {
       Criterion endTimeCriterion = new Criterion().setField(TIMESTAMP_FIELD)
           .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
           .setValue(endTimeMillis.toString());
-      filterQueryBuilder.must(ESUtils.getQueryBuilderFromCriterionForSearch(endTimeCriterion));
+      filterQueryBuilder.filter(ESUtils.getQueryBuilderFromCriterionForSearch(endTimeCriterion));
     }
     final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder();
     searchSourceBuilder.query(filterQueryBuilder);
-    if (getLatestValue != null && getLatestValue) {
-      if (limit != null && limit > 1) {
-        log.warn(String.format("Changing limit from %s to 1, since getLatestValue is true", limit));
-      }
-      limit = 1;
+    searchSourceBuilder.size(count);
+    searchSourceBuilder.trackTotalHits(false);
+    // The values of an urn are told apart by their timestamp, granularity and message id, the fields of the document
+    // id, so sorting on all of them gives every value its own place to search after.
+    searchSourceBuilder.sort(SortBuilders.fieldSort(MappingsBuilder.TIMESTAMP_FIELD).order(SortOrder.DESC));
+    searchSourceBuilder.sort(
+        SortBuilders.fieldSort(MappingsBuilder.EVENT_GRANULARITY).order(SortOrder.ASC).missing(""));
+    searchSourceBuilder.sort(
+        SortBuilders.fieldSort(MappingsBuilder.MESSAGE_ID_FIELD).order(SortOrder.ASC).missing(""));
+    if (scrollId != null) {
+      searchSourceBuilder.searchAfter(ESUtils.decodeScrollId(scrollId));
     }
-    searchSourceBuilder.size(limit != null ? limit : DEFAULT_LIMIT);
-    searchSourceBuilder.sort(SortBuilders.fieldSort("@timestamp").order(SortOrder.DESC));
 
     final SearchRequest searchRequest = new SearchRequest();
     searchRequest.source(searchSourceBuilder);
 
-    String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    // Only the partitions overlapping the time range are read
+    final TimePartitions.TimeRange timeRange =
+        new TimePartitions.TimeRange(startTimeMillis, endTimeMillis != null ? endTimeMillis + 1 : null);
+    searchRequest.indices(
+        _esPartitionDAO.getReadIndexNames(entityName, aspectName, timeRange).toArray(new String[0]));
+    searchRequest.indicesOptions(ESPartitionDAO.READ_INDICES_OPTIONS);
 
     log.debug("Search request is: " + searchRequest);
     SearchHits hits;
@@ -163,9 +261,14 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
       log.error("Search query failed:" + e.getMessage());
       throw new ESQueryException("Search query failed:", e);
     }
-    return Arrays.stream(hits.getHits())
+    final SearchHit[] searchHits = hits.getHits();
+    final List<EnvelopedAspect> values = Arrays.stream(searchHits)
         .map(ElasticSearchTimeseriesAspectService::parseDocument)
         .collect(Collectors.toList());
+    // A full page may be followed by more values, a partial one is the last.
+    final String nextScrollId = searchHits.length > 0 && searchHits.length == count
+        ? ESUtils.encodeScrollId(searchHits[searchHits.length - 1].getSortValues()) : null;
+    return new TimeseriesScrollResult(values, nextScrollId);
   }
 
   @Override
@@ -175,4 +278,13 @@ public class ElasticSearchTimeseriesAspectService implements TimeseriesAspectSer
       @Nullable GroupingBucket[] groupingBuckets) {
     return _esAggregatedStatsDAO.getAggregatedStats(entityName, aspectName, aggregationSpecs, filter, groupingBuckets);
   }
+
+  @Override
+  @Nonnull
+  public AggregationTable getAggregatedStatsTable(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets) {
+    return _esAggregatedStatsDAO.getAggregatedStatsTable(entityName, aspectName, aggregationSpecs, filter,
+        groupingBuckets);
+  }
 }
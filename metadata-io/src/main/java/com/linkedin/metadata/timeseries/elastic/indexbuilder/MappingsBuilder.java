@@ -19,6 +19,7 @@ public class MappingsBuilder {
   public static final String EVENT_FIELD = "event";
   public static final String SYSTEM_METADATA_FIELD = "systemMetadata";
   public static final String IS_EXPLODED_FIELD = "isExploded";
+  public static final String ROLLUP_GRANULARITY_FIELD = "rollupGranularity";
 
   private MappingsBuilder() {
   }
@@ -39,6 +40,7 @@ public class MappingsBuilder {
     mappings.put(EVENT_FIELD, ImmutableMap.of("type", "object", "enabled", false));
     mappings.put(SYSTEM_METADATA_FIELD, ImmutableMap.of("type", "object", "enabled", false));
     mappings.put(IS_EXPLODED_FIELD, ImmutableMap.of("type", "boolean"));
+    mappings.put(ROLLUP_GRANULARITY_FIELD, ImmutableMap.of("type", "keyword"));
 
     aspectSpec.getTimeseriesFieldSpecs()
         .forEach(x -> mappings.put(x.getName(), getFieldMapping(x.getPegasusSchema().getType())));
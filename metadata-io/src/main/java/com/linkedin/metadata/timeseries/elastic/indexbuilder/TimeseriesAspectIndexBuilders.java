@@ -4,9 +4,14 @@ import com.linkedin.metadata.models.AspectSpec;
 import com.linkedin.metadata.models.EntitySpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.timeseries.elastic.partition.ESPartitionDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.ESRollupDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.RollupGranularity;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Map;
+import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -35,4 +40,67 @@ public class TimeseriesAspectIndexBuilders {
       }
     }
   }
+
+  /**
+   * Builds the index templates of the time partitions of the timeseries aspects, see {@link ESPartitionDAO}, and the
+   * current partition of each. Aspects that already have an index of their own keep it, as its name is the alias of
+   * the partitions, until it is removed.
+   */
+  public void buildAllPartitioned(@Nonnull ESPartitionDAO partitionDAO) {
+    for (EntitySpec entitySpec : _entityRegistry.getEntitySpecs().values()) {
+      for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+        if (aspectSpec.isTimeseries()) {
+          final String indexName =
+              _indexConvention.getTimeseriesAspectIndexName(entitySpec.getName(), aspectSpec.getName());
+          final Map<String, Object> mappings = MappingsBuilder.getMappings(aspectSpec);
+          try {
+            if (partitionDAO.hasSingleIndex(entitySpec.getName(), aspectSpec.getName())) {
+              log.warn("Timeseries index {} predates partitioning, keeping it unpartitioned until it is removed",
+                  indexName);
+              _indexBuilder.buildIndex(indexName, mappings, Collections.emptyMap());
+              continue;
+            }
+            _indexBuilder.buildTemplate(indexName, partitionDAO.getPartitionPattern(entitySpec.getName(),
+                aspectSpec.getName()), indexName, mappings, Collections.emptyMap());
+            partitionDAO.createPartition(entitySpec.getName(), aspectSpec.getName(), System.currentTimeMillis());
+          } catch (IOException e) {
+            log.error("Issue while building timeseries partition template for entity {} aspect {}",
+                entitySpec.getName(), aspectSpec.getName());
+            log.error("Exception: ", e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the rollup indices of the timeseries aspects, and the index of their pending buckets, see
+   * {@link ESRollupDAO}. Rollups have the mappings of the raw documents, so that aggregations can read both at once.
+   */
+  public void buildRollups(@Nonnull ESRollupDAO rollupDAO) {
+    try {
+      _indexBuilder.buildIndex(rollupDAO.getPendingIndexName(), ESRollupDAO.getPendingMappings(),
+          Collections.emptyMap());
+    } catch (IOException e) {
+      log.error("Issue while building the timeseries rollup pending bucket index");
+      log.error("Exception: ", e);
+    }
+    for (EntitySpec entitySpec : _entityRegistry.getEntitySpecs().values()) {
+      for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+        if (aspectSpec.isTimeseries()) {
+          for (RollupGranularity granularity : RollupGranularity.values()) {
+            try {
+              _indexBuilder.buildIndex(
+                  _indexConvention.getTimeseriesAspectRollupIndexName(entitySpec.getName(), aspectSpec.getName(),
+                      granularity.getName()), MappingsBuilder.getMappings(aspectSpec), Collections.emptyMap());
+            } catch (IOException e) {
+              log.error("Issue while building {} timeseries rollup index for entity {} aspect {}", granularity.getName(),
+                  entitySpec.getName(), aspectSpec.getName());
+              log.error("Exception: ", e);
+            }
+          }
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,301 @@
+package com.linkedin.metadata.timeseries.elastic.partition;
+
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.metadata.dao.exception.ESQueryException;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.IndexTemplatesExistRequest;
+
+
+/**
+ * Maintains the time partitions of the timeseries aspects.
+ *
+ * A partitioned aspect has an index per partition of time, see {@link TimePartitions}, created from an index template
+ * on the first write to it. The template gives every partition the mappings of the aspect and the name of the single
+ * index of unpartitioned aspects as an alias, so reads that do not narrow down the partitions read all of them through
+ * the alias. Documents are written to the partition of their timestamp, so upserting a document again overwrites it.
+ *
+ * Partitions older than the retention are dropped as a whole, rather than deleting their documents one by one.
+ */
+@Slf4j
+public class ESPartitionDAO implements AutoCloseable {
+  /**
+   * Options of the searches over the indices named by {@link #getReadIndexNames}, as partitions of the time range may
+   * not exist.
+   */
+  public static final IndicesOptions READ_INDICES_OPTIONS = IndicesOptions.lenientExpandOpen();
+
+  // Patterns named in one search at most, longer lists are read through the alias instead
+  private static final int MAX_READ_PATTERNS = 64;
+  private static final long PARTITIONED_CACHE_TTL_MINUTES = 10;
+  private static final long RETENTION_INTERVAL_MINUTES = 60;
+
+  private final IndexConvention _indexConvention;
+  private final RestHighLevelClient _searchClient;
+  private final EntityRegistry _entityRegistry;
+  @Nullable
+  private final TimePartitions _partitions;
+  private final int _retentionDays;
+
+  // Keyed by the alias of the partitions
+  private final Cache<String, Boolean> _partitioned =
+      CacheBuilder.newBuilder().expireAfterWrite(PARTITIONED_CACHE_TTL_MINUTES, TimeUnit.MINUTES).build();
+  // Never expires, writes fall back to it while the check fails
+  private final Map<String, Boolean> _lastKnownPartitioned = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService _retentionExecutorService = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("timeseries-partition-retention-%d").build());
+  private boolean _retentionScheduled = false;
+
+  /**
+   * @param partitionIntervalDays days spanned by a partition, non-positive to not partition aspects
+   * @param retentionDays days partitions are kept for after they end, non-positive to keep them
+   */
+  public ESPartitionDAO(@Nonnull IndexConvention indexConvention, @Nonnull RestHighLevelClient searchClient,
+      @Nonnull EntityRegistry entityRegistry, int partitionIntervalDays, int retentionDays) {
+    _indexConvention = indexConvention;
+    _searchClient = searchClient;
+    _entityRegistry = entityRegistry;
+    _partitions = partitionIntervalDays > 0 ? new TimePartitions(partitionIntervalDays) : null;
+    _retentionDays = retentionDays;
+  }
+
+  public boolean isEnabled() {
+    return _partitions != null;
+  }
+
+  /**
+   * Pattern of the names of all the partitions of the aspect, which its index template applies to.
+   */
+  @Nonnull
+  public String getPartitionPattern(@Nonnull String entityName, @Nonnull String aspectName) {
+    return _indexConvention.getTimeseriesAspectPartitionIndexName(entityName, aspectName,
+        TimePartitions.ALL_PARTITIONS);
+  }
+
+  /**
+   * Whether the aspect has an index of its own, from before it was partitioned. Its name is the alias of the
+   * partitions, so the aspect is not partitioned until the index is removed.
+   */
+  public boolean hasSingleIndex(@Nonnull String entityName, @Nonnull String aspectName) throws IOException {
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    return _searchClient.indices().exists(new GetIndexRequest(indexName), RequestOptions.DEFAULT)
+        && !_searchClient.indices().existsTemplate(new IndexTemplatesExistRequest(indexName), RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Whether the documents of the aspect are read from partitions, i.e. its index template was built. False if that
+   * cannot be checked, as reading through the alias is right either way.
+   */
+  public boolean isPartitioned(@Nonnull String entityName, @Nonnull String aspectName) {
+    if (!isEnabled()) {
+      return false;
+    }
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    try {
+      return checkPartitioned(indexName);
+    } catch (IOException | ElasticsearchException e) {
+      log.warn("Failed to check whether {} is partitioned, reading it through its alias", indexName, e);
+      return false;
+    }
+  }
+
+  /**
+   * Whether the documents of the aspect are written to partitions. Unlike reads, writes cannot go through the alias of
+   * the partitions, so if that cannot be checked this falls back to the last known state, and fails without one.
+   */
+  private boolean isPartitionedForWrite(@Nonnull String entityName, @Nonnull String aspectName) {
+    if (!isEnabled()) {
+      return false;
+    }
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    try {
+      return checkPartitioned(indexName);
+    } catch (IOException | ElasticsearchException e) {
+      final Boolean lastKnown = _lastKnownPartitioned.get(indexName);
+      if (lastKnown == null) {
+        log.error("Failed to check whether {} is partitioned", indexName);
+        throw new ESQueryException("Failed to check whether " + indexName + " is partitioned", e);
+      }
+      log.warn("Failed to check whether {} is partitioned, writing as it last was", indexName, e);
+      MetricUtils.counter(this.getClass(), "lastKnownPartitionedWrites").inc();
+      return lastKnown;
+    }
+  }
+
+  private boolean checkPartitioned(@Nonnull String indexName) throws IOException {
+    Boolean partitioned = _partitioned.getIfPresent(indexName);
+    if (partitioned == null) {
+      partitioned =
+          _searchClient.indices().existsTemplate(new IndexTemplatesExistRequest(indexName), RequestOptions.DEFAULT);
+      _partitioned.put(indexName, partitioned);
+      _lastKnownPartitioned.put(indexName, partitioned);
+    }
+    return partitioned;
+  }
+
+  /**
+   * Name of the index a document of the aspect with the timestamp is written to.
+   *
+   * @throws ESQueryException if whether the aspect is partitioned was never known and cannot be checked
+   */
+  @Nonnull
+  public String getWriteIndexName(@Nonnull String entityName, @Nonnull String aspectName, long timestampMillis) {
+    if (!isPartitionedForWrite(entityName, aspectName)) {
+      return _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    }
+    return _indexConvention.getTimeseriesAspectPartitionIndexName(entityName, aspectName,
+        _partitions.getPartition(timestampMillis));
+  }
+
+  /**
+   * Names of the indices a search over the documents of the aspect in the time range reads: the partitions overlapping
+   * the range if the aspect is partitioned and the range is bounded, and the alias of all its documents otherwise.
+   * Searches over them use {@link #READ_INDICES_OPTIONS}.
+   */
+  @Nonnull
+  public List<String> getReadIndexNames(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull TimePartitions.TimeRange timeRange) {
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    if (timeRange.getStartMillis() == null || timeRange.getEndMillis() == null || !isPartitioned(entityName,
+        aspectName)) {
+      return ImmutableList.of(indexName);
+    }
+    final List<String> patterns =
+        _partitions.getPartitionPatterns(timeRange.getStartMillis(), timeRange.getEndMillis());
+    if (patterns.isEmpty() || patterns.size() > MAX_READ_PATTERNS) {
+      return ImmutableList.of(indexName);
+    }
+    MetricUtils.counter(this.getClass(), "partitionedReads").inc();
+    return patterns.stream()
+        .map(pattern -> _indexConvention.getTimeseriesAspectPartitionIndexName(entityName, aspectName, pattern))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Creates the partition of the time, if it does not exist, so that the alias of the partitions always names an
+   * index to read.
+   */
+  public void createPartition(@Nonnull String entityName, @Nonnull String aspectName, long timestampMillis)
+      throws IOException {
+    final String partitionName = _indexConvention.getTimeseriesAspectPartitionIndexName(entityName, aspectName,
+        _partitions.getPartition(timestampMillis));
+    _partitioned.invalidate(_indexConvention.getTimeseriesAspectIndexName(entityName, aspectName));
+    if (partitionExists(partitionName)) {
+      return;
+    }
+    try {
+      _searchClient.indices().create(new CreateIndexRequest(partitionName), RequestOptions.DEFAULT);
+      log.info("Created partition {}", partitionName);
+    } catch (ElasticsearchException e) {
+      // A write may have created it in the meantime
+      if (!partitionExists(partitionName)) {
+        throw e;
+      }
+    }
+  }
+
+  private boolean partitionExists(@Nonnull String partitionName) throws IOException {
+    return _searchClient.indices().exists(new GetIndexRequest(partitionName), RequestOptions.DEFAULT);
+  }
+
+  /**
+   * Schedules dropping the partitions older than the retention, if there is one.
+   */
+  public synchronized void scheduleRetention() {
+    if (!isEnabled() || _retentionDays <= 0 || _retentionScheduled) {
+      return;
+    }
+    _retentionExecutorService.scheduleWithFixedDelay(this::applyRetentionQuietly, 0, RETENTION_INTERVAL_MINUTES,
+        TimeUnit.MINUTES);
+    _retentionScheduled = true;
+  }
+
+  /**
+   * Stops applying the retention.
+   */
+  @Override
+  public void close() {
+    _retentionExecutorService.shutdownNow();
+  }
+
+  private void applyRetentionQuietly() {
+    // An exception would cancel the scheduled runs
+    try {
+      applyRetention(System.currentTimeMillis());
+    } catch (Exception e) {
+      log.error("Failed to apply the retention of timeseries partitions", e);
+    }
+  }
+
+  /**
+   * Drops the partitions of all the partitioned aspects that ended more than the retention before the time.
+   */
+  public void applyRetention(long nowMillis) {
+    final long expiredBefore = nowMillis - TimeUnit.DAYS.toMillis(_retentionDays);
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "applyRetention").time()) {
+      for (EntitySpec entitySpec : _entityRegistry.getEntitySpecs().values()) {
+        for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+          if (aspectSpec.isTimeseries() && isPartitioned(entitySpec.getName(), aspectSpec.getName())) {
+            try {
+              // The current partition is never dropped, keep it around for the alias
+              createPartition(entitySpec.getName(), aspectSpec.getName(), nowMillis);
+              dropPartitions(entitySpec.getName(), aspectSpec.getName(), expiredBefore);
+            } catch (IOException | ElasticsearchException e) {
+              log.warn("Failed to apply the retention of the partitions of entity {} aspect {}", entitySpec.getName(),
+                  aspectSpec.getName(), e);
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private void dropPartitions(@Nonnull String entityName, @Nonnull String aspectName, long expiredBefore)
+      throws IOException {
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    final List<String> expired = new ArrayList<>();
+    for (String partitionName : _searchClient.indices()
+        .get(new GetIndexRequest(getPartitionPattern(entityName, aspectName)), RequestOptions.DEFAULT)
+        .getIndices()) {
+      final Optional<Long> startMillis = TimePartitions.getStartMillis(partitionName.substring(indexName.length() + 1));
+      if (startMillis.isPresent() && startMillis.get() + _partitions.getIntervalMillis() <= expiredBefore) {
+        expired.add(partitionName);
+      }
+    }
+    if (expired.isEmpty()) {
+      return;
+    }
+    _searchClient.indices()
+        .delete(new DeleteIndexRequest(expired.toArray(new String[0])), RequestOptions.DEFAULT);
+    MetricUtils.counter(this.getClass(), "partitionsDropped").inc(expired.size());
+    log.info("Dropped the partitions {} of {}, older than the retention of {} days", expired, indexName,
+        _retentionDays);
+  }
+}
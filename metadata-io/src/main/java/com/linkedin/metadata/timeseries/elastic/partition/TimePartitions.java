@@ -0,0 +1,219 @@
+package com.linkedin.metadata.timeseries.elastic.partition;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * Splits the documents of a timeseries aspect into partitions by time. Partitions span a fixed number of days aligned
+ * to the epoch, in UTC, and are named after their first day, e.g. p20210105.
+ */
+public class TimePartitions {
+  public static final String ALL_PARTITIONS = "p*";
+
+  private static final String PARTITION_PREFIX = "p";
+  private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("uuuuMMdd");
+  private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("uuuuMM");
+  private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private final int _intervalDays;
+
+  /**
+   * A time range of documents.
+   */
+  @Value
+  public static class TimeRange {
+    // Inclusive, null if unbounded
+    @Nullable
+    Long startMillis;
+    // Exclusive, null if unbounded
+    @Nullable
+    Long endMillis;
+
+    /**
+     * The smallest time range holding all the ranges.
+     */
+    @Nonnull
+    public static TimeRange span(@Nonnull List<TimeRange> ranges) {
+      Long startMillis = null;
+      Long endMillis = null;
+      for (int i = 0; i < ranges.size(); i++) {
+        final TimeRange range = ranges.get(i);
+        if (i == 0) {
+          startMillis = range.getStartMillis();
+          endMillis = range.getEndMillis();
+          continue;
+        }
+        startMillis = startMillis == null || range.getStartMillis() == null ? null
+            : Long.valueOf(Math.min(startMillis, range.getStartMillis()));
+        endMillis = endMillis == null || range.getEndMillis() == null ? null
+            : Long.valueOf(Math.max(endMillis, range.getEndMillis()));
+      }
+      return new TimeRange(startMillis, endMillis);
+    }
+  }
+
+  public TimePartitions(int intervalDays) {
+    if (intervalDays <= 0) {
+      throw new IllegalArgumentException("Partitions must span at least one day, not " + intervalDays);
+    }
+    _intervalDays = intervalDays;
+  }
+
+  public long getIntervalMillis() {
+    return _intervalDays * DAY_MILLIS;
+  }
+
+  /**
+   * Name of the partition holding the documents of the time.
+   */
+  @Nonnull
+  public String getPartition(long timestampMillis) {
+    return PARTITION_PREFIX + LocalDate.ofEpochDay(floorDay(Math.floorDiv(timestampMillis, DAY_MILLIS)))
+        .format(DAY_FORMAT);
+  }
+
+  /**
+   * Start time of the partition of the name, if it names one.
+   */
+  @Nonnull
+  public static Optional<Long> getStartMillis(@Nonnull String partition) {
+    if (!partition.startsWith(PARTITION_PREFIX)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(
+          LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), DAY_FORMAT).toEpochDay() * DAY_MILLIS);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Patterns of the names of the partitions overlapping the time range. Whole months and years of partitions are
+   * matched with a wildcard, e.g. p202101* or p2021*, which keeps the patterns of long ranges few.
+   *
+   * @param startMillis inclusive
+   * @param endMillis exclusive
+   */
+  @Nonnull
+  public List<String> getPartitionPatterns(long startMillis, long endMillis) {
+    final List<String> patterns = new ArrayList<>();
+    if (startMillis >= endMillis) {
+      return patterns;
+    }
+    // First days of the first and last partitions of the range
+    final long firstDay = floorDay(Math.floorDiv(startMillis, DAY_MILLIS));
+    final long lastDay = floorDay(Math.floorDiv(endMillis - 1, DAY_MILLIS));
+    final LocalDate afterLast = LocalDate.ofEpochDay(lastDay + _intervalDays);
+    long day = firstDay;
+    while (day <= lastDay) {
+      final LocalDate date = LocalDate.ofEpochDay(day);
+      final LocalDate beforeFirst = LocalDate.ofEpochDay(day - _intervalDays);
+      // The partition is the first of its year or month, and the range holds the last one too
+      if (beforeFirst.getYear() < date.getYear() && afterLast.getYear() > date.getYear()) {
+        patterns.add(PARTITION_PREFIX + date.getYear() + "*");
+        day = ceilDay(date.plusYears(1).withDayOfYear(1).toEpochDay());
+      } else if (YearMonth.from(beforeFirst).isBefore(YearMonth.from(date)) && YearMonth.from(afterLast)
+          .isAfter(YearMonth.from(date))) {
+        patterns.add(PARTITION_PREFIX + date.format(MONTH_FORMAT) + "*");
+        day = ceilDay(date.plusMonths(1).withDayOfMonth(1).toEpochDay());
+      } else {
+        patterns.add(PARTITION_PREFIX + date.format(DAY_FORMAT));
+        day += _intervalDays;
+      }
+    }
+    return patterns;
+  }
+
+  /**
+   * The time range of the documents the filter matches, as far as the criteria on their timestamp tell.
+   */
+  @Nonnull
+  public static TimeRange getTimeRange(@Nullable Filter filter) {
+    if (filter == null) {
+      return new TimeRange(null, null);
+    }
+    if (filter.getOr() != null) {
+      if (filter.getOr().isEmpty()) {
+        return new TimeRange(null, null);
+      }
+      final List<TimeRange> ranges = new ArrayList<>();
+      for (ConjunctiveCriterion conjunction : filter.getOr()) {
+        ranges.add(getTimeRange(conjunction.getAnd()));
+      }
+      return TimeRange.span(ranges);
+    }
+    return getTimeRange(filter.getCriteria() != null ? filter.getCriteria() : ImmutableList.of());
+  }
+
+  @Nonnull
+  private static TimeRange getTimeRange(@Nonnull List<Criterion> criteria) {
+    Long startMillis = null;
+    Long endMillis = null;
+    for (Criterion criterion : criteria) {
+      if (!MappingsBuilder.TIMESTAMP_MILLIS_FIELD.equals(criterion.getField())) {
+        continue;
+      }
+      final long value;
+      try {
+        value = Long.parseLong(criterion.getValue().trim());
+      } catch (NumberFormatException e) {
+        continue;
+      }
+      switch (criterion.getCondition()) {
+        case EQUAL:
+          startMillis = max(startMillis, value);
+          endMillis = min(endMillis, value + 1);
+          break;
+        case GREATER_THAN:
+          startMillis = max(startMillis, value + 1);
+          break;
+        case GREATER_THAN_OR_EQUAL_TO:
+          startMillis = max(startMillis, value);
+          break;
+        case LESS_THAN:
+          endMillis = min(endMillis, value);
+          break;
+        case LESS_THAN_OR_EQUAL_TO:
+          endMillis = min(endMillis, value + 1);
+          break;
+        default:
+          break;
+      }
+    }
+    return new TimeRange(startMillis, endMillis);
+  }
+
+  private long floorDay(long epochDay) {
+    return Math.floorDiv(epochDay, _intervalDays) * _intervalDays;
+  }
+
+  private long ceilDay(long epochDay) {
+    return floorDay(epochDay + _intervalDays - 1);
+  }
+
+  @Nonnull
+  private static Long max(@Nullable Long current, long value) {
+    return current == null ? value : Math.max(current, value);
+  }
+
+  @Nonnull
+  private static Long min(@Nullable Long current, long value) {
+    return current == null ? value : Math.min(current, value);
+  }
+}
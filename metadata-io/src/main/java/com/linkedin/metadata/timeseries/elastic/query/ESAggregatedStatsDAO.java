@@ -12,16 +12,27 @@ import com.linkedin.metadata.models.TimeseriesFieldSpec;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.utils.ESUtils;
+import com.linkedin.metadata.timeseries.AggregationTable;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.timeseries.elastic.partition.ESPartitionDAO;
+import com.linkedin.metadata.timeseries.elastic.partition.TimePartitions;
+import com.linkedin.metadata.timeseries.elastic.rollup.ESRollupDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.RollupPlanner;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
 import com.linkedin.timeseries.AggregationSpec;
 import com.linkedin.timeseries.GenericTable;
 import com.linkedin.timeseries.GroupingBucket;
 import com.linkedin.timeseries.GroupingBucketType;
 import com.linkedin.timeseries.TimeWindowSize;
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -33,6 +44,8 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.aggregations.AggregationBuilders;
 import org.elasticsearch.search.aggregations.Aggregations;
@@ -41,8 +54,14 @@ import org.elasticsearch.search.aggregations.PipelineAggregatorBuilders;
 import org.elasticsearch.search.aggregations.bucket.MultiBucketsAggregation;
 import org.elasticsearch.search.aggregations.bucket.filter.ParsedFilter;
 import org.elasticsearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregation;
+import org.elasticsearch.search.aggregations.metrics.ParsedAvg;
 import org.elasticsearch.search.aggregations.metrics.ParsedCardinality;
+import org.elasticsearch.search.aggregations.metrics.ParsedMax;
+import org.elasticsearch.search.aggregations.metrics.ParsedMin;
 import org.elasticsearch.search.aggregations.metrics.ParsedSum;
+import org.elasticsearch.search.aggregations.metrics.ParsedValueCount;
+import org.elasticsearch.search.aggregations.metrics.Percentiles;
 import org.elasticsearch.search.aggregations.pipeline.MaxBucketPipelineAggregationBuilder;
 import org.elasticsearch.search.aggregations.pipeline.ParsedBucketMetricValue;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
@@ -59,16 +78,21 @@ public class ESAggregatedStatsDAO {
   private static final String ES_AGG_MAX_TIMESTAMP =
       ES_AGGREGATION_PREFIX + ES_MAX_AGGREGATION_PREFIX + ES_FIELD_TIMESTAMP;
   private static final int MAX_TERM_BUCKETS = 24 * 60; // minutes in a day.
+  private static final String ES_NULL_VALUE = "NULL";
 
   private final IndexConvention _indexConvention;
   private final RestHighLevelClient _searchClient;
   private final EntityRegistry _entityRegistry;
+  private final ESRollupDAO _rollupDAO;
+  private final ESPartitionDAO _partitionDAO;
 
   public ESAggregatedStatsDAO(@Nonnull IndexConvention indexConvention, @Nonnull RestHighLevelClient searchClient,
-      @Nonnull EntityRegistry entityRegistry) {
+      @Nonnull EntityRegistry entityRegistry, @Nonnull ESRollupDAO rollupDAO, @Nonnull ESPartitionDAO partitionDAO) {
     _indexConvention = indexConvention;
     _searchClient = searchClient;
     _entityRegistry = entityRegistry;
+    _rollupDAO = rollupDAO;
+    _partitionDAO = partitionDAO;
   }
 
   private static String toEsAggName(final String aggName) {
@@ -91,12 +115,37 @@ public class ESAggregatedStatsDAO {
       case CARDINALITY:
         prefix = "cardinality_";
         break;
+      case AVG:
+        prefix = "avg_";
+        break;
+      case MIN:
+        prefix = "min_";
+        break;
+      case MAX:
+        prefix = "max_";
+        break;
+      case COUNT:
+        prefix = "count_";
+        break;
+      case PERCENTILE:
+        // e.g. p95_rowCount, or p99.9_rowCount
+        prefix = "p" + BigDecimal.valueOf(getPercentile(aggregationSpec)).stripTrailingZeros().toPlainString() + "_";
+        break;
       default:
         throw new IllegalArgumentException("Unknown AggregationSpec type" + aggregationSpec.getAggregationType());
     }
     return prefix + aggregationSpec.getFieldPath();
   }
 
+  private static double getPercentile(final AggregationSpec aggregationSpec) {
+    Double percentile = aggregationSpec.getPercentile();
+    if (percentile == null || percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException(
+          "Percentile aggregations need a percentile between 0 and 100, got: " + percentile);
+    }
+    return percentile;
+  }
+
   private static String getGroupingBucketAggName(final GroupingBucket groupingBucket) {
     if (groupingBucket.getType() == GroupingBucketType.DATE_GROUPING_BUCKET) {
       return toEsAggName(ES_AGGREGATION_PREFIX + groupingBucket.getKey());
@@ -105,37 +154,37 @@ public class ESAggregatedStatsDAO {
   }
 
   private static void rowGenHelper(final Aggregations lowestAggs, final int curLevel, final int lastLevel,
-      final List<StringArray> rows, final Stack<String> row, final ImmutableList<GroupingBucket> groupingBuckets,
-      final ImmutableList<AggregationSpec> aggregationSpecs, AspectSpec aspectSpec) {
+      final AggregationTable.Builder table, final Stack<Object> row, final ImmutableList<GroupingBucket> groupingBuckets,
+      final ImmutableList<AggregationSpec> aggregationSpecs, AspectSpec aspectSpec, final boolean rawLatestValues) {
     if (curLevel == lastLevel) {
       // (Base-case): We are at the lowest level of nested bucket aggregations.
-      // Append member aggregation values to the row and add the row to the output.
-      for (AggregationSpec aggregationSpec : aggregationSpecs) {
-        String value = extractAggregationValue(lowestAggs, aspectSpec, aggregationSpec);
-        row.push(value);
+      // Append the grouping keys and the member aggregation values as a row of the output.
+      for (Object key : row) {
+        appendValue(table, key);
       }
-      // We have a full row now. Append it to the output.
-      rows.add(new StringArray(row));
-      // prepare for next recursion.
-      for (int i = 0; i < aggregationSpecs.size(); ++i) {
-        row.pop();
+      for (AggregationSpec aggregationSpec : aggregationSpecs) {
+        appendValue(table, extractAggregationValue(lowestAggs, aspectSpec, aggregationSpec, rawLatestValues));
       }
     } else if (curLevel < lastLevel) {
       //(Recursive-case): We are still processing the nested group-by multi-bucket aggregations.
       // For each bucket, add the key to the row and recurse-down for full row construction.
       GroupingBucket curGroupingBucket = groupingBuckets.get(curLevel);
       String curGroupingBucketAggName = getGroupingBucketAggName(curGroupingBucket);
+      AggregationTable.ColumnType keyType = getColumnType(getGroupingBucketKeyType(aspectSpec, curGroupingBucket));
       MultiBucketsAggregation nestedMBAgg = lowestAggs.get(curGroupingBucketAggName);
       for (MultiBucketsAggregation.Bucket b : nestedMBAgg.getBuckets()) {
         if (curGroupingBucket.getType() == GroupingBucketType.DATE_GROUPING_BUCKET) {
-          long curDateValue = ((ZonedDateTime) b.getKey()).toInstant().toEpochMilli();
-          row.push(String.valueOf(curDateValue));
+          row.push(((ZonedDateTime) b.getKey()).toInstant().toEpochMilli());
+        } else if (keyType == AggregationTable.ColumnType.LONG) {
+          row.push(((Number) b.getKey()).longValue());
+        } else if (keyType == AggregationTable.ColumnType.DOUBLE) {
+          row.push(((Number) b.getKey()).doubleValue());
         } else {
           row.push(b.getKeyAsString());
         }
         // Recurse down
-        rowGenHelper(b.getAggregations(), curLevel + 1, lastLevel, rows, row, groupingBuckets, aggregationSpecs,
-            aspectSpec);
+        rowGenHelper(b.getAggregations(), curLevel + 1, lastLevel, table, row, groupingBuckets, aggregationSpecs,
+            aspectSpec, rawLatestValues);
         // Remove the row value we have added for this level.
         row.pop();
       }
@@ -144,6 +193,18 @@ public class ESAggregatedStatsDAO {
     }
   }
 
+  private static void appendValue(@Nonnull AggregationTable.Builder table, @Nullable Object value) {
+    if (value == null) {
+      table.appendNull();
+    } else if (value instanceof Long) {
+      table.appendLong((Long) value);
+    } else if (value instanceof Double) {
+      table.appendDouble((Double) value);
+    } else {
+      table.appendString((String) value);
+    }
+  }
+
   private static DateHistogramInterval getHistogramInterval(TimeWindowSize timeWindowSize) {
     int multiple = timeWindowSize.getMultiple();
     switch (timeWindowSize.getUnit()) {
@@ -263,9 +324,71 @@ public class ESAggregatedStatsDAO {
           columnTypes.add("double");
           break;
         case CARDINALITY:
+        case COUNT:
           // always a long
           columnTypes.add("long");
           break;
+        case MIN:
+        case MAX:
+          // same as underlying numeric type
+          columnTypes.add(getNumericType(aggregationSpec, memberType).toString().toLowerCase());
+          break;
+        case AVG:
+        case PERCENTILE:
+          // always a double
+          columnTypes.add("double");
+          break;
+        default:
+          throw new IllegalArgumentException(
+              "Type generation not yet supported for aggregation type: " + aggregationSpec.getAggregationType());
+      }
+    }
+    return columnTypes;
+  }
+
+  private static AggregationTable.ColumnType getColumnType(@Nonnull DataSchema.Type type) {
+    switch (type) {
+      case INT:
+      case LONG:
+        return AggregationTable.ColumnType.LONG;
+      case DOUBLE:
+      case FLOAT:
+        return AggregationTable.ColumnType.DOUBLE;
+      default:
+        return AggregationTable.ColumnType.STRING;
+    }
+  }
+
+  /**
+   * Types of the columns of the typed result, which unlike {@link #genColumnTypes} tell integral sums from others.
+   *
+   * @param rawLatestValues whether latest values are kept as the strings Elasticsearch returns them as
+   */
+  private static List<AggregationTable.ColumnType> genTableColumnTypes(AspectSpec aspectSpec,
+      GroupingBucket[] groupingBuckets, AggregationSpec[] aggregationSpecs, boolean rawLatestValues) {
+    List<AggregationTable.ColumnType> columnTypes = new ArrayList<>();
+    for (GroupingBucket g : groupingBuckets) {
+      columnTypes.add(getColumnType(getGroupingBucketKeyType(aspectSpec, g)));
+    }
+    for (AggregationSpec aggregationSpec : aggregationSpecs) {
+      switch (aggregationSpec.getAggregationType()) {
+        case LATEST:
+          columnTypes.add(rawLatestValues ? AggregationTable.ColumnType.STRING
+              : getColumnType(getAggregationSpecMemberType(aspectSpec, aggregationSpec)));
+          break;
+        case SUM:
+        case MIN:
+        case MAX:
+          columnTypes.add(getColumnType(getAggregationSpecMemberType(aspectSpec, aggregationSpec)));
+          break;
+        case CARDINALITY:
+        case COUNT:
+          columnTypes.add(AggregationTable.ColumnType.LONG);
+          break;
+        case AVG:
+        case PERCENTILE:
+          columnTypes.add(AggregationTable.ColumnType.DOUBLE);
+          break;
         default:
           throw new IllegalArgumentException(
               "Type generation not yet supported for aggregation type: " + aggregationSpec.getAggregationType());
@@ -274,36 +397,109 @@ public class ESAggregatedStatsDAO {
     return columnTypes;
   }
 
-  private static String extractAggregationValue(@Nonnull final Aggregations aggregations,
-      @Nonnull final AspectSpec aspectSpec, @Nonnull final AggregationSpec aggregationSpec) {
+  private static DataSchema.Type getNumericType(@Nonnull final AggregationSpec aggregationSpec,
+      @Nonnull final DataSchema.Type memberType) {
+    switch (memberType) {
+      case INT:
+      case LONG:
+      case DOUBLE:
+      case FLOAT:
+        return memberType;
+      default:
+        throw new IllegalArgumentException(
+            String.format("%s aggregation is only supported on numeric fields, %s is a %s",
+                aggregationSpec.getAggregationType(), aggregationSpec.getFieldPath(), memberType));
+    }
+  }
+
+  private static Object toNumericValue(final double value, @Nonnull final DataSchema.Type type) {
+    switch (type) {
+      case INT:
+      case LONG:
+        return (long) value;
+      default:
+        return value;
+    }
+  }
+
+  /**
+   * Extracts the value of a member aggregation, a Long or a Double for numeric values and a String otherwise, or null
+   * when the bucket has no value.
+   *
+   * @param rawLatestValues whether latest values are kept as the strings Elasticsearch returns them as, rather than
+   *                        parsed as the type of their field
+   */
+  @Nullable
+  private static Object extractAggregationValue(@Nonnull final Aggregations aggregations,
+      @Nonnull final AspectSpec aspectSpec, @Nonnull final AggregationSpec aggregationSpec,
+      final boolean rawLatestValues) {
     String memberAggName = getAggregationSpecAggESName(aggregationSpec);
     Object memberAgg = aggregations.get(memberAggName);
     DataSchema.Type memberType = getAggregationSpecMemberType(aspectSpec, aggregationSpec);
-    String defaultValue = "NULL";
     if (memberAgg instanceof ParsedBucketMetricValue) {
       String[] values = ((ParsedBucketMetricValue) memberAgg).keys();
       if (values.length > 0) {
-        return values[0];
+        return rawLatestValues ? values[0] : parseLatestValue(values[0], aggregationSpec, memberType);
       }
     } else if (memberAgg instanceof ParsedSum) {
       // Underling integral type.
       switch (memberType) {
         case INT:
         case LONG:
-          return String.valueOf((long) ((ParsedSum) memberAgg).getValue());
+          return (long) ((ParsedSum) memberAgg).getValue();
         case DOUBLE:
         case FLOAT:
-          return String.valueOf(((ParsedSum) memberAgg).getValue());
+          return ((ParsedSum) memberAgg).getValue();
         default:
           throw new IllegalArgumentException("Unexpected type encountered for sum aggregation: " + memberType);
       }
     } else if (memberAgg instanceof ParsedCardinality) {
-      // This will always be a long value as string.
-      return String.valueOf(((ParsedCardinality) memberAgg).getValue());
+      return ((ParsedCardinality) memberAgg).getValue();
+    } else if (memberAgg instanceof ParsedValueCount) {
+      return ((ParsedValueCount) memberAgg).getValue();
+    } else if (memberAgg instanceof ParsedMin || memberAgg instanceof ParsedMax) {
+      // Buckets without values have an infinite minimum or maximum.
+      double value = ((NumericMetricsAggregation.SingleValue) memberAgg).value();
+      if (Double.isFinite(value)) {
+        return toNumericValue(value, memberType);
+      }
+    } else if (memberAgg instanceof ParsedAvg) {
+      double value = ((ParsedAvg) memberAgg).getValue();
+      if (Double.isFinite(value)) {
+        return value;
+      }
+    } else if (memberAgg instanceof Percentiles) {
+      double value = ((Percentiles) memberAgg).percentile(getPercentile(aggregationSpec));
+      if (Double.isFinite(value)) {
+        return value;
+      }
     } else {
-      throw new UnsupportedOperationException("Member aggregations other than latest and sum not supported yet.");
+      throw new UnsupportedOperationException(
+          "Unsupported member aggregation: " + aggregationSpec.getAggregationType());
+    }
+    return null;
+  }
+
+  /**
+   * Parses a latest value as the type of its field, or null if it is not one, e.g. when the field was indexed with
+   * another type.
+   */
+  @Nullable
+  private static Object parseLatestValue(@Nonnull final String value, @Nonnull final AggregationSpec aggregationSpec,
+      @Nonnull final DataSchema.Type memberType) {
+    try {
+      switch (getColumnType(memberType)) {
+        case LONG:
+          return Long.valueOf(value);
+        case DOUBLE:
+          return Double.valueOf(value);
+        default:
+          return value;
+      }
+    } catch (NumberFormatException e) {
+      log.warn("Latest value {} of {} is not a {}", value, aggregationSpec.getFieldPath(), memberType);
+      return null;
     }
-    return defaultValue;
   }
 
   private AspectSpec getTimeseriesAspectSpec(@Nonnull String entityName, @Nonnull String aspectName) {
@@ -326,13 +522,51 @@ public class ESAggregatedStatsDAO {
   public GenericTable getAggregatedStats(@Nonnull String entityName, @Nonnull String aspectName,
       @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
       @Nullable GroupingBucket[] groupingBuckets) {
+    AspectSpec aspectSpec = getTimeseriesAspectSpec(entityName, aspectName);
+    // Latest values are served as Elasticsearch returns them, which parsing and formatting them again would change
+    AggregationTable table =
+        getAggregatedStatsTable(entityName, aspectName, aggregationSpecs, filter, groupingBuckets, true);
+    return toGenericTable(table, genColumnTypes(aspectSpec, groupingBuckets, aggregationSpecs));
+  }
+
+  /**
+   * Get the aggregated metrics for the given dataset or column from a time series aspect, as a table of typed columns.
+   */
+  @Nonnull
+  public AggregationTable getAggregatedStatsTable(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets) {
+    return getAggregatedStatsTable(entityName, aspectName, aggregationSpecs, filter, groupingBuckets, false);
+  }
+
+  @Nonnull
+  private AggregationTable getAggregatedStatsTable(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull AggregationSpec[] aggregationSpecs, @Nullable Filter filter,
+      @Nullable GroupingBucket[] groupingBuckets, boolean rawLatestValues) {
+
+    AspectSpec aspectSpec = getTimeseriesAspectSpec(entityName, aspectName);
+
+    // Read the pre-aggregated rollups where they answer the query, and the raw documents otherwise.
+    final Optional<RollupPlanner.RollupPlan> rollupPlan = _rollupDAO.getRolledUpSince(entityName, aspectName)
+        .flatMap(rolledUpSince -> _rollupDAO.getRolledUpUntil(entityName, aspectName)
+            .flatMap(rolledUpUntil -> RollupPlanner.plan(aspectSpec, aggregationSpecs, filter, groupingBuckets,
+                rolledUpSince, rolledUpUntil)));
+    final Set<String> indexNames = new LinkedHashSet<>();
 
     // Setup the filter query builder using the input filter provided.
-    final BoolQueryBuilder filterQueryBuilder = ESUtils.buildFilterQuery(filter);
+    final BoolQueryBuilder filterQueryBuilder;
+    if (rollupPlan.isPresent()) {
+      MetricUtils.counter(this.getClass(), "rollupQueries").inc();
+      filterQueryBuilder = QueryBuilders.boolQuery()
+          .must(ESUtils.buildFilterQuery(rollupPlan.get().getFilter()))
+          .filter(buildSegmentsQuery(entityName, aspectName, rollupPlan.get(), indexNames));
+    } else {
+      filterQueryBuilder = ESUtils.buildFilterQuery(filter);
+      indexNames.addAll(_partitionDAO.getReadIndexNames(entityName, aspectName, TimePartitions.getTimeRange(filter)));
+    }
     // Create the high-level aggregation builder with the filter.
     final AggregationBuilder filteredAggBuilder = AggregationBuilders.filter(ES_FILTERED_STATS, filterQueryBuilder);
 
-    AspectSpec aspectSpec = getTimeseriesAspectSpec(entityName, aspectName);
     // Build and attach the grouping aggregations
     final AggregationBuilder baseAggregationForMembers =
         makeGroupingAggregationBuilder(aspectSpec, filteredAggBuilder, groupingBuckets);
@@ -348,20 +582,56 @@ public class ESAggregatedStatsDAO {
     final SearchRequest searchRequest = new SearchRequest();
     searchRequest.source(searchSourceBuilder);
 
-    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
-    searchRequest.indices(indexName);
+    searchRequest.indices(indexNames.toArray(new String[0]));
+    searchRequest.indicesOptions(ESPartitionDAO.READ_INDICES_OPTIONS);
 
     log.debug("Search request is: " + searchRequest);
 
     try {
       final SearchResponse searchResponse = _searchClient.search(searchRequest, RequestOptions.DEFAULT);
-      return generateResponseFromElastic(searchResponse, groupingBuckets, aggregationSpecs, aspectSpec);
+      return generateResponseFromElastic(searchResponse, groupingBuckets, aggregationSpecs, aspectSpec,
+          rawLatestValues);
     } catch (Exception e) {
       log.error("Search query failed: " + e.getMessage());
       throw new ESQueryException("Search query failed:", e);
     }
   }
 
+  /**
+   * Matches the documents of the time ranges of the plan, each in the raw documents or the rollups it is read from.
+   * Rollups are told apart from raw documents by their granularity field, and the indices read are added to the names:
+   * the rollup indices, and the partitions of the raw documents overlapping the time ranges read from them.
+   */
+  private BoolQueryBuilder buildSegmentsQuery(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull RollupPlanner.RollupPlan rollupPlan, @Nonnull Set<String> indexNames) {
+    final BoolQueryBuilder segmentsQueryBuilder = QueryBuilders.boolQuery().minimumShouldMatch(1);
+    final List<TimePartitions.TimeRange> rawTimeRanges = new ArrayList<>();
+    for (RollupPlanner.Segment segment : rollupPlan.getSegments()) {
+      final BoolQueryBuilder segmentQueryBuilder = QueryBuilders.boolQuery();
+      if (segment.getGranularity() == null) {
+        segmentQueryBuilder.mustNot(QueryBuilders.existsQuery(MappingsBuilder.ROLLUP_GRANULARITY_FIELD));
+        rawTimeRanges.add(new TimePartitions.TimeRange(segment.getStartMillis(), segment.getEndMillis()));
+      } else {
+        segmentQueryBuilder.filter(
+            QueryBuilders.termQuery(MappingsBuilder.ROLLUP_GRANULARITY_FIELD, segment.getGranularity().getName()));
+        indexNames.add(_rollupDAO.getRollupIndexName(entityName, aspectName, segment.getGranularity()));
+      }
+      final RangeQueryBuilder rangeQueryBuilder = QueryBuilders.rangeQuery(ES_FIELD_TIMESTAMP);
+      if (segment.getStartMillis() != null) {
+        rangeQueryBuilder.gte(segment.getStartMillis());
+      }
+      if (segment.getEndMillis() != null) {
+        rangeQueryBuilder.lt(segment.getEndMillis());
+      }
+      segmentsQueryBuilder.should(segmentQueryBuilder.filter(rangeQueryBuilder));
+    }
+    if (!rawTimeRanges.isEmpty()) {
+      indexNames.addAll(
+          _partitionDAO.getReadIndexNames(entityName, aspectName, TimePartitions.TimeRange.span(rawTimeRanges)));
+    }
+    return segmentsQueryBuilder;
+  }
+
   private void addAggregationBuildersFromAggregationSpec(AspectSpec aspectSpec, AggregationBuilder baseAggregation,
       AggregationSpec aggregationSpec) {
     String fieldPath = aggregationSpec.getFieldPath();
@@ -392,6 +662,31 @@ public class ESAggregatedStatsDAO {
             AggregationBuilders.cardinality(getAggregationSpecAggESName(aggregationSpec)).field(esFieldName);
         baseAggregation.subAggregation(cardinalityAgg);
         break;
+      case AVG:
+        getNumericType(aggregationSpec, getAggregationSpecMemberType(aspectSpec, aggregationSpec));
+        baseAggregation.subAggregation(
+            AggregationBuilders.avg(getAggregationSpecAggESName(aggregationSpec)).field(esFieldName));
+        break;
+      case MIN:
+        getNumericType(aggregationSpec, getAggregationSpecMemberType(aspectSpec, aggregationSpec));
+        baseAggregation.subAggregation(
+            AggregationBuilders.min(getAggregationSpecAggESName(aggregationSpec)).field(esFieldName));
+        break;
+      case MAX:
+        getNumericType(aggregationSpec, getAggregationSpecMemberType(aspectSpec, aggregationSpec));
+        baseAggregation.subAggregation(
+            AggregationBuilders.max(getAggregationSpecAggESName(aggregationSpec)).field(esFieldName));
+        break;
+      case COUNT:
+        baseAggregation.subAggregation(
+            AggregationBuilders.count(getAggregationSpecAggESName(aggregationSpec)).field(esFieldName));
+        break;
+      case PERCENTILE:
+        getNumericType(aggregationSpec, getAggregationSpecMemberType(aspectSpec, aggregationSpec));
+        baseAggregation.subAggregation(AggregationBuilders.percentiles(getAggregationSpecAggESName(aggregationSpec))
+            .field(esFieldName)
+            .percentiles(getPercentile(aggregationSpec)));
+        break;
       default:
         throw new IllegalStateException("Unexpected value: " + aggregationSpec.getAggregationType());
     }
@@ -440,29 +735,68 @@ public class ESAggregatedStatsDAO {
     }
   }
 
-  private GenericTable generateResponseFromElastic(SearchResponse searchResponse, GroupingBucket[] groupingBuckets,
-      AggregationSpec[] aggregationSpecs, AspectSpec aspectSpec) {
-    GenericTable resultTable = new GenericTable();
-
-    // 1. Generate the column names.
+  private AggregationTable generateResponseFromElastic(SearchResponse searchResponse, GroupingBucket[] groupingBuckets,
+      AggregationSpec[] aggregationSpecs, AspectSpec aspectSpec, boolean rawLatestValues) {
+    // 1. Generate the columns.
     List<String> columnNames = genColumnNames(groupingBuckets, aggregationSpecs);
-    resultTable.setColumnNames(new StringArray(columnNames));
-
-    // 2. Generate the column types.
-    List<String> columnTypes = genColumnTypes(aspectSpec, groupingBuckets, aggregationSpecs);
-    resultTable.setColumnTypes(new StringArray(columnTypes));
-
-    // 3. Extract and populate the table rows.
-    List<StringArray> rows = new ArrayList<>();
+    List<AggregationTable.ColumnType> columnTypes =
+        genTableColumnTypes(aspectSpec, groupingBuckets, aggregationSpecs, rawLatestValues);
+    AggregationTable.Builder resultTable = new AggregationTable.Builder();
+    for (int i = 0; i < columnNames.size(); ++i) {
+      resultTable.addColumn(columnNames.get(i), columnTypes.get(i));
+    }
 
+    // 2. Extract and populate the table rows.
     Aggregations aggregations = searchResponse.getAggregations();
+    if (aggregations == null) {
+      // None of the partitions read exist
+      return resultTable.build();
+    }
     ParsedFilter filterAgg = aggregations.get(ES_FILTERED_STATS);
-    Stack<String> rowAcc = new Stack<>();
-    // 3.1 Do a DFS of the aggregation tree and generate the rows.
-    rowGenHelper(filterAgg.getAggregations(), 0, groupingBuckets.length, rows, rowAcc,
-        ImmutableList.copyOf(groupingBuckets), ImmutableList.copyOf(aggregationSpecs), aspectSpec);
+    Stack<Object> rowAcc = new Stack<>();
+    // 2.1 Do a DFS of the aggregation tree and generate the rows.
+    rowGenHelper(filterAgg.getAggregations(), 0, groupingBuckets.length, resultTable, rowAcc,
+        ImmutableList.copyOf(groupingBuckets), ImmutableList.copyOf(aggregationSpecs), aspectSpec, rawLatestValues);
     assert (rowAcc.isEmpty());
 
+    return resultTable.build();
+  }
+
+  /**
+   * Converts a typed table to a {@link GenericTable}, where every cell is a string and cells without a value are
+   * "NULL".
+   */
+  private static GenericTable toGenericTable(@Nonnull AggregationTable table, @Nonnull List<String> columnTypes) {
+    GenericTable resultTable = new GenericTable();
+    List<String> columnNames = new ArrayList<>(table.getNumColumns());
+    for (int column = 0; column < table.getNumColumns(); ++column) {
+      columnNames.add(table.getColumnName(column));
+    }
+    resultTable.setColumnNames(new StringArray(columnNames));
+    resultTable.setColumnTypes(new StringArray(columnTypes));
+
+    List<StringArray> rows = new ArrayList<>(table.getNumRows());
+    for (int row = 0; row < table.getNumRows(); ++row) {
+      List<String> cells = new ArrayList<>(table.getNumColumns());
+      for (int column = 0; column < table.getNumColumns(); ++column) {
+        if (table.isNull(row, column)) {
+          cells.add(ES_NULL_VALUE);
+          continue;
+        }
+        switch (table.getColumnType(column)) {
+          case LONG:
+            cells.add(String.valueOf(table.getLong(row, column)));
+            break;
+          case DOUBLE:
+            cells.add(String.valueOf(table.getDouble(row, column)));
+            break;
+          default:
+            cells.add(table.getString(row, column));
+            break;
+        }
+      }
+      rows.add(new StringArray(cells));
+    }
     resultTable.setRows(new StringArrayArray(rows));
     return resultTable;
   }
@@ -0,0 +1,508 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.metrics.MetricUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.admin.indices.settings.get.GetSettingsRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.ClearScrollRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.search.SearchScrollRequest;
+import org.elasticsearch.action.support.WriteRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.reindex.DeleteByQueryRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.Min;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+
+
+/**
+ * Maintains the hourly and daily rollups of the timeseries aspects.
+ *
+ * Upserts mark the hour of the document as pending in the pending bucket index, through the bulk processor that writes
+ * the document, so pending buckets outlive restarts. Pending hours are rolled up from the raw documents once they have
+ * not changed for a flush interval, so that their documents are searchable, and then mark their day as pending, which
+ * is rolled up from the hourly rollups once none of its hours is pending. Buckets are rolled up from scratch, which
+ * keeps rollups exact when documents are upserted again.
+ *
+ * Every instance flushes, and claims the pending buckets it rolls up for a lease, so that a bucket is rolled up by one
+ * instance at a time. A bucket is only removed from the pending ones if it did not change while it was rolled up.
+ * Rollups are read for the time before the first pending bucket of the aspect, see {@link #getRolledUpUntil}, and
+ * cover the documents of the buckets starting after their indices were created, see {@link #getRolledUpSince}.
+ */
+@Slf4j
+public class ESRollupDAO implements AutoCloseable {
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final int SCROLL_SIZE = 1000;
+  private static final TimeValue SCROLL_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+  private static final String CREATION_DATE_SETTING = "index.creation_date";
+  private static final long ROLLED_UP_SINCE_CACHE_TTL_MINUTES = 10;
+  private static final long PENDING_SINCE_CACHE_TTL_SECONDS = 5;
+
+  private static final String PENDING_INDEX = "timeseries_rollup_pending";
+  private static final String ENTITY_NAME_FIELD = "entityName";
+  private static final String ASPECT_NAME_FIELD = "aspectName";
+  private static final String GRANULARITY_FIELD = "granularity";
+  private static final String START_MILLIS_FIELD = "startMillis";
+  private static final String CHANGED_MILLIS_FIELD = "changedMillis";
+  private static final String CLAIMED_UNTIL_MILLIS_FIELD = "claimedUntilMillis";
+  private static final String PENDING_SINCE_AGGREGATION = "pendingSince";
+  // Pending buckets claimed at once, and claims per flush
+  private static final int CLAIM_BATCH_SIZE = 500;
+  private static final int MAX_CLAIM_BATCHES = 20;
+  private static final long CLAIM_LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+  private final IndexConvention _indexConvention;
+  private final RestHighLevelClient _searchClient;
+  private final BulkProcessor _bulkProcessor;
+  private final EntityRegistry _entityRegistry;
+  private final long _flushIntervalSeconds;
+
+  // Keyed by the index name of the raw documents
+  private final Cache<String, Long> _rolledUpSince =
+      CacheBuilder.newBuilder().expireAfterWrite(ROLLED_UP_SINCE_CACHE_TTL_MINUTES, TimeUnit.MINUTES).build();
+  // Start of the first pending bucket, keyed by the index name of the raw documents
+  private final Cache<String, Long> _pendingSince =
+      CacheBuilder.newBuilder().expireAfterWrite(PENDING_SINCE_CACHE_TTL_SECONDS, TimeUnit.SECONDS).build();
+  private final ScheduledExecutorService _flushExecutorService = Executors.newSingleThreadScheduledExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("timeseries-rollup-flush-%d").build());
+
+  @Value
+  private static class Bucket {
+    String entityName;
+    String aspectName;
+    String urn;
+    RollupGranularity granularity;
+    long startMillis;
+
+    @Nonnull
+    String getId() {
+      return DigestUtils.md5Hex(
+          entityName + "|" + aspectName + "|" + granularity.name() + "|" + startMillis + "|" + urn);
+    }
+  }
+
+  /**
+   * A pending bucket claimed by this instance, at the version of the claim.
+   */
+  @Value
+  private static class Claim {
+    Bucket bucket;
+    long seqNo;
+    long primaryTerm;
+  }
+
+  /**
+   * @param bulkProcessor the bulk processor the raw documents are written with
+   * @param flushIntervalSeconds interval between rollup flushes, non-positive to not maintain nor read rollups
+   */
+  public ESRollupDAO(@Nonnull IndexConvention indexConvention, @Nonnull RestHighLevelClient searchClient,
+      @Nonnull BulkProcessor bulkProcessor, @Nonnull EntityRegistry entityRegistry, long flushIntervalSeconds) {
+    _indexConvention = indexConvention;
+    _searchClient = searchClient;
+    _bulkProcessor = bulkProcessor;
+    _entityRegistry = entityRegistry;
+    _flushIntervalSeconds = flushIntervalSeconds;
+    if (isEnabled()) {
+      _flushExecutorService.scheduleWithFixedDelay(this::flushQuietly, flushIntervalSeconds, flushIntervalSeconds,
+          TimeUnit.SECONDS);
+    }
+  }
+
+  public boolean isEnabled() {
+    return _flushIntervalSeconds > 0;
+  }
+
+  @Nonnull
+  public String getRollupIndexName(@Nonnull String entityName, @Nonnull String aspectName,
+      @Nonnull RollupGranularity granularity) {
+    return _indexConvention.getTimeseriesAspectRollupIndexName(entityName, aspectName, granularity.getName());
+  }
+
+  /**
+   * Name of the index of the pending buckets of all the aspects.
+   */
+  @Nonnull
+  public String getPendingIndexName() {
+    return _indexConvention.getIndexName(PENDING_INDEX);
+  }
+
+  @Nonnull
+  public static Map<String, Object> getPendingMappings() {
+    final Map<String, Object> mappings = new HashMap<>();
+    mappings.put(ENTITY_NAME_FIELD, ImmutableMap.of("type", "keyword"));
+    mappings.put(ASPECT_NAME_FIELD, ImmutableMap.of("type", "keyword"));
+    mappings.put(MappingsBuilder.URN_FIELD, ImmutableMap.of("type", "keyword"));
+    mappings.put(GRANULARITY_FIELD, ImmutableMap.of("type", "keyword"));
+    mappings.put(START_MILLIS_FIELD, ImmutableMap.of("type", "long"));
+    mappings.put(CHANGED_MILLIS_FIELD, ImmutableMap.of("type", "long"));
+    mappings.put(CLAIMED_UNTIL_MILLIS_FIELD, ImmutableMap.of("type", "long"));
+    return ImmutableMap.of("properties", mappings);
+  }
+
+  /**
+   * Marks the hour of the upserted document as pending, to roll it up on a later flush.
+   */
+  public void markChanged(@Nonnull String entityName, @Nonnull String aspectName, @Nonnull JsonNode document) {
+    if (!isEnabled()) {
+      return;
+    }
+    final String urn = document.get(MappingsBuilder.URN_FIELD).asText();
+    final long timestampMillis = document.get(MappingsBuilder.TIMESTAMP_MILLIS_FIELD).asLong();
+    _bulkProcessor.add(getMarkRequest(new Bucket(entityName, aspectName, urn, RollupGranularity.HOURLY,
+        RollupGranularity.HOURLY.floor(timestampMillis)), System.currentTimeMillis()));
+  }
+
+  @Nonnull
+  private UpdateRequest getMarkRequest(@Nonnull Bucket bucket, long nowMillis) {
+    final Map<String, Object> pending = new HashMap<>();
+    pending.put(ENTITY_NAME_FIELD, bucket.getEntityName());
+    pending.put(ASPECT_NAME_FIELD, bucket.getAspectName());
+    pending.put(MappingsBuilder.URN_FIELD, bucket.getUrn());
+    pending.put(GRANULARITY_FIELD, bucket.getGranularity().getName());
+    pending.put(START_MILLIS_FIELD, bucket.getStartMillis());
+    pending.put(CHANGED_MILLIS_FIELD, nowMillis);
+    // Updating the change time of a pending bucket keeps its claim, and fails the removal of the claimed bucket
+    return new UpdateRequest(getPendingIndexName(), bucket.getId()).doc(
+        ImmutableMap.of(CHANGED_MILLIS_FIELD, nowMillis)).upsert(pending).retryOnConflict(3);
+  }
+
+  /**
+   * Time from which on the documents of the aspect are rolled up, if its rollups are maintained.
+   */
+  @Nonnull
+  public Optional<Long> getRolledUpSince(@Nonnull String entityName, @Nonnull String aspectName) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    Long rolledUpSince = _rolledUpSince.getIfPresent(indexName);
+    if (rolledUpSince == null) {
+      try {
+        // Daily rollups are built from hourly ones, so both must have existed
+        rolledUpSince = Math.max(getCreationDate(getRollupIndexName(entityName, aspectName, RollupGranularity.HOURLY)),
+            getCreationDate(getRollupIndexName(entityName, aspectName, RollupGranularity.DAILY)));
+      } catch (IOException | ElasticsearchException e) {
+        log.warn("Failed to get the creation date of the rollup indices of {}", indexName, e);
+        return Optional.empty();
+      }
+      _rolledUpSince.put(indexName, rolledUpSince);
+    }
+    return Optional.of(rolledUpSince);
+  }
+
+  /**
+   * Time until which the documents of the aspect are rolled up: the start of its first pending bucket, or a flush
+   * interval ago for the documents not written yet. Buckets marked pending in the last few seconds may be missed.
+   */
+  @Nonnull
+  public Optional<Long> getRolledUpUntil(@Nonnull String entityName, @Nonnull String aspectName) {
+    if (!isEnabled()) {
+      return Optional.empty();
+    }
+    final String indexName = _indexConvention.getTimeseriesAspectIndexName(entityName, aspectName);
+    Long pendingSince = _pendingSince.getIfPresent(indexName);
+    if (pendingSince == null) {
+      final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().size(0)
+          .query(QueryBuilders.boolQuery()
+              .filter(QueryBuilders.termQuery(ENTITY_NAME_FIELD, entityName))
+              .filter(QueryBuilders.termQuery(ASPECT_NAME_FIELD, aspectName)))
+          .aggregation(AggregationBuilders.min(PENDING_SINCE_AGGREGATION).field(START_MILLIS_FIELD));
+      try {
+        final Min min = _searchClient.search(new SearchRequest(getPendingIndexName()).source(searchSourceBuilder),
+            RequestOptions.DEFAULT).getAggregations().get(PENDING_SINCE_AGGREGATION);
+        // Infinite if nothing is pending
+        pendingSince = Double.isInfinite(min.getValue()) ? Long.MAX_VALUE : (long) min.getValue();
+      } catch (IOException | ElasticsearchException e) {
+        log.warn("Failed to get the pending rollup buckets of {}", indexName, e);
+        return Optional.empty();
+      }
+      _pendingSince.put(indexName, pendingSince);
+    }
+    return Optional.of(
+        Math.min(pendingSince, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(_flushIntervalSeconds)));
+  }
+
+  /**
+   * Rolls up the pending buckets that have not changed for a flush interval and that no other instance claimed.
+   */
+  public synchronized void flush() {
+    try (Timer.Context ignored = MetricUtils.timer(this.getClass(), "flush").time()) {
+      for (int batch = 0; batch < MAX_CLAIM_BATCHES; batch++) {
+        final long nowMillis = System.currentTimeMillis();
+        final int found = flushBatch(nowMillis);
+        if (found < CLAIM_BATCH_SIZE) {
+          return;
+        }
+      }
+      log.info("Rollups are behind, more than {} pending buckets are left for the next flush",
+          MAX_CLAIM_BATCHES * CLAIM_BATCH_SIZE);
+    } catch (IOException | ElasticsearchException e) {
+      log.warn("Failed to claim pending rollup buckets, retrying on the next flush", e);
+      MetricUtils.counter(this.getClass(), "claimFailed").inc();
+    }
+  }
+
+  /**
+   * Claims a batch of pending buckets and rolls them up, hours first.
+   *
+   * @return the number of pending buckets found
+   */
+  private int flushBatch(long nowMillis) throws IOException {
+    final SearchHit[] hits = _searchClient.search(new SearchRequest(getPendingIndexName()).source(
+        new SearchSourceBuilder().size(CLAIM_BATCH_SIZE)
+            .seqNoAndPrimaryTerm(true)
+            .sort(START_MILLIS_FIELD)
+            .query(QueryBuilders.boolQuery()
+                .filter(QueryBuilders.rangeQuery(CHANGED_MILLIS_FIELD)
+                    .lt(nowMillis - TimeUnit.SECONDS.toMillis(_flushIntervalSeconds)))
+                .mustNot(QueryBuilders.rangeQuery(CLAIMED_UNTIL_MILLIS_FIELD).gt(nowMillis)))),
+        RequestOptions.DEFAULT).getHits().getHits();
+    if (hits.length == 0) {
+      return 0;
+    }
+
+    // Claims only succeed on the versions read, so no other instance claimed or changed the buckets in between
+    final BulkRequest claimRequest = new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+    final List<Bucket> buckets = new ArrayList<>(hits.length);
+    for (SearchHit hit : hits) {
+      final Map<String, Object> source = hit.getSourceAsMap();
+      buckets.add(new Bucket((String) source.get(ENTITY_NAME_FIELD), (String) source.get(ASPECT_NAME_FIELD),
+          (String) source.get(MappingsBuilder.URN_FIELD),
+          RollupGranularity.valueOf(((String) source.get(GRANULARITY_FIELD)).toUpperCase()),
+          ((Number) source.get(START_MILLIS_FIELD)).longValue()));
+      claimRequest.add(new UpdateRequest(getPendingIndexName(), hit.getId()).doc(
+          ImmutableMap.of(CLAIMED_UNTIL_MILLIS_FIELD, nowMillis + CLAIM_LEASE_MILLIS))
+          .setIfSeqNo(hit.getSeqNo())
+          .setIfPrimaryTerm(hit.getPrimaryTerm()));
+    }
+    final List<Claim> hours = new ArrayList<>();
+    final List<Claim> days = new ArrayList<>();
+    final BulkItemResponse[] claimResponses = _searchClient.bulk(claimRequest, RequestOptions.DEFAULT).getItems();
+    for (int i = 0; i < claimResponses.length; i++) {
+      if (claimResponses[i].isFailed()) {
+        continue;
+      }
+      final Claim claim = new Claim(buckets.get(i), claimResponses[i].getResponse().getSeqNo(),
+          claimResponses[i].getResponse().getPrimaryTerm());
+      (claim.getBucket().getGranularity() == RollupGranularity.HOURLY ? hours : days).add(claim);
+    }
+
+    hours.forEach(hour -> rollUpQuietly(hour, nowMillis));
+    days.forEach(day -> rollUpQuietly(day, nowMillis));
+    return hits.length;
+  }
+
+  /**
+   * Stops the scheduled flushes, the pending buckets are left for the other instances or the next start.
+   */
+  @Override
+  public void close() {
+    _flushExecutorService.shutdownNow();
+  }
+
+  private void flushQuietly() {
+    // An exception would cancel the scheduled flushes
+    try {
+      flush();
+    } catch (Exception e) {
+      log.error("Failed to flush timeseries rollups", e);
+    }
+  }
+
+  private void rollUpQuietly(@Nonnull Claim claim, long nowMillis) {
+    final Bucket bucket = claim.getBucket();
+    try {
+      if (bucket.getGranularity() == RollupGranularity.DAILY && hasPendingHours(bucket)) {
+        // Rolled up once its hours are
+        release(claim);
+        return;
+      }
+      rollUp(bucket);
+      if (bucket.getGranularity() == RollupGranularity.HOURLY) {
+        // Marked before the hour is removed, so that the day is pending as long as the hour is rolled up
+        _searchClient.update(getMarkRequest(new Bucket(bucket.getEntityName(), bucket.getAspectName(), bucket.getUrn(),
+            RollupGranularity.DAILY, RollupGranularity.DAILY.floor(bucket.getStartMillis())), nowMillis),
+            RequestOptions.DEFAULT);
+      }
+      complete(claim);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to roll up the {} bucket of {} at {}, retrying on a later flush",
+          bucket.getGranularity().getName(), bucket.getUrn(), bucket.getStartMillis(), e);
+      MetricUtils.counter(this.getClass(), "rollupFailed").inc();
+      release(claim);
+    }
+  }
+
+  private boolean hasPendingHours(@Nonnull Bucket day) throws IOException {
+    final CountRequest countRequest = new CountRequest(getPendingIndexName()).query(QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(ENTITY_NAME_FIELD, day.getEntityName()))
+        .filter(QueryBuilders.termQuery(ASPECT_NAME_FIELD, day.getAspectName()))
+        .filter(QueryBuilders.termQuery(MappingsBuilder.URN_FIELD, day.getUrn()))
+        .filter(QueryBuilders.termQuery(GRANULARITY_FIELD, RollupGranularity.HOURLY.getName()))
+        .filter(QueryBuilders.rangeQuery(START_MILLIS_FIELD)
+            .gte(day.getStartMillis())
+            .lt(day.getStartMillis() + RollupGranularity.DAILY.getMillis())));
+    return _searchClient.count(countRequest, RequestOptions.DEFAULT).getCount() > 0;
+  }
+
+  /**
+   * Removes the rolled up bucket from the pending ones, unless it changed since it was claimed.
+   */
+  private void complete(@Nonnull Claim claim) throws IOException {
+    try {
+      _searchClient.delete(new DeleteRequest(getPendingIndexName(), claim.getBucket().getId()).setIfSeqNo(
+          claim.getSeqNo()).setIfPrimaryTerm(claim.getPrimaryTerm()), RequestOptions.DEFAULT);
+    } catch (ElasticsearchStatusException e) {
+      if (e.status() != RestStatus.CONFLICT) {
+        throw e;
+      }
+      // Changed while it was rolled up, roll it up again
+      MetricUtils.counter(this.getClass(), "rollupChanged").inc();
+      release(claim);
+    }
+  }
+
+  /**
+   * Lets any instance roll up the bucket again, rather than waiting for the claim to expire.
+   */
+  private void release(@Nonnull Claim claim) {
+    try {
+      _searchClient.update(new UpdateRequest(getPendingIndexName(), claim.getBucket().getId()).doc(
+          ImmutableMap.of(CLAIMED_UNTIL_MILLIS_FIELD, 0L)).retryOnConflict(3), RequestOptions.DEFAULT);
+    } catch (IOException | ElasticsearchException e) {
+      log.warn("Failed to release the {} bucket of {} at {}, it is rolled up again once its claim expires",
+          claim.getBucket().getGranularity().getName(), claim.getBucket().getUrn(), claim.getBucket().getStartMillis(),
+          e);
+    }
+  }
+
+  private void rollUp(@Nonnull Bucket bucket) throws IOException {
+    final RollupGranularity granularity = bucket.getGranularity();
+    final AspectSpec aspectSpec =
+        _entityRegistry.getEntitySpec(bucket.getEntityName()).getAspectSpec(bucket.getAspectName());
+    final String sourceIndex = granularity == RollupGranularity.HOURLY
+        ? _indexConvention.getTimeseriesAspectIndexName(bucket.getEntityName(), bucket.getAspectName())
+        : getRollupIndexName(bucket.getEntityName(), bucket.getAspectName(), RollupGranularity.HOURLY);
+    final String targetIndex = getRollupIndexName(bucket.getEntityName(), bucket.getAspectName(), granularity);
+
+    final BoolQueryBuilder bucketQuery = QueryBuilders.boolQuery()
+        .filter(QueryBuilders.termQuery(MappingsBuilder.URN_FIELD, bucket.getUrn()))
+        .filter(QueryBuilders.rangeQuery(MappingsBuilder.TIMESTAMP_MILLIS_FIELD)
+            .gte(bucket.getStartMillis())
+            .lt(bucket.getStartMillis() + granularity.getMillis()));
+    final Map<String, JsonNode> rollups =
+        RollupDocuments.rollUp(aspectSpec, granularity, getDocuments(sourceIndex, bucketQuery));
+
+    // Hourly rollups are refreshed before they are rolled up into days
+    final BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.WAIT_UNTIL);
+    for (Map.Entry<String, JsonNode> rollup : rollups.entrySet()) {
+      bulkRequest.add(new IndexRequest(targetIndex).id(rollup.getKey())
+          .source(OBJECT_MAPPER.writeValueAsBytes(rollup.getValue()), XContentType.JSON));
+    }
+    if (bulkRequest.numberOfActions() > 0) {
+      final BulkResponse bulkResponse = _searchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+      if (bulkResponse.hasFailures()) {
+        throw new IOException("Failed to index rollups: " + bulkResponse.buildFailureMessage());
+      }
+    }
+
+    // Delete the rollups of the groupings no longer in the bucket
+    final DeleteByQueryRequest deleteRequest = new DeleteByQueryRequest(targetIndex).setQuery(
+        QueryBuilders.boolQuery()
+            .filter(bucketQuery)
+            .mustNot(QueryBuilders.idsQuery().addIds(rollups.keySet().toArray(new String[0]))))
+        .setConflicts("proceed")
+        .setRefresh(true);
+    _searchClient.deleteByQuery(deleteRequest, RequestOptions.DEFAULT);
+  }
+
+  @Nonnull
+  private List<JsonNode> getDocuments(@Nonnull String indexName, @Nonnull BoolQueryBuilder query) throws IOException {
+    final SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder().query(query)
+        .size(SCROLL_SIZE)
+        .fetchSource(null, new String[]{MappingsBuilder.EVENT_FIELD, MappingsBuilder.SYSTEM_METADATA_FIELD});
+    final SearchRequest searchRequest =
+        new SearchRequest(indexName).source(searchSourceBuilder).scroll(SCROLL_KEEP_ALIVE);
+
+    final List<JsonNode> documents = new ArrayList<>();
+    SearchResponse searchResponse = _searchClient.search(searchRequest, RequestOptions.DEFAULT);
+    try {
+      while (true) {
+        final SearchHit[] hits = searchResponse.getHits().getHits();
+        for (SearchHit hit : hits) {
+          documents.add(OBJECT_MAPPER.readTree(hit.getSourceAsString()));
+        }
+        if (hits.length < SCROLL_SIZE) {
+          return documents;
+        }
+        searchResponse = _searchClient.scroll(
+            new SearchScrollRequest(searchResponse.getScrollId()).scroll(SCROLL_KEEP_ALIVE), RequestOptions.DEFAULT);
+      }
+    } finally {
+      final ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+      clearScrollRequest.addScrollId(searchResponse.getScrollId());
+      _searchClient.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+    }
+  }
+
+  private long getCreationDate(@Nonnull String indexName) throws IOException {
+    Long creationDate = null;
+    // The name may be an alias of a rebuilt index, which is newer than the rollups it holds, so this errs on the side
+    // of reading raw documents
+    for (Iterator<Settings> iterator = _searchClient.indices()
+        .getSettings(new GetSettingsRequest().indices(indexName), RequestOptions.DEFAULT)
+        .getIndexToSettings()
+        .valuesIt(); iterator.hasNext();) {
+      final Long indexCreationDate = iterator.next().getAsLong(CREATION_DATE_SETTING, null);
+      if (indexCreationDate != null) {
+        creationDate = creationDate == null ? indexCreationDate : Math.max(creationDate, indexCreationDate);
+      }
+    }
+    if (creationDate == null) {
+      throw new IOException("No creation date found for index " + indexName);
+    }
+    return creationDate;
+  }
+}
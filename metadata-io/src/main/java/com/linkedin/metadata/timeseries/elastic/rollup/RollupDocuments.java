@@ -0,0 +1,152 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.TimeseriesFieldCollectionSpec;
+import com.linkedin.metadata.models.TimeseriesFieldSpec;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.apache.commons.codec.digest.DigestUtils;
+
+
+/**
+ * Folds timeseries documents into rollup documents, one per urn, bucket and grouping. The grouping of an exploded
+ * document is its collection key, e.g. the user of a user usage count, and the aspect itself otherwise.
+ *
+ * Rollup documents have the shape of the documents they fold, so that aggregations read them like raw documents:
+ * numeric fields hold the sum of their values, other fields the latest value, and the timestamp is the latest one of
+ * the bucket. Rollups of rollups are built the same way, which is how daily rollups are built from hourly ones.
+ */
+public class RollupDocuments {
+
+  private RollupDocuments() {
+  }
+
+  /**
+   * Returns whether rollups sum the values of the field, rather than keeping the latest one.
+   */
+  public static boolean isSummed(@Nonnull DataSchema.Type type) {
+    switch (type) {
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Folds the documents into rollup documents of the granularity.
+   *
+   * @return the rollup documents by document id
+   */
+  @Nonnull
+  public static Map<String, JsonNode> rollUp(@Nonnull AspectSpec aspectSpec, @Nonnull RollupGranularity granularity,
+      @Nonnull Iterable<JsonNode> documents) {
+    final Map<String, Rollup> rollups = new HashMap<>();
+    for (JsonNode document : documents) {
+      final String urn = document.get(MappingsBuilder.URN_FIELD).asText();
+      final long timestampMillis = document.get(MappingsBuilder.TIMESTAMP_MILLIS_FIELD).asLong();
+      final TimeseriesFieldCollectionSpec collectionSpec = getCollectionSpec(aspectSpec, document);
+
+      final String groupKey;
+      final JsonNode source;
+      final Map<String, TimeseriesFieldSpec> fieldSpecs;
+      if (collectionSpec == null) {
+        groupKey = "";
+        source = document;
+        fieldSpecs = aspectSpec.getTimeseriesFieldSpecMap();
+      } else {
+        source = document.get(collectionSpec.getName());
+        groupKey = collectionSpec.getName() + source.get(getKeyField(collectionSpec)).asText();
+        fieldSpecs = collectionSpec.getTimeseriesFieldSpecMap();
+      }
+
+      final long bucketStart = granularity.floor(timestampMillis);
+      final String docId = DigestUtils.md5Hex(granularity.name() + bucketStart + urn + groupKey);
+      rollups.computeIfAbsent(docId, id -> new Rollup(granularity, urn, collectionSpec, source))
+          .add(source, fieldSpecs, timestampMillis);
+    }
+
+    final Map<String, JsonNode> rollupDocuments = new HashMap<>();
+    rollups.forEach((docId, rollup) -> rollupDocuments.put(docId, rollup._document));
+    return rollupDocuments;
+  }
+
+  @Nullable
+  private static TimeseriesFieldCollectionSpec getCollectionSpec(@Nonnull AspectSpec aspectSpec,
+      @Nonnull JsonNode document) {
+    if (!document.path(MappingsBuilder.IS_EXPLODED_FIELD).asBoolean(false)) {
+      return null;
+    }
+    return aspectSpec.getTimeseriesFieldCollectionSpecs()
+        .stream()
+        .filter(collectionSpec -> document.has(collectionSpec.getName()))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Exploded timeseries document has no known collection"));
+  }
+
+  private static String getKeyField(@Nonnull TimeseriesFieldCollectionSpec collectionSpec) {
+    return collectionSpec.getTimeseriesFieldCollectionAnnotation().getKey();
+  }
+
+  private static class Rollup {
+    private final ObjectNode _document = JsonNodeFactory.instance.objectNode();
+    // Where the fields are folded into, the collection object for exploded documents
+    private final ObjectNode _fields;
+    private final Map<String, Long> _latestTimestamps = new HashMap<>();
+    private long _timestampMillis = Long.MIN_VALUE;
+
+    private Rollup(@Nonnull RollupGranularity granularity, @Nonnull String urn,
+        @Nullable TimeseriesFieldCollectionSpec collectionSpec, @Nonnull JsonNode source) {
+      _document.put(MappingsBuilder.URN_FIELD, urn);
+      _document.put(MappingsBuilder.ROLLUP_GRANULARITY_FIELD, granularity.getName());
+      _document.put(MappingsBuilder.IS_EXPLODED_FIELD, collectionSpec != null);
+      if (collectionSpec == null) {
+        _fields = _document;
+      } else {
+        _fields = _document.putObject(collectionSpec.getName());
+        _fields.set(getKeyField(collectionSpec), source.get(getKeyField(collectionSpec)));
+      }
+    }
+
+    private void add(@Nonnull JsonNode source, @Nonnull Map<String, TimeseriesFieldSpec> fieldSpecs,
+        long timestampMillis) {
+      if (timestampMillis > _timestampMillis) {
+        _timestampMillis = timestampMillis;
+        _document.put(MappingsBuilder.TIMESTAMP_FIELD, timestampMillis);
+        _document.put(MappingsBuilder.TIMESTAMP_MILLIS_FIELD, timestampMillis);
+      }
+      fieldSpecs.forEach((name, fieldSpec) -> {
+        final JsonNode value = source.get(name);
+        if (value == null || value.isNull()) {
+          return;
+        }
+        final DataSchema.Type type = fieldSpec.getPegasusSchema().getType();
+        if (isSummed(type)) {
+          addValue(name, type, value);
+        } else if (timestampMillis >= _latestTimestamps.getOrDefault(name, Long.MIN_VALUE)) {
+          _latestTimestamps.put(name, timestampMillis);
+          _fields.set(name, value);
+        }
+      });
+    }
+
+    private void addValue(@Nonnull String name, @Nonnull DataSchema.Type type, @Nonnull JsonNode value) {
+      final JsonNode sum = _fields.get(name);
+      if (type == DataSchema.Type.FLOAT || type == DataSchema.Type.DOUBLE) {
+        _fields.put(name, (sum == null ? 0 : sum.asDouble()) + value.asDouble());
+      } else {
+        _fields.put(name, (sum == null ? 0 : sum.asLong()) + value.asLong());
+      }
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.linkedin.timeseries.TimeWindowSize;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+
+/**
+ * Granularity of the pre-aggregated timeseries documents, from finest to coarsest. Buckets are aligned to UTC, like the
+ * date histograms of the aggregation queries.
+ */
+public enum RollupGranularity {
+  HOURLY(TimeUnit.HOURS.toMillis(1)),
+  DAILY(TimeUnit.DAYS.toMillis(1));
+
+  private final long _millis;
+
+  RollupGranularity(long millis) {
+    _millis = millis;
+  }
+
+  /**
+   * Name of the granularity, as found in the rollup granularity field of the rollup documents and the name of their index.
+   */
+  @Nonnull
+  public String getName() {
+    return name().toLowerCase();
+  }
+
+  public long getMillis() {
+    return _millis;
+  }
+
+  /**
+   * Start of the bucket containing the timestamp.
+   */
+  public long floor(long timestampMillis) {
+    return Math.floorDiv(timestampMillis, _millis) * _millis;
+  }
+
+  /**
+   * Start of the first bucket at or after the timestamp.
+   */
+  public long ceil(long timestampMillis) {
+    return -Math.floorDiv(-timestampMillis, _millis) * _millis;
+  }
+
+  /**
+   * Returns whether date histogram buckets of the window size are made of whole buckets of this granularity.
+   */
+  public boolean divides(@Nonnull TimeWindowSize timeWindowSize) {
+    switch (timeWindowSize.getUnit()) {
+      case MINUTE:
+        return false;
+      case HOUR:
+        return this == HOURLY;
+      default:
+        // Days, weeks, months, quarters and years all start at midnight UTC
+        return true;
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.TimeseriesFieldCollectionSpec;
+import com.linkedin.metadata.models.TimeseriesFieldSpec;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.timeseries.elastic.indexbuilder.MappingsBuilder;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.GroupingBucket;
+import com.linkedin.timeseries.GroupingBucketType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import lombok.Value;
+
+
+/**
+ * Plans which documents an aggregation query over a timeseries aspect reads: the time range of the query is split into
+ * the longest aligned stretch of daily rollups, the hourly rollups around it, and the raw documents at the edges.
+ *
+ * Only queries that rollups answer exactly are planned: sums of numeric fields, latest values of other required fields,
+ * and cardinalities and groupings of the fields that identify a rollup, i.e. the urn and collection keys. Latest values
+ * of optional fields are not, as a rollup is timestamped with the latest document of its bucket, which may not have
+ * the field. Time ranges before the rollups were created, or too recent to be rolled up yet, are read from the raw
+ * documents.
+ */
+public class RollupPlanner {
+
+  // Coarsest first
+  private static final List<RollupGranularity> GRANULARITIES =
+      ImmutableList.of(RollupGranularity.DAILY, RollupGranularity.HOURLY);
+
+  private RollupPlanner() {
+  }
+
+  /**
+   * A time range of the query, read from the rollups of a granularity, or from the raw documents if it is null.
+   */
+  @Value
+  public static class Segment {
+    @Nullable
+    RollupGranularity granularity;
+    // Inclusive, null if unbounded
+    @Nullable
+    Long startMillis;
+    // Exclusive, null if unbounded
+    @Nullable
+    Long endMillis;
+  }
+
+  @Value
+  public static class RollupPlan {
+    // The filter of the query without its time range
+    Filter filter;
+    List<Segment> segments;
+  }
+
+  /**
+   * Plans the query, if rollups can answer it.
+   *
+   * @param rolledUpSince documents from this time on are rolled up
+   * @param rolledUpUntil documents before this time are rolled up, i.e. no bucket before it is pending
+   */
+  @Nonnull
+  public static Optional<RollupPlan> plan(@Nonnull AspectSpec aspectSpec, @Nonnull AggregationSpec[] aggregationSpecs,
+      @Nullable Filter filter, @Nonnull GroupingBucket[] groupingBuckets, long rolledUpSince, long rolledUpUntil) {
+    final Set<String> identityFields = new HashSet<>();
+    final Set<String> summedFields = new HashSet<>();
+    // Fields that are not summed and that every document has, so that the latest rollup holds their latest value
+    final Set<String> latestFields = new HashSet<>();
+    identityFields.add(MappingsBuilder.URN_FIELD);
+    identityFields.add(MappingsBuilder.IS_EXPLODED_FIELD);
+    for (TimeseriesFieldSpec fieldSpec : aspectSpec.getTimeseriesFieldSpecs()) {
+      if (RollupDocuments.isSummed(fieldSpec.getPegasusSchema().getType())) {
+        summedFields.add(fieldSpec.getName());
+      } else if (isRequired(aspectSpec.getPegasusSchema(), fieldSpec.getPath())) {
+        latestFields.add(fieldSpec.getName());
+      }
+    }
+    for (TimeseriesFieldCollectionSpec collectionSpec : aspectSpec.getTimeseriesFieldCollectionSpecs()) {
+      identityFields.add(
+          collectionSpec.getName() + "." + collectionSpec.getTimeseriesFieldCollectionAnnotation().getKey());
+      for (TimeseriesFieldSpec fieldSpec : collectionSpec.getTimeseriesFieldSpecMap().values()) {
+        if (RollupDocuments.isSummed(fieldSpec.getPegasusSchema().getType())) {
+          summedFields.add(collectionSpec.getName() + "." + fieldSpec.getName());
+        } else if (isRequired(collectionSpec.getPegasusSchema(), fieldSpec.getPath())) {
+          latestFields.add(collectionSpec.getName() + "." + fieldSpec.getName());
+        }
+      }
+    }
+    latestFields.addAll(identityFields);
+
+    for (AggregationSpec aggregationSpec : aggregationSpecs) {
+      final String fieldPath = aggregationSpec.getFieldPath();
+      switch (aggregationSpec.getAggregationType()) {
+        case SUM:
+          if (!summedFields.contains(fieldPath)) {
+            return Optional.empty();
+          }
+          break;
+        case LATEST:
+          if (!latestFields.contains(fieldPath)) {
+            return Optional.empty();
+          }
+          break;
+        case CARDINALITY:
+          if (!identityFields.contains(fieldPath)) {
+            return Optional.empty();
+          }
+          break;
+        default:
+          return Optional.empty();
+      }
+    }
+
+    List<RollupGranularity> granularities = GRANULARITIES;
+    for (GroupingBucket groupingBucket : groupingBuckets) {
+      if (groupingBucket.getType() == GroupingBucketType.DATE_GROUPING_BUCKET) {
+        granularities = granularities.stream()
+            .filter(granularity -> granularity.divides(groupingBucket.getTimeWindowSize()))
+            .collect(Collectors.toList());
+      } else if (!identityFields.contains(groupingBucket.getKey())) {
+        return Optional.empty();
+      }
+    }
+    if (granularities.isEmpty()) {
+      return Optional.empty();
+    }
+
+    // Split the filter into its time range and the criteria rollups can be filtered by
+    Long startMillis = null;
+    Long endMillis = null;
+    final List<Criterion> criteria = new ArrayList<>();
+    final Optional<List<Criterion>> filterCriteria = getCriteria(filter);
+    if (!filterCriteria.isPresent()) {
+      return Optional.empty();
+    }
+    for (Criterion criterion : filterCriteria.get()) {
+      if (criterion.getValue().trim().isEmpty()) {
+        continue;
+      }
+      if (identityFields.contains(criterion.getField())) {
+        criteria.add(criterion);
+        continue;
+      }
+      if (!MappingsBuilder.TIMESTAMP_MILLIS_FIELD.equals(criterion.getField())) {
+        return Optional.empty();
+      }
+      final long value;
+      try {
+        value = Long.parseLong(criterion.getValue().trim());
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+      switch (criterion.getCondition()) {
+        case GREATER_THAN:
+          startMillis = max(startMillis, value + 1);
+          break;
+        case GREATER_THAN_OR_EQUAL_TO:
+          startMillis = max(startMillis, value);
+          break;
+        case LESS_THAN:
+          endMillis = min(endMillis, value);
+          break;
+        case LESS_THAN_OR_EQUAL_TO:
+          endMillis = min(endMillis, value + 1);
+          break;
+        default:
+          return Optional.empty();
+      }
+    }
+
+    final List<Segment> segments = new ArrayList<>();
+    addSegments(segments, granularities, 0, startMillis, endMillis, rolledUpSince, rolledUpUntil);
+    if (segments.stream().allMatch(segment -> segment.getGranularity() == null)) {
+      return Optional.empty();
+    }
+    final Filter rollupFilter = new Filter().setOr(
+        new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(new CriterionArray(criteria))));
+    return Optional.of(new RollupPlan(rollupFilter, segments));
+  }
+
+  /**
+   * Returns whether the field at the path, and every record field on the way to it, is required by the schema.
+   */
+  private static boolean isRequired(@Nonnull DataSchema schema, @Nonnull PathSpec path) {
+    DataSchema current = schema;
+    for (String component : path.getPathComponents()) {
+      current = current.getDereferencedDataSchema();
+      if (current.getType() == DataSchema.Type.ARRAY && "*".equals(component)) {
+        current = ((ArrayDataSchema) current).getItems();
+        continue;
+      }
+      if (current.getType() != DataSchema.Type.RECORD) {
+        return false;
+      }
+      final RecordDataSchema.Field field = ((RecordDataSchema) current).getField(component);
+      if (field == null || field.getOptional()) {
+        return false;
+      }
+      current = field.getType();
+    }
+    return true;
+  }
+
+  @Nonnull
+  private static Optional<List<Criterion>> getCriteria(@Nullable Filter filter) {
+    if (filter == null) {
+      return Optional.of(ImmutableList.of());
+    }
+    if (filter.getOr() != null) {
+      // Disjunctions may have different time ranges, and are read from the raw documents
+      if (filter.getOr().size() > 1) {
+        return Optional.empty();
+      }
+      return Optional.of(filter.getOr().isEmpty() ? ImmutableList.of() : filter.getOr().get(0).getAnd());
+    }
+    return Optional.of(filter.getCriteria() != null ? filter.getCriteria() : ImmutableList.of());
+  }
+
+  private static void addSegments(@Nonnull List<Segment> segments, @Nonnull List<RollupGranularity> granularities,
+      int level, @Nullable Long startMillis, @Nullable Long endMillis, long rolledUpSince, long rolledUpUntil) {
+    if (startMillis != null && endMillis != null && startMillis >= endMillis) {
+      return;
+    }
+    if (level == granularities.size()) {
+      segments.add(new Segment(null, startMillis, endMillis));
+      return;
+    }
+    // Read the whole buckets of this granularity in the range, and the edges from the finer ones
+    final RollupGranularity granularity = granularities.get(level);
+    final long rollupStart = granularity.ceil(startMillis == null ? rolledUpSince : Math.max(startMillis, rolledUpSince));
+    final long rollupEnd = granularity.floor(endMillis == null ? rolledUpUntil : Math.min(endMillis, rolledUpUntil));
+    if (rollupStart >= rollupEnd) {
+      addSegments(segments, granularities, level + 1, startMillis, endMillis, rolledUpSince, rolledUpUntil);
+      return;
+    }
+    addSegments(segments, granularities, level + 1, startMillis, rollupStart, rolledUpSince, rolledUpUntil);
+    segments.add(new Segment(granularity, rollupStart, rollupEnd));
+    addSegments(segments, granularities, level + 1, rollupEnd, endMillis, rolledUpSince, rolledUpUntil);
+  }
+
+  @Nonnull
+  private static Long max(@Nullable Long current, long value) {
+    return current == null ? value : Math.max(current, value);
+  }
+
+  @Nonnull
+  private static Long min(@Nullable Long current, long value) {
+    return current == null ? value : Math.min(current, value);
+  }
+}
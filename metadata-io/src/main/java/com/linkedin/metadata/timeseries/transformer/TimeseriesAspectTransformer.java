@@ -7,6 +7,9 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.data.ByteString;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.ArrayDataSchema;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.template.RecordTemplate;
@@ -50,10 +53,9 @@ public class TimeseriesAspectTransformer {
     ObjectNode document = JsonNodeFactory.instance.objectNode();
     document.setAll(commonDocument);
     document.set(MappingsBuilder.IS_EXPLODED_FIELD, JsonNodeFactory.instance.booleanNode(false));
-    document.set(MappingsBuilder.EVENT_FIELD, OBJECT_MAPPER.readTree(RecordUtils.toJsonString(timeseriesAspect)));
+    document.set(MappingsBuilder.EVENT_FIELD, toJsonNode(timeseriesAspect.data()));
     if (systemMetadata != null) {
-      document.set(MappingsBuilder.SYSTEM_METADATA_FIELD,
-          OBJECT_MAPPER.readTree(RecordUtils.toJsonString(systemMetadata)));
+      document.set(MappingsBuilder.SYSTEM_METADATA_FIELD, toJsonNode(systemMetadata.data()));
     }
     final Map<TimeseriesFieldSpec, List<Object>> timeseriesFieldValueMap =
         FieldExtractor.extractFields(timeseriesAspect, aspectSpec.getTimeseriesFieldSpecs());
@@ -68,6 +70,37 @@ public class TimeseriesAspectTransformer {
     return finalDocuments;
   }
 
+  /**
+   * Converts the data of a record to a json tree directly, instead of serializing it to json and parsing that back.
+   * Bytes are written as avro strings, the way they are serialized to json.
+   */
+  private static JsonNode toJsonNode(@Nonnull final Object data) {
+    if (data instanceof DataMap) {
+      final ObjectNode objectNode = JsonNodeFactory.instance.objectNode();
+      ((DataMap) data).forEach((key, value) -> objectNode.set(key, toJsonNode(value)));
+      return objectNode;
+    } else if (data instanceof DataList) {
+      final ArrayNode arrayNode = JsonNodeFactory.instance.arrayNode(((DataList) data).size());
+      ((DataList) data).forEach(item -> arrayNode.add(toJsonNode(item)));
+      return arrayNode;
+    } else if (data instanceof String) {
+      return JsonNodeFactory.instance.textNode((String) data);
+    } else if (data instanceof Integer) {
+      return JsonNodeFactory.instance.numberNode((Integer) data);
+    } else if (data instanceof Long) {
+      return JsonNodeFactory.instance.numberNode((Long) data);
+    } else if (data instanceof Float) {
+      return JsonNodeFactory.instance.numberNode((Float) data);
+    } else if (data instanceof Double) {
+      return JsonNodeFactory.instance.numberNode((Double) data);
+    } else if (data instanceof Boolean) {
+      return JsonNodeFactory.instance.booleanNode((Boolean) data);
+    } else if (data instanceof ByteString) {
+      return JsonNodeFactory.instance.textNode(((ByteString) data).asAvroString());
+    }
+    return JsonNodeFactory.instance.nullNode();
+  }
+
   private static ObjectNode getCommonDocument(@Nonnull final Urn urn, final RecordTemplate timeseriesAspect,
       @Nullable final SystemMetadata systemMetadata) {
     if (!timeseriesAspect.data().containsKey(MappingsBuilder.TIMESTAMP_MILLIS_FIELD)) {
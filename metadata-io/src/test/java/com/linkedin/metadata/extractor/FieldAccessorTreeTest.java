@@ -0,0 +1,159 @@
+package com.linkedin.metadata.extractor;
+
+import com.datahub.test.SimpleNestedRecord1;
+import com.datahub.test.SimpleNestedRecord2;
+import com.datahub.test.SimpleNestedRecord2Array;
+import com.datahub.test.TestEntityInfo;
+import com.datahub.test.TestEntitySnapshot;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.common.AuditStamp;
+import com.linkedin.common.GlobalTags;
+import com.linkedin.common.Owner;
+import com.linkedin.common.OwnerArray;
+import com.linkedin.common.Ownership;
+import com.linkedin.common.OwnershipSource;
+import com.linkedin.common.OwnershipSourceType;
+import com.linkedin.common.OwnershipType;
+import com.linkedin.common.TagAssociation;
+import com.linkedin.common.TagAssociationArray;
+import com.linkedin.common.urn.TagUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.template.StringArray;
+import com.linkedin.metadata.TestEntityUtil;
+import com.linkedin.metadata.dao.utils.RecordUtils;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class FieldAccessorTreeTest {
+
+  private static PathSpec path(String... components) {
+    return new PathSpec(components);
+  }
+
+  @Test
+  public void testEnumAndUrnValues() throws Exception {
+    Urn userOne = Urn.createFromString("urn:li:corpuser:one");
+    Urn userTwo = Urn.createFromString("urn:li:corpuser:two");
+    Ownership ownership = new Ownership().setOwners(new OwnerArray(ImmutableList.of(
+        new Owner().setOwner(userOne).setType(OwnershipType.DATAOWNER),
+        new Owner().setOwner(userTwo).setType(OwnershipType.DEVELOPER)
+            .setSource(new OwnershipSource().setType(OwnershipSourceType.MANUAL)))))
+        .setLastModified(new AuditStamp().setTime(1L).setActor(userOne));
+    List<PathSpec> paths = ImmutableList.of(path("owners", "*", "owner"), path("owners", "*", "type"),
+        path("owners", "*", "source", "type"), path("lastModified", "actor"), path("lastModified"));
+
+    FieldAccessorTree tree = FieldAccessorTree.get(ownership, paths);
+    for (int i = 0; i < paths.size(); i++) {
+      assertTrue(tree.isCompiled(i));
+    }
+    List<List<Object>> values = tree.getValues(ownership);
+    assertEquals(values.get(0), ImmutableList.of(userOne, userTwo));
+    assertEquals(values.get(1), ImmutableList.of(OwnershipType.DATAOWNER, OwnershipType.DEVELOPER));
+    assertEquals(values.get(2), ImmutableList.of(OwnershipSourceType.MANUAL));
+    assertEquals(values.get(3), ImmutableList.of(userOne));
+    assertEquals(values.get(4), ImmutableList.of(ownership.getLastModified()));
+
+    // The values have the types the data template getters return
+    assertTrue(values.get(0).get(0) instanceof Urn);
+    assertTrue(values.get(4).get(0) instanceof AuditStamp);
+  }
+
+  @Test
+  public void testUnknownEnumValue() {
+    Ownership ownership = new Ownership().setOwners(new OwnerArray(ImmutableList.of(new Owner())));
+    ownership.getOwners().get(0).data().put("type", "NOT_A_TYPE");
+    FieldAccessorTree tree = FieldAccessorTree.get(ownership, ImmutableList.of(path("owners", "*", "type")));
+    assertEquals(tree.getValues(ownership).get(0), ImmutableList.of(OwnershipType.$UNKNOWN));
+  }
+
+  @Test
+  public void testCustomUrnTypes() throws Exception {
+    TagUrn tag = TagUrn.createFromString("urn:li:tag:test");
+    GlobalTags globalTags =
+        new GlobalTags().setTags(new TagAssociationArray(ImmutableList.of(new TagAssociation().setTag(tag))));
+    FieldAccessorTree tree = FieldAccessorTree.get(globalTags, ImmutableList.of(path("tags", "*", "tag")));
+    List<Object> values = tree.getValues(globalTags).get(0);
+    assertEquals(values, ImmutableList.of(tag));
+    assertTrue(values.get(0) instanceof TagUrn);
+  }
+
+  @Test
+  public void testNestedCollectionWildcards() {
+    TestEntityInfo testEntityInfo = new TestEntityInfo().setNestedRecordArrayField(new SimpleNestedRecord2Array(
+        ImmutableList.of(
+            new SimpleNestedRecord2().setNestedArrayArrayField(new StringArray(ImmutableList.of("a1", "a2"))),
+            // Items without the nested array are skipped
+            new SimpleNestedRecord2().setNestedArrayStringField("b"),
+            new SimpleNestedRecord2().setNestedArrayArrayField(new StringArray()),
+            new SimpleNestedRecord2().setNestedArrayStringField("c")
+                .setNestedArrayArrayField(new StringArray(ImmutableList.of("c1"))))));
+    List<PathSpec> paths = ImmutableList.of(path("nestedRecordArrayField", "*", "nestedArrayArrayField", "*"),
+        path("nestedRecordArrayField", "*", "nestedArrayStringField"));
+
+    List<List<Object>> values = FieldAccessorTree.get(testEntityInfo, paths).getValues(testEntityInfo);
+    // Values under nested arrays are flattened, in document order
+    assertEquals(values.get(0), ImmutableList.of("a1", "a2", "c1"));
+    assertEquals(values.get(1), ImmutableList.of("b", "c"));
+  }
+
+  @Test
+  public void testMissingIntermediateFields() {
+    List<PathSpec> paths = ImmutableList.of(path("nestedRecordField", "nestedIntegerField"),
+        path("nestedRecordField", "nestedForeignKey"), path("nestedRecordArrayField", "*", "nestedArrayStringField"));
+    FieldAccessorTree tree = FieldAccessorTree.get(new TestEntityInfo(), paths);
+
+    TestEntityInfo empty = new TestEntityInfo();
+    assertEquals(tree.getValues(empty), ImmutableList.of(ImmutableList.of(), ImmutableList.of(), ImmutableList.of()));
+
+    TestEntityInfo partial =
+        new TestEntityInfo().setNestedRecordField(new SimpleNestedRecord1().setNestedIntegerField(2))
+            .setNestedRecordArrayField(new SimpleNestedRecord2Array());
+    assertEquals(tree.getValues(partial),
+        ImmutableList.of(ImmutableList.of(2), ImmutableList.of(), ImmutableList.of()));
+  }
+
+  @Test
+  public void testUncompiledPathsFallBack() {
+    Urn urn = TestEntityUtil.getTestEntityUrn();
+    List<PathSpec> paths = ImmutableList.of(
+        // An array without a wildcard
+        path("textArrayField"),
+        // A field the schema does not have
+        path("nestedRecordField", "missingField"),
+        // A wildcard over a record
+        path("nestedRecordField", "*"),
+        path("textField"));
+    FieldAccessorTree tree = FieldAccessorTree.get(new TestEntityInfo(), paths);
+    assertFalse(tree.isCompiled(0));
+    assertFalse(tree.isCompiled(1));
+    assertFalse(tree.isCompiled(2));
+    assertTrue(tree.isCompiled(3));
+
+    // Unions cannot be converted from their raw data
+    TestEntitySnapshot snapshot = TestEntityUtil.getSnapshot();
+    assertFalse(FieldAccessorTree.get(snapshot, ImmutableList.of(path("aspects", "*"))).isCompiled(0));
+
+    // The tree reads no values for uncompiled paths, the extractor reads them with RecordUtils.getFieldValue
+    TestEntityInfo testEntityInfo = TestEntityUtil.getTestEntityInfo(urn);
+    List<List<Object>> values = tree.getValues(testEntityInfo);
+    assertEquals(values.get(0), ImmutableList.of());
+    assertEquals(values.get(3), ImmutableList.of("test"));
+    assertTrue(RecordUtils.getFieldValue(testEntityInfo, paths.get(0)).isPresent());
+  }
+
+  @Test
+  public void testTreesAreCachedBySchemaAndPaths() {
+    List<PathSpec> paths = ImmutableList.of(path("textField"));
+    FieldAccessorTree tree = FieldAccessorTree.get(new TestEntityInfo(), paths);
+    assertSame(FieldAccessorTree.get(new TestEntityInfo(new DataMap()), ImmutableList.of(path("textField"))), tree);
+    assertTrue(FieldAccessorTree.get(new TestEntityInfo(), ImmutableList.of(path("textArrayField", "*"))) != tree);
+  }
+}
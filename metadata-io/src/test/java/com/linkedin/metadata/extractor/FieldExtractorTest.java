@@ -44,5 +44,9 @@ public class FieldExtractorTest {
     assertEquals(result.get(nameToSpec.get("nestedArrayStringField")), ImmutableList.of("nestedArray1", "nestedArray2"));
     assertEquals(result.get(nameToSpec.get("nestedArrayArrayField")), ImmutableList.of("testNestedArray1", "testNestedArray2"));
     assertEquals(result.get(nameToSpec.get("customProperties")), ImmutableList.of("key1=value1", "key2=value2"));
+
+    // Accessors are compiled once per schema, and give the same values for the next record
+    assertEquals(FieldExtractor.extractFields(TestEntityUtil.getTestEntityInfo(urn),
+        testEntityInfoSpec.getSearchableFieldSpecs()), result);
   }
 }
@@ -1,5 +1,6 @@
 package com.linkedin.metadata.graph;
 
+import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import io.dgraph.DgraphClient;
 import io.dgraph.DgraphGrpc;
@@ -29,9 +30,12 @@ import java.util.concurrent.TimeUnit;
 
 import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
 import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
+import static com.linkedin.metadata.search.utils.QueryUtils.newCriterion;
 import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+import static com.linkedin.metadata.search.utils.QueryUtils.newInCriterion;
 import static com.linkedin.metadata.search.utils.QueryUtils.newRelationshipFilter;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
 import static org.testng.Assert.assertTrue;
 
 @SuppressWarnings("ArraysAsListWithZeroOrOneArgument")
@@ -471,6 +475,30 @@ public class DgraphGraphServiceTest extends GraphServiceTestBase {
         );
     }
 
+    @Test
+    public void testGetRelationshipCounts() {
+        assertEquals(
+                DgraphGraphService.getRelationshipCounts(
+                        null,
+                        Collections.emptyList(),
+                        Arrays.asList("relationship")
+                ),
+                Arrays.asList("edgeCount1 as count(<relationship>)")
+        );
+
+        assertEquals(
+                DgraphGraphService.getRelationshipCounts(
+                        "sourceTypeFilter",
+                        Arrays.asList("sourceFilter"),
+                        Arrays.asList("relationship1", "~relationship2")
+                ),
+                Arrays.asList(
+                        "edgeCount1 as count(<relationship1> @filter( uid(sourceTypeFilter) AND uid(sourceFilter) ))",
+                        "edgeCount2 as count(<~relationship2> @filter( uid(sourceTypeFilter) AND uid(sourceFilter) ))"
+                )
+        );
+    }
+
     @Test
     public void testGetRelationshipCondition() {
         assertEquals(
@@ -522,6 +550,36 @@ public class DgraphGraphServiceTest extends GraphServiceTestBase {
         );
     }
 
+    @Test
+    public void testGetFilterFunction() {
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newCriterion("urn", "urn:ns:type:key")),
+                "var(func: eq(<urn>, \"urn:ns:type:key\"))"
+        );
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newCriterion("urn", "urn:ns:type:key", Condition.NOT_EQUAL)),
+                "var(func: has(<urn>)) @filter(NOT eq(<urn>, \"urn:ns:type:key\"))"
+        );
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newInCriterion("urn", Arrays.asList("urn:ns:type:one", "urn:ns:type:two"))),
+                "var(func: eq(<urn>, [\"urn:ns:type:one\", \"urn:ns:type:two\"]))"
+        );
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newCriterion("urn", "urn:ns:type:(a.b", Condition.START_WITH)),
+                "var(func: regexp(<urn>, /^urn:ns:type:\\(a\\.b.*$/))"
+        );
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newCriterion("urn", "", Condition.EXISTS)),
+                "var(func: has(<urn>))"
+        );
+        assertEquals(
+                DgraphGraphService.getFilterFunction(newCriterion("urn", "urn:ns:type:\"key\\\n")),
+                "var(func: eq(<urn>, \"urn:ns:type:\\\"key\\\\\\n\"))"
+        );
+        assertThrows(IllegalArgumentException.class,
+                () -> DgraphGraphService.getFilterFunction(newCriterion("urn>, \"\")) #", "urn:ns:type:key")));
+    }
+
     @Test
     public void testGetQueryForRelatedEntitiesOutgoing() {
         doTestGetQueryForRelatedEntitiesDirection(RelationshipDirection.OUTGOING,
@@ -650,6 +708,31 @@ public class DgraphGraphServiceTest extends GraphServiceTestBase {
         );
     }
 
+    @Test
+    public void testGetCountFromResponseData() {
+        assertEquals(
+                DgraphGraphService.getCountFromResponseData(
+                        new HashMap<String, Object>() {{
+                            put("result", Collections.emptyList());
+                        }}
+                ),
+                0
+        );
+
+        assertEquals(
+                DgraphGraphService.getCountFromResponseData(
+                        new HashMap<String, Object>() {{
+                            put("result", Arrays.asList(
+                                    new HashMap<String, Object>() {{
+                                        put("count", 42);
+                                    }}
+                            ));
+                        }}
+                ),
+                42
+        );
+    }
+
     @Test
     public void testGetDestinationUrnsFromResponseData() {
         // no results
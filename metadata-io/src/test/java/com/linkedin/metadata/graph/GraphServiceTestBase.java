@@ -1,6 +1,7 @@
 package com.linkedin.metadata.graph;
 
 import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.query.filter.Condition;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.query.filter.RelationshipDirection;
 import com.linkedin.metadata.query.filter.RelationshipFilter;
@@ -16,8 +17,10 @@ import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -27,6 +30,9 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
+import static com.linkedin.metadata.search.utils.QueryUtils.getFilterFromCriteria;
+import static com.linkedin.metadata.search.utils.QueryUtils.newCriterion;
+import static com.linkedin.metadata.search.utils.QueryUtils.newInCriterion;
 import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
 import static com.linkedin.metadata.search.utils.QueryUtils.newRelationshipFilter;
 import static org.testng.Assert.*;
@@ -490,6 +496,68 @@ abstract public class GraphServiceTestBase {
     );
   }
 
+  @DataProvider(name = "FindRelatedEntitiesFilterConditionTests")
+  public Object[][] getFindRelatedEntitiesFilterConditionTests() {
+    return new Object[][] {
+            new Object[] {
+                    getFilterFromCriteria(Collections.singletonList(
+                            newInCriterion("urn", Arrays.asList(datasetTwoUrnString, datasetThreeUrnString)))),
+                    EMPTY_FILTER,
+                    Arrays.asList(downstreamOf),
+                    outgoingRelationships,
+                    Arrays.asList(downstreamOfDatasetOneRelatedEntity, downstreamOfDatasetTwoRelatedEntity)
+            },
+            new Object[] {
+                    getFilterFromCriteria(Collections.singletonList(
+                            newCriterion("urn", "urn:li:" + userType + ":", Condition.START_WITH))),
+                    EMPTY_FILTER,
+                    Arrays.asList(hasOwner),
+                    incomingRelationships,
+                    Arrays.asList(hasOwnerDatasetOneRelatedEntity, hasOwnerDatasetTwoRelatedEntity,
+                            hasOwnerDatasetThreeRelatedEntity, hasOwnerDatasetFourRelatedEntity)
+            },
+            new Object[] {
+                    EMPTY_FILTER,
+                    getFilterFromCriteria(Collections.singletonList(
+                            newCriterion("urn", userOneUrnString, Condition.NOT_EQUAL))),
+                    Arrays.asList(hasOwner),
+                    outgoingRelationships,
+                    Arrays.asList(hasOwnerUserTwoRelatedEntity)
+            },
+            new Object[] {
+                    EMPTY_FILTER,
+                    getFilterFromCriteria(Collections.singletonList(
+                            newCriterion("urn", userOneUrnString + "\" OR \"\" = \"", Condition.NOT_EQUAL))),
+                    Arrays.asList(hasOwner),
+                    outgoingRelationships,
+                    Arrays.asList(hasOwnerUserOneRelatedEntity, hasOwnerUserTwoRelatedEntity)
+            },
+            new Object[] {
+                    getFilterFromCriteria(Collections.singletonList(
+                            newCriterion("urn", "", Condition.EXISTS))),
+                    EMPTY_FILTER,
+                    Arrays.asList(downstreamOf),
+                    outgoingRelationships,
+                    Arrays.asList(downstreamOfDatasetOneRelatedEntity, downstreamOfDatasetTwoRelatedEntity)
+            }
+    };
+  }
+
+  @Test(dataProvider = "FindRelatedEntitiesFilterConditionTests")
+  public void testFindRelatedEntitiesFilterCondition(Filter sourceEntityFilter,
+                                                     Filter destinationEntityFilter,
+                                                     List<String> relationshipTypes,
+                                                     RelationshipFilter relationships,
+                                                     List<RelatedEntity> expectedRelatedEntities) throws Exception {
+    doTestFindRelatedEntities(
+            sourceEntityFilter,
+            destinationEntityFilter,
+            relationshipTypes,
+            relationships,
+            expectedRelatedEntities
+    );
+  }
+
   private void doTestFindRelatedEntities(
           final Filter sourceEntityFilter,
           final Filter destinationEntityFilter,
@@ -969,6 +1037,68 @@ abstract public class GraphServiceTestBase {
     Assert.assertEquals(individualRelatedEntities, allRelatedEntities.entities);
   }
 
+  @Test
+  public void testCountRelatedEntities() throws Exception {
+    GraphService service = getPopulatedGraphService();
+
+    // populated graph asserted in testPopulatedGraphService
+    assertEquals(service.countRelatedEntities(
+            anyType, newFilter("urn", datasetTwoUrnString),
+            anyType, EMPTY_FILTER,
+            Arrays.asList(downstreamOf, hasOwner), outgoingRelationships
+    ), 2);
+    assertEquals(service.countRelatedEntities(
+            anyType, newFilter("urn", userOneUrnString),
+            anyType, EMPTY_FILTER,
+            Arrays.asList(hasOwner), incomingRelationships
+    ), 2);
+    assertEquals(service.countRelatedEntities(
+            anyType, newFilter("urn", datasetTwoUrnString),
+            anyType, EMPTY_FILTER,
+            Collections.emptyList(), outgoingRelationships
+    ), 0);
+    assertEquals(service.countRelatedEntities(
+            anyType, newFilter("urn", unknownUrnString),
+            anyType, EMPTY_FILTER,
+            Arrays.asList(downstreamOf, hasOwner), outgoingRelationships
+    ), 0);
+  }
+
+  @Test
+  public void testCountRelatedEntitiesCountsEdges() throws Exception {
+    GraphService service = getPopulatedGraphService();
+
+    // userOne and userTwo own two datasets each
+    assertEquals(service.countRelatedEntities(
+            datasetType, EMPTY_FILTER,
+            anyType, EMPTY_FILTER,
+            Arrays.asList(hasOwner), outgoingRelationships
+    ), 4);
+    assertEquals(service.findRelatedEntities(
+            datasetType, EMPTY_FILTER,
+            anyType, EMPTY_FILTER,
+            Arrays.asList(hasOwner), outgoingRelationships,
+            0, 10
+    ).entities.stream().distinct().count(), 2);
+  }
+
+  @Test
+  public void testBatchCountRelatedEntities() throws Exception {
+    GraphService service = getPopulatedGraphService();
+
+    // populated graph asserted in testPopulatedGraphService
+    Map<String, Integer> counts = service.batchCountRelatedEntities(
+            Arrays.asList(datasetOneUrnString, datasetTwoUrnString, unknownUrnString),
+            Arrays.asList(downstreamOf, hasOwner), outgoingRelationships
+    );
+
+    Map<String, Integer> expectedCounts = new HashMap<>();
+    expectedCounts.put(datasetOneUrnString, 1);
+    expectedCounts.put(datasetTwoUrnString, 2);
+    expectedCounts.put(unknownUrnString, 0);
+    assertEquals(counts, expectedCounts);
+  }
+
   @DataProvider(name = "RemoveEdgesFromNodeTests")
   public Object[][] getRemoveEdgesFromNodeTests() {
     return new Object[][] {
@@ -1192,6 +1322,36 @@ abstract public class GraphServiceTestBase {
     assertEqualsAnyOrder(relatedOutgoingEntitiesAfterRemove, relatedOutgoingEntitiesBeforeRemove);
   }
 
+  @Test
+  public void testRemoveEdge() throws Exception {
+    GraphService service = getPopulatedGraphService();
+
+    service.removeEdge(new Edge(datasetThreeUrn, userTwoUrn, hasOwner));
+    syncAfterWrite();
+
+    // assert the edge is gone
+    assertEqualsAnyOrder(
+            service.findRelatedEntities(
+                    anyType, newFilter("urn", userTwoUrnString),
+                    anyType, EMPTY_FILTER,
+                    Arrays.asList(hasOwner), incomingRelationships,
+                    0, 100
+            ),
+            Arrays.asList(hasOwnerDatasetFourRelatedEntity)
+    );
+
+    // assert the other edges of the source node are kept
+    assertEqualsAnyOrder(
+            service.findRelatedEntities(
+                    anyType, newFilter("urn", datasetThreeUrnString),
+                    anyType, EMPTY_FILTER,
+                    Arrays.asList(downstreamOf, hasOwner), outgoingRelationships,
+                    0, 100
+            ),
+            Arrays.asList(downstreamOfDatasetTwoRelatedEntity)
+    );
+  }
+
   @Test
   public void testRemoveNode() throws Exception {
     GraphService service = getPopulatedGraphService();
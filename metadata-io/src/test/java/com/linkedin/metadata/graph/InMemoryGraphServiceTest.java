@@ -0,0 +1,108 @@
+package com.linkedin.metadata.graph;
+
+import com.linkedin.common.urn.Urn;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+
+import static com.linkedin.metadata.search.utils.QueryUtils.EMPTY_FILTER;
+import static com.linkedin.metadata.search.utils.QueryUtils.newFilter;
+import static org.testng.Assert.assertEquals;
+
+
+public class InMemoryGraphServiceTest extends GraphServiceTestBase {
+
+  private InMemoryGraphService _client;
+
+  @BeforeMethod
+  public void init() {
+    _client = new InMemoryGraphService();
+  }
+
+  @Nonnull
+  @Override
+  protected GraphService getGraphService() {
+    _client.clear();
+    return _client;
+  }
+
+  @Override
+  protected void syncAfterWrite() {
+  }
+
+  @Test
+  public void testHighDegreeNode() throws Exception {
+    InMemoryGraphService service = (InMemoryGraphService) getGraphService();
+    int degree = 1000;
+    for (int i = 0; i < degree; i++) {
+      service.addEdge(new Edge(getDownstream(i), datasetOneUrn, downstreamOf));
+      // adding an edge again is a no-op
+      service.addEdge(new Edge(getDownstream(i), datasetOneUrn, downstreamOf));
+    }
+    assertEquals(countDownstreams(service), degree);
+
+    // removing every other edge leaves the others in place, in both directions
+    for (int i = 0; i < degree; i += 2) {
+      service.removeEdge(new Edge(getDownstream(i), datasetOneUrn, downstreamOf));
+    }
+    assertEquals(countDownstreams(service), degree / 2);
+    for (int i = 0; i < degree; i++) {
+      assertEquals(service.countRelatedEntities(anyType, newFilter("urn", getDownstream(i).toString()), anyType,
+          EMPTY_FILTER, Collections.singletonList(downstreamOf), outgoingRelationships), i % 2);
+    }
+
+    for (int i = 1; i < degree; i += 2) {
+      service.removeEdge(new Edge(getDownstream(i), datasetOneUrn, downstreamOf));
+    }
+    assertEquals(countDownstreams(service), 0);
+  }
+
+  @Test
+  public void testCountUndirectedEdgesOnce() throws Exception {
+    GraphService service = getPopulatedGraphService();
+
+    // both ends of the four hasOwner edges match the source filter
+    assertEquals(service.countRelatedEntities(anyType, EMPTY_FILTER, anyType, EMPTY_FILTER,
+        Collections.singletonList(hasOwner), undirectedRelationships), 4);
+    assertEquals(service.countRelatedEntities(anyType, newFilter("urn", userOneUrnString), anyType, EMPTY_FILTER,
+        Collections.singletonList(hasOwner), undirectedRelationships), 2);
+  }
+
+  @Test
+  public void testChangesDuringRestoreAreApplied() throws Exception {
+    InMemoryGraphService service = (InMemoryGraphService) getGraphService();
+    service.beginRestore();
+
+    // changes made during the restore are not visible until it ends
+    service.addEdge(new Edge(datasetTwoUrn, datasetOneUrn, downstreamOf));
+    service.removeEdge(new Edge(datasetThreeUrn, datasetOneUrn, downstreamOf));
+    service.removeNode(datasetFourUrn);
+    assertEquals(countDownstreams(service), 0);
+
+    // the restore read the aspects before the changes
+    service.restoreEdge(new Edge(datasetThreeUrn, datasetOneUrn, downstreamOf));
+    service.restoreEdge(new Edge(datasetFourUrn, datasetOneUrn, downstreamOf));
+    assertEquals(countDownstreams(service), 2);
+
+    service.endRestore();
+    assertEquals(service.findRelatedEntities(anyType, newFilter("urn", datasetOneUrnString), anyType, EMPTY_FILTER,
+        Collections.singletonList(downstreamOf), incomingRelationships, 0, 10).getEntities(),
+        Collections.singletonList(new RelatedEntity(downstreamOf, datasetTwoUrnString)));
+
+    // changes after the restore are applied right away
+    service.removeEdge(new Edge(datasetTwoUrn, datasetOneUrn, downstreamOf));
+    assertEquals(countDownstreams(service), 0);
+  }
+
+  @Nonnull
+  private static Urn getDownstream(int i) throws Exception {
+    return Urn.createFromString("urn:li:" + datasetType + ":(urn:li:dataPlatform:type,Downstream" + i + ",PROD)");
+  }
+
+  private static int countDownstreams(@Nonnull GraphService service) {
+    return service.countRelatedEntities(anyType, newFilter("urn", datasetOneUrnString), anyType, EMPTY_FILTER,
+        Collections.singletonList(downstreamOf), incomingRelationships);
+  }
+}
@@ -8,6 +8,7 @@ import com.linkedin.common.urn.TestEntityUrn;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.cache.EntityDocCountCache;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
@@ -47,6 +48,7 @@ public class SearchServiceTest {
   private SettingsBuilder _settingsBuilder;
   private ElasticSearchService _elasticSearchService;
   private CacheManager _cacheManager;
+  private EntityDocCountCache _entityDocCountCache;
   private SearchService _searchService;
 
   private static final String IMAGE_NAME = "docker.elastic.co/elasticsearch/elasticsearch:7.9.3";
@@ -65,7 +67,9 @@ public class SearchServiceTest {
     _elasticSearchService = buildEntitySearchService();
     _elasticSearchService.configure();
     _cacheManager = new ConcurrentMapCacheManager();
-    _searchService = new SearchService(_entityRegistry, _elasticSearchService, new SimpleRanker(), _cacheManager, 100);
+    _entityDocCountCache = new EntityDocCountCache(_entityRegistry, _elasticSearchService, 0);
+    _searchService = new SearchService(_entityRegistry, _elasticSearchService, new SimpleRanker(), _cacheManager,
+        _entityDocCountCache, 100);
   }
 
   @BeforeMethod
@@ -101,6 +105,8 @@ public class SearchServiceTest {
 
   private void clearCache() {
     _cacheManager.getCacheNames().forEach(cache -> _cacheManager.getCache(cache).clear());
+    // Documents are written directly to the index, not through the change log
+    _entityDocCountCache.refresh();
   }
 
   @AfterTest
@@ -1,21 +1,35 @@
 package com.linkedin.metadata.search.cache;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Streams;
 import com.linkedin.common.urn.TestEntityUrn;
 import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.DoubleMap;
+import com.linkedin.data.template.StringMap;
 import com.linkedin.metadata.search.AggregationMetadataArray;
+import com.linkedin.metadata.search.MatchedField;
+import com.linkedin.metadata.search.MatchedFieldArray;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchEntityArray;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchResultMetadata;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 
@@ -85,6 +99,74 @@ public class CacheableSearcherTest {
             getUrns(0, 40).stream(), getUrns(0, 5).stream()).collect(Collectors.toList()));
   }
 
+  @Test
+  public void testCacheableSearcherFetchesDeepPageDirectly() {
+    Set<Integer> fetchedBatches = ConcurrentHashMap.newKeySet();
+    Cache cache = cacheManager.getCache("directBatchSearcher");
+    // Prefetches run right away on the calling thread
+    CacheableSearcher<Integer> directBatchSearcher = new CacheableSearcher<>(cache, 10, qs -> {
+      fetchedBatches.add(qs.getFrom());
+      return getSearchResult(qs, 10);
+    }, CacheableSearcher.QueryPagination::getFrom, true, Runnable::run);
+
+    SearchResult result = directBatchSearcher.getSearchResults(505, 10);
+    assertEquals(result.getNumEntities().intValue(), 1000);
+    assertEquals(result.getEntities().stream().map(SearchEntity::getEntity).collect(Collectors.toList()),
+        Streams.concat(getUrns(5, 10).stream(), getUrns(0, 5).stream()).collect(Collectors.toList()));
+    assertTrue(fetchedBatches.contains(500));
+    assertTrue(fetchedBatches.contains(510));
+    assertFalse(fetchedBatches.contains(0));
+
+    // The batch following the page is prefetched
+    assertNotNull(cache.get(520));
+  }
+
+  @Test
+  public void testCacheableSearcherSkipsPrefetchWhenRejected() {
+    Set<Integer> fetchedBatches = ConcurrentHashMap.newKeySet();
+    Cache cache = cacheManager.getCache("rejectingBatchSearcher");
+    CacheableSearcher<Integer> searcher = new CacheableSearcher<>(cache, 10, qs -> {
+      fetchedBatches.add(qs.getFrom());
+      return getSearchResult(qs, 10);
+    }, CacheableSearcher.QueryPagination::getFrom, true, command -> {
+      throw new RejectedExecutionException();
+    });
+
+    SearchResult result = searcher.getSearchResults(0, 10);
+    assertEquals(result.getEntities().size(), 10);
+    assertEquals(fetchedBatches, ImmutableSet.of(0));
+    assertNull(cache.get(10));
+  }
+
+  @Test
+  public void testCacheableSearcherKeepsMatchedFieldsFeaturesAndDocumentFields() {
+    List<Urn> urns = getUrns(0, 3);
+    List<SearchEntity> searchEntities = ImmutableList.of(
+        new SearchEntity().setEntity(urns.get(0))
+            .setMatchedFields(new MatchedFieldArray(ImmutableList.of(
+                new MatchedField().setName("name").setValue("test"),
+                new MatchedField().setName("description").setValue("a test"))))
+            .setFeatures(new DoubleMap(ImmutableMap.of("SEARCH_BACKEND_SCORE", 1.0)))
+            .setDocumentFields(new StringMap(ImmutableMap.of("name", "test", "description", "a test"))),
+        // Neither matched fields, features nor document fields
+        new SearchEntity().setEntity(urns.get(1)),
+        // Only some of the features of the batch, and an empty map of document fields
+        new SearchEntity().setEntity(urns.get(2))
+            .setFeatures(new DoubleMap(ImmutableMap.of("SEARCH_BACKEND_SCORE", 0.5, "NUM_ENTITIES_PER_TYPE", 2.0)))
+            .setDocumentFields(new StringMap()));
+    CacheableSearcher<Integer> searcher = new CacheableSearcher<>(cacheManager.getCache("matchedFieldsSearcher"), 10,
+        qs -> getEmptySearchResult(qs).setNumEntities(3).setEntities(new SearchEntityArray(searchEntities)),
+        CacheableSearcher.QueryPagination::getFrom);
+
+    SearchResult result = searcher.getSearchResults(0, 10);
+    assertEquals(result.getEntities(), new SearchEntityArray(searchEntities));
+    // Served from the cache
+    assertEquals(searcher.getSearchResults(0, 10).getEntities(), new SearchEntityArray(searchEntities));
+    assertEquals(searcher.getSearchResults(1, 2).getEntities(), new SearchEntityArray(searchEntities.subList(1, 3)));
+    assertFalse(result.getEntities().get(1).hasDocumentFields());
+    assertTrue(result.getEntities().get(2).hasDocumentFields());
+  }
+
   private SearchResult getEmptySearchResult(CacheableSearcher.QueryPagination queryPagination) {
     return new SearchResult().setEntities(new SearchEntityArray())
         .setNumEntities(0)
@@ -0,0 +1,77 @@
+package com.linkedin.metadata.search.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.entity.TestEntityRegistry;
+import com.linkedin.metadata.search.EntitySearchService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+
+public class EntityDocCountCacheTest {
+  private static final String ENTITY_NAME = "testentity";
+
+  private EntitySearchService _entitySearchService;
+  private EntityDocCountCache _entityDocCountCache;
+
+  @BeforeMethod
+  public void setup() {
+    _entitySearchService = mock(EntitySearchService.class);
+    _entityDocCountCache = new EntityDocCountCache(new TestEntityRegistry(), _entitySearchService, 0);
+  }
+
+  @Test
+  public void testCountsAreLoadedOnce() {
+    when(_entitySearchService.docCounts(any())).thenReturn(ImmutableMap.of(ENTITY_NAME, 0L, "otherEntity", 2L));
+
+    assertTrue(_entityDocCountCache.getNonEmptyEntities().isEmpty());
+    assertEquals(_entityDocCountCache.getCount(ENTITY_NAME), 0);
+    // Entity names are matched case insensitively
+    assertEquals(_entityDocCountCache.getCount("testEntity"), 0);
+
+    // All counts are loaded with one request, and none are counted one by one
+    verify(_entitySearchService, times(1)).docCounts(any());
+    verify(_entitySearchService, never()).docCount(anyString());
+  }
+
+  @Test
+  public void testRefresh() {
+    when(_entitySearchService.docCounts(any())).thenReturn(ImmutableMap.of(ENTITY_NAME, 5L));
+    assertEquals(_entityDocCountCache.getCount(ENTITY_NAME), 5);
+    assertEquals(_entityDocCountCache.getNonEmptyEntities(), ImmutableList.of(ENTITY_NAME));
+
+    // Counts are stale until the next refresh
+    when(_entitySearchService.docCounts(any())).thenReturn(ImmutableMap.of(ENTITY_NAME, 0L));
+    assertEquals(_entityDocCountCache.getCount(ENTITY_NAME), 5);
+
+    _entityDocCountCache.refresh();
+    assertEquals(_entityDocCountCache.getCount(ENTITY_NAME), 0);
+    assertTrue(_entityDocCountCache.getNonEmptyEntities().isEmpty());
+  }
+
+  @Test
+  public void testRefreshOnSchedule() {
+    when(_entitySearchService.docCounts(any())).thenReturn(ImmutableMap.of(ENTITY_NAME, 1L));
+    final EntityDocCountCache entityDocCountCache =
+        new EntityDocCountCache(new TestEntityRegistry(), _entitySearchService, 1);
+    try {
+      assertEquals(entityDocCountCache.getCount(ENTITY_NAME), 1);
+      when(_entitySearchService.docCounts(any())).thenReturn(ImmutableMap.of(ENTITY_NAME, 3L));
+      verify(_entitySearchService, timeout(10000).atLeast(2)).docCounts(any());
+    } finally {
+      entityDocCountCache.close();
+    }
+  }
+}
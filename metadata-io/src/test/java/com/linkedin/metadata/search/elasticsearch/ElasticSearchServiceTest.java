@@ -3,11 +3,14 @@ package com.linkedin.metadata.search.elasticsearch;
 import com.datahub.test.Snapshot;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.linkedin.common.urn.TestEntityUrn;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.metadata.browse.BrowseResult;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
@@ -19,6 +22,9 @@ import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import org.apache.http.HttpHost;
 import org.apache.http.impl.nio.reactor.IOReactorConfig;
@@ -39,6 +45,8 @@ import org.testng.annotations.Test;
 import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
 import static com.linkedin.metadata.ElasticSearchTestUtils.syncAfterWrite;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 
 public class ElasticSearchServiceTest {
@@ -137,6 +145,14 @@ public class ElasticSearchServiceTest {
     searchResult = _elasticSearchService.search(ENTITY_NAME, "test", null, null, 0, 10);
     assertEquals(searchResult.getNumEntities().intValue(), 1);
     assertEquals(searchResult.getEntities().get(0).getEntity(), urn);
+    Map<String, SearchResult> multiSearchResults =
+        _elasticSearchService.multiSearch(ImmutableList.of(ENTITY_NAME), "test", null, null, 0, 10);
+    assertEquals(multiSearchResults.keySet(), ImmutableSet.of(ENTITY_NAME));
+    assertEquals(multiSearchResults.get(ENTITY_NAME).getNumEntities().intValue(), 1);
+    assertEquals(multiSearchResults.get(ENTITY_NAME).getEntities().get(0).getEntity(), urn);
+    // Prefixes shorter than the partial match ngrams are autocompleted too
+    assertEquals(_elasticSearchService.autoComplete(ENTITY_NAME, "te", null, null, 10).getSuggestions(),
+        ImmutableList.of("test"));
     browseResult = _elasticSearchService.browse(ENTITY_NAME, "", null, 0, 10);
     assertEquals(browseResult.getMetadata().getTotalNumEntities().longValue(), 1);
     assertEquals(browseResult.getGroups().get(0).getName(), "a");
@@ -159,6 +175,18 @@ public class ElasticSearchServiceTest {
     searchResult = _elasticSearchService.search(ENTITY_NAME, "test", null, null, 0, 10);
     assertEquals(searchResult.getNumEntities().intValue(), 1);
     assertEquals(searchResult.getEntities().get(0).getEntity(), urn);
+    ScrollResult scrollResult = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, null, 1);
+    assertEquals(scrollResult.getNumEntities().intValue(), 2);
+    assertEquals(scrollResult.getEntities().size(), 1);
+    Set<Urn> scrolledUrns = new HashSet<>();
+    scrolledUrns.add(scrollResult.getEntities().get(0).getEntity());
+    scrollResult = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, scrollResult.getScrollId(), 1);
+    assertEquals(scrollResult.getEntities().size(), 1);
+    scrolledUrns.add(scrollResult.getEntities().get(0).getEntity());
+    assertEquals(scrolledUrns, ImmutableSet.of(urn, urn2));
+    scrollResult = _elasticSearchService.scroll(ENTITY_NAME, "", null, null, scrollResult.getScrollId(), 1);
+    assertTrue(scrollResult.getEntities().isEmpty());
+    assertFalse(scrollResult.hasScrollId());
     browseResult = _elasticSearchService.browse(ENTITY_NAME, "", null, 0, 10);
     assertEquals(browseResult.getMetadata().getTotalNumEntities().longValue(), 2);
     assertEquals(browseResult.getGroups().get(0).getName(), "a");
@@ -0,0 +1,42 @@
+package com.linkedin.metadata.search.elasticsearch.indexbuilder;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class ESIndexBuilderTest {
+
+  private static final Map<String, Object> KEYWORD = ImmutableMap.of("type", "keyword");
+  private static final Map<String, Object> OLD_MAPPINGS =
+      ImmutableMap.of("properties", ImmutableMap.of("urn", KEYWORD, "name", KEYWORD));
+
+  @Test
+  public void testIsCompatibleAddition() {
+    assertTrue(ESIndexBuilder.isCompatibleAddition(OLD_MAPPINGS, OLD_MAPPINGS, false));
+
+    // New fields can be added in place
+    Map<String, Object> newField =
+        ImmutableMap.of("properties", ImmutableMap.of("urn", KEYWORD, "name", KEYWORD, "description", KEYWORD));
+    assertTrue(ESIndexBuilder.isCompatibleAddition(newField, OLD_MAPPINGS, false));
+
+    // Removing or changing a field requires a reindex
+    Map<String, Object> removedField = ImmutableMap.of("properties", ImmutableMap.of("urn", KEYWORD));
+    assertFalse(ESIndexBuilder.isCompatibleAddition(removedField, OLD_MAPPINGS, false));
+    Map<String, Object> changedField =
+        ImmutableMap.of("properties", ImmutableMap.of("urn", KEYWORD, "name", ImmutableMap.of("type", "text")));
+    assertFalse(ESIndexBuilder.isCompatibleAddition(changedField, OLD_MAPPINGS, false));
+
+    // So does adding a subfield or a parameter to an existing field, as existing documents need to be reindexed
+    Map<String, Object> newSubfield = ImmutableMap.of("properties", ImmutableMap.of("urn", KEYWORD, "name",
+        ImmutableMap.of("type", "keyword", "fields", ImmutableMap.of("delimited", ImmutableMap.of("type", "text")))));
+    assertFalse(ESIndexBuilder.isCompatibleAddition(newSubfield, OLD_MAPPINGS, false));
+
+    // Top level additions are not compatible either
+    Map<String, Object> newTopLevel = ImmutableMap.of("properties", OLD_MAPPINGS.get("properties"), "dynamic", "false");
+    assertFalse(ESIndexBuilder.isCompatibleAddition(newTopLevel, OLD_MAPPINGS, false));
+  }
+}
@@ -47,6 +47,12 @@ public class MappingsBuilderTest {
     assertTrue(textFieldSubfields.containsKey("delimited"));
     assertTrue(textFieldSubfields.containsKey("keyword"));
 
+    // TEXT with autocomplete
+    Map<String, Object> keyPart1 = (Map<String, Object>) properties.get("keyPart1");
+    Map<String, Object> keyPart1Subfields = (Map<String, Object>) keyPart1.get("fields");
+    assertEquals(keyPart1Subfields.get("autocomplete"),
+        ImmutableMap.of("type", "text", "analyzer", "autocomplete", "search_analyzer", "autocomplete_search"));
+
     // TEXT_PARTIAL
     Map<String, Object> textArrayField = (Map<String, Object>) properties.get("textArrayField");
     assertEquals(textArrayField.get("type"), "keyword");
@@ -0,0 +1,89 @@
+package com.linkedin.metadata.search.elasticsearch.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.search.elasticsearch.indexbuilder.ESIndexBuilder;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.Collections;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.get.GetRequest;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class ESBrowseTreeDAOTest {
+  private RestHighLevelClient _mockClient;
+  private BulkProcessor _mockBulkProcessor;
+  private ESBrowseTreeDAO _browseTreeDAO;
+
+  @BeforeMethod
+  public void setup() {
+    _mockClient = mock(RestHighLevelClient.class);
+    _mockBulkProcessor = mock(BulkProcessor.class);
+    _browseTreeDAO = new ESBrowseTreeDAO(_mockClient, new IndexConventionImpl(null), mock(ESIndexBuilder.class),
+        _mockBulkProcessor);
+  }
+
+  @Test
+  public void testGetBrowseGroups() {
+    assertTrue(ESBrowseTreeDAO.getBrowseGroups(Collections.emptyList()).isEmpty());
+    // Entities directly under the root are in no group
+    assertTrue(ESBrowseTreeDAO.getBrowseGroups(ImmutableList.of("/subs_new_bookings")).isEmpty());
+    assertEquals(ESBrowseTreeDAO.getBrowseGroups(ImmutableList.of("/prod/hive/db/table")),
+        ImmutableSet.of("/prod", "/prod/hive", "/prod/hive/db"));
+    // Groups shared by several browse paths are counted once
+    assertEquals(ESBrowseTreeDAO.getBrowseGroups(ImmutableList.of("/prod/hive/table", "/prod/kafka/table")),
+        ImmutableSet.of("/prod", "/prod/hive", "/prod/kafka"));
+  }
+
+  @Test
+  public void testSetRemovedOfEntityNotInTree() throws Exception {
+    Urn urn = new Urn("urn:li:testing:1");
+    GetResponse notFound = mock(GetResponse.class);
+    when(notFound.isExists()).thenReturn(false);
+    when(_mockClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(notFound);
+
+    _browseTreeDAO.setRemoved("testing", urn, true);
+    _browseTreeDAO.setRemoved("testing", urn, false);
+
+    // No entity document without paths is written, which would hide the browse paths of the entity index
+    verify(_mockClient, never()).index(any(IndexRequest.class), any(RequestOptions.class));
+    verify(_mockBulkProcessor, never()).add(any(UpdateRequest.class));
+    assertNull(_browseTreeDAO.getBrowsePaths(urn));
+  }
+
+  @Test
+  public void testSetRemovedOfEntityInTree() throws Exception {
+    Urn urn = new Urn("urn:li:testing:1");
+    GetResponse found = mock(GetResponse.class);
+    when(found.isExists()).thenReturn(true);
+    when(found.getSourceAsMap()).thenReturn(
+        ImmutableMap.of("paths", ImmutableList.of("/prod/hive/table"), "removed", false));
+    when(_mockClient.get(any(GetRequest.class), eq(RequestOptions.DEFAULT))).thenReturn(found);
+
+    _browseTreeDAO.setRemoved("testing", urn, true);
+
+    ArgumentCaptor<IndexRequest> indexRequest = ArgumentCaptor.forClass(IndexRequest.class);
+    verify(_mockClient).index(indexRequest.capture(), eq(RequestOptions.DEFAULT));
+    assertEquals(indexRequest.getValue().sourceAsMap().get("paths"), ImmutableList.of("/prod/hive/table"));
+    assertEquals(indexRequest.getValue().sourceAsMap().get("removed"), true);
+  }
+}
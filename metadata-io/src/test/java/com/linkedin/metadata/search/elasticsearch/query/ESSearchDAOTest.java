@@ -0,0 +1,141 @@
+package com.linkedin.metadata.search.elasticsearch.query;
+
+import com.datahub.test.Snapshot;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.models.registry.SnapshotEntityRegistry;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.metadata.search.SearchResult;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.util.List;
+import org.apache.lucene.search.TotalHits;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.ParsedTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+
+public class ESSearchDAOTest {
+  private static final String ENTITY_NAME = "testEntity";
+  private static final String FACET = "textFieldOverride";
+
+  private RestHighLevelClient _mockClient;
+  private ESSearchDAO _searchDAO;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _mockClient = mock(RestHighLevelClient.class);
+    _searchDAO =
+        new ESSearchDAO(new SnapshotEntityRegistry(new Snapshot()), _mockClient, new IndexConventionImpl(null), 0, 0,
+            60, 100);
+    // Searches with facets get their aggregations back, hits only searches do not
+    final SearchResponse withFacets = makeResponse(makeAggregations(3L));
+    final SearchResponse withoutFacets = makeResponse(null);
+    when(_mockClient.search(any(SearchRequest.class), any(RequestOptions.class))).thenAnswer(
+        invocation -> ((SearchRequest) invocation.getArgument(0)).source().aggregations() == null ? withoutFacets
+            : withFacets);
+  }
+
+  private static SearchResponse makeResponse(Aggregations aggregations) {
+    final SearchResponse response = mock(SearchResponse.class);
+    when(response.getHits()).thenReturn(
+        new SearchHits(new SearchHit[0], new TotalHits(0, TotalHits.Relation.EQUAL_TO), 0));
+    when(response.getAggregations()).thenReturn(aggregations);
+    return response;
+  }
+
+  private static Aggregations makeAggregations(long docCount) {
+    final Terms.Bucket bucket = mock(Terms.Bucket.class);
+    when(bucket.getKeyAsString()).thenReturn("value");
+    when(bucket.getDocCount()).thenReturn(docCount);
+    final ParsedTerms terms = mock(ParsedTerms.class);
+    when(terms.getName()).thenReturn(FACET);
+    doReturn(ImmutableList.of(bucket)).when(terms).getBuckets();
+    return new Aggregations(ImmutableList.of(terms));
+  }
+
+  private static Filter makeFilter(String value) {
+    return new Filter().setOr(new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(new CriterionArray(
+        new Criterion().setField(FACET).setCondition(Condition.EQUAL).setValue(value)))));
+  }
+
+  private List<SearchRequest> getSearchRequests(int count) throws Exception {
+    final ArgumentCaptor<SearchRequest> requests = ArgumentCaptor.forClass(SearchRequest.class);
+    verify(_mockClient, times(count)).search(requests.capture(), any(RequestOptions.class));
+    return requests.getAllValues();
+  }
+
+  private static void assertFacets(SearchResult result) {
+    assertEquals(result.getMetadata().getAggregations().size(), 1);
+    assertEquals(result.getMetadata().getAggregations().get(0).getName(), FACET);
+    assertEquals(result.getMetadata().getAggregations().get(0).getAggregations(), ImmutableMap.of("value", 3L));
+  }
+
+  @Test
+  public void testFacetsAreCachedAcrossPagesAndSpacing() throws Exception {
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test  query", null, null, 0, 10));
+    // The same query with other spacing, on another page
+    assertFacets(_searchDAO.search(ENTITY_NAME, " test query ", null, null, 10, 10));
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test\tquery", null, null, 20, 5));
+
+    final List<SearchRequest> requests = getSearchRequests(3);
+    assertNotNull(requests.get(0).source().aggregations());
+    // Later searches only query the hits
+    assertNull(requests.get(1).source().aggregations());
+    assertNull(requests.get(2).source().aggregations());
+    assertEquals(requests.get(1).source().from(), 10);
+    assertEquals(requests.get(2).source().size(), 5);
+  }
+
+  @Test
+  public void testFacetsAreNotSharedAcrossFiltersOrCase() throws Exception {
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test query", makeFilter("a"), null, 0, 10));
+    // Other filters, no filters and a query of another case have their own facets
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test query", makeFilter("b"), null, 0, 10));
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test query", null, null, 0, 10));
+    assertFacets(_searchDAO.search(ENTITY_NAME, "Test Query", null, null, 0, 10));
+    // While equal filters hit the cache
+    assertFacets(_searchDAO.search(ENTITY_NAME, "test query", makeFilter("a"), null, 10, 10));
+
+    final List<SearchRequest> requests = getSearchRequests(5);
+    for (int i = 0; i < 4; i++) {
+      assertNotNull(requests.get(i).source().aggregations());
+    }
+    assertNull(requests.get(4).source().aggregations());
+  }
+
+  @Test
+  public void testFacetsAreNotCachedWhenDisabled() throws Exception {
+    final ESSearchDAO uncached =
+        new ESSearchDAO(new SnapshotEntityRegistry(new Snapshot()), _mockClient, new IndexConventionImpl(null));
+    assertFacets(uncached.search(ENTITY_NAME, "test query", null, null, 0, 10));
+    assertFacets(uncached.search(ENTITY_NAME, "test query", null, null, 10, 10));
+
+    for (SearchRequest request : getSearchRequests(2)) {
+      assertNotNull(request.source().aggregations());
+    }
+  }
+}
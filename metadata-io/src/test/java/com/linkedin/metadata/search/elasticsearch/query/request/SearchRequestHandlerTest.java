@@ -13,6 +13,7 @@ import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 
 
@@ -43,4 +44,14 @@ public class SearchRequestHandlerTest {
       assertTrue(fields.contains(field + ".*"));
     });
   }
+
+  @Test
+  public void testSearchRequestWithoutAggregations() {
+    SearchRequestHandler requestHandler = SearchRequestHandler.getBuilder(TestEntitySpecBuilder.getSpec());
+    SearchRequest searchRequest = requestHandler.getSearchRequest("testQuery", null, null, 0, 10, false);
+    SearchSourceBuilder sourceBuilder = searchRequest.source();
+    assertNull(sourceBuilder.aggregations());
+    // Only the facets are left out
+    assertEquals(sourceBuilder.query(), requestHandler.getSearchRequest("testQuery", null, null, 0, 10).source().query());
+  }
 }
@@ -0,0 +1,113 @@
+package com.linkedin.metadata.search.elasticsearch.update;
+
+import java.util.List;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class AdaptiveBulkSenderTest {
+  private static final long MAX_BATCH_BYTES = 10 * 1024 * 1024;
+  private static final long MIN_BATCH_BYTES = 64 * 1024;
+  private static final long TARGET_LATENCY_MS = 1000;
+
+  private static IndexRequest indexRequest(String id, int sourceSize) {
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < sourceSize; i++) {
+      value.append('a');
+    }
+    return new IndexRequest("index").id(id).source("{\"field\":\"" + value + "\"}", XContentType.JSON);
+  }
+
+  @Test
+  public void testSplit() {
+    BulkRequest request = new BulkRequest().add(indexRequest("1", 100))
+        .add(indexRequest("2", 100))
+        .add(new DeleteRequest("index").id("3"))
+        .add(indexRequest("4", 1000));
+
+    // Requests within the budget are sent as is
+    List<BulkRequest> chunks = AdaptiveBulkSender.split(request, request.estimatedSizeInBytes());
+    assertEquals(chunks.size(), 1);
+    assertSame(chunks.get(0), request);
+
+    chunks = AdaptiveBulkSender.split(request, 350);
+    assertEquals(chunks.size(), 3);
+    assertEquals(chunks.get(0).numberOfActions(), 2);
+    assertEquals(chunks.get(1).numberOfActions(), 1);
+    // A request larger than the budget gets a chunk of its own
+    assertEquals(chunks.get(2).numberOfActions(), 1);
+    assertEquals(chunks.get(2).requests().get(0).id(), "4");
+  }
+
+  @Test
+  public void testAdaptShrinksOnSlowBulks() {
+    AdaptiveBulkSender sender = new AdaptiveBulkSender(mock(RestHighLevelClient.class), MAX_BATCH_BYTES,
+        TARGET_LATENCY_MS);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES);
+
+    sender.adapt(TARGET_LATENCY_MS + 1, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 2);
+    sender.adapt(TARGET_LATENCY_MS * 5, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 4);
+    // Bulks around the target keep the size
+    sender.adapt(TARGET_LATENCY_MS, false);
+    sender.adapt(TARGET_LATENCY_MS / 2, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 4);
+  }
+
+  @Test
+  public void testAdaptShrinksOnRejections() {
+    AdaptiveBulkSender sender = new AdaptiveBulkSender(mock(RestHighLevelClient.class), MAX_BATCH_BYTES,
+        TARGET_LATENCY_MS);
+    // However fast the rejected bulk was
+    sender.adapt(0, true);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 2);
+  }
+
+  @Test
+  public void testAdaptGrowsOnFastBulks() {
+    AdaptiveBulkSender sender = new AdaptiveBulkSender(mock(RestHighLevelClient.class), MAX_BATCH_BYTES,
+        TARGET_LATENCY_MS);
+    sender.adapt(TARGET_LATENCY_MS * 2, false);
+    sender.adapt(TARGET_LATENCY_MS * 2, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 4);
+
+    // Grows back a tenth of the maximum at a time
+    sender.adapt(TARGET_LATENCY_MS / 2 - 1, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 4 + MAX_BATCH_BYTES / 10);
+    sender.adapt(0, false);
+    assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES / 4 + 2 * (MAX_BATCH_BYTES / 10));
+  }
+
+  @Test
+  public void testAdaptStaysWithinBounds() {
+    AdaptiveBulkSender sender = new AdaptiveBulkSender(mock(RestHighLevelClient.class), MAX_BATCH_BYTES,
+        TARGET_LATENCY_MS);
+    for (int i = 0; i < 20; i++) {
+      sender.adapt(0, false);
+      assertEquals(sender.getBatchBytes(), MAX_BATCH_BYTES);
+    }
+    for (int i = 0; i < 20; i++) {
+      sender.adapt(0, true);
+      assertTrue(sender.getBatchBytes() >= MIN_BATCH_BYTES);
+    }
+    assertEquals(sender.getBatchBytes(), MIN_BATCH_BYTES);
+
+    // The maximum is at least the minimum
+    AdaptiveBulkSender small = new AdaptiveBulkSender(mock(RestHighLevelClient.class), 1024, TARGET_LATENCY_MS);
+    assertEquals(small.getBatchBytes(), MIN_BATCH_BYTES);
+    small.adapt(TARGET_LATENCY_MS * 2, false);
+    assertEquals(small.getBatchBytes(), MIN_BATCH_BYTES);
+    small.adapt(0, false);
+    assertEquals(small.getBatchBytes(), MIN_BATCH_BYTES);
+  }
+}
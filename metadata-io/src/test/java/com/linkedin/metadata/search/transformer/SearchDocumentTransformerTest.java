@@ -9,6 +9,9 @@ import com.linkedin.metadata.TestEntitySpecBuilder;
 import com.linkedin.metadata.TestEntityUtil;
 import com.linkedin.metadata.models.EntitySpec;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.testng.annotations.Test;
 
@@ -25,7 +28,7 @@ public class SearchDocumentTransformerTest {
     SearchDocumentTransformer searchDocumentTransformer = new SearchDocumentTransformer(1000);
     TestEntitySnapshot snapshot = TestEntityUtil.getSnapshot();
     EntitySpec testEntitySpec = TestEntitySpecBuilder.getSpec();
-    Optional<String> result = searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, false);
+    Optional<byte[]> result = searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, false);
     assertTrue(result.isPresent());
     ObjectNode parsedJson = (ObjectNode) OBJECT_MAPPER.readTree(result.get());
     assertEquals(parsedJson.get("urn").asText(), snapshot.getUrn().toString());
@@ -50,12 +53,28 @@ public class SearchDocumentTransformerTest {
     assertEquals(browsePaths.get(1).asText(), "d/e/f");
   }
 
+  @Test
+  public void testTransformSortsFields() throws IOException {
+    SearchDocumentTransformer searchDocumentTransformer = new SearchDocumentTransformer(1000);
+    TestEntitySnapshot snapshot = TestEntityUtil.getSnapshot();
+    EntitySpec testEntitySpec = TestEntitySpecBuilder.getSpec();
+    Optional<byte[]> result = searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, false);
+    assertTrue(result.isPresent());
+    List<String> fieldNames = new ArrayList<>();
+    OBJECT_MAPPER.readTree(result.get()).fieldNames().forEachRemaining(fieldNames::add);
+    List<String> sortedFieldNames = new ArrayList<>(fieldNames);
+    Collections.sort(sortedFieldNames);
+    assertEquals(fieldNames, sortedFieldNames);
+    // Transforming the same snapshot again yields the same document
+    assertEquals(searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, false).get(), result.get());
+  }
+
   @Test
   public void testTransformForDelete() throws IOException {
     SearchDocumentTransformer searchDocumentTransformer = new SearchDocumentTransformer(1000);
     TestEntitySnapshot snapshot = TestEntityUtil.getSnapshot();
     EntitySpec testEntitySpec = TestEntitySpecBuilder.getSpec();
-    Optional<String> result = searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, true);
+    Optional<byte[]> result = searchDocumentTransformer.transformSnapshot(snapshot, testEntitySpec, true);
     assertTrue(result.isPresent());
     ObjectNode parsedJson = (ObjectNode) OBJECT_MAPPER.readTree(result.get());
     assertEquals(parsedJson.get("urn").asText(), snapshot.getUrn().toString());
@@ -0,0 +1,76 @@
+package com.linkedin.metadata.search.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.expectThrows;
+
+
+public class SingleFlightTest {
+
+  @Test
+  public void testConcurrentCallsShareOneExecution() throws Exception {
+    final int callers = 4;
+    // Counted down by the callers that joined the call in flight
+    final CountDownLatch joined = new CountDownLatch(callers - 1);
+    final SingleFlight<String, List<String>> singleFlight =
+        new SingleFlight<String, List<String>>(SingleFlightTest.class, "test") {
+          @Override
+          protected void onJoin(String key) {
+            joined.countDown();
+          }
+        };
+    final AtomicInteger calls = new AtomicInteger();
+    final ExecutorService executor = Executors.newFixedThreadPool(callers);
+    try {
+      final List<Future<List<String>>> results = new ArrayList<>();
+      for (int i = 0; i < callers; i++) {
+        results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+          calls.incrementAndGet();
+          // The call completes once the other callers joined it
+          try {
+            if (!joined.await(10, TimeUnit.SECONDS)) {
+              throw new IllegalStateException("The other callers did not join the call");
+            }
+          } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+          }
+          final List<String> result = new ArrayList<>();
+          result.add("value");
+          return result;
+        }, ArrayList::new)));
+      }
+
+      for (Future<List<String>> result : results) {
+        assertEquals(result.get(10, TimeUnit.SECONDS).get(0), "value");
+      }
+      assertEquals(calls.get(), 1);
+      // Shared results are copied
+      assertNotSame(results.get(0).get(), results.get(1).get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSequentialCallsAreNotCoalesced() {
+    final SingleFlight<String, Integer> singleFlight = new SingleFlight<>(SingleFlightTest.class, "test");
+    final AtomicInteger calls = new AtomicInteger();
+    assertEquals(singleFlight.execute("key", calls::incrementAndGet, value -> value).intValue(), 1);
+    assertEquals(singleFlight.execute("key", calls::incrementAndGet, value -> value).intValue(), 2);
+    // A failed call does not stay in flight
+    expectThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+      throw new IllegalStateException();
+    }, value -> value));
+    assertEquals(singleFlight.execute("key", calls::incrementAndGet, value -> value).intValue(), 3);
+  }
+}
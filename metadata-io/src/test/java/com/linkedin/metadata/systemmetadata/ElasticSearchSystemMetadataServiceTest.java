@@ -6,6 +6,8 @@ import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
 import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
 import com.linkedin.mxe.SystemMetadata;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import javax.annotation.Nonnull;
 import org.apache.http.HttpHost;
@@ -23,6 +25,8 @@ import static com.linkedin.metadata.DockerTestUtils.checkContainerEngine;
 import static com.linkedin.metadata.ElasticSearchTestUtils.syncAfterWrite;
 import static com.linkedin.metadata.systemmetadata.ElasticSearchSystemMetadataService.INDEX_NAME;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 
 
 public class ElasticSearchSystemMetadataServiceTest {
@@ -161,6 +165,83 @@ public class ElasticSearchSystemMetadataServiceTest {
     rows.forEach(row -> assertEquals(row.getRunId(), "abc-456"));
   }
 
+  @Test
+  public void testScrollByRunId() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setRunId("abc-123");
+    metadata1.setLastObserved(Long.valueOf(120L));
+
+    SystemMetadata metadata2 = new SystemMetadata();
+    metadata2.setRunId("abc-456");
+    metadata2.setLastObserved(Long.valueOf(240L));
+
+    _client.insert(metadata1, "urn:li:chart:1", "chartKey");
+    _client.insert(metadata2, "urn:li:chart:1", "ChartInfo");
+    _client.insert(metadata2, "urn:li:chart:1", "Ownership");
+    _client.insert(metadata2, "urn:li:chart:2", "chartKey");
+    _client.insert(metadata2, "urn:li:chart:2", "Ownership");
+    _client.insert(metadata2, "urn:li:chart:3", "chartKey");
+
+    syncAfterWrite(_searchClient, _indexName);
+
+    SystemMetadataScrollResult page = _client.scrollByRunId("abc-456", null, 2);
+    assertEquals(page.getRows().size(), 2);
+    assertNotNull(page.getScrollId());
+    List<AspectRowSummary> rows = new ArrayList<>(page.getRows());
+
+    // Deleting rows already listed does not move the following pages
+    _client.deleteUrn("urn:li:chart:1");
+    syncAfterWrite(_searchClient, _indexName);
+
+    page = _client.scrollByRunId("abc-456", page.getScrollId(), 2);
+    assertEquals(page.getRows().size(), 2);
+    rows.addAll(page.getRows());
+    page = _client.scrollByRunId("abc-456", page.getScrollId(), 2);
+    assertEquals(page.getRows().size(), 1);
+    assertNull(page.getScrollId());
+    rows.addAll(page.getRows());
+
+    assertEquals(rows.size(), 5);
+    assertEquals(new HashSet<>(rows).size(), 5);
+    rows.forEach(row -> assertEquals(row.getRunId(), "abc-456"));
+  }
+
+  @Test
+  public void testScrollByRegistry() throws Exception {
+    SystemMetadata metadata1 = new SystemMetadata();
+    metadata1.setRunId("abc-123");
+    metadata1.setRegistryName("plugin");
+    metadata1.setRegistryVersion("0.0.1");
+
+    SystemMetadata metadata2 = new SystemMetadata();
+    metadata2.setRunId("abc-456");
+    metadata2.setRegistryName("plugin");
+    metadata2.setRegistryVersion("0.0.2");
+
+    _client.insert(metadata1, "urn:li:chart:1", "chartKey");
+    _client.insert(metadata2, "urn:li:chart:1", "ChartInfo");
+    _client.insert(metadata1, "urn:li:chart:2", "chartKey");
+    _client.insert(metadata1, "urn:li:chart:2", "Ownership");
+    _client.insert(metadata1, "urn:li:chart:3", "chartKey");
+
+    syncAfterWrite(_searchClient, _indexName);
+
+    SystemMetadataScrollResult page = _client.scrollByRegistry("plugin", "0.0.1", null, 2);
+    assertEquals(page.getRows().size(), 2);
+    assertNotNull(page.getScrollId());
+    List<AspectRowSummary> rows = new ArrayList<>(page.getRows());
+    page = _client.scrollByRegistry("plugin", "0.0.1", page.getScrollId(), 2);
+    assertEquals(page.getRows().size(), 2);
+    rows.addAll(page.getRows());
+    // A full page may be followed by more rows, so the last one is empty
+    page = _client.scrollByRegistry("plugin", "0.0.1", page.getScrollId(), 2);
+    assertEquals(page.getRows().size(), 0);
+    assertNull(page.getScrollId());
+
+    assertEquals(new HashSet<>(rows).size(), 4);
+    rows.forEach(row -> assertEquals(row.getRunId(), "abc-123"));
+  }
+
   @Test
   public void testDelete() throws Exception {
     SystemMetadata metadata1 = new SystemMetadata();
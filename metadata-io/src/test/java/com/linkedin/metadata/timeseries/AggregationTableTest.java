@@ -0,0 +1,62 @@
+package com.linkedin.metadata.timeseries;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+
+public class AggregationTableTest {
+
+  private static AggregationTable.Builder newBuilder() {
+    return new AggregationTable.Builder().addColumn("timestampMillis", AggregationTable.ColumnType.LONG)
+        .addColumn("componentProfiles.key", AggregationTable.ColumnType.STRING)
+        .addColumn("avg_stat", AggregationTable.ColumnType.DOUBLE);
+  }
+
+  @Test
+  public void testBuildRowByRow() {
+    AggregationTable.Builder builder = newBuilder();
+    // Enough rows to grow the columns
+    for (int i = 0; i < 100; ++i) {
+      builder.appendLong(i).appendString("col" + i);
+      if (i % 2 == 0) {
+        builder.appendDouble(i / 2.0);
+      } else {
+        builder.appendNull();
+      }
+    }
+    AggregationTable table = builder.build();
+
+    assertEquals(table.getNumRows(), 100);
+    assertEquals(table.getNumColumns(), 3);
+    assertEquals(table.getColumnName(1), "componentProfiles.key");
+    assertEquals(table.getColumnType(2), AggregationTable.ColumnType.DOUBLE);
+    assertEquals(table.getLong(42, 0), 42);
+    assertEquals(table.getDouble(42, 0), 42.0, 0.0);
+    assertEquals(table.getString(42, 1), "col42");
+    assertFalse(table.isNull(42, 2));
+    assertEquals(table.getDouble(42, 2), 21.0, 0.0);
+    assertTrue(table.isNull(43, 2));
+  }
+
+  @Test
+  public void testNullStrings() {
+    AggregationTable table = newBuilder().appendLong(1).appendString(null).appendDouble(1.5).build();
+    assertTrue(table.isNull(0, 1));
+    assertNull(table.getString(0, 1));
+  }
+
+  @Test
+  public void testTypeMismatches() {
+    assertThrows(IllegalArgumentException.class, () -> newBuilder().appendString("1"));
+    assertThrows(IllegalStateException.class, () -> newBuilder().appendLong(1).build());
+
+    AggregationTable table = newBuilder().appendLong(1).appendString("col1").appendDouble(1.5).build();
+    assertThrows(IllegalStateException.class, () -> table.getLong(0, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.getLong(1, 0));
+  }
+}
@@ -23,7 +23,14 @@ import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.search.elasticsearch.ElasticSearchServiceTest;
 import com.linkedin.metadata.search.utils.QueryUtils;
+import com.linkedin.metadata.timeseries.AggregationTable;
+import com.linkedin.metadata.timeseries.TimeseriesScrollResult;
 import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectIndexBuilders;
+import com.linkedin.metadata.timeseries.elastic.partition.ESPartitionDAO;
+import com.linkedin.metadata.timeseries.elastic.query.ESAggregatedStatsDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.ESRollupDAO;
+import com.linkedin.metadata.timeseries.elastic.rollup.RollupGranularity;
+import com.linkedin.metadata.timeseries.elastic.rollup.RollupPlanner;
 import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
 import com.linkedin.metadata.utils.GenericAspectUtils;
 import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
@@ -35,9 +42,14 @@ import com.linkedin.timeseries.GenericTable;
 import com.linkedin.timeseries.GroupingBucket;
 import com.linkedin.timeseries.GroupingBucketType;
 import com.linkedin.timeseries.TimeWindowSize;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -304,6 +316,27 @@ public class ElasticSearchTimeseriesAspectServiceTest {
     validateAspectValues(resultAspects, 0);
   }
 
+  @Test(groups = {"getAspectValues"}, dependsOnGroups = {"upsert"})
+  public void testScrollAspectTimeseriesValues() {
+    List<EnvelopedAspect> resultAspects = new ArrayList<>();
+    String scrollId = null;
+    do {
+      TimeseriesScrollResult result =
+          _elasticSearchTimeseriesAspectService.scrollAspectValues(TEST_URN, ENTITY_NAME, ASPECT_NAME, null, null,
+              null, scrollId, 7);
+      assertTrue(result.getValues().size() <= 7);
+      resultAspects.addAll(result.getValues());
+      scrollId = result.getScrollId();
+    } while (scrollId != null);
+    validateAspectValues(resultAspects, NUM_PROFILES);
+    // Every value is read once, latest first
+    List<Long> timestamps = resultAspects.stream()
+        .map(aspect -> ((TestEntityProfile) GenericAspectUtils.deserializeAspect(aspect.getAspect().getValue(),
+            CONTENT_TYPE, _aspectSpec)).getTimestampMillis())
+        .collect(Collectors.toList());
+    assertEquals(timestamps, timestamps.stream().distinct().sorted(Comparator.reverseOrder()).collect(Collectors.toList()));
+  }
+
   /*
    * Tests for getAggregatedStats API
    */
@@ -346,6 +379,46 @@ public class ElasticSearchTimeseriesAspectServiceTest {
         _testEntityProfiles.get(_startTime + 23 * TIME_INCREMENT).getStat().toString())));
   }
 
+  @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
+  public void testGetAggregatedStatsLatestValuesAreNotReformatted() {
+    Long lastEntryTimeStamp = _startTime + 23 * TIME_INCREMENT;
+    Criterion hasUrnCriterion =
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(TEST_URN.toString());
+    Criterion startTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+        .setValue(_startTime.toString());
+    Criterion endTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+        .setValue(String.valueOf(lastEntryTimeStamp));
+
+    Filter filter =
+        QueryUtils.getFilterFromCriteria(ImmutableList.of(hasUrnCriterion, startTimeCriterion, endTimeCriterion));
+
+    AggregationSpec[] aggregationSpecs = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath(ES_FILED_STAT),
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("strStat")};
+    GroupingBucket timestampBucket = new GroupingBucket().setKey(ES_FILED_TIMESTAMP)
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.DAY));
+
+    // The generic table serves the latest values as they were before the typed table, with the types of their fields
+    GenericTable genericTable = _elasticSearchTimeseriesAspectService.getAggregatedStats(ENTITY_NAME, ASPECT_NAME,
+        aggregationSpecs, filter, new GroupingBucket[]{timestampBucket});
+    assertEquals(genericTable.getColumnTypes(), new StringArray("long", "long", "string"));
+    TestEntityProfile lastProfile = _testEntityProfiles.get(lastEntryTimeStamp);
+    assertEquals(genericTable.getRows(), new StringArrayArray(
+        new StringArray(_startTime.toString(), lastProfile.getStat().toString(), lastProfile.getStrStat())));
+
+    // The typed table parses them
+    AggregationTable typedTable = _elasticSearchTimeseriesAspectService.getAggregatedStatsTable(ENTITY_NAME,
+        ASPECT_NAME, aggregationSpecs, filter, new GroupingBucket[]{timestampBucket});
+    assertEquals(typedTable.getColumnType(1), AggregationTable.ColumnType.LONG);
+    assertEquals(typedTable.getColumnType(2), AggregationTable.ColumnType.STRING);
+    assertEquals(typedTable.getNumRows(), 1);
+    assertEquals(typedTable.getLong(0, 1), lastProfile.getStat().longValue());
+    assertEquals(typedTable.getString(0, 2), lastProfile.getStrStat());
+  }
+
   @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
   public void testGetAggregatedStatsLatestStrArrayDay1() {
     // Filter is only on the urn
@@ -597,6 +670,61 @@ public class ElasticSearchTimeseriesAspectServiceTest {
         new StringArrayArray(new StringArray(_startTime.toString(), String.valueOf(650))));
   }
 
+  @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
+  public void testGetAggregatedStatsNumericAggsStatForFirst10HoursOfDay1() {
+    Criterion hasUrnCriterion =
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(TEST_URN.toString());
+    Criterion startTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+        .setValue(_startTime.toString());
+    Criterion endTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+        .setValue(String.valueOf(_startTime + 9 * TIME_INCREMENT));
+
+    Filter filter =
+        QueryUtils.getFilterFromCriteria(ImmutableList.of(hasUrnCriterion, startTimeCriterion, endTimeCriterion));
+
+    // Aggregate the average, min, max, count and 100th percentile of stat value
+    AggregationSpec[] aggregationSpecs = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.AVG).setFieldPath("stat"),
+        new AggregationSpec().setAggregationType(AggregationType.MIN).setFieldPath("stat"),
+        new AggregationSpec().setAggregationType(AggregationType.MAX).setFieldPath("stat"),
+        new AggregationSpec().setAggregationType(AggregationType.COUNT).setFieldPath("stat"),
+        new AggregationSpec().setAggregationType(AggregationType.PERCENTILE).setFieldPath("stat").setPercentile(100.0)};
+
+    // Grouping bucket is only timestamp filed.
+    GroupingBucket timestampBucket = new GroupingBucket().setKey(ES_FILED_TIMESTAMP)
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.DAY));
+
+    GenericTable resultTable = _elasticSearchTimeseriesAspectService.getAggregatedStats(ENTITY_NAME, ASPECT_NAME,
+        aggregationSpecs, filter, new GroupingBucket[]{timestampBucket});
+    // Validate column names
+    assertEquals(resultTable.getColumnNames(),
+        new StringArray(ES_FILED_TIMESTAMP, "avg_" + ES_FILED_STAT, "min_" + ES_FILED_STAT, "max_" + ES_FILED_STAT,
+            "count_" + ES_FILED_STAT, "p100_" + ES_FILED_STAT));
+    // Validate column types
+    assertEquals(resultTable.getColumnTypes(), new StringArray("long", "double", "long", "long", "long", "double"));
+    // Validate rows
+    assertNotNull(resultTable.getRows());
+    // values are 20, 30, 40, ... up to 10 terms
+    assertEquals(resultTable.getRows(),
+        new StringArrayArray(new StringArray(_startTime.toString(), "65.0", "20", "110", "10", "110.0")));
+  }
+
+  @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
+  public void testGetAggregatedStatsPercentileOfStringField() {
+    Criterion hasUrnCriterion =
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(TEST_URN.toString());
+    Filter filter = QueryUtils.getFilterFromCriteria(ImmutableList.of(hasUrnCriterion));
+
+    AggregationSpec percentileSpec =
+        new AggregationSpec().setAggregationType(AggregationType.PERCENTILE).setFieldPath("strStat").setPercentile(50.0);
+    assertThrows(IllegalArgumentException.class,
+        () -> _elasticSearchTimeseriesAspectService.getAggregatedStats(ENTITY_NAME, ASPECT_NAME,
+            new AggregationSpec[]{percentileSpec}, filter, new GroupingBucket[0]));
+  }
+
   @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
   public void testGetAggregatedStatsSumStatForCol2Day1() {
     Long lastEntryTimeStamp = _startTime + 23 * TIME_INCREMENT;
@@ -643,6 +771,48 @@ public class ElasticSearchTimeseriesAspectServiceTest {
         new StringArrayArray(new StringArray(_startTime.toString(), "col2", String.valueOf(3288))));
   }
 
+  @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
+  public void testGetAggregatedStatsTableSumStatForCol2Day1() {
+    Criterion hasUrnCriterion =
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(TEST_URN.toString());
+    Criterion startTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+        .setValue(_startTime.toString());
+    Criterion endTimeCriterion = new Criterion().setField(ES_FILED_TIMESTAMP)
+        .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+        .setValue(String.valueOf(_startTime + 23 * TIME_INCREMENT));
+    Criterion hasCol2 =
+        new Criterion().setField("componentProfiles.key").setCondition(Condition.EQUAL).setValue("col2");
+
+    Filter filter = QueryUtils.getFilterFromCriteria(
+        ImmutableList.of(hasUrnCriterion, hasCol2, startTimeCriterion, endTimeCriterion));
+
+    AggregationSpec sumStatAggregationSpec =
+        new AggregationSpec().setAggregationType(AggregationType.SUM).setFieldPath("componentProfiles.stat");
+    GroupingBucket timestampBucket = new GroupingBucket().setKey(ES_FILED_TIMESTAMP)
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.DAY));
+    GroupingBucket componentProfilesBucket =
+        new GroupingBucket().setKey("componentProfiles.key").setType(GroupingBucketType.STRING_GROUPING_BUCKET);
+
+    AggregationTable resultTable =
+        _elasticSearchTimeseriesAspectService.getAggregatedStatsTable(ENTITY_NAME, ASPECT_NAME,
+            new AggregationSpec[]{sumStatAggregationSpec}, filter,
+            new GroupingBucket[]{timestampBucket, componentProfilesBucket});
+    // Validate columns, the sum of a long field is a long
+    assertEquals(resultTable.getNumColumns(), 3);
+    assertEquals(resultTable.getColumnName(2), "sum_componentProfiles.stat");
+    assertEquals(resultTable.getColumnType(0), AggregationTable.ColumnType.LONG);
+    assertEquals(resultTable.getColumnType(1), AggregationTable.ColumnType.STRING);
+    assertEquals(resultTable.getColumnType(2), AggregationTable.ColumnType.LONG);
+    // Validate rows
+    assertEquals(resultTable.getNumRows(), 1);
+    assertEquals(resultTable.getLong(0, 0), _startTime.longValue());
+    assertEquals(resultTable.getString(0, 1), "col2");
+    // value = 22+32+42+... 24 terms = 3288
+    assertEquals(resultTable.getLong(0, 2), 3288);
+  }
+
   @Test(groups = {"getAggregatedStats"}, dependsOnGroups = {"upsert"})
   public void testGetAggregatedStatsCardinalityAggStrStatDay1() {
     // Filter is only on the urn
@@ -715,4 +885,104 @@ public class ElasticSearchTimeseriesAspectServiceTest {
     assertEquals(resultTable.getRows(),
         new StringArrayArray(new StringArray("col1", "3264"), new StringArray("col2", "3288")));
   }
+
+  /*
+   * Tests for the rollups
+   */
+
+  @Test(groups = {"rollups"})
+  public void testRollupsMatchTheRawDocuments() throws Exception {
+    final long day = TimeUnit.DAYS.toMillis(1);
+    final long halfHour = TimeUnit.MINUTES.toMillis(30);
+    // Three days well before the documents of the other tests
+    final long startTime = RollupGranularity.DAILY.floor(System.currentTimeMillis()) - 30 * day;
+    // The rollup indices are created after the documents are written, so they are read for all time, as every
+    // document below is marked as pending
+    final ESRollupDAO rollupDAO =
+        new ESRollupDAO(_indexConvention, _searchClient, ElasticSearchServiceTest.getBulkProcessor(_searchClient),
+            _entityRegistry, 1) {
+          @Nonnull
+          @Override
+          public Optional<Long> getRolledUpSince(@Nonnull String entityName, @Nonnull String aspectName) {
+            return Optional.of(0L);
+          }
+        };
+    new TimeseriesAspectIndexBuilders(ElasticSearchServiceTest.getIndexBuilder(_searchClient), _entityRegistry,
+        _indexConvention).buildRollups(rollupDAO);
+
+    // Documents every half hour, and the last urn stops in the middle of the second day, so that its latest values
+    // are read from a daily rollup
+    for (int urnIndex = 1; urnIndex <= 3; urnIndex++) {
+      final Urn urn = new TestEntityUrn("acryl", "testRollupsMatchTheRawDocuments", "table" + urnIndex);
+      final long endTime = startTime + (urnIndex == 3 ? day + day / 2 : 3 * day);
+      for (long time = startTime + TimeUnit.MINUTES.toMillis(10); time < endTime; time += halfHour) {
+        TestEntityProfile profile = makeTestProfile(time, urnIndex * 1000 + (time - startTime) / halfHour, null);
+        for (Map.Entry<String, JsonNode> document : TimeseriesAspectTransformer.transform(urn, profile, _aspectSpec,
+            null).entrySet()) {
+          _elasticSearchTimeseriesAspectService.upsertDocument(ENTITY_NAME, ASPECT_NAME, document.getKey(),
+              document.getValue());
+          rollupDAO.markChanged(ENTITY_NAME, ASPECT_NAME, document.getValue());
+        }
+      }
+    }
+
+    // Hours are rolled up once they did not change for a flush interval, and days once their hours are, with a flush
+    // to spare for the buckets the scheduled flushes released
+    for (int i = 0; i < 3; i++) {
+      syncAfterWrite(_searchClient);
+      TimeUnit.SECONDS.sleep(2);
+      rollupDAO.flush();
+    }
+    syncAfterWrite(_searchClient);
+
+    // From the middle of the first hour to the middle of the second hour of the third day
+    final long queryStart = startTime + halfHour;
+    final long queryEnd = startTime + 2 * day + 3 * halfHour;
+    final Filter filter = QueryUtils.getFilterFromCriteria(ImmutableList.of(
+        new Criterion().setField(ES_FILED_TIMESTAMP)
+            .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(queryStart)),
+        new Criterion().setField(ES_FILED_TIMESTAMP)
+            .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(queryEnd))));
+    final AggregationSpec[] byUrnSpecs = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.SUM).setFieldPath(ES_FILED_STAT),
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("strStat")};
+    final GroupingBucket[] byUrn = new GroupingBucket[]{
+        new GroupingBucket().setKey("urn").setType(GroupingBucketType.STRING_GROUPING_BUCKET)};
+    final AggregationSpec[] byDaySpecs = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.CARDINALITY).setFieldPath("urn")};
+    final GroupingBucket[] byDay = new GroupingBucket[]{new GroupingBucket().setKey(ES_FILED_TIMESTAMP)
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.DAY))};
+
+    // Nothing is pending anymore, and the queries are read from the raw documents at the edges and rollups otherwise
+    final Optional<Long> rolledUpUntil = rollupDAO.getRolledUpUntil(ENTITY_NAME, ASPECT_NAME);
+    assertTrue(rolledUpUntil.isPresent());
+    assertTrue(rolledUpUntil.get() > queryEnd);
+    final Optional<RollupPlanner.RollupPlan> plan =
+        RollupPlanner.plan(_aspectSpec, byUrnSpecs, filter, byUrn, 0, rolledUpUntil.get());
+    assertTrue(plan.isPresent());
+    assertEquals(
+        plan.get().getSegments().stream().map(RollupPlanner.Segment::getGranularity).collect(Collectors.toList()),
+        Arrays.asList(null, RollupGranularity.HOURLY, RollupGranularity.DAILY, RollupGranularity.HOURLY, null));
+    assertTrue(RollupPlanner.plan(_aspectSpec, byDaySpecs, filter, byDay, 0, rolledUpUntil.get()).isPresent());
+
+    // The rollups answer like the raw documents, which the service reads as it does not maintain rollups
+    final ESAggregatedStatsDAO rollupStatsDAO = new ESAggregatedStatsDAO(_indexConvention, _searchClient,
+        _entityRegistry, rollupDAO, new ESPartitionDAO(_indexConvention, _searchClient, _entityRegistry, 0, 0));
+    try {
+      GenericTable rawByUrn =
+          _elasticSearchTimeseriesAspectService.getAggregatedStats(ENTITY_NAME, ASPECT_NAME, byUrnSpecs, filter, byUrn);
+      assertEquals(rawByUrn.getRows().size(), 3);
+      assertEquals(rollupStatsDAO.getAggregatedStats(ENTITY_NAME, ASPECT_NAME, byUrnSpecs, filter, byUrn), rawByUrn);
+
+      GenericTable rawByDay =
+          _elasticSearchTimeseriesAspectService.getAggregatedStats(ENTITY_NAME, ASPECT_NAME, byDaySpecs, filter, byDay);
+      assertEquals(rawByDay.getRows().size(), 3);
+      assertEquals(rollupStatsDAO.getAggregatedStats(ENTITY_NAME, ASPECT_NAME, byDaySpecs, filter, byDay), rawByDay);
+    } finally {
+      rollupDAO.close();
+    }
+  }
 }
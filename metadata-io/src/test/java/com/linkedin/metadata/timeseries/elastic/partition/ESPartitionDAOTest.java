@@ -0,0 +1,221 @@
+package com.linkedin.metadata.timeseries.elastic.partition;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.linkedin.metadata.dao.exception.ESQueryException;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.registry.EntityRegistry;
+import com.linkedin.metadata.utils.elasticsearch.IndexConvention;
+import com.linkedin.metadata.utils.elasticsearch.IndexConventionImpl;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.elasticsearch.action.admin.indices.delete.DeleteIndexRequest;
+import org.elasticsearch.client.IndicesClient;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.indices.CreateIndexRequest;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.indices.GetIndexResponse;
+import org.elasticsearch.client.indices.IndexTemplatesExistRequest;
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+
+public class ESPartitionDAOTest {
+  private static final String ENTITY_NAME = "testEntity";
+  private static final String ASPECT_NAME = "testEntityProfile";
+  private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+  private final IndexConvention _indexConvention = new IndexConventionImpl(null);
+  private final String _alias = _indexConvention.getTimeseriesAspectIndexName(ENTITY_NAME, ASPECT_NAME);
+  private RestHighLevelClient _mockClient;
+  private IndicesClient _mockIndicesClient;
+  private EntityRegistry _mockEntityRegistry;
+  // Names of the indices the mocked client has
+  private Set<String> _indices;
+  private ESPartitionDAO _partitionDAO;
+
+  private static long millis(int year, int month, int day) {
+    return LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private String partition(String partition) {
+    return _indexConvention.getTimeseriesAspectPartitionIndexName(ENTITY_NAME, ASPECT_NAME, partition);
+  }
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    _mockClient = mock(RestHighLevelClient.class);
+    _mockIndicesClient = mock(IndicesClient.class);
+    when(_mockClient.indices()).thenReturn(_mockIndicesClient);
+    _indices = new HashSet<>();
+    when(_mockIndicesClient.exists(any(GetIndexRequest.class), any(RequestOptions.class))).thenAnswer(
+        invocation -> _indices.contains(((GetIndexRequest) invocation.getArgument(0)).indices()[0]));
+
+    AspectSpec aspectSpec = mock(AspectSpec.class);
+    when(aspectSpec.getName()).thenReturn(ASPECT_NAME);
+    when(aspectSpec.isTimeseries()).thenReturn(true);
+    EntitySpec entitySpec = mock(EntitySpec.class);
+    when(entitySpec.getName()).thenReturn(ENTITY_NAME);
+    when(entitySpec.getAspectSpecs()).thenReturn(ImmutableList.of(aspectSpec));
+    _mockEntityRegistry = mock(EntityRegistry.class);
+    when(_mockEntityRegistry.getEntitySpecs()).thenReturn(ImmutableMap.of(ENTITY_NAME, entitySpec));
+
+    _partitionDAO = new ESPartitionDAO(_indexConvention, _mockClient, _mockEntityRegistry, 1, 7);
+  }
+
+  @AfterMethod
+  public void tearDown() {
+    _partitionDAO.close();
+  }
+
+  private void setPartitioned(boolean partitioned) throws IOException {
+    when(_mockIndicesClient.existsTemplate(any(IndexTemplatesExistRequest.class), any(RequestOptions.class)))
+        .thenReturn(partitioned);
+  }
+
+  @Test
+  public void testWriteRouting() throws Exception {
+    setPartitioned(true);
+    assertEquals(_partitionDAO.getWriteIndexName(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5) + 5 * HOUR),
+        partition("p20210105"));
+
+    // Aspects without a template are written through the alias of their single index
+    ESPartitionDAO notPartitioned = new ESPartitionDAO(_indexConvention, _mockClient, _mockEntityRegistry, 1, 7);
+    setPartitioned(false);
+    assertEquals(notPartitioned.getWriteIndexName(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5)), _alias);
+    notPartitioned.close();
+
+    // And so are all aspects when partitioning is disabled, which does not check for a template
+    RestHighLevelClient unusedClient = mock(RestHighLevelClient.class);
+    ESPartitionDAO disabled = new ESPartitionDAO(_indexConvention, unusedClient, _mockEntityRegistry, 0, 0);
+    assertEquals(disabled.getWriteIndexName(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5)), _alias);
+    verify(unusedClient, never()).indices();
+    disabled.close();
+  }
+
+  @Test
+  public void testWritesUseTheLastKnownStateWhenTheCheckFails() throws Exception {
+    setPartitioned(true);
+    assertTrue(_partitionDAO.isPartitioned(ENTITY_NAME, ASPECT_NAME));
+
+    // Creating a partition invalidates the cached state, so the next write checks again
+    _indices.add(partition("p20210105"));
+    _partitionDAO.createPartition(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5));
+    when(_mockIndicesClient.existsTemplate(any(IndexTemplatesExistRequest.class), any(RequestOptions.class)))
+        .thenThrow(new IOException("unavailable"));
+    assertEquals(_partitionDAO.getWriteIndexName(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5)),
+        partition("p20210105"));
+    // Reads go through the alias meanwhile, which holds the partitions too
+    assertFalse(_partitionDAO.isPartitioned(ENTITY_NAME, ASPECT_NAME));
+  }
+
+  @Test
+  public void testWritesFailWithoutAKnownState() throws Exception {
+    when(_mockIndicesClient.existsTemplate(any(IndexTemplatesExistRequest.class), any(RequestOptions.class)))
+        .thenThrow(new IOException("unavailable"));
+    expectThrows(ESQueryException.class,
+        () -> _partitionDAO.getWriteIndexName(ENTITY_NAME, ASPECT_NAME, millis(2021, 1, 5)));
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 1, 5), millis(2021, 1, 8))), ImmutableList.of(_alias));
+  }
+
+  @Test
+  public void testReadIndexNames() throws Exception {
+    setPartitioned(true);
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 1, 5), millis(2021, 1, 8))),
+        ImmutableList.of(partition("p20210105"), partition("p20210106"), partition("p20210107")));
+
+    // Unbounded ranges are read through the alias
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(null, millis(2021, 1, 8))), ImmutableList.of(_alias));
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 1, 5), null)), ImmutableList.of(_alias));
+
+    // And so are ranges of too many patterns: 30 days of january, 10 whole months and 30 days of december
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 1, 2), millis(2021, 12, 31))), ImmutableList.of(_alias));
+    List<String> wholeMonths = _partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 2, 1), millis(2021, 12, 1)));
+    assertEquals(wholeMonths.size(), 10);
+    assertEquals(wholeMonths.get(0), partition("p202102*"));
+  }
+
+  @Test
+  public void testReadIndexNamesOfAspectsNotPartitioned() throws Exception {
+    setPartitioned(false);
+    assertEquals(_partitionDAO.getReadIndexNames(ENTITY_NAME, ASPECT_NAME,
+        new TimePartitions.TimeRange(millis(2021, 1, 5), millis(2021, 1, 8))), ImmutableList.of(_alias));
+  }
+
+  @Test
+  public void testHasSingleIndex() throws Exception {
+    // A concrete index of the name, from before the aspect was partitioned
+    _indices.add(_alias);
+    setPartitioned(false);
+    assertTrue(_partitionDAO.hasSingleIndex(ENTITY_NAME, ASPECT_NAME));
+
+    // The alias of the partitions, which the template names
+    setPartitioned(true);
+    assertFalse(_partitionDAO.hasSingleIndex(ENTITY_NAME, ASPECT_NAME));
+
+    _indices.clear();
+    setPartitioned(false);
+    assertFalse(_partitionDAO.hasSingleIndex(ENTITY_NAME, ASPECT_NAME));
+  }
+
+  @Test
+  public void testApplyRetention() throws Exception {
+    setPartitioned(true);
+    _indices.add(partition("p20210110"));
+    _indices.add(partition("p20210112"));
+    _indices.add(partition("p20210113"));
+    GetIndexResponse getIndexResponse = mock(GetIndexResponse.class);
+    when(getIndexResponse.getIndices()).thenAnswer(invocation -> _indices.toArray(new String[0]));
+    when(_mockIndicesClient.get(any(GetIndexRequest.class), any(RequestOptions.class))).thenReturn(getIndexResponse);
+    when(_mockIndicesClient.create(any(CreateIndexRequest.class), any(RequestOptions.class))).thenAnswer(
+        invocation -> {
+          _indices.add(((CreateIndexRequest) invocation.getArgument(0)).index());
+          return null;
+        });
+
+    // Partitions that ended more than 7 days before are dropped, i.e. before January 13th 5am
+    _partitionDAO.applyRetention(millis(2021, 1, 20) + 5 * HOUR);
+
+    ArgumentCaptor<DeleteIndexRequest> deleteRequest = ArgumentCaptor.forClass(DeleteIndexRequest.class);
+    verify(_mockIndicesClient).delete(deleteRequest.capture(), any(RequestOptions.class));
+    assertEquals(new HashSet<>(ImmutableList.copyOf(deleteRequest.getValue().indices())),
+        new HashSet<>(ImmutableList.of(partition("p20210110"), partition("p20210112"))));
+    // The current partition is created and kept, so that the alias always names an index
+    ArgumentCaptor<CreateIndexRequest> createRequest = ArgumentCaptor.forClass(CreateIndexRequest.class);
+    verify(_mockIndicesClient).create(createRequest.capture(), any(RequestOptions.class));
+    assertEquals(createRequest.getValue().index(), partition("p20210120"));
+  }
+
+  @Test
+  public void testApplyRetentionKeepsPartitionsOfAspectsNotPartitioned() throws Exception {
+    setPartitioned(false);
+    _partitionDAO.applyRetention(millis(2021, 1, 20));
+    verify(_mockIndicesClient, never()).get(any(GetIndexRequest.class), any(RequestOptions.class));
+    verify(_mockIndicesClient, never()).delete(any(DeleteIndexRequest.class), any(RequestOptions.class));
+  }
+}
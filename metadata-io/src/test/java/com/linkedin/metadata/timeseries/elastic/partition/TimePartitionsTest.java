@@ -0,0 +1,104 @@
+package com.linkedin.metadata.timeseries.elastic.partition;
+
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+
+public class TimePartitionsTest {
+  private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+  private static long millis(int year, int month, int day) {
+    return LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+  }
+
+  private static ConjunctiveCriterion makeTimeRange(long startTime, long endTime) {
+    return new ConjunctiveCriterion().setAnd(new CriterionArray(
+        new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue("urn:li:testEntity:test"),
+        new Criterion().setField("timestampMillis")
+            .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(startTime)),
+        new Criterion().setField("timestampMillis")
+            .setCondition(Condition.LESS_THAN)
+            .setValue(String.valueOf(endTime))));
+  }
+
+  @Test
+  public void testPartitionsAreAlignedToTheEpoch() {
+    TimePartitions daily = new TimePartitions(1);
+    assertEquals(daily.getPartition(millis(2021, 1, 5) + 5 * HOUR), "p20210105");
+    assertEquals(daily.getPartition(millis(2021, 1, 5) - 1), "p20210104");
+
+    // The epoch is a thursday, and so is the first day of weekly partitions
+    TimePartitions weekly = new TimePartitions(7);
+    assertEquals(weekly.getPartition(millis(2021, 1, 3)), "p20201231");
+    assertEquals(weekly.getPartition(millis(2021, 1, 6) + 23 * HOUR), "p20201231");
+    assertEquals(weekly.getPartition(millis(2021, 1, 7)), "p20210107");
+
+    assertEquals(TimePartitions.getStartMillis("p20210107"), Optional.of(millis(2021, 1, 7)));
+    assertFalse(TimePartitions.getStartMillis("hourly").isPresent());
+    assertFalse(TimePartitions.getStartMillis("p2021").isPresent());
+  }
+
+  @Test
+  public void testPatternsOfShortRanges() {
+    TimePartitions daily = new TimePartitions(1);
+    assertEquals(daily.getPartitionPatterns(millis(2021, 3, 30) + HOUR, millis(2021, 4, 2) + HOUR),
+        ImmutableList.of("p20210330", "p20210331", "p20210401", "p20210402"));
+    // The end is exclusive
+    assertEquals(daily.getPartitionPatterns(millis(2021, 3, 30), millis(2021, 3, 31)), ImmutableList.of("p20210330"));
+    assertTrue(daily.getPartitionPatterns(millis(2021, 3, 30), millis(2021, 3, 30)).isEmpty());
+  }
+
+  @Test
+  public void testWholeMonthsAndYearsAreMatchedByWildcards() {
+    TimePartitions daily = new TimePartitions(1);
+    assertEquals(daily.getPartitionPatterns(millis(2020, 12, 30), millis(2022, 3, 3)),
+        ImmutableList.of("p20201230", "p20201231", "p2021*", "p202201*", "p202202*", "p20220301", "p20220302"));
+
+    // A month is whole when the range holds its first and last partitions
+    TimePartitions weekly = new TimePartitions(7);
+    assertEquals(weekly.getPartitionPatterns(millis(2021, 1, 7), millis(2021, 2, 25)),
+        ImmutableList.of("p202101*", "p20210204", "p20210211", "p20210218"));
+    assertEquals(weekly.getPartitionPatterns(millis(2021, 1, 7), millis(2021, 3, 4)),
+        ImmutableList.of("p202101*", "p202102*"));
+  }
+
+  @Test
+  public void testTimeRangeOfFilter() {
+    long start = millis(2021, 1, 5);
+    long end = millis(2021, 1, 8);
+    Filter filter = new Filter().setOr(new ConjunctiveCriterionArray(makeTimeRange(start, end)));
+    assertEquals(TimePartitions.getTimeRange(filter), new TimePartitions.TimeRange(start, end));
+
+    // Disjunctions read the span of their ranges
+    filter = new Filter().setOr(
+        new ConjunctiveCriterionArray(makeTimeRange(start, end), makeTimeRange(end + HOUR, end + 2 * HOUR)));
+    assertEquals(TimePartitions.getTimeRange(filter), new TimePartitions.TimeRange(start, end + 2 * HOUR));
+
+    // Unless one of them is unbounded
+    ConjunctiveCriterion untilEnd = new ConjunctiveCriterion().setAnd(new CriterionArray(
+        new Criterion().setField("timestampMillis")
+            .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(end))));
+    filter = new Filter().setOr(new ConjunctiveCriterionArray(makeTimeRange(start, end), untilEnd));
+    assertNull(TimePartitions.getTimeRange(filter).getStartMillis());
+    assertEquals(TimePartitions.getTimeRange(filter).getEndMillis(), Long.valueOf(end + 1));
+
+    assertEquals(TimePartitions.getTimeRange(null), new TimePartitions.TimeRange(null, null));
+  }
+}
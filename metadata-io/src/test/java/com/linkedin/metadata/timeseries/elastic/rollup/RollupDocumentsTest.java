@@ -0,0 +1,108 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.datahub.test.TestEntityComponentProfile;
+import com.datahub.test.TestEntityComponentProfileArray;
+import com.datahub.test.TestEntityProfile;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.linkedin.common.urn.TestEntityUrn;
+import com.linkedin.common.urn.Urn;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.DataSchemaFactory;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class RollupDocumentsTest {
+  private static final Urn TEST_URN = new TestEntityUrn("acryl", "testRollupDocuments", "table1");
+  private static final long START_TIME = TimeUnit.DAYS.toMillis(18000);
+
+  private AspectSpec _aspectSpec;
+
+  @BeforeClass
+  public void setup() {
+    _aspectSpec = new ConfigEntityRegistry(new DataSchemaFactory("com.datahub.test"),
+        TestEntityProfile.class.getClassLoader().getResourceAsStream("test-entity-registry.yml")).getEntitySpec(
+        "testEntity").getAspectSpec("testEntityProfile");
+  }
+
+  private List<JsonNode> transform(long timestampMillis, long stat) throws Exception {
+    TestEntityProfile profile = new TestEntityProfile();
+    profile.setTimestampMillis(timestampMillis);
+    profile.setStat(stat);
+    profile.setStrStat(String.valueOf(stat));
+    TestEntityComponentProfile componentProfile = new TestEntityComponentProfile();
+    componentProfile.setKey("col1");
+    componentProfile.setStat(stat + 1);
+    profile.setComponentProfiles(new TestEntityComponentProfileArray(componentProfile));
+    return new ArrayList<>(TimeseriesAspectTransformer.transform(TEST_URN, profile, _aspectSpec, null).values());
+  }
+
+  private static JsonNode getRollup(Map<String, JsonNode> rollups, boolean exploded, long timestampMillis) {
+    List<JsonNode> matches = rollups.values()
+        .stream()
+        .filter(rollup -> rollup.get("isExploded").asBoolean() == exploded)
+        .filter(rollup -> rollup.get("timestampMillis").asLong() == timestampMillis)
+        .collect(Collectors.toList());
+    assertEquals(matches.size(), 1);
+    return matches.get(0);
+  }
+
+  @Test
+  public void testHourlyRollup() throws Exception {
+    List<JsonNode> documents = new ArrayList<>();
+    documents.addAll(transform(START_TIME + TimeUnit.MINUTES.toMillis(10), 30));
+    documents.addAll(transform(START_TIME, 20));
+    documents.addAll(transform(START_TIME + TimeUnit.HOURS.toMillis(1), 40));
+
+    Map<String, JsonNode> rollups = RollupDocuments.rollUp(_aspectSpec, RollupGranularity.HOURLY, documents);
+    // The aspect and the component of each hour
+    assertEquals(rollups.size(), 4);
+
+    // Numeric fields are summed, and other fields keep their latest value
+    JsonNode aspectRollup = getRollup(rollups, false, START_TIME + TimeUnit.MINUTES.toMillis(10));
+    assertEquals(aspectRollup.get("stat").asLong(), 50);
+    assertEquals(aspectRollup.get("strStat").asText(), "30");
+    assertEquals(aspectRollup.get("urn").asText(), TEST_URN.toString());
+    assertEquals(aspectRollup.get("rollupGranularity").asText(), "hourly");
+    assertFalse(aspectRollup.has("event"));
+
+    JsonNode componentRollup = getRollup(rollups, true, START_TIME + TimeUnit.MINUTES.toMillis(10));
+    assertEquals(componentRollup.get("componentProfiles").get("key").asText(), "col1");
+    assertEquals(componentRollup.get("componentProfiles").get("stat").asLong(), 52);
+  }
+
+  @Test
+  public void testDailyRollupOfHourlyRollups() throws Exception {
+    List<JsonNode> documents = new ArrayList<>();
+    documents.addAll(transform(START_TIME, 20));
+    documents.addAll(transform(START_TIME + TimeUnit.HOURS.toMillis(5), 30));
+    Map<String, JsonNode> hourlyRollups = RollupDocuments.rollUp(_aspectSpec, RollupGranularity.HOURLY, documents);
+
+    Map<String, JsonNode> dailyRollups =
+        RollupDocuments.rollUp(_aspectSpec, RollupGranularity.DAILY, hourlyRollups.values());
+    assertEquals(dailyRollups.size(), 2);
+    JsonNode aspectRollup = getRollup(dailyRollups, false, START_TIME + TimeUnit.HOURS.toMillis(5));
+    assertEquals(aspectRollup.get("stat").asLong(), 50);
+    assertEquals(aspectRollup.get("strStat").asText(), "30");
+    assertEquals(aspectRollup.get("rollupGranularity").asText(), "daily");
+    assertEquals(getRollup(dailyRollups, true, START_TIME + TimeUnit.HOURS.toMillis(5)).get("componentProfiles")
+        .get("stat")
+        .asLong(), 52);
+
+    // Rolling up the same documents again gives the same document ids
+    assertTrue(RollupDocuments.rollUp(_aspectSpec, RollupGranularity.DAILY, hourlyRollups.values())
+        .keySet()
+        .equals(dailyRollups.keySet()));
+  }
+}
@@ -0,0 +1,155 @@
+package com.linkedin.metadata.timeseries.elastic.rollup;
+
+import com.datahub.test.TestEntityProfile;
+import com.google.common.collect.ImmutableList;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.DataSchemaFactory;
+import com.linkedin.metadata.models.registry.ConfigEntityRegistry;
+import com.linkedin.metadata.query.filter.Condition;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterion;
+import com.linkedin.metadata.query.filter.ConjunctiveCriterionArray;
+import com.linkedin.metadata.query.filter.Criterion;
+import com.linkedin.metadata.query.filter.CriterionArray;
+import com.linkedin.metadata.query.filter.Filter;
+import com.linkedin.timeseries.AggregationSpec;
+import com.linkedin.timeseries.AggregationType;
+import com.linkedin.timeseries.CalendarInterval;
+import com.linkedin.timeseries.GroupingBucket;
+import com.linkedin.timeseries.GroupingBucketType;
+import com.linkedin.timeseries.TimeWindowSize;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+public class RollupPlannerTest {
+  private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+  private static final long DAY = TimeUnit.DAYS.toMillis(1);
+  private static final long START_TIME = 18000 * DAY + 90 * TimeUnit.MINUTES.toMillis(1);
+  private static final long END_TIME = 18010 * DAY + 150 * TimeUnit.MINUTES.toMillis(1);
+  private static final String URN = "urn:li:testEntity:testRollupPlanner";
+
+  private static final AggregationSpec[] SUM_STATS = new AggregationSpec[]{
+      new AggregationSpec().setAggregationType(AggregationType.SUM).setFieldPath("componentProfiles.stat")};
+  private static final GroupingBucket[] BY_KEY = new GroupingBucket[]{
+      new GroupingBucket().setKey("componentProfiles.key").setType(GroupingBucketType.STRING_GROUPING_BUCKET)};
+
+  private AspectSpec _aspectSpec;
+
+  @BeforeClass
+  public void setup() {
+    _aspectSpec = new ConfigEntityRegistry(new DataSchemaFactory("com.datahub.test"),
+        TestEntityProfile.class.getClassLoader().getResourceAsStream("test-entity-registry.yml")).getEntitySpec(
+        "testEntity").getAspectSpec("testEntityProfile");
+  }
+
+  private static Filter makeFilter(Criterion... criteria) {
+    return new Filter().setOr(
+        new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(new CriterionArray(criteria))));
+  }
+
+  private static Filter makeTimeRangeFilter(long startTime, long endTime) {
+    return makeFilter(new Criterion().setField("urn").setCondition(Condition.EQUAL).setValue(URN),
+        new Criterion().setField("timestampMillis")
+            .setCondition(Condition.GREATER_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(startTime)),
+        new Criterion().setField("timestampMillis")
+            .setCondition(Condition.LESS_THAN_OR_EQUAL_TO)
+            .setValue(String.valueOf(endTime)));
+  }
+
+  @Test
+  public void testCoarsestRollupsCoverTheWindow() {
+    Optional<RollupPlanner.RollupPlan> plan =
+        RollupPlanner.plan(_aspectSpec, SUM_STATS, makeTimeRangeFilter(START_TIME, END_TIME), BY_KEY, 0, Long.MAX_VALUE);
+    assertTrue(plan.isPresent());
+    assertEquals(plan.get().getSegments(), ImmutableList.of(
+        new RollupPlanner.Segment(null, START_TIME, START_TIME + 30 * TimeUnit.MINUTES.toMillis(1)),
+        new RollupPlanner.Segment(RollupGranularity.HOURLY, 18000 * DAY + 2 * HOUR, 18001 * DAY),
+        new RollupPlanner.Segment(RollupGranularity.DAILY, 18001 * DAY, 18010 * DAY),
+        new RollupPlanner.Segment(RollupGranularity.HOURLY, 18010 * DAY, 18010 * DAY + 2 * HOUR),
+        new RollupPlanner.Segment(null, 18010 * DAY + 2 * HOUR, END_TIME + 1)));
+    // Only the time range is taken out of the filter
+    assertEquals(plan.get().getFilter().getOr().get(0).getAnd().size(), 1);
+    assertEquals(plan.get().getFilter().getOr().get(0).getAnd().get(0).getField(), "urn");
+  }
+
+  @Test
+  public void testRollupsOnlyCoverTheirLifetime() {
+    // Rolled up from the fifth day, up to the middle of the last day
+    long rolledUpSince = 18005 * DAY + 1;
+    long rolledUpUntil = 18010 * DAY + HOUR + 1;
+    Optional<RollupPlanner.RollupPlan> plan =
+        RollupPlanner.plan(_aspectSpec, SUM_STATS, makeTimeRangeFilter(START_TIME, END_TIME), BY_KEY, rolledUpSince,
+            rolledUpUntil);
+    assertTrue(plan.isPresent());
+    assertEquals(plan.get().getSegments(), ImmutableList.of(
+        new RollupPlanner.Segment(null, START_TIME, 18005 * DAY + HOUR),
+        new RollupPlanner.Segment(RollupGranularity.HOURLY, 18005 * DAY + HOUR, 18006 * DAY),
+        new RollupPlanner.Segment(RollupGranularity.DAILY, 18006 * DAY, 18010 * DAY),
+        new RollupPlanner.Segment(RollupGranularity.HOURLY, 18010 * DAY, 18010 * DAY + HOUR),
+        new RollupPlanner.Segment(null, 18010 * DAY + HOUR, END_TIME + 1)));
+
+    // Nothing is rolled up yet
+    assertFalse(RollupPlanner.plan(_aspectSpec, SUM_STATS, makeTimeRangeFilter(START_TIME, END_TIME), BY_KEY,
+        END_TIME, Long.MAX_VALUE).isPresent());
+  }
+
+  @Test
+  public void testDateGroupingLimitsTheGranularity() {
+    GroupingBucket[] byHour = new GroupingBucket[]{new GroupingBucket().setKey("timestampMillis")
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.HOUR))};
+    Optional<RollupPlanner.RollupPlan> plan =
+        RollupPlanner.plan(_aspectSpec, SUM_STATS, makeTimeRangeFilter(START_TIME, END_TIME), byHour, 0,
+            Long.MAX_VALUE);
+    assertTrue(plan.isPresent());
+    assertEquals(plan.get().getSegments().size(), 3);
+    assertEquals(plan.get().getSegments().get(1),
+        new RollupPlanner.Segment(RollupGranularity.HOURLY, 18000 * DAY + 2 * HOUR, 18010 * DAY + 2 * HOUR));
+
+    GroupingBucket[] byMinute = new GroupingBucket[]{new GroupingBucket().setKey("timestampMillis")
+        .setType(GroupingBucketType.DATE_GROUPING_BUCKET)
+        .setTimeWindowSize(new TimeWindowSize().setMultiple(1).setUnit(CalendarInterval.MINUTE))};
+    assertFalse(RollupPlanner.plan(_aspectSpec, SUM_STATS, makeTimeRangeFilter(START_TIME, END_TIME), byMinute, 0,
+        Long.MAX_VALUE).isPresent());
+  }
+
+  @Test
+  public void testQueriesRollupsCannotAnswer() {
+    Filter filter = makeTimeRangeFilter(START_TIME, END_TIME);
+    // The latest value of a summed field
+    AggregationSpec[] latestStat = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("stat")};
+    assertFalse(RollupPlanner.plan(_aspectSpec, latestStat, filter, new GroupingBucket[0], 0, Long.MAX_VALUE)
+        .isPresent());
+    // Grouping by a field that is not a collection key
+    GroupingBucket[] byStrStat = new GroupingBucket[]{
+        new GroupingBucket().setKey("strStat").setType(GroupingBucketType.STRING_GROUPING_BUCKET)};
+    assertFalse(RollupPlanner.plan(_aspectSpec, SUM_STATS, filter, byStrStat, 0, Long.MAX_VALUE).isPresent());
+    // Filtering by a field that is not kept in rollups
+    Filter byStat = makeFilter(new Criterion().setField("stat").setCondition(Condition.EQUAL).setValue("20"));
+    assertFalse(RollupPlanner.plan(_aspectSpec, SUM_STATS, byStat, BY_KEY, 0, Long.MAX_VALUE).isPresent());
+    // The latest value of an optional field, which the latest document of a rollup may not have
+    AggregationSpec[] latestStrArray = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("strArray")};
+    assertFalse(RollupPlanner.plan(_aspectSpec, latestStrArray, filter, new GroupingBucket[0], 0, Long.MAX_VALUE)
+        .isPresent());
+    // Or of a field that rollups do not keep
+    AggregationSpec[] latestEventGranularity = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("eventGranularity")};
+    assertFalse(RollupPlanner.plan(_aspectSpec, latestEventGranularity, filter, new GroupingBucket[0], 0,
+        Long.MAX_VALUE).isPresent());
+
+    // The latest value of other fields is kept
+    AggregationSpec[] latestStrStat = new AggregationSpec[]{
+        new AggregationSpec().setAggregationType(AggregationType.LATEST).setFieldPath("strStat")};
+    assertTrue(RollupPlanner.plan(_aspectSpec, latestStrStat, filter, new GroupingBucket[0], 0, Long.MAX_VALUE)
+        .isPresent());
+  }
+}
@@ -179,7 +179,7 @@ public class MetadataAuditEventsProcessor {
    */
   private void updateSearchService(final RecordTemplate snapshot, final EntitySpec entitySpec) {
     String urn = snapshot.data().get("urn").toString();
-    Optional<String> searchDocument;
+    Optional<byte[]> searchDocument;
 
     try {
       searchDocument = _searchDocumentTransformer.transformSnapshot(snapshot, entitySpec, false);
@@ -4,6 +4,8 @@ import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.linkedin.common.BrowsePaths;
+import com.linkedin.common.Status;
 import com.linkedin.common.urn.Urn;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.events.metadata.ChangeType;
@@ -14,6 +16,7 @@ import com.linkedin.gms.factory.kafka.KafkaEventConsumerFactory;
 import com.linkedin.gms.factory.search.EntitySearchServiceFactory;
 import com.linkedin.gms.factory.search.SearchDocumentTransformerFactory;
 import com.linkedin.gms.factory.timeseries.TimeseriesAspectServiceFactory;
+import com.linkedin.metadata.Constants;
 import com.linkedin.metadata.EventUtils;
 import com.linkedin.metadata.extractor.FieldExtractor;
 import com.linkedin.metadata.graph.Edge;
@@ -42,11 +45,14 @@ import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -139,8 +145,12 @@ public class MetadataChangeLogProcessor {
         updateTimeseriesFields(event.getEntityType(), event.getAspectName(), urn, aspect, aspectSpec,
             event.getSystemMetadata());
       } else {
+        RecordTemplate previousAspect = event.hasPreviousAspectValue()
+            ? GenericAspectUtils.deserializeAspect(event.getPreviousAspectValue().getValue(),
+            event.getPreviousAspectValue().getContentType(), aspectSpec) : null;
         updateSearchService(entitySpec.getName(), urn, aspectSpec, aspect);
-        updateGraphService(urn, aspectSpec, aspect);
+        updateBrowseTree(entitySpec.getName(), urn, aspectSpec, aspect);
+        updateGraphService(urn, aspectSpec, aspect, previousAspect);
         updateSystemMetadata(event.getSystemMetadata(), urn, aspectSpec);
       }
     } else if (event.getChangeType() == ChangeType.DELETE) {
@@ -164,6 +174,7 @@ public class MetadataChangeLogProcessor {
         deleteSystemMetadata(urn, aspectSpec, isDeletingKey);
         deleteGraphData(urn, aspectSpec, aspect, isDeletingKey);
         deleteSearchData(urn, entitySpec.getName(), aspectSpec, aspect, isDeletingKey);
+        deleteBrowseTreeData(urn, entitySpec.getName(), aspectSpec, isDeletingKey);
       }
     }
   }
@@ -191,22 +202,43 @@ public class MetadataChangeLogProcessor {
   }
 
   /**
-   * Process snapshot and update graph index
+   * Process snapshot and update graph index. If the previous aspect value is known, only the edges that were added or
+   * removed since then are written, otherwise all edges of the relationship types in the aspect are replaced.
+   *
+   * The edges are written on the consumer thread, so that the changes of an urn apply in the order of its change log.
    */
-  private void updateGraphService(Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
+  private void updateGraphService(Urn urn, AspectSpec aspectSpec, RecordTemplate aspect,
+      @Nullable RecordTemplate previousAspect) {
     Pair<List<Edge>, Set<String>> edgeAndRelationTypes =
         getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, aspect);
 
     final List<Edge> edgesToAdd = edgeAndRelationTypes.getFirst();
     final Set<String> relationshipTypesBeingAdded = edgeAndRelationTypes.getSecond();
 
+    if (previousAspect != null) {
+      final Set<Edge> newEdges = new HashSet<>(edgesToAdd);
+      final Set<Edge> previousEdges =
+          new HashSet<>(getEdgesAndRelationshipTypesFromAspect(urn, aspectSpec, previousAspect).getFirst());
+
+      final List<Edge> addedEdges = newEdges.stream()
+          .filter(edge -> !previousEdges.contains(edge))
+          .collect(Collectors.toList());
+      final List<Edge> removedEdges = previousEdges.stream()
+          .filter(edge -> !newEdges.contains(edge))
+          .collect(Collectors.toList());
+
+      log.debug(String.format("Edge delta for %s aspect %s: %s added, %s removed", urn, aspectSpec.getName(),
+          addedEdges.size(), removedEdges.size()));
+      removedEdges.forEach(edge -> _graphService.removeEdge(edge));
+      addedEdges.forEach(edge -> _graphService.addEdge(edge));
+      return;
+    }
+
     log.info(String.format("Here's the relationship types found %s", relationshipTypesBeingAdded));
     if (relationshipTypesBeingAdded.size() > 0) {
-      new Thread(() -> {
-        _graphService.removeEdgesFromNode(urn, new ArrayList<>(relationshipTypesBeingAdded),
-            newRelationshipFilter(new Filter().setOr(new ConjunctiveCriterionArray()), RelationshipDirection.OUTGOING));
-        edgesToAdd.forEach(edge -> _graphService.addEdge(edge));
-      }).start();
+      _graphService.removeEdgesFromNode(urn, new ArrayList<>(relationshipTypesBeingAdded),
+          newRelationshipFilter(new Filter().setOr(new ConjunctiveCriterionArray()), RelationshipDirection.OUTGOING));
+      edgesToAdd.forEach(edge -> _graphService.addEdge(edge));
     }
   }
 
@@ -214,7 +246,7 @@ public class MetadataChangeLogProcessor {
    * Process snapshot and update search index
    */
   private void updateSearchService(String entityName, Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
-    Optional<String> searchDocument;
+    Optional<byte[]> searchDocument;
     try {
       searchDocument = _searchDocumentTransformer.transformAspect(urn, aspect, aspectSpec, false);
     } catch (Exception e) {
@@ -237,6 +269,17 @@ public class MetadataChangeLogProcessor {
     _entitySearchService.upsertDocument(entityName, searchDocument.get(), docId);
   }
 
+  /**
+   * Keep the materialized browse tree up to date with browse paths and removed status
+   */
+  private void updateBrowseTree(String entityName, Urn urn, AspectSpec aspectSpec, RecordTemplate aspect) {
+    if (aspectSpec.getName().equals(Constants.BROWSE_PATHS_ASPECT_NAME)) {
+      _entitySearchService.updateBrowsePaths(entityName, urn, ((BrowsePaths) aspect).getPaths());
+    } else if (aspectSpec.getName().equals(Constants.STATUS_ASPECT_NAME)) {
+      _entitySearchService.updateRemoved(entityName, urn, ((Status) aspect).isRemoved());
+    }
+  }
+
   /**
    * Process snapshot and update timseries index
    */
@@ -302,7 +345,7 @@ public class MetadataChangeLogProcessor {
       return;
     }
 
-    Optional<String> searchDocument;
+    Optional<byte[]> searchDocument;
     try {
       searchDocument = _searchDocumentTransformer.transformAspect(urn, aspect, aspectSpec, true);
     } catch (Exception e) {
@@ -316,4 +359,12 @@ public class MetadataChangeLogProcessor {
 
     _entitySearchService.upsertDocument(entityName, searchDocument.get(), docId);
   }
+
+  private void deleteBrowseTreeData(Urn urn, String entityName, AspectSpec aspectSpec, Boolean isKeyAspect) {
+    if (isKeyAspect || aspectSpec.getName().equals(Constants.BROWSE_PATHS_ASPECT_NAME)) {
+      _entitySearchService.updateBrowsePaths(entityName, urn, Collections.emptyList());
+    } else if (aspectSpec.getName().equals(Constants.STATUS_ASPECT_NAME)) {
+      _entitySearchService.updateRemoved(entityName, urn, false);
+    }
+  }
 }
@@ -1,60 +1,41 @@
 package com.linkedin.metadata.kafka.elasticsearch;
 
 import com.linkedin.events.metadata.ChangeType;
+import com.linkedin.metadata.search.elasticsearch.update.AdaptiveBulkSender;
+import com.linkedin.metadata.search.elasticsearch.update.BulkListener;
 import javax.annotation.Nonnull;
-import lombok.extern.slf4j.Slf4j;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.action.bulk.BulkRequest;
-import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.elasticsearch.action.update.UpdateRequest;
-import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 
 
-@Slf4j
 public class ElasticsearchConnector {
 
   private BulkProcessor _bulkProcessor;
-  private static final int DEFAULT_NUMBER_OF_RETRIES = 3; // TODO: Test and also add these into config
-  private static final long DEFAULT_RETRY_INTERVAL = 1L;
 
   public ElasticsearchConnector(RestHighLevelClient elasticSearchRestClient, Integer bulkRequestsLimit,
-      Integer bulkFlushPeriod) {
-    initBulkProcessor(elasticSearchRestClient, bulkRequestsLimit, bulkFlushPeriod);
+      Integer bulkFlushPeriod, Long bulkSizeLimitMB, Long targetLatencyMs, Integer numRetries, Long retryInterval) {
+    initBulkProcessor(elasticSearchRestClient, bulkRequestsLimit, bulkFlushPeriod, bulkSizeLimitMB, targetLatencyMs,
+        numRetries, retryInterval);
   }
 
   private void initBulkProcessor(RestHighLevelClient elasticSearchRestClient, Integer bulkRequestsLimit,
-      Integer bulkFlushPeriod) {
-    BulkProcessor.Listener listener = new BulkProcessor.Listener() {
-      @Override
-      public void beforeBulk(long executionId, BulkRequest request) {
-
-      }
-
-      @Override
-      public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
-        log.info("Successfully feeded bulk request. Number of events: " + response.getItems().length + " Took time ms: "
-            + response.getIngestTookInMillis());
-      }
-
-      @Override
-      public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
-        log.info("Error feeding bulk request. No retries left", failure);
-      }
-    };
-
+      Integer bulkFlushPeriod, Long bulkSizeLimitMB, Long targetLatencyMs, Integer numRetries, Long retryInterval) {
+    final ByteSizeValue bulkSizeLimit = new ByteSizeValue(bulkSizeLimitMB, ByteSizeUnit.MB);
     _bulkProcessor = BulkProcessor.builder(
-        (request, bulkListener) -> elasticSearchRestClient.bulkAsync(request, RequestOptions.DEFAULT, bulkListener),
-        listener)
+        new AdaptiveBulkSender(elasticSearchRestClient, bulkSizeLimit.getBytes(), targetLatencyMs),
+        BulkListener.getInstance())
         .setBulkActions(bulkRequestsLimit)
+        .setBulkSize(bulkSizeLimit)
         .setFlushInterval(TimeValue.timeValueSeconds(bulkFlushPeriod))
-        .setBackoffPolicy(BackoffPolicy.constantBackoff(TimeValue.timeValueSeconds(DEFAULT_RETRY_INTERVAL),
-            DEFAULT_NUMBER_OF_RETRIES))
+        .setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueSeconds(retryInterval), numRetries))
         .build();
   }
 
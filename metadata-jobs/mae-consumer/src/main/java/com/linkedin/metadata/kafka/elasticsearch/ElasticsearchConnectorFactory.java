@@ -20,10 +20,23 @@ public class ElasticsearchConnectorFactory {
   @Value("${ES_BULK_FLUSH_PERIOD:1}")
   private Integer bulkFlushPeriod;
 
+  @Value("${ES_BULK_SIZE_LIMIT_MB:5}")
+  private Long bulkSizeLimitMB;
+
+  @Value("${ES_BULK_TARGET_LATENCY_MS:1000}")
+  private Long targetLatencyMs;
+
+  @Value("${ES_BULK_NUM_RETRIES:3}")
+  private Integer numRetries;
+
+  @Value("${ES_BULK_RETRY_INTERVAL:1}")
+  private Long retryInterval;
+
   @Bean(name = "elasticsearchConnector")
   @Nonnull
   public ElasticsearchConnector createInstance(@Nonnull RestHighLevelClient elasticSearchRestHighLevelClient) {
-    return new ElasticsearchConnector(elasticSearchRestHighLevelClient, bulkRequestsLimit, bulkFlushPeriod);
+    return new ElasticsearchConnector(elasticSearchRestHighLevelClient, bulkRequestsLimit, bulkFlushPeriod,
+        bulkSizeLimitMB, targetLatencyMs, numRetries, retryInterval);
   }
 
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.linkedin.gms.factory.common;
 
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.InMemoryGraphService;
 import com.linkedin.metadata.graph.Neo4jGraphService;
 import com.linkedin.metadata.graph.elastic.ElasticSearchGraphService;
 import javax.annotation.Nonnull;
@@ -18,7 +19,7 @@ import org.springframework.context.annotation.PropertySource;
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
-@Import({Neo4jGraphServiceFactory.class, ElasticSearchGraphServiceFactory.class})
+@Import({Neo4jGraphServiceFactory.class, ElasticSearchGraphServiceFactory.class, InMemoryGraphServiceFactory.class})
 public class GraphServiceFactory {
   @Autowired
   @Qualifier("elasticSearchGraphService")
@@ -28,11 +29,15 @@ public class GraphServiceFactory {
   @Qualifier("neo4jGraphService")
   private Neo4jGraphService _neo4jGraphService;
 
+  @Autowired
+  @Qualifier("inMemoryGraphService")
+  private InMemoryGraphService _inMemoryGraphService;
+
   @Value("${graphService.type}")
   private String graphServiceImpl;
 
   @Nonnull
-  @DependsOn({"neo4jGraphService", "elasticSearchGraphService"})
+  @DependsOn({"neo4jGraphService", "elasticSearchGraphService", "inMemoryGraphService"})
   @Bean(name = "graphService")
   @Primary
   protected GraphService createInstance() {
@@ -40,10 +45,12 @@ public class GraphServiceFactory {
       return _neo4jGraphService;
     } else if (graphServiceImpl.equalsIgnoreCase("elasticsearch")) {
       return _elasticSearchGraphService;
+    } else if (graphServiceImpl.equalsIgnoreCase("memory")) {
+      return _inMemoryGraphService;
     } else {
       throw new RuntimeException(
           "Error: Failed to initialize graph service. Graph Service provided: " + graphServiceImpl
-              + ". Valid options: [neo4j, elasticsearch].");
+              + ". Valid options: [neo4j, elasticsearch, memory].");
     }
   }
 }
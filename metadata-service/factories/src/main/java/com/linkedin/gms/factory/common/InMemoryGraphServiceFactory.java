@@ -0,0 +1,16 @@
+package com.linkedin.gms.factory.common;
+
+import com.linkedin.metadata.graph.InMemoryGraphService;
+import javax.annotation.Nonnull;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+@Configuration
+public class InMemoryGraphServiceFactory {
+  @Bean(name = "inMemoryGraphService")
+  @Nonnull
+  protected InMemoryGraphService getInstance() {
+    return new InMemoryGraphService();
+  }
+}
@@ -2,12 +2,14 @@ package com.linkedin.gms.factory.search;
 
 import com.linkedin.gms.factory.common.RestHighLevelClientFactory;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import com.linkedin.metadata.search.elasticsearch.update.AdaptiveBulkSender;
 import com.linkedin.metadata.search.elasticsearch.update.BulkListener;
 import javax.annotation.Nonnull;
 import org.elasticsearch.action.bulk.BackoffPolicy;
 import org.elasticsearch.action.bulk.BulkProcessor;
-import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -32,6 +34,15 @@ public class ElasticSearchBulkProcessorFactory {
   @Value("${elasticsearch.bulkProcessor.flushPeriod}")
   private Integer bulkFlushPeriod;
 
+  @Value("${elasticsearch.bulkProcessor.sizeLimitMB}")
+  private Long bulkSizeLimitMB;
+
+  @Value("${elasticsearch.bulkProcessor.concurrentRequests}")
+  private Integer concurrentRequests;
+
+  @Value("${elasticsearch.bulkProcessor.targetLatencyMs}")
+  private Long targetLatencyMs;
+
   @Value("${elasticsearch.bulkProcessor.numRetries}")
   private Integer numRetries;
 
@@ -41,12 +52,14 @@ public class ElasticSearchBulkProcessorFactory {
   @Bean(name = "elasticSearchBulkProcessor")
   @Nonnull
   protected BulkProcessor getInstance() {
-    return BulkProcessor.builder((request, bulkListener) -> {
-      searchClient.bulkAsync(request, RequestOptions.DEFAULT, bulkListener);
-    }, BulkListener.getInstance())
+    final ByteSizeValue bulkSizeLimit = new ByteSizeValue(bulkSizeLimitMB, ByteSizeUnit.MB);
+    return BulkProcessor.builder(new AdaptiveBulkSender(searchClient, bulkSizeLimit.getBytes(), targetLatencyMs),
+        BulkListener.getInstance())
         .setBulkActions(bulkRequestsLimit)
+        .setBulkSize(bulkSizeLimit)
+        .setConcurrentRequests(concurrentRequests)
         .setFlushInterval(TimeValue.timeValueSeconds(bulkFlushPeriod))
-        .setBackoffPolicy(BackoffPolicy.constantBackoff(TimeValue.timeValueSeconds(retryInterval), numRetries))
+        .setBackoffPolicy(BackoffPolicy.exponentialBackoff(TimeValue.timeValueSeconds(retryInterval), numRetries))
         .build();
   }
 }
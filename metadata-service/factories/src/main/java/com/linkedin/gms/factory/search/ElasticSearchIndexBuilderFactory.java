@@ -28,9 +28,15 @@ public class ElasticSearchIndexBuilderFactory {
   @Value("${elasticsearch.index.numReplicas}")
   private Integer numReplicas;
 
+  @Value("${elasticsearch.index.reindexSlices}")
+  private Integer reindexSlices;
+
+  @Value("${elasticsearch.index.reindexRequestsPerSecond}")
+  private Float reindexRequestsPerSecond;
+
   @Bean(name = "elasticSearchIndexBuilder")
   @Nonnull
   protected ESIndexBuilder getInstance() {
-    return new ESIndexBuilder(searchClient, numShards, numReplicas);
+    return new ESIndexBuilder(searchClient, numShards, numReplicas, reindexSlices, reindexRequestsPerSecond);
   }
 }
\ No newline at end of file
@@ -7,11 +7,13 @@ import com.linkedin.metadata.search.elasticsearch.ElasticSearchService;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.EntityIndexBuilders;
 import com.linkedin.metadata.search.elasticsearch.indexbuilder.SettingsBuilder;
 import com.linkedin.metadata.search.elasticsearch.query.ESBrowseDAO;
+import com.linkedin.metadata.search.elasticsearch.query.ESBrowseTreeDAO;
 import com.linkedin.metadata.search.elasticsearch.query.ESSearchDAO;
 import com.linkedin.metadata.search.elasticsearch.update.ESWriteDAO;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -34,15 +36,35 @@ public class ElasticSearchServiceFactory {
   @Qualifier("settingsBuilder")
   private SettingsBuilder settingsBuilder;
 
+  @Value("${elasticsearch.browseTree.enabled}")
+  private boolean browseTreeEnabled;
+
+  @Value("${elasticsearch.autocomplete.cacheTtlSeconds}")
+  private int autocompleteCacheTtlSeconds;
+
+  @Value("${elasticsearch.autocomplete.cacheMaxSize}")
+  private int autocompleteCacheMaxSize;
+
+  @Value("${elasticsearch.search.facetCacheTtlSeconds}")
+  private int facetCacheTtlSeconds;
+
+  @Value("${elasticsearch.search.facetCacheMaxSize}")
+  private int facetCacheMaxSize;
+
   @Bean(name = "elasticSearchService")
   @Nonnull
   protected ElasticSearchService getInstance() {
     ESSearchDAO esSearchDAO =
-        new ESSearchDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention());
+        new ESSearchDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
+            autocompleteCacheTtlSeconds, autocompleteCacheMaxSize, facetCacheTtlSeconds, facetCacheMaxSize);
+    ESBrowseTreeDAO esBrowseTreeDAO = browseTreeEnabled
+        ? new ESBrowseTreeDAO(components.getSearchClient(), components.getIndexConvention(),
+            components.getIndexBuilder(), components.getBulkProcessor()) : null;
     return new ElasticSearchService(
         new EntityIndexBuilders(components.getIndexBuilder(), entityRegistry, components.getIndexConvention(),
             settingsBuilder), esSearchDAO,
-        new ESBrowseDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention()),
+        new ESBrowseDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
+            esBrowseTreeDAO),
         new ESWriteDAO(entityRegistry, components.getSearchClient(), components.getIndexConvention(),
             components.getBulkProcessor()));
   }
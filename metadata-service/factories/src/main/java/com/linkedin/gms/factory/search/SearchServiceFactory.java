@@ -1,10 +1,16 @@
 package com.linkedin.gms.factory.search;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
 import com.linkedin.metadata.models.registry.EntityRegistry;
 import com.linkedin.metadata.search.EntitySearchService;
 import com.linkedin.metadata.search.SearchService;
+import com.linkedin.metadata.search.cache.EntityDocCountCache;
 import com.linkedin.metadata.search.ranker.SearchRanker;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -12,13 +18,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 
 
 @Configuration
 @PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+@Import({EntityDocCountCacheFactory.class})
 public class SearchServiceFactory {
+  private static final int PREFETCH_QUEUE_SIZE = 64;
 
   @Autowired
   @Qualifier("entityRegistry")
@@ -35,13 +44,31 @@ public class SearchServiceFactory {
   @Autowired
   private CacheManager cacheManager;
 
+  @Autowired
+  @Qualifier("entityDocCountCache")
+  private EntityDocCountCache entityDocCountCache;
+
   @Value("${searchService.resultBatchSize}")
   private Integer batchSize;
 
+  @Value("${searchService.prefetchThreads}")
+  private Integer prefetchThreads;
+
   @Bean(name = "searchService")
   @Primary
   @Nonnull
   protected SearchService getInstance() {
-    return new SearchService(entityRegistry, entitySearchService, searchRanker, cacheManager, batchSize);
+    return new SearchService(entityRegistry, entitySearchService, searchRanker, cacheManager, entityDocCountCache,
+        batchSize, prefetchThreads > 0 ? getPrefetchExecutor() : null);
+  }
+
+  @Bean(name = "searchPrefetchExecutor", destroyMethod = "shutdownNow")
+  @Nonnull
+  protected ExecutorService getPrefetchExecutor() {
+    // Prefetching is best effort, batches are not prefetched while the queue is full
+    final int threads = Math.max(prefetchThreads, 1);
+    return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(PREFETCH_QUEUE_SIZE),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("search-prefetch-%d").build());
   }
 }
@@ -9,6 +9,7 @@ import com.linkedin.metadata.timeseries.elastic.indexbuilder.TimeseriesAspectInd
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -27,11 +28,21 @@ public class ElasticSearchTimeseriesAspectServiceFactory {
   @Qualifier("entityRegistry")
   private EntityRegistry entityRegistry;
 
-  @Bean(name = "elasticSearchTimeseriesAspectService")
+  @Value("${elasticsearch.timeseries.rollupFlushIntervalSeconds}")
+  private long rollupFlushIntervalSeconds;
+
+  @Value("${elasticsearch.timeseries.partitionIntervalDays}")
+  private int partitionIntervalDays;
+
+  @Value("${elasticsearch.timeseries.retentionDays}")
+  private int retentionDays;
+
+  @Bean(name = "elasticSearchTimeseriesAspectService", destroyMethod = "close")
   @Nonnull
   protected ElasticSearchTimeseriesAspectService getInstance() {
     return new ElasticSearchTimeseriesAspectService(components.getSearchClient(), components.getIndexConvention(),
         new TimeseriesAspectIndexBuilders(components.getIndexBuilder(), entityRegistry,
-            components.getIndexConvention()), entityRegistry, components.getBulkProcessor());
+            components.getIndexConvention()), entityRegistry, components.getBulkProcessor(),
+        rollupFlushIntervalSeconds, partitionIntervalDays, retentionDays);
   }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.linkedin.gms.factory.usage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.linkedin.gms.factory.spring.YamlPropertySourceFactory;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+
+@Configuration
+@PropertySource(value = "classpath:/application.yml", factory = YamlPropertySourceFactory.class)
+public class UsageQueryExecutorFactory {
+
+  @Value("${usageService.queryThreads}")
+  private Integer queryThreads;
+
+  @Bean(name = "usageQueryExecutor", destroyMethod = "shutdownNow")
+  @Nonnull
+  protected ExecutorService getInstance() {
+    return Executors.newFixedThreadPool(Math.max(queryThreads, 1),
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("usage-query-%d").build());
+  }
+}
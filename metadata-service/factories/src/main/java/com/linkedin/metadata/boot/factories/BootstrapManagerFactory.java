@@ -1,6 +1,7 @@
 package com.linkedin.metadata.boot.factories;
 
 import com.google.common.collect.ImmutableList;
+import com.linkedin.gms.factory.common.GraphServiceFactory;
 import com.linkedin.gms.factory.entity.EntityServiceFactory;
 import com.linkedin.metadata.boot.BootstrapManager;
 import com.linkedin.metadata.boot.steps.IngestDataPlatformInstancesStep;
@@ -8,7 +9,9 @@ import com.linkedin.metadata.boot.steps.IngestDataPlatformsStep;
 import com.linkedin.metadata.boot.steps.IngestPoliciesStep;
 import com.linkedin.metadata.boot.steps.IngestRetentionPoliciesStep;
 import com.linkedin.metadata.boot.steps.IngestRootUserStep;
+import com.linkedin.metadata.boot.steps.RestoreGraphStep;
 import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.graph.GraphService;
 import io.ebean.EbeanServer;
 import javax.annotation.Nonnull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,13 +23,17 @@ import org.springframework.context.annotation.Scope;
 
 
 @Configuration
-@Import({EntityServiceFactory.class})
+@Import({EntityServiceFactory.class, GraphServiceFactory.class})
 public class BootstrapManagerFactory {
 
   @Autowired
   @Qualifier("entityService")
   private EntityService _entityService;
 
+  @Autowired
+  @Qualifier("graphService")
+  private GraphService _graphService;
+
   @Autowired
   @Qualifier("ebeanServer")
   private EbeanServer _server;
@@ -44,7 +51,8 @@ public class BootstrapManagerFactory {
     final IngestDataPlatformsStep ingestDataPlatformsStep = new IngestDataPlatformsStep(_entityService);
     final IngestDataPlatformInstancesStep ingestDataPlatformInstancesStep =
         new IngestDataPlatformInstancesStep(_entityService, _server);
+    final RestoreGraphStep restoreGraphStep = new RestoreGraphStep(_entityService, _graphService);
     return new BootstrapManager(ImmutableList.of(ingestRootUserStep, ingestPoliciesStep, ingestDataPlatformsStep,
-        ingestDataPlatformInstancesStep, _ingestRetentionPoliciesStep));
+        ingestDataPlatformInstancesStep, _ingestRetentionPoliciesStep, restoreGraphStep));
   }
 }
\ No newline at end of file
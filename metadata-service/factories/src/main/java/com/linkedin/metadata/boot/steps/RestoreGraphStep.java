@@ -0,0 +1,107 @@
+package com.linkedin.metadata.boot.steps;
+
+import com.linkedin.common.urn.Urn;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.metadata.boot.BootstrapStep;
+import com.linkedin.metadata.entity.EntityService;
+import com.linkedin.metadata.entity.ListResult;
+import com.linkedin.metadata.extractor.FieldExtractor;
+import com.linkedin.metadata.graph.Edge;
+import com.linkedin.metadata.graph.GraphService;
+import com.linkedin.metadata.graph.InMemoryGraphService;
+import com.linkedin.metadata.models.AspectSpec;
+import com.linkedin.metadata.models.EntitySpec;
+import com.linkedin.metadata.models.RelationshipFieldSpec;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Rebuilds an {@link InMemoryGraphService} from the latest aspects in the entity store, since the in-memory graph does
+ * not survive a restart. Does nothing for the other graph service implementations, which persist their edges.
+ *
+ * The step runs asynchronously, so the graph buffers the changes of metadata change logs consumed in the meantime and
+ * applies them once the restore ends, see {@link InMemoryGraphService#beginRestore()}.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RestoreGraphStep implements BootstrapStep {
+  private static final int BATCH_SIZE = 1000;
+
+  private final EntityService _entityService;
+  private final GraphService _graphService;
+
+  @Override
+  public String name() {
+    return this.getClass().getSimpleName();
+  }
+
+  @Nonnull
+  @Override
+  public ExecutionMode getExecutionMode() {
+    return ExecutionMode.ASYNC;
+  }
+
+  @Override
+  public void execute() throws Exception {
+    if (!(_graphService instanceof InMemoryGraphService)) {
+      log.info("Graph service is persistent. Skipping step");
+      return;
+    }
+
+    final InMemoryGraphService graphService = (InMemoryGraphService) _graphService;
+    log.info("Restoring in-memory graph from the entity store");
+    graphService.beginRestore();
+    try {
+      for (EntitySpec entitySpec : _entityService.getEntityRegistry().getEntitySpecs().values()) {
+        for (AspectSpec aspectSpec : entitySpec.getAspectSpecs()) {
+          if (!aspectSpec.getRelationshipFieldSpecs().isEmpty()) {
+            restoreAspect(graphService, entitySpec.getName(), aspectSpec);
+          }
+        }
+      }
+    } finally {
+      graphService.endRestore();
+    }
+    log.info("Finished restoring in-memory graph");
+  }
+
+  private void restoreAspect(@Nonnull InMemoryGraphService graphService, @Nonnull String entityName,
+      @Nonnull AspectSpec aspectSpec) {
+    int start = 0;
+    boolean hasNext = true;
+    while (hasNext) {
+      ListResult<RecordTemplate> aspects =
+          _entityService.listLatestAspects(entityName, aspectSpec.getName(), start, BATCH_SIZE);
+      for (int i = 0; i < aspects.getValues().size(); i++) {
+        Urn urn = aspects.getMetadata().getExtraInfos().get(i).getUrn();
+        addEdges(graphService, urn, aspectSpec, aspects.getValues().get(i));
+      }
+      log.info("Restored edges of {} {} aspects of {}", start + aspects.getValues().size(), aspectSpec.getName(),
+          entityName);
+      start = aspects.getNextStart();
+      hasNext = aspects.isHasNext();
+    }
+  }
+
+  private void addEdges(@Nonnull InMemoryGraphService graphService, @Nonnull Urn urn, @Nonnull AspectSpec aspectSpec,
+      @Nonnull RecordTemplate aspect) {
+    Map<RelationshipFieldSpec, List<Object>> extractedFields =
+        FieldExtractor.extractFields(aspect, aspectSpec.getRelationshipFieldSpecs());
+
+    for (Map.Entry<RelationshipFieldSpec, List<Object>> entry : extractedFields.entrySet()) {
+      for (Object fieldValue : entry.getValue()) {
+        try {
+          graphService.restoreEdge(
+              new Edge(urn, Urn.createFromString(fieldValue.toString()), entry.getKey().getRelationshipName()));
+        } catch (URISyntaxException e) {
+          log.info("Invalid destination urn: {}", e.getLocalizedMessage());
+        }
+      }
+    }
+  }
+}
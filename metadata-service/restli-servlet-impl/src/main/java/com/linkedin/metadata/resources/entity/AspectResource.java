@@ -13,6 +13,7 @@ import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.entity.ValidationException;
 import com.linkedin.metadata.restli.RestliUtil;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
+import com.linkedin.metadata.timeseries.TimeseriesScrollResult;
 import com.linkedin.mxe.MetadataChangeProposal;
 import com.linkedin.parseq.Task;
 import com.linkedin.restli.common.HttpStatus;
@@ -54,6 +55,7 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
   private static final String PARAM_START_TIME_MILLIS = "startTimeMillis";
   private static final String PARAM_END_TIME_MILLIS = "endTimeMillis";
   private static final String PARAM_LATEST_VALUE = "latestValue";
+  private static final String PARAM_SCROLL_ID = "scrollId";
 
   private final Clock _clock = Clock.systemUTC();
 
@@ -95,7 +97,8 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
       @ActionParam(PARAM_END_TIME_MILLIS) @Optional @Nullable Long endTimeMillis,
       @ActionParam(PARAM_LIMIT) @Optional("10000") int limit,
       @ActionParam(PARAM_LATEST_VALUE) @Optional("false") boolean latestValue,
-      @ActionParam(PARAM_FILTER) @Optional @Nullable Filter filter) throws URISyntaxException {
+      @ActionParam(PARAM_FILTER) @Optional @Nullable Filter filter,
+      @ActionParam(PARAM_SCROLL_ID) @Optional @Nullable String scrollId) throws URISyntaxException {
     log.info(
         "Get Timeseries Aspect values for aspect {} for entity {} with startTimeMillis {}, endTimeMillis {} and limit {}.",
         aspectName, entityName, startTimeMillis, endTimeMillis, limit);
@@ -111,9 +114,14 @@ public class AspectResource extends CollectionResourceTaskTemplate<String, Versi
         response.setEndTimeMillis(endTimeMillis);
       }
       response.setLimit(limit);
-      response.setValues(new EnvelopedAspectArray(
-          _timeseriesAspectService.getAspectValues(urn, entityName, aspectName, startTimeMillis, endTimeMillis, limit,
-              latestValue, filter)));
+      // Values are read a page at a time, passing the scroll id of a page in gets the next one.
+      final TimeseriesScrollResult result =
+          _timeseriesAspectService.scrollAspectValues(urn, entityName, aspectName, startTimeMillis, endTimeMillis,
+              filter, latestValue ? null : scrollId, latestValue ? 1 : limit);
+      response.setValues(new EnvelopedAspectArray(result.getValues()));
+      if (!latestValue && result.getScrollId() != null) {
+        response.setScrollId(result.getScrollId());
+      }
       return response;
     }, MetricRegistry.name(this.getClass(), "getTimeseriesAspectValues"));
   }
@@ -9,6 +9,7 @@ import com.linkedin.metadata.run.AspectRowSummary;
 import com.linkedin.metadata.run.AspectRowSummaryArray;
 import com.linkedin.metadata.run.IngestionRunSummaryArray;
 import com.linkedin.metadata.run.RollbackResponse;
+import com.linkedin.metadata.systemmetadata.SystemMetadataScrollResult;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.parseq.Task;
 import com.linkedin.restli.server.annotations.Action;
@@ -17,9 +18,10 @@ import com.linkedin.restli.server.annotations.Optional;
 import com.linkedin.restli.server.annotations.RestLiCollection;
 import com.linkedin.restli.server.resources.CollectionResourceTaskTemplate;
 import io.opentelemetry.extension.annotations.WithSpan;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.Set;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -36,8 +38,8 @@ public class BatchIngestionRunResource extends CollectionResourceTaskTemplate<St
 
   private static final Integer DEFAULT_OFFSET = 0;
   private static final Integer DEFAULT_PAGE_SIZE = 100;
-  private static final Integer ELASTIC_MAX_PAGE_SIZE = 10000;
-  private static final Integer ELASTIC_BATCH_DELETE_SLEEP_SEC = 5;
+  private static final int ROLLBACK_PAGE_SIZE = 1000;
+  private static final int MAX_ROW_SUMMARIES = 100;
 
   @Inject
   @Named("systemMetadataService")
@@ -63,60 +65,52 @@ public class BatchIngestionRunResource extends CollectionResourceTaskTemplate<St
             runId));
       }
       RollbackResponse response = new RollbackResponse();
-      List<AspectRowSummary> aspectRowsToDelete;
-      aspectRowsToDelete = _systemMetadataService.findByRunId(runId);
+      boolean isDryRun = Boolean.TRUE.equals(dryRun);
+      // Rows are rolled back page by page in a single pass, as pages keep their place while rows are deleted
+      List<AspectRowSummary> rowSummaries = new ArrayList<>();
+      Set<String> urnsAffected = new HashSet<>();
+      long aspectsAffected = 0;
+      long keyAspectsAffected = 0;
+      int rowsDeletedFromEntityDeletion = 0;
+      String scrollId = null;
+      do {
+        SystemMetadataScrollResult page = _systemMetadataService.scrollByRunId(runId, scrollId, ROLLBACK_PAGE_SIZE);
+        scrollId = page.getScrollId();
+        List<AspectRowSummary> rows = page.getRows();
+        if (!isDryRun) {
+          RollbackRunResult rollbackRunResult = _entityService.rollbackRun(rows, runId);
+          rows = rollbackRunResult.getRowsRolledBack();
+          rowsDeletedFromEntityDeletion += rollbackRunResult.getRowsDeletedFromEntityDeletion();
+        }
+        for (AspectRowSummary row : rows) {
+          aspectsAffected++;
+          urnsAffected.add(row.getUrn());
+          if (row.isKeyAspect()) {
+            keyAspectsAffected++;
+          }
+          if (rowSummaries.size() < MAX_ROW_SUMMARIES) {
+            rowSummaries.add(row);
+          }
+        }
+        log.info("{} {} rows so far...", isDryRun ? "found" : "rolled back", aspectsAffected);
+      } while (scrollId != null);
 
-      log.info("found {} rows to delete...", stringifyRowCount(aspectRowsToDelete.size()));
-      if (dryRun) {
-        response.setAspectsAffected(aspectRowsToDelete.size());
-        response.setEntitiesAffected(
-            aspectRowsToDelete.stream().collect(Collectors.groupingBy(AspectRowSummary::getUrn)).keySet().size());
-        response.setEntitiesDeleted(aspectRowsToDelete.stream().filter(row -> row.isKeyAspect()).count());
-        response.setAspectRowSummaries(
-            new AspectRowSummaryArray(aspectRowsToDelete.subList(0, Math.min(100, aspectRowsToDelete.size()))));
+      if (isDryRun) {
+        response.setAspectsAffected(aspectsAffected);
+        response.setEntitiesAffected(urnsAffected.size());
+        response.setEntitiesDeleted(keyAspectsAffected);
+        response.setAspectRowSummaries(new AspectRowSummaryArray(rowSummaries));
         return response;
       }
 
-      RollbackRunResult rollbackRunResult = _entityService.rollbackRun(aspectRowsToDelete, runId);
-      List<AspectRowSummary> deletedRows = rollbackRunResult.getRowsRolledBack();
-      Integer rowsDeletedFromEntityDeletion = rollbackRunResult.getRowsDeletedFromEntityDeletion();
-
-      // since elastic limits how many rows we can access at once, we need to iteratively delete
-      while (aspectRowsToDelete.size() >= ELASTIC_MAX_PAGE_SIZE) {
-        sleep(ELASTIC_BATCH_DELETE_SLEEP_SEC);
-        aspectRowsToDelete = _systemMetadataService.findByRunId(runId);
-        log.info("{} remaining rows to delete...", stringifyRowCount(aspectRowsToDelete.size()));
-        log.info("deleting...");
-        rollbackRunResult = _entityService.rollbackRun(aspectRowsToDelete, runId);
-        deletedRows.addAll(rollbackRunResult.getRowsRolledBack());
-        rowsDeletedFromEntityDeletion += rollbackRunResult.getRowsDeletedFromEntityDeletion();
-      }
-
-      log.info("finished deleting {} rows", deletedRows.size());
-      response.setAspectsAffected(deletedRows.size() + rowsDeletedFromEntityDeletion);
-      response.setEntitiesAffected(deletedRows.stream().filter(row -> row.isKeyAspect()).count());
-      response.setAspectRowSummaries(
-          new AspectRowSummaryArray(deletedRows.subList(0, Math.min(100, deletedRows.size()))));
+      log.info("finished deleting {} rows", aspectsAffected);
+      response.setAspectsAffected(aspectsAffected + rowsDeletedFromEntityDeletion);
+      response.setEntitiesAffected(keyAspectsAffected);
+      response.setAspectRowSummaries(new AspectRowSummaryArray(rowSummaries));
       return response;
     }, MetricRegistry.name(this.getClass(), "rollback"));
   }
 
-  private String stringifyRowCount(int size) {
-    if (size < ELASTIC_MAX_PAGE_SIZE) {
-      return String.valueOf(size);
-    } else {
-      return "at least " + String.valueOf(size);
-    }
-  }
-
-  private void sleep(Integer seconds) {
-    try {
-      TimeUnit.SECONDS.sleep(seconds);
-    } catch (InterruptedException e) {
-      e.printStackTrace();
-    }
-  }
-
   /**
    * Retrieves the value for an entity that is made up of latest versions of specified aspects.
    */
@@ -23,9 +23,11 @@ import com.linkedin.metadata.run.AspectRowSummaryArray;
 import com.linkedin.metadata.run.DeleteEntityResponse;
 import com.linkedin.metadata.run.RollbackResponse;
 import com.linkedin.metadata.search.EntitySearchService;
+import com.linkedin.metadata.search.ScrollResult;
 import com.linkedin.metadata.search.SearchEntity;
 import com.linkedin.metadata.search.SearchResult;
 import com.linkedin.metadata.search.SearchService;
+import com.linkedin.metadata.systemmetadata.SystemMetadataScrollResult;
 import com.linkedin.metadata.systemmetadata.SystemMetadataService;
 import com.linkedin.mxe.SystemMetadata;
 import com.linkedin.parseq.Task;
@@ -42,6 +44,7 @@ import com.linkedin.restli.server.resources.CollectionResourceTaskTemplate;
 import io.opentelemetry.extension.annotations.WithSpan;
 import java.net.URISyntaxException;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -89,11 +92,15 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
   private static final String ACTION_BATCH_INGEST = "batchIngest";
   private static final String ACTION_LIST_URNS = "listUrns";
   private static final String ACTION_FILTER = "filter";
+  private static final String ACTION_SCROLL = "scroll";
   private static final String PARAM_ENTITY = "entity";
   private static final String PARAM_ENTITIES = "entities";
   private static final String PARAM_COUNT = "count";
   private static final String PARAM_VALUE = "value";
+  private static final String PARAM_SCROLL_ID = "scrollId";
   private static final String SYSTEM_METADATA = "systemMetadata";
+  private static final int DELETE_ALL_PAGE_SIZE = 1000;
+  private static final int MAX_ROW_SUMMARIES = 100;
 
   private final Clock _clock = Clock.systemUTC();
 
@@ -243,6 +250,20 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
         MetricRegistry.name(this.getClass(), "search"));
   }
 
+  @Action(name = ACTION_SCROLL)
+  @Nonnull
+  @WithSpan
+  public Task<ScrollResult> scroll(@ActionParam(PARAM_ENTITY) @Nonnull String entityName,
+      @ActionParam(PARAM_INPUT) @Nonnull String input, @ActionParam(PARAM_FILTER) @Optional @Nullable Filter filter,
+      @ActionParam(PARAM_SORT) @Optional @Nullable SortCriterion sortCriterion,
+      @ActionParam(PARAM_SCROLL_ID) @Optional @Nullable String scrollId, @ActionParam(PARAM_COUNT) int count) {
+
+    log.info("GET SCROLL RESULTS for {} with query {}", entityName, input);
+    return RestliUtil.toTask(
+        () -> _entitySearchService.scroll(entityName, input, filter, sortCriterion, scrollId, count),
+        MetricRegistry.name(this.getClass(), "scroll"));
+  }
+
   @Action(name = ACTION_SEARCH_ACROSS_ENTITIES)
   @Nonnull
   @WithSpan
@@ -304,16 +325,6 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
         MetricRegistry.name(this.getClass(), "getBrowsePaths"));
   }
 
-  private static final Integer ELASTIC_MAX_PAGE_SIZE = 10000;
-
-  private String stringifyRowCount(int size) {
-    if (size < ELASTIC_MAX_PAGE_SIZE) {
-      return String.valueOf(size);
-    } else {
-      return "at least " + String.valueOf(size);
-    }
-  }
-
   /*
   Used to delete all data related to a filter criteria based on registryId, runId etc.
    */
@@ -336,25 +347,43 @@ public class EntityResource extends CollectionResourceTaskTemplate<String, Entit
     }
     String finalRegistryName = registryName;
     ComparableVersion finalRegistryVersion = registryVersion;
-    String finalRegistryName1 = registryName;
-    ComparableVersion finalRegistryVersion1 = registryVersion;
     return RestliUtil.toTask(() -> {
       RollbackResponse response = new RollbackResponse();
-      List<AspectRowSummary> aspectRowsToDelete =
-          _systemMetadataService.findByRegistry(finalRegistryName, finalRegistryVersion.toString());
-      log.info("found {} rows to delete...", stringifyRowCount(aspectRowsToDelete.size()));
-      response.setAspectsAffected(aspectRowsToDelete.size());
-      response.setEntitiesAffected(
-          aspectRowsToDelete.stream().collect(Collectors.groupingBy(AspectRowSummary::getUrn)).keySet().size());
-      response.setEntitiesDeleted(aspectRowsToDelete.stream().filter(row -> row.isKeyAspect()).count());
-      response.setAspectRowSummaries(
-          new AspectRowSummaryArray(aspectRowsToDelete.subList(0, Math.min(100, aspectRowsToDelete.size()))));
-      if ((dryRun == null) || (!dryRun)) {
-        Map<String, String> conditions = new HashMap();
-        conditions.put("registryName", finalRegistryName1);
-        conditions.put("registryVersion", finalRegistryVersion1.toString());
-        _entityService.rollbackWithConditions(aspectRowsToDelete, conditions);
-      }
+      boolean isDryRun = Boolean.TRUE.equals(dryRun);
+      Map<String, String> conditions = new HashMap<>();
+      conditions.put("registryName", finalRegistryName);
+      conditions.put("registryVersion", finalRegistryVersion.toString());
+      // Rows are deleted page by page in a single pass, as pages keep their place while rows are deleted
+      List<AspectRowSummary> rowSummaries = new ArrayList<>();
+      Set<String> urnsAffected = new HashSet<>();
+      long aspectsAffected = 0;
+      long keyAspectsAffected = 0;
+      String scrollId = null;
+      do {
+        SystemMetadataScrollResult page = _systemMetadataService.scrollByRegistry(finalRegistryName,
+            finalRegistryVersion.toString(), scrollId, DELETE_ALL_PAGE_SIZE);
+        scrollId = page.getScrollId();
+        List<AspectRowSummary> rows = page.getRows();
+        if (!isDryRun) {
+          _entityService.rollbackWithConditions(rows, conditions);
+        }
+        for (AspectRowSummary row : rows) {
+          aspectsAffected++;
+          urnsAffected.add(row.getUrn());
+          if (row.isKeyAspect()) {
+            keyAspectsAffected++;
+          }
+          if (rowSummaries.size() < MAX_ROW_SUMMARIES) {
+            rowSummaries.add(row);
+          }
+        }
+        log.info("{} {} rows so far...", isDryRun ? "found" : "deleted", aspectsAffected);
+      } while (scrollId != null);
+
+      response.setAspectsAffected(aspectsAffected);
+      response.setEntitiesAffected(urnsAffected.size());
+      response.setEntitiesDeleted(keyAspectsAffected);
+      response.setAspectRowSummaries(new AspectRowSummaryArray(rowSummaries));
       return response;
     }, MetricRegistry.name(this.getClass(), "deleteAll"));
   }
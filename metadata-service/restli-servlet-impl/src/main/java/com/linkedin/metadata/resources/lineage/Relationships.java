@@ -90,6 +90,17 @@ public final class Relationships extends SimpleResourceTemplate<EntityRelationsh
         final List<String> relationshipTypes = Arrays.asList(relationshipTypesParam);
         return RestliUtil.toTask(() -> {
 
+            if (count != null && count == 0) {
+                // only the total is requested, answer it with a count query instead of fetching edges
+                return new EntityRelationships()
+                    .setStart(start == null ? 0 : start)
+                    .setCount(0)
+                    .setTotal(_graphService.countRelatedEntities("", newFilter("urn", rawUrn),
+                        "", QueryUtils.EMPTY_FILTER,
+                        relationshipTypes, newRelationshipFilter(QueryUtils.EMPTY_FILTER, direction)))
+                    .setRelationships(new EntityRelationshipArray());
+            }
+
             final RelatedEntitiesResult relatedEntitiesResult = getRelatedEntities(
                 rawUrn,
                 relationshipTypes,
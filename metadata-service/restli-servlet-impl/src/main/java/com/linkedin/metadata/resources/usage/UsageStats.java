@@ -21,6 +21,7 @@ import com.linkedin.metadata.query.filter.Criterion;
 import com.linkedin.metadata.query.filter.CriterionArray;
 import com.linkedin.metadata.query.filter.Filter;
 import com.linkedin.metadata.restli.RestliUtil;
+import com.linkedin.metadata.timeseries.AggregationTable;
 import com.linkedin.metadata.timeseries.TimeseriesAspectService;
 import com.linkedin.metadata.timeseries.transformer.TimeseriesAspectTransformer;
 import com.linkedin.parseq.Task;
@@ -31,7 +32,6 @@ import com.linkedin.restli.server.resources.SimpleResourceTemplate;
 import com.linkedin.timeseries.AggregationSpec;
 import com.linkedin.timeseries.AggregationType;
 import com.linkedin.timeseries.CalendarInterval;
-import com.linkedin.timeseries.GenericTable;
 import com.linkedin.timeseries.GroupingBucket;
 import com.linkedin.timeseries.GroupingBucketType;
 import com.linkedin.timeseries.TimeWindowSize;
@@ -51,6 +51,8 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -80,12 +82,17 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
   private static final String USAGE_STATS_ENTITY_NAME = "dataset";
   private static final String USAGE_STATS_ASPECT_NAME = "datasetUsageStatistics";
   private static final String ES_FIELD_TIMESTAMP = "timestampMillis";
-  private static final String ES_NULL_VALUE = "NULL";
 
   @Inject
   @Named("timeseriesAspectService")
   private TimeseriesAspectService _timeseriesAspectService;
 
+  // Runs the user and field usage aggregations of a query while the buckets are fetched, so that a query takes as long
+  // as its slowest aggregation rather than the sum of them
+  @Inject
+  @Named("usageQueryExecutor")
+  private ExecutorService _usageQueryExecutor;
+
   @Inject
   @Named("entityRegistry")
   private EntityRegistry _entityRegistry;
@@ -150,15 +157,15 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
     GroupingBucket[] groupingBuckets = new GroupingBucket[]{timestampBucket};
 
     // 3. Query
-    GenericTable result =
-        _timeseriesAspectService.getAggregatedStats(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME, aggregationSpecs,
-            filter, groupingBuckets);
+    AggregationTable result =
+        _timeseriesAspectService.getAggregatedStatsTable(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME,
+            aggregationSpecs, filter, groupingBuckets);
 
     // 4. Populate buckets from the result.
     UsageAggregationArray buckets = new UsageAggregationArray();
-    for (StringArray row : result.getRows()) {
+    for (int row = 0; row < result.getNumRows(); ++row) {
       UsageAggregation usageAggregation = new UsageAggregation();
-      usageAggregation.setBucket(Long.valueOf(row.get(0)));
+      usageAggregation.setBucket(result.getLong(row, 0));
       usageAggregation.setDuration(duration);
       try {
         usageAggregation.setResource(new Urn(resource));
@@ -166,23 +173,15 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
         throw new IllegalArgumentException("Invalid resource", e);
       }
       UsageAggregationMetrics usageAggregationMetrics = new UsageAggregationMetrics();
-      if (!row.get(1).equals(ES_NULL_VALUE)) {
-        try {
-          usageAggregationMetrics.setUniqueUserCount(Integer.valueOf(row.get(1)));
-        } catch (NumberFormatException e) {
-          throw new IllegalArgumentException("Failed to convert uniqueUserCount from ES to int", e);
-        }
+      if (!result.isNull(row, 1)) {
+        usageAggregationMetrics.setUniqueUserCount(toInt(result.getLong(row, 1), "uniqueUserCount"));
       }
-      if (!row.get(2).equals(ES_NULL_VALUE)) {
-        try {
-          usageAggregationMetrics.setTotalSqlQueries(Integer.valueOf(row.get(2)));
-        } catch (NumberFormatException e) {
-          throw new IllegalArgumentException("Failed to convert totalSqlQueries from ES to int", e);
-        }
+      if (!result.isNull(row, 2)) {
+        usageAggregationMetrics.setTotalSqlQueries(toInt(result.getLong(row, 2), "totalSqlQueries"));
       }
-      if (!row.get(3).equals(ES_NULL_VALUE)) {
+      if (!result.isNull(row, 3)) {
         try {
-          usageAggregationMetrics.setTopSqlQueries(OBJECT_MAPPER.readValue(row.get(3), StringArray.class));
+          usageAggregationMetrics.setTopSqlQueries(OBJECT_MAPPER.readValue(result.getString(row, 3), StringArray.class));
         } catch (JsonProcessingException e) {
           throw new IllegalArgumentException("Failed to convert topSqlQueries from ES to object", e);
         }
@@ -208,27 +207,23 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
     GroupingBucket[] groupingBuckets = new GroupingBucket[]{userGroupingBucket};
 
     // Query backend
-    GenericTable result =
-        _timeseriesAspectService.getAggregatedStats(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME, aggregationSpecs,
-            filter, groupingBuckets);
+    AggregationTable result =
+        _timeseriesAspectService.getAggregatedStatsTable(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME,
+            aggregationSpecs, filter, groupingBuckets);
     // Process response
-    List<UserUsageCounts> userUsageCounts = new ArrayList<>();
-    for (StringArray row : result.getRows()) {
+    List<UserUsageCounts> userUsageCounts = new ArrayList<>(result.getNumRows());
+    for (int row = 0; row < result.getNumRows(); ++row) {
       UserUsageCounts userUsageCount = new UserUsageCounts();
       try {
-        userUsageCount.setUser(new Urn(row.get(0)));
+        userUsageCount.setUser(new Urn(result.getString(row, 0)));
       } catch (URISyntaxException e) {
-        log.error("Failed to convert {} to urn. Exception: {}", row.get(0), e);
+        log.error("Failed to convert {} to urn. Exception: {}", result.getString(row, 0), e);
       }
-      if (!row.get(1).equals(ES_NULL_VALUE)) {
-        try {
-          userUsageCount.setCount(Integer.valueOf(row.get(1)));
-        } catch (NumberFormatException e) {
-          throw new IllegalArgumentException("Failed to convert user usage count from ES to int", e);
-        }
+      if (!result.isNull(row, 1)) {
+        userUsageCount.setCount(toInt(result.getLong(row, 1), "user usage count"));
       }
-      if (!row.get(2).equals(ES_NULL_VALUE)) {
-        userUsageCount.setUserEmail(row.get(2));
+      if (!result.isNull(row, 2)) {
+        userUsageCount.setUserEmail(result.getString(row, 2));
       }
       userUsageCounts.add(userUsageCount);
     }
@@ -247,34 +242,39 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
     GroupingBucket[] groupingBuckets = new GroupingBucket[]{userGroupingBucket};
 
     // Query backend
-    GenericTable result =
-        _timeseriesAspectService.getAggregatedStats(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME, aggregationSpecs,
-            filter, groupingBuckets);
+    AggregationTable result =
+        _timeseriesAspectService.getAggregatedStatsTable(USAGE_STATS_ENTITY_NAME, USAGE_STATS_ASPECT_NAME,
+            aggregationSpecs, filter, groupingBuckets);
 
     // Process response
-    List<FieldUsageCounts> fieldUsageCounts = new ArrayList<>();
-    for (StringArray row : result.getRows()) {
+    List<FieldUsageCounts> fieldUsageCounts = new ArrayList<>(result.getNumRows());
+    for (int row = 0; row < result.getNumRows(); ++row) {
       FieldUsageCounts fieldUsageCount = new FieldUsageCounts();
-      fieldUsageCount.setFieldName(row.get(0));
-      if (!row.get(1).equals(ES_NULL_VALUE)) {
-        try {
-          fieldUsageCount.setCount(Integer.valueOf(row.get(1)));
-        } catch (NumberFormatException e) {
-          throw new IllegalArgumentException("Failed to convert field usage count from ES to int", e);
-        }
+      fieldUsageCount.setFieldName(result.getString(row, 0));
+      if (!result.isNull(row, 1)) {
+        fieldUsageCount.setCount(toInt(result.getLong(row, 1), "field usage count"));
       }
       fieldUsageCounts.add(fieldUsageCount);
     }
     return fieldUsageCounts;
   }
 
-  private UsageQueryResultAggregations getAggregations(Filter filter) {
+  private static int toInt(long value, @Nonnull String name) {
+    try {
+      return Math.toIntExact(value);
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(String.format("Failed to convert %s from ES to int", name), e);
+    }
+  }
+
+  private UsageQueryResultAggregations getAggregations(CompletableFuture<List<UserUsageCounts>> userUsageCountsFuture,
+      CompletableFuture<List<FieldUsageCounts>> fieldUsageCountsFuture) {
     UsageQueryResultAggregations aggregations = new UsageQueryResultAggregations();
-    List<UserUsageCounts> userUsageCounts = getUserUsageCounts(filter);
+    List<UserUsageCounts> userUsageCounts = userUsageCountsFuture.join();
     aggregations.setUsers(new UserUsageCountsArray(userUsageCounts));
     aggregations.setUniqueUserCount(userUsageCounts.size());
 
-    List<FieldUsageCounts> fieldUsageCounts = getFieldUsageCounts(filter);
+    List<FieldUsageCounts> fieldUsageCounts = fieldUsageCountsFuture.join();
     aggregations.setFields(new FieldUsageCountsArray(fieldUsageCounts));
 
     return aggregations;
@@ -310,11 +310,15 @@ public class UsageStats extends SimpleResourceTemplate<UsageAggregation> {
       
       filter.setOr(new ConjunctiveCriterionArray(new ConjunctiveCriterion().setAnd(new CriterionArray(criteria))));
 
-      // 2. Get buckets.
+      // 2. Start the aggregations, which do not depend on each other, and get the buckets meanwhile.
+      CompletableFuture<List<UserUsageCounts>> userUsageCounts =
+          CompletableFuture.supplyAsync(() -> getUserUsageCounts(filter), _usageQueryExecutor);
+      CompletableFuture<List<FieldUsageCounts>> fieldUsageCounts =
+          CompletableFuture.supplyAsync(() -> getFieldUsageCounts(filter), _usageQueryExecutor);
       UsageAggregationArray buckets = getBuckets(filter, resource, duration);
 
       // 3. Get aggregations.
-      UsageQueryResultAggregations aggregations = getAggregations(filter);
+      UsageQueryResultAggregations aggregations = getAggregations(userUsageCounts, fieldUsageCounts);
 
       // 4. Compute totalSqlQuery count from the buckets itself.
       // We want to avoid issuing an additional query with a sum aggregation.
@@ -28,6 +28,8 @@ public class Constants {
   public static final String GROUP_MEMBERSHIP_ASPECT_NAME = "groupMembership";
   public static final String CORP_USER_STATUS_ASPECT_NAME = "corpUserStatus";
   public static final String CORP_USER_KEY_ASPECT_NAME = "corpUserKey";
+  public static final String BROWSE_PATHS_ASPECT_NAME = "browsePaths";
+  public static final String STATUS_ASPECT_NAME = "status";
 
   /**
    * User Status
@@ -24,6 +24,12 @@ public interface IndexConvention {
   @Nonnull
   String getTimeseriesAspectIndexName(String entityName, String aspectName);
 
+  @Nonnull
+  String getTimeseriesAspectRollupIndexName(String entityName, String aspectName, String granularity);
+
+  @Nonnull
+  String getTimeseriesAspectPartitionIndexName(String entityName, String aspectName, String partition);
+
   @Nonnull
   String getAllEntityIndicesPattern();
 
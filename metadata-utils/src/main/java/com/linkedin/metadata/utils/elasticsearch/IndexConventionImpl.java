@@ -65,6 +65,20 @@ public class IndexConventionImpl implements IndexConvention {
         + TIMESERIES_INDEX_VERSION;
   }
 
+  @Nonnull
+  @Override
+  public String getTimeseriesAspectRollupIndexName(String entityName, String aspectName, String granularity) {
+    // Suffixed after the version, so that rollups do not match the pattern of all timeseries aspect indices
+    return this.getTimeseriesAspectIndexName(entityName, aspectName) + "_" + granularity.toLowerCase();
+  }
+
+  @Nonnull
+  @Override
+  public String getTimeseriesAspectPartitionIndexName(String entityName, String aspectName, String partition) {
+    // Suffixed after the version like rollups, the name without the suffix is the alias of all the partitions
+    return this.getTimeseriesAspectIndexName(entityName, aspectName) + "_" + partition.toLowerCase();
+  }
+
   @Nonnull
   @Override
   public String getAllEntityIndicesPattern() {